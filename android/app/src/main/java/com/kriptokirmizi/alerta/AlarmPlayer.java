@@ -0,0 +1,178 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Plays the alarm clip ({@link AlarmTone}) from a preloaded SoundPool on the alarm audio
+ * stream (USAGE_ALARM, so it follows the alarm volume and rings in silent/DND-alarms mode),
+ * looping natively until stopped, plus a repeating vibration pattern.
+ *
+ * The clip is decoded once at process start ({@link #preload}), so start() is a single
+ * SoundPool.play call. Used by {@link AlarmService}; state is read by {@link AlarmPlugin}.
+ */
+final class AlarmPlayer {
+    private static final String TAG = "AlarmPlayer";
+    private static final String CLIP_FILE = "alarm_tone_v1.wav";
+    // Buzz in step with the three beep cycles of the clip
+    private static final long[] VIBRATION_PATTERN = {0, 600, 300, 600, 300, 600, 600};
+
+    private static volatile AlarmPlayer instance;
+
+    private final Context context;
+    private final Vibrator vibrator;
+    private SoundPool soundPool;
+    private int soundId = 0;
+    private boolean loaded = false;
+    private int streamId = 0;
+    private boolean ringing = false;
+    private boolean vibrateWhenLoaded = false;
+    private long startRequestedAtMs = -1;
+    private long lastStartLatencyMs = -1;
+
+    static AlarmPlayer get(Context context) {
+        AlarmPlayer local = instance;
+        if (local == null) {
+            synchronized (AlarmPlayer.class) {
+                local = instance;
+                if (local == null) {
+                    local = new AlarmPlayer(context.getApplicationContext());
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    private AlarmPlayer(Context context) {
+        this.context = context;
+        this.vibrator = (Vibrator) context.getSystemService(Context.VIBRATOR_SERVICE);
+    }
+
+    /**
+     * Write the clip to the cache dir (once per install) and decode it into the SoundPool.
+     * Safe to call repeatedly; call off the main thread.
+     */
+    synchronized void preload() {
+        if (soundPool != null) {
+            return;
+        }
+        AudioAttributes attributes = new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_ALARM)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build();
+        soundPool = new SoundPool.Builder().setMaxStreams(1).setAudioAttributes(attributes).build();
+        soundPool.setOnLoadCompleteListener((pool, sampleId, status) -> onLoadComplete(sampleId, status));
+        try {
+            soundId = soundPool.load(clipFile().getAbsolutePath(), 1);
+        } catch (IOException e) {
+            android.util.Log.e(TAG, "❌ Could not write alarm clip: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start (or restart) ringing. If the clip is still decoding, playback starts as soon as it is ready.
+     */
+    synchronized void start(boolean vibrate) {
+        preload();
+        stopLocked();
+        ringing = true;
+        startRequestedAtMs = SystemClock.elapsedRealtime();
+        vibrateWhenLoaded = vibrate;
+        if (loaded) {
+            playLocked();
+        } else {
+            android.util.Log.d(TAG, "⏳ Clip not decoded yet, ringing once it is");
+        }
+    }
+
+    synchronized void stop() {
+        stopLocked();
+        ringing = false;
+    }
+
+    synchronized boolean isRinging() {
+        return ringing;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Time from start() to the SoundPool stream being started, -1 before the first alarm.
+     */
+    synchronized long getLastStartLatencyMs() {
+        return lastStartLatencyMs;
+    }
+
+    private synchronized void onLoadComplete(int sampleId, int status) {
+        if (sampleId != soundId) {
+            return;
+        }
+        if (status != 0) {
+            android.util.Log.e(TAG, "❌ Alarm clip failed to decode (status " + status + ")");
+            return;
+        }
+        loaded = true;
+        android.util.Log.d(TAG, "✅ Alarm clip preloaded");
+        if (ringing && streamId == 0) {
+            playLocked();
+        }
+    }
+
+    private void playLocked() {
+        // loop = -1: the clip is exactly one 3 s cycle, so the loop is the alarm cadence
+        streamId = soundPool.play(soundId, 1f, 1f, 1, -1, 1f);
+        lastStartLatencyMs = SystemClock.elapsedRealtime() - startRequestedAtMs;
+        if (vibrateWhenLoaded) {
+            vibrate();
+        }
+        android.util.Log.d(TAG, "🔔 Alarm ringing (start latency " + lastStartLatencyMs + "ms)");
+    }
+
+    private void stopLocked() {
+        if (soundPool != null && streamId != 0) {
+            soundPool.stop(streamId);
+        }
+        streamId = 0;
+        if (vibrator != null) {
+            vibrator.cancel();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void vibrate() {
+        if (vibrator == null || !vibrator.hasVibrator()) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            vibrator.vibrate(VibrationEffect.createWaveform(VIBRATION_PATTERN, 0),
+                    new AudioAttributes.Builder().setUsage(AudioAttributes.USAGE_ALARM).build());
+        } else {
+            vibrator.vibrate(VIBRATION_PATTERN, 0);
+        }
+    }
+
+    private File clipFile() throws IOException {
+        File file = new File(context.getCacheDir(), CLIP_FILE);
+        if (!file.exists() || file.length() == 0) {
+            File tmp = new File(context.getCacheDir(), CLIP_FILE + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                out.write(AlarmTone.wav());
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("rename failed");
+            }
+        }
+        return file;
+    }
+}
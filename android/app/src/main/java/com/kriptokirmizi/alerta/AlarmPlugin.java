@@ -0,0 +1,90 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Native alarm ringing for triggered price alerts ({@link AlarmService} + {@link AlarmPlayer}),
+ * replacing the page's setInterval sound loop.
+ *
+ * Event "alarmEvent": { type: 'ringing' | 'snoozed' | 'dismissed' | 'timeout', alarmId, snoozedUntil }
+ * (also fired when the user answers from the notification).
+ */
+@CapacitorPlugin(name = "Alarm")
+public class AlarmPlugin extends Plugin {
+    static final String EVENT_ALARM = "alarmEvent";
+
+    @Override
+    public void load() {
+        super.load();
+        try (StartupTrace.Section trace = StartupTrace.begin("AlarmPlugin.load")) {
+            AlarmService.setListener((type, alarmId, snoozedUntilMs) -> {
+                JSObject event = new JSObject();
+                event.put("type", type);
+                event.put("alarmId", alarmId);
+                event.put("snoozedUntil", snoozedUntilMs);
+                notifyListeners(EVENT_ALARM, event);
+            });
+        }
+    }
+
+    /**
+     * start({ alarmId, title, body, vibrate? })
+     */
+    @PluginMethod
+    public void start(PluginCall call) {
+        String alarmId = call.getString("alarmId");
+        if (alarmId == null || alarmId.isEmpty()) {
+            call.reject("alarmId is required");
+            return;
+        }
+        AlarmService.cancelSnooze(getContext());
+        AlarmService.start(getContext(), alarmId, call.getString("title"), call.getString("body"),
+                call.getBoolean("vibrate", true));
+        call.resolve();
+    }
+
+    /**
+     * snooze({ minutes? }) - default 5.
+     */
+    @PluginMethod
+    public void snooze(PluginCall call) {
+        int minutes = Math.max(1, call.getInt("minutes", AlarmService.DEFAULT_SNOOZE_MINUTES));
+        JSObject result = new JSObject();
+        result.put("snoozed", AlarmService.sendAction(getContext(), AlarmService.ACTION_SNOOZE, minutes));
+        call.resolve(result);
+    }
+
+    /**
+     * dismiss() - stops the ringing alarm and cancels a pending snooze.
+     */
+    @PluginMethod
+    public void dismiss(PluginCall call) {
+        boolean stopped = AlarmService.sendAction(getContext(), AlarmService.ACTION_DISMISS, 0);
+        boolean cancelled = AlarmService.cancelSnooze(getContext());
+        JSObject result = new JSObject();
+        result.put("dismissed", stopped || cancelled);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void getState(PluginCall call) {
+        AlarmPlayer player = AlarmPlayer.get(getContext());
+        JSObject result = new JSObject();
+        result.put("ringing", player.isRinging());
+        result.put("alarmId", AlarmService.getCurrentAlarmId());
+        result.put("snoozedUntil", AlarmService.getSnoozedUntilMs());
+        result.put("preloaded", player.isLoaded());
+        result.put("lastStartLatencyMs", player.getLastStartLatencyMs());
+        call.resolve(result);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        AlarmService.setListener(null);
+        super.handleOnDestroy();
+    }
+}
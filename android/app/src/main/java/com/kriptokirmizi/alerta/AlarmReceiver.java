@@ -0,0 +1,20 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Re-rings a snoozed alarm when its AlarmManager alarm fires.
+ */
+public class AlarmReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        android.util.Log.d("AlarmService", "⏰ Snooze over, ringing again");
+        AlarmService.start(context,
+                intent.getStringExtra(AlarmService.EXTRA_ALARM_ID),
+                intent.getStringExtra(AlarmService.EXTRA_TITLE),
+                intent.getStringExtra(AlarmService.EXTRA_BODY),
+                intent.getBooleanExtra(AlarmService.EXTRA_VIBRATE, true));
+    }
+}
@@ -0,0 +1,279 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.ServiceCompat;
+import androidx.core.content.ContextCompat;
+
+/**
+ * Short-lived foreground service that rings a triggered price alarm ({@link AlarmPlayer})
+ * independently of the WebView, with Snooze / Dismiss actions on its alarms-v2 notification.
+ *
+ * Rings for at most {@link #MAX_RING_MS} (inside the 3-minute shortService budget on
+ * Android 14+). Snooze stops the service and re-rings via AlarmManager + {@link AlarmReceiver}.
+ */
+public class AlarmService extends Service {
+    private static final String TAG = "AlarmService";
+    static final String CHANNEL_ID = "alarms-v2";
+    static final int NOTIFICATION_ID = 7301;
+    static final long MAX_RING_MS = 2 * 60_000L;
+    static final int DEFAULT_SNOOZE_MINUTES = 5;
+
+    static final String ACTION_START = "com.kriptokirmizi.alerta.alarm.START";
+    static final String ACTION_SNOOZE = "com.kriptokirmizi.alerta.alarm.SNOOZE";
+    static final String ACTION_DISMISS = "com.kriptokirmizi.alerta.alarm.DISMISS";
+    static final String EXTRA_ALARM_ID = "alarmId";
+    static final String EXTRA_TITLE = "title";
+    static final String EXTRA_BODY = "body";
+    static final String EXTRA_VIBRATE = "vibrate";
+    static final String EXTRA_SNOOZE_MINUTES = "snoozeMinutes";
+
+    public interface Listener {
+        void onAlarmEvent(String type, String alarmId, long snoozedUntilMs);
+    }
+
+    private static volatile Listener listener;
+    private static volatile String currentAlarmId;
+    private static volatile long snoozedUntilMs;
+    // START intent of the ringing alarm (title/body for the snoozed re-ring)
+    private static volatile Intent ringIntent;
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+    // MAX_RING_MS stop of the current ring, from the service or the in-process fallback
+    private static volatile Runnable ringTimeout;
+
+    static void setListener(Listener newListener) {
+        listener = newListener;
+    }
+
+    static String getCurrentAlarmId() {
+        return currentAlarmId;
+    }
+
+    static long getSnoozedUntilMs() {
+        return snoozedUntilMs;
+    }
+
+    /**
+     * Start ringing. Falls back to ringing in-process plus a plain notification when the
+     * system does not allow a foreground service start (app in background on Android 12+).
+     */
+    static void start(Context context, String alarmId, String title, String body, boolean vibrate) {
+        Intent intent = new Intent(context, AlarmService.class)
+                .setAction(ACTION_START)
+                .putExtra(EXTRA_ALARM_ID, alarmId)
+                .putExtra(EXTRA_TITLE, title)
+                .putExtra(EXTRA_BODY, body)
+                .putExtra(EXTRA_VIBRATE, vibrate);
+        try {
+            ContextCompat.startForegroundService(context, intent);
+        } catch (IllegalStateException e) {
+            android.util.Log.w(TAG, "⚠️ Foreground service start not allowed, ringing in-process: " + e.getMessage());
+            Context app = context.getApplicationContext();
+            NotificationManager manager = (NotificationManager) app.getSystemService(Context.NOTIFICATION_SERVICE);
+            manager.notify(NOTIFICATION_ID, buildNotification(app, intent));
+            beginRinging(app, intent, () -> {
+                AlarmPlayer.get(app).stop();
+                manager.cancel(NOTIFICATION_ID);
+                publish("timeout", currentAlarmId, 0);
+                currentAlarmId = null;
+            });
+        }
+    }
+
+    /**
+     * Ring, arm the MAX_RING_MS stop and tell the page; shared by the service and the
+     * in-process fallback (which the snoozed re-ring can take too).
+     */
+    private static void beginRinging(Context context, Intent intent, Runnable onTimeout) {
+        ringIntent = intent;
+        currentAlarmId = intent.getStringExtra(EXTRA_ALARM_ID);
+        snoozedUntilMs = 0;
+        AlarmPlayer.get(context).start(intent.getBooleanExtra(EXTRA_VIBRATE, true));
+        cancelRingTimeout();
+        Runnable timeout = () -> {
+            android.util.Log.d(TAG, "⏱️ Alarm rang for " + MAX_RING_MS / 1000 + "s without an answer, stopping");
+            ringTimeout = null;
+            onTimeout.run();
+        };
+        ringTimeout = timeout;
+        handler.postDelayed(timeout, MAX_RING_MS);
+        publish("ringing", currentAlarmId, 0);
+    }
+
+    private static void cancelRingTimeout() {
+        Runnable timeout = ringTimeout;
+        if (timeout != null) {
+            handler.removeCallbacks(timeout);
+            ringTimeout = null;
+        }
+    }
+
+    /**
+     * Snooze or dismiss the ringing alarm. Returns false if nothing is ringing.
+     */
+    static boolean sendAction(Context context, String action, int snoozeMinutes) {
+        if (currentAlarmId == null) {
+            return false;
+        }
+        Intent intent = new Intent(context, AlarmService.class)
+                .setAction(action)
+                .putExtra(EXTRA_SNOOZE_MINUTES, snoozeMinutes);
+        try {
+            context.startService(intent);
+        } catch (IllegalStateException e) {
+            // Background start not allowed (in-process fallback ringing): handle inline
+            handleAction(context, action, snoozeMinutes);
+        }
+        return true;
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        String action = intent != null ? intent.getAction() : null;
+        if (ACTION_START.equals(action)) {
+            Notification notification = buildNotification(this, intent);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+                startForeground(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_SHORT_SERVICE);
+            } else {
+                startForeground(NOTIFICATION_ID, notification);
+            }
+            beginRinging(this, intent, () -> finish("timeout", 0));
+        } else if (ACTION_SNOOZE.equals(action) || ACTION_DISMISS.equals(action)) {
+            int minutes = intent.getIntExtra(EXTRA_SNOOZE_MINUTES, DEFAULT_SNOOZE_MINUTES);
+            handleAction(this, action, minutes);
+            stopService();
+        } else {
+            stopService();
+        }
+        return START_NOT_STICKY;
+    }
+
+    @Override
+    public void onTimeout(int startId) {
+        // Android 14+ shortService budget exhausted
+        finish("timeout", 0);
+    }
+
+    @Override
+    public void onDestroy() {
+        cancelRingTimeout();
+        AlarmPlayer.get(this).stop();
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    private void finish(String type, long until) {
+        AlarmPlayer.get(this).stop();
+        publish(type, currentAlarmId, until);
+        currentAlarmId = null;
+        stopService();
+    }
+
+    private void stopService() {
+        cancelRingTimeout();
+        ServiceCompat.stopForeground(this, ServiceCompat.STOP_FOREGROUND_REMOVE);
+        stopSelf();
+    }
+
+    private static void handleAction(Context context, String action, int snoozeMinutes) {
+        cancelRingTimeout();
+        AlarmPlayer.get(context).stop();
+        ((NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE)).cancel(NOTIFICATION_ID);
+        String alarmId = currentAlarmId;
+        currentAlarmId = null;
+        if (ACTION_SNOOZE.equals(action)) {
+            long until = System.currentTimeMillis() + snoozeMinutes * 60_000L;
+            scheduleSnooze(context, alarmId, snoozeMinutes);
+            snoozedUntilMs = until;
+            publish("snoozed", alarmId, until);
+        } else {
+            snoozedUntilMs = 0;
+            publish("dismissed", alarmId, 0);
+        }
+    }
+
+    private static void scheduleSnooze(Context context, String alarmId, int minutes) {
+        Intent receiverIntent = new Intent(context, AlarmReceiver.class).putExtra(EXTRA_ALARM_ID, alarmId);
+        Intent ring = ringIntent;
+        if (ring != null) {
+            receiverIntent.putExtra(EXTRA_TITLE, ring.getStringExtra(EXTRA_TITLE))
+                    .putExtra(EXTRA_BODY, ring.getStringExtra(EXTRA_BODY))
+                    .putExtra(EXTRA_VIBRATE, ring.getBooleanExtra(EXTRA_VIBRATE, true));
+        }
+        PendingIntent pending = PendingIntent.getBroadcast(context, 0, receiverIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        long triggerAt = SystemClock.elapsedRealtime() + minutes * 60_000L;
+        // Inexact but Doze-safe; exact alarms need a special permission this app does not hold
+        alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, triggerAt, pending);
+        android.util.Log.d(TAG, "😴 Alarm snoozed for " + minutes + " min");
+    }
+
+    /**
+     * Cancel a pending snooze re-ring (the alarm was dismissed from the page meanwhile).
+     */
+    static boolean cancelSnooze(Context context) {
+        PendingIntent pending = PendingIntent.getBroadcast(context, 0, new Intent(context, AlarmReceiver.class),
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+        snoozedUntilMs = 0;
+        if (pending == null) {
+            return false;
+        }
+        ((AlarmManager) context.getSystemService(Context.ALARM_SERVICE)).cancel(pending);
+        pending.cancel();
+        return true;
+    }
+
+    static Notification buildNotification(Context context, Intent startIntent) {
+        String title = startIntent.getStringExtra(EXTRA_TITLE);
+        String body = startIntent.getStringExtra(EXTRA_BODY);
+
+        Intent open = new Intent(context, MainActivity.class).setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, open, PendingIntent.FLAG_IMMUTABLE);
+
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(title != null ? title : "Price Alert")
+                .setContentText(body)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setOngoing(true)
+                // Sound and vibration come from AlarmPlayer, not from the channel
+                .setSilent(true)
+                .setContentIntent(contentIntent)
+                .addAction(0, context.getString(R.string.alarm_snooze), actionIntent(context, ACTION_SNOOZE, 1))
+                .addAction(0, context.getString(R.string.alarm_dismiss), actionIntent(context, ACTION_DISMISS, 2))
+                .build();
+    }
+
+    private static PendingIntent actionIntent(Context context, String action, int requestCode) {
+        Intent intent = new Intent(context, AlarmService.class)
+                .setAction(action)
+                .putExtra(EXTRA_SNOOZE_MINUTES, DEFAULT_SNOOZE_MINUTES);
+        return PendingIntent.getService(context, requestCode, intent, PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private static void publish(String type, String alarmId, long until) {
+        Listener local = listener;
+        if (local != null) {
+            local.onAlarmEvent(type, alarmId, until);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.kriptokirmizi.alerta;
+
+/**
+ * Synthesizes the alarm clip as a 16-bit mono PCM WAV: the same three rising beep cycles
+ * (800 / 1000 / 1200 Hz) the web alarm plays, padded to exactly {@link #CLIP_MS} so
+ * looping it back to back reproduces the web's "repeat every 3 seconds" cadence without
+ * any timer.
+ */
+final class AlarmTone {
+    static final int SAMPLE_RATE = 22_050;
+    static final int CLIP_MS = 3_000;
+    private static final int WAV_HEADER_BYTES = 44;
+    private static final double PEAK = 0.3;
+    private static final double ATTACK_S = 0.01;
+    private static final double RELEASE_FLOOR = 0.01;
+
+    // { frequency Hz, start s, duration s } - mirrors alertService.playAlertSound()
+    static final double[][] BEEPS = {
+        {800, 0.00, 0.2}, {1000, 0.25, 0.2}, {1200, 0.50, 0.3},
+        {800, 0.90, 0.2}, {1000, 1.15, 0.2}, {1200, 1.40, 0.3},
+        {800, 1.80, 0.2}, {1000, 2.05, 0.2}, {1200, 2.30, 0.4},
+    };
+
+    private AlarmTone() {
+    }
+
+    static byte[] wav() {
+        int samples = SAMPLE_RATE * CLIP_MS / 1000;
+        int dataBytes = samples * 2;
+        byte[] out = new byte[WAV_HEADER_BYTES + dataBytes];
+        writeHeader(out, dataBytes);
+
+        for (double[] beep : BEEPS) {
+            double frequency = beep[0];
+            int first = (int) Math.round(beep[1] * SAMPLE_RATE);
+            int count = (int) Math.round(beep[2] * SAMPLE_RATE);
+            double duration = beep[2];
+            for (int i = 0; i < count && first + i < samples; i++) {
+                double t = (double) i / SAMPLE_RATE;
+                double sample = Math.sin(2 * Math.PI * frequency * t) * envelope(t, duration);
+                int index = WAV_HEADER_BYTES + (first + i) * 2;
+                short value = (short) Math.round(sample * Short.MAX_VALUE);
+                out[index] = (byte) value;
+                out[index + 1] = (byte) (value >> 8);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Linear 10 ms attack to {@link #PEAK}, then exponential decay to 1% at the end of the
+     * beep (the Web Audio gain ramps of the web version).
+     */
+    static double envelope(double t, double duration) {
+        if (t < ATTACK_S) {
+            return PEAK * t / ATTACK_S;
+        }
+        double progress = (t - ATTACK_S) / (duration - ATTACK_S);
+        return PEAK * Math.pow(RELEASE_FLOOR / PEAK, progress);
+    }
+
+    private static void writeHeader(byte[] out, int dataBytes) {
+        ascii(out, 0, "RIFF");
+        int32(out, 4, 36 + dataBytes);
+        ascii(out, 8, "WAVE");
+        ascii(out, 12, "fmt ");
+        int32(out, 16, 16);
+        int16(out, 20, 1); // PCM
+        int16(out, 22, 1); // mono
+        int32(out, 24, SAMPLE_RATE);
+        int32(out, 28, SAMPLE_RATE * 2);
+        int16(out, 32, 2);
+        int16(out, 34, 16);
+        ascii(out, 36, "data");
+        int32(out, 40, dataBytes);
+    }
+
+    private static void ascii(byte[] out, int offset, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            out[offset + i] = (byte) text.charAt(i);
+        }
+    }
+
+    private static void int16(byte[] out, int offset, int value) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >> 8);
+    }
+
+    private static void int32(byte[] out, int offset, int value) {
+        int16(out, offset, value);
+        int16(out, offset + 2, value >> 16);
+    }
+}
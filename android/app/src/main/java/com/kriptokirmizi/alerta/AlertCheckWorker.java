@@ -0,0 +1,299 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.ActivityManager;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * On-device fallback for the local price alerts once the page (and its
+ * alertService.checkPrice loop) is gone: every cycle fetches the prices of all watched
+ * symbols with ONE batched /api/ticker/{marketType}?symbols= request per market type,
+ * evaluates the alerts with {@link AlertEvaluator} and posts hits to price-alerts-v2.
+ *
+ * Runs under WorkManager constraints (network, battery not low), so Doze and App Standby
+ * simply defer it to the next maintenance window. Skips cycles while the app is in the
+ * foreground, where the page checks alerts itself; prices observed more than
+ * {@link #MAX_PRICE_AGE_MS} ago are then too old to compare against. Each cycle's duration
+ * and request count is kept (last {@link #MAX_CYCLE_STATS}) for BackgroundAlerts.getStats().
+ */
+public class AlertCheckWorker extends Worker {
+    private static final String TAG = "AlertCheck";
+    static final String UNIQUE_WORK = "background-alert-check";
+    private static final String CHANNEL_ID = "price-alerts-v2";
+    // WorkManager's minimum periodic interval
+    private static final long INTERVAL_MINUTES = 15;
+    // Two intervals: one late cycle still compares, a skipped stretch starts over
+    static final long MAX_PRICE_AGE_MS = 2 * TimeUnit.MINUTES.toMillis(INTERVAL_MINUTES);
+    static final int MAX_CYCLE_STATS = 20;
+
+    private static final String PREFS = "background_alerts";
+    private static final String KEY_ALERTS = "alerts";
+    private static final String KEY_PRICES = "prices";
+    private static final String KEY_TRIGGERED = "triggered";
+    private static final String KEY_CYCLES = "cycles";
+
+    public AlertCheckWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Replace the alert list (page's alerts, triggered ones are ignored) and (un)schedule the job.
+     * Symbols whose alerts changed forget their last price, so the next cycle only records it.
+     */
+    static synchronized void setAlerts(Context context, JSONArray alerts) {
+        List<AlertEvaluator.LocalAlert> active = AlertEvaluator.parse(alerts);
+        SharedPreferences prefs = prefs(context);
+        JSONObject observed = readObject(prefs, KEY_PRICES);
+        for (String key : AlertEvaluator.changedKeys(AlertEvaluator.parse(readArray(prefs, KEY_ALERTS)), active)) {
+            observed.remove(key);
+        }
+        prefs.edit()
+                .putString(KEY_ALERTS, alerts.toString())
+                .putString(KEY_PRICES, observed.toString())
+                .apply();
+        WorkManager workManager = WorkManager.getInstance(context);
+        if (active.isEmpty()) {
+            workManager.cancelUniqueWork(UNIQUE_WORK);
+            return;
+        }
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(AlertCheckWorker.class,
+                INTERVAL_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .setRequiresBatteryNotLow(true)
+                        .build())
+                .build();
+        workManager.enqueueUniquePeriodicWork(UNIQUE_WORK, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Alerts fired in the background since the last call ([{ id, price, observedPrice, triggeredAt }]).
+     */
+    static synchronized JSONArray consumeTriggered(Context context) {
+        SharedPreferences prefs = prefs(context);
+        JSONArray triggered = readArray(prefs, KEY_TRIGGERED);
+        prefs.edit().remove(KEY_TRIGGERED).apply();
+        return triggered;
+    }
+
+    static JSONArray getCycleStats(Context context) {
+        return readArray(prefs(context), KEY_CYCLES);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        if (isAppInForeground()) {
+            android.util.Log.d(TAG, "ℹ️ App in foreground, the page checks alerts itself");
+            return Result.success();
+        }
+
+        List<AlertEvaluator.LocalAlert> alerts;
+        Map<String, Double> previous;
+        synchronized (AlertCheckWorker.class) {
+            SharedPreferences prefs = prefs(context);
+            alerts = AlertEvaluator.parse(readArray(prefs, KEY_ALERTS));
+            previous = AlertEvaluator.freshPrices(readObject(prefs, KEY_PRICES), System.currentTimeMillis(),
+                    MAX_PRICE_AGE_MS);
+        }
+        if (alerts.isEmpty()) {
+            return Result.success();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long startMs = SystemClock.elapsedRealtime();
+        Map<String, Set<String>> groups = AlertEvaluator.symbolsByMarket(alerts);
+        Map<String, Double> current = new HashMap<>();
+        int requests = 0;
+        String error = null;
+        String baseUrl = AppConfig.get(context).serverUrlOrDefault();
+        for (Map.Entry<String, Set<String>> group : groups.entrySet()) {
+            String url = baseUrl + "/api/ticker/" + group.getKey() + "?symbols="
+                    + android.text.TextUtils.join(",", group.getValue());
+            requests++;
+            try (Response response = NativeHttp.client().newCall(new Request.Builder().url(url).build()).execute()) {
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    throw new java.io.IOException("HTTP " + response.code());
+                }
+                AlertEvaluator.readTicker(group.getKey(), body.string(), current);
+            } catch (Exception e) {
+                error = e.getMessage();
+                android.util.Log.e(TAG, "❌ Ticker fetch failed for " + group.getKey() + ": " + error);
+            }
+        }
+
+        List<AlertEvaluator.LocalAlert> triggered = AlertEvaluator.evaluate(alerts, previous, current);
+        synchronized (AlertCheckWorker.class) {
+            SharedPreferences prefs = prefs(context);
+            // The page may have replaced the list meanwhile: only record hits that are still in it
+            List<AlertEvaluator.LocalAlert> stillActive = AlertEvaluator.parse(readArray(prefs, KEY_ALERTS));
+            List<AlertEvaluator.LocalAlert> fired = retainIds(triggered, stillActive);
+            JSONArray remaining = removeIds(readArray(prefs, KEY_ALERTS), fired);
+            JSONArray triggeredLog = readArray(prefs, KEY_TRIGGERED);
+            JSONObject observed = readObject(prefs, KEY_PRICES);
+            AlertEvaluator.recordPrices(observed, current, System.currentTimeMillis());
+            for (AlertEvaluator.LocalAlert alert : fired) {
+                triggeredLog.put(triggeredEntry(alert, current.get(alert.key()), System.currentTimeMillis()));
+                notify(context, alert);
+            }
+
+            long durationMs = SystemClock.elapsedRealtime() - startMs;
+            JSONArray cycles = readArray(prefs, KEY_CYCLES);
+            cycles.put(cycleEntry(startedAt, durationMs, requests, current.size(), alerts.size(), fired.size(), error));
+            while (cycles.length() > MAX_CYCLE_STATS) {
+                cycles.remove(0);
+            }
+            prefs.edit()
+                    .putString(KEY_ALERTS, remaining.toString())
+                    .putString(KEY_PRICES, observed.toString())
+                    .putString(KEY_TRIGGERED, triggeredLog.toString())
+                    .putString(KEY_CYCLES, cycles.toString())
+                    .apply();
+            android.util.Log.d(TAG, "✅ Checked " + alerts.size() + " alert(s) over " + current.size()
+                    + " symbol(s) with " + requests + " request(s) in " + durationMs + "ms, " + fired.size() + " fired");
+        }
+        return Result.success();
+    }
+
+    private boolean isAppInForeground() {
+        ActivityManager.RunningAppProcessInfo info = new ActivityManager.RunningAppProcessInfo();
+        ActivityManager.getMyMemoryState(info);
+        return info.importance <= ActivityManager.RunningAppProcessInfo.IMPORTANCE_FOREGROUND;
+    }
+
+    private static void notify(Context context, AlertEvaluator.LocalAlert alert) {
+        boolean turkish = Locale.getDefault().getLanguage().startsWith("tr");
+        String price = PriceWidgetProvider.formatPrice(alert.price);
+        String title = turkish ? "💰 Fiyat Alarmı" : "💰 Price Alert";
+        String body;
+        if (turkish) {
+            body = alert.pair + " fiyatı " + price + " seviyesine " + (alert.above ? "ulaştı" : "düştü") + "!";
+        } else {
+            body = alert.pair + " price " + (alert.above ? "reached" : "dropped to") + " " + price + " level!";
+        }
+
+        Intent open = new Intent(context, MainActivity.class).setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, open, PendingIntent.FLAG_IMMUTABLE);
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        manager.notify(alert.id.hashCode(), new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(title)
+                .setContentText(body)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setAutoCancel(true)
+                .setContentIntent(contentIntent)
+                .build());
+    }
+
+    private static List<AlertEvaluator.LocalAlert> retainIds(List<AlertEvaluator.LocalAlert> triggered,
+            List<AlertEvaluator.LocalAlert> active) {
+        List<AlertEvaluator.LocalAlert> kept = new ArrayList<>();
+        for (AlertEvaluator.LocalAlert alert : triggered) {
+            for (AlertEvaluator.LocalAlert candidate : active) {
+                if (candidate.id.equals(alert.id)) {
+                    kept.add(alert);
+                    break;
+                }
+            }
+        }
+        return kept;
+    }
+
+    private static JSONArray removeIds(JSONArray alerts, List<AlertEvaluator.LocalAlert> fired) {
+        JSONArray remaining = new JSONArray();
+        for (int i = 0; i < alerts.length(); i++) {
+            JSONObject alert = alerts.optJSONObject(i);
+            boolean hit = false;
+            for (AlertEvaluator.LocalAlert f : fired) {
+                if (alert != null && f.id.equals(alert.optString("id"))) {
+                    hit = true;
+                    break;
+                }
+            }
+            if (!hit && alert != null) {
+                remaining.put(alert);
+            }
+        }
+        return remaining;
+    }
+
+    private static JSONObject triggeredEntry(AlertEvaluator.LocalAlert alert, Double observed, long nowMs) {
+        JSONObject entry = new JSONObject();
+        try {
+            entry.put("id", alert.id);
+            entry.put("price", alert.price);
+            entry.put("observedPrice", observed != null ? observed : JSONObject.NULL);
+            entry.put("triggeredAt", nowMs);
+        } catch (JSONException ignored) {
+            // Keys and values are always valid
+        }
+        return entry;
+    }
+
+    private static JSONObject cycleEntry(long startedAt, long durationMs, int requests, int symbols, int alerts,
+            int fired, String error) {
+        JSONObject entry = new JSONObject();
+        try {
+            entry.put("startedAt", startedAt);
+            entry.put("durationMs", durationMs);
+            entry.put("requests", requests);
+            entry.put("symbols", symbols);
+            entry.put("alerts", alerts);
+            entry.put("triggered", fired);
+            entry.put("error", error != null ? error : JSONObject.NULL);
+        } catch (JSONException ignored) {
+            // Keys and values are always valid
+        }
+        return entry;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    private static JSONArray readArray(SharedPreferences prefs, String key) {
+        try {
+            return new JSONArray(prefs.getString(key, "[]"));
+        } catch (JSONException e) {
+            return new JSONArray();
+        }
+    }
+
+    private static JSONObject readObject(SharedPreferences prefs, String key) {
+        try {
+            return new JSONObject(prefs.getString(key, "{}"));
+        } catch (JSONException e) {
+            // Corrupt entry: start over, the next cycle records fresh prices
+            return new JSONObject();
+        }
+    }
+}
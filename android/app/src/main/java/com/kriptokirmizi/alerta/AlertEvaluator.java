@@ -0,0 +1,223 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Native port of alertService.checkPrice() for the device's local price alerts: an alert
+ * fires when the price crosses its level between two observations (previous < level <=
+ * current for 'above', previous > level >= current for 'below'). The first observation of
+ * a symbol only records the price, exactly like the page.
+ *
+ * Observed prices are kept with their time ({@link #freshPrices} / {@link #recordPrices}):
+ * a price from before a long gap (app in the foreground, deferred work) is not a previous
+ * observation, otherwise any move during the gap would look like a crossing.
+ *
+ * Pure logic (no Android), used by {@link AlertCheckWorker}.
+ */
+final class AlertEvaluator {
+    static final String MARKET_SPOT = "spot";
+    static final String MARKET_FUTURES = "futures";
+
+    static final class LocalAlert {
+        final String id;
+        final String exchange;
+        final String pair;
+        final double price;
+        final boolean above;
+
+        LocalAlert(String id, String exchange, String pair, double price, boolean above) {
+            this.id = id;
+            this.exchange = exchange;
+            this.pair = pair.toUpperCase(Locale.US);
+            this.price = price;
+            this.above = above;
+        }
+
+        String marketType() {
+            return marketTypeOf(exchange);
+        }
+
+        /** Price key: "spot:BTCUSDT" */
+        String key() {
+            return marketType() + ":" + pair;
+        }
+    }
+
+    private AlertEvaluator() {
+    }
+
+    /**
+     * BINANCE_FUTURES -> futures, anything else -> spot (same mapping as the watchlist).
+     */
+    static String marketTypeOf(String exchange) {
+        return exchange != null && exchange.toUpperCase(Locale.US).contains("FUTURES") ? MARKET_FUTURES : MARKET_SPOT;
+    }
+
+    /**
+     * Symbols to fetch, grouped by market type (one batched ticker request per group).
+     */
+    static Map<String, Set<String>> symbolsByMarket(List<LocalAlert> alerts) {
+        Map<String, Set<String>> groups = new LinkedHashMap<>();
+        for (LocalAlert alert : alerts) {
+            Set<String> symbols = groups.get(alert.marketType());
+            if (symbols == null) {
+                symbols = new LinkedHashSet<>();
+                groups.put(alert.marketType(), symbols);
+            }
+            symbols.add(alert.pair);
+        }
+        return groups;
+    }
+
+    /**
+     * @param previous last observed price per {@link LocalAlert#key()}; updated in place with {@code current}
+     * @return alerts that crossed their level
+     */
+    static List<LocalAlert> evaluate(List<LocalAlert> alerts, Map<String, Double> previous, Map<String, Double> current) {
+        List<LocalAlert> triggered = new ArrayList<>();
+        for (LocalAlert alert : alerts) {
+            Double now = current.get(alert.key());
+            Double before = previous.get(alert.key());
+            if (now == null || before == null) {
+                continue;
+            }
+            boolean crossedAbove = before < alert.price && now >= alert.price;
+            boolean crossedBelow = before > alert.price && now <= alert.price;
+            if (alert.above ? crossedAbove : crossedBelow) {
+                triggered.add(alert);
+            }
+        }
+        previous.putAll(current);
+        return triggered;
+    }
+
+    /**
+     * Prices observed at most {@code maxAgeMs} ago, from { "spot:BTCUSDT": { price, at } }.
+     * Entries without a time (older format) count as stale.
+     */
+    static Map<String, Double> freshPrices(JSONObject observed, long nowMs, long maxAgeMs) {
+        Map<String, Double> prices = new HashMap<>();
+        Iterator<String> keys = observed.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            JSONObject entry = observed.optJSONObject(key);
+            if (entry == null) {
+                continue;
+            }
+            double price = entry.optDouble("price", Double.NaN);
+            long at = entry.optLong("at", 0);
+            if (!Double.isNaN(price) && at > 0 && nowMs - at <= maxAgeMs) {
+                prices.put(key, price);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Store {@code current} in {@code observed} as seen at {@code nowMs}; other entries keep their time.
+     */
+    static void recordPrices(JSONObject observed, Map<String, Double> current, long nowMs) {
+        for (Map.Entry<String, Double> price : current.entrySet()) {
+            try {
+                observed.put(price.getKey(), new JSONObject().put("price", price.getValue()).put("at", nowMs));
+            } catch (JSONException ignored) {
+                // Prices come from readTicker, never NaN
+            }
+        }
+    }
+
+    /**
+     * Price keys whose alerts differ between two lists (added, removed or edited): their last
+     * observation predates the new alert and must not count as its previous price.
+     */
+    static Set<String> changedKeys(List<LocalAlert> before, List<LocalAlert> after) {
+        Map<String, Set<String>> old = signaturesByKey(before);
+        Map<String, Set<String>> now = signaturesByKey(after);
+        Set<String> changed = new HashSet<>();
+        for (String key : old.keySet()) {
+            if (!old.get(key).equals(now.get(key))) {
+                changed.add(key);
+            }
+        }
+        for (String key : now.keySet()) {
+            if (!old.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    private static Map<String, Set<String>> signaturesByKey(List<LocalAlert> alerts) {
+        Map<String, Set<String>> byKey = new HashMap<>();
+        for (LocalAlert alert : alerts) {
+            Set<String> signatures = byKey.get(alert.key());
+            if (signatures == null) {
+                signatures = new HashSet<>();
+                byKey.put(alert.key(), signatures);
+            }
+            signatures.add(alert.id + "|" + alert.price + "|" + alert.above);
+        }
+        return byKey;
+    }
+
+    /**
+     * Parse the page's alert list ({ id, exchange, pair, price, direction, isTriggered? }),
+     * keeping only alerts that have not fired yet.
+     */
+    static List<LocalAlert> parse(JSONArray json) {
+        List<LocalAlert> alerts = new ArrayList<>();
+        if (json == null) {
+            return alerts;
+        }
+        for (int i = 0; i < json.length(); i++) {
+            JSONObject alert = json.optJSONObject(i);
+            if (alert == null || alert.optBoolean("isTriggered", false)) {
+                continue;
+            }
+            String id = alert.optString("id", "");
+            String pair = alert.optString("pair", "");
+            double price = alert.optDouble("price", Double.NaN);
+            if (id.isEmpty() || pair.isEmpty() || Double.isNaN(price)) {
+                continue;
+            }
+            alerts.add(new LocalAlert(id, alert.optString("exchange", "BINANCE"), pair, price,
+                    !"below".equals(alert.optString("direction"))));
+        }
+        return alerts;
+    }
+
+    /**
+     * Read { data: [{ symbol, lastPrice }] } (the /api/ticker response) into {@code out} as "market:SYMBOL" keys.
+     */
+    static int readTicker(String marketType, String json, Map<String, Double> out) throws JSONException {
+        JSONArray data = new JSONObject(json).optJSONArray("data");
+        int read = 0;
+        if (data == null) {
+            return 0;
+        }
+        for (int i = 0; i < data.length(); i++) {
+            JSONObject ticker = data.optJSONObject(i);
+            if (ticker == null) {
+                continue;
+            }
+            double price = ticker.optDouble("lastPrice", Double.NaN);
+            if (!Double.isNaN(price)) {
+                out.put(marketType + ":" + ticker.optString("symbol", "").toUpperCase(Locale.US), price);
+                read++;
+            }
+        }
+        return read;
+    }
+}
@@ -0,0 +1,357 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * On-device copy of the user's alerts (SQLite), so alert screens open from local data and
+ * {@link AlertSyncer} only has to transfer what changed.
+ *
+ * Alerts are stored as the backend's JSON plus the columns needed to query them without
+ * parsing: kind ("price" = /api/alerts/price, "custom" = /api/alerts/custom), type
+ * (alert_type or "price"), symbol and status. Reads are paginated, newest first.
+ *
+ * The copy belongs to one user at a time: {@link #switchOwner} drops it (rows and cursors)
+ * when a different account opens the alert screens.
+ */
+public final class AlertStore extends SQLiteOpenHelper {
+    private static final String TAG = "AlertStore";
+    private static final String DB_NAME = "alerts.db";
+    private static final int DB_VERSION = 2;
+
+    public static final String KIND_PRICE = "price";
+    public static final String KIND_CUSTOM = "custom";
+
+    private static volatile AlertStore instance;
+
+    public static final class SyncState {
+        /** null = never synced (next sync is a full fetch) */
+        public final String cursor;
+        public final String etag;
+        public final long syncedAtMs;
+
+        SyncState(String cursor, String etag, long syncedAtMs) {
+            this.cursor = cursor;
+            this.etag = etag;
+            this.syncedAtMs = syncedAtMs;
+        }
+    }
+
+    public static final class Page {
+        /** Alert JSON as received from the backend */
+        public final List<String> alerts;
+        public final int total;
+
+        Page(List<String> alerts, int total) {
+            this.alerts = alerts;
+            this.total = total;
+        }
+    }
+
+    public static final class ApplyResult {
+        public final int upserted;
+        public final int deleted;
+        public final int unchanged;
+
+        ApplyResult(int upserted, int deleted, int unchanged) {
+            this.upserted = upserted;
+            this.deleted = deleted;
+            this.unchanged = unchanged;
+        }
+    }
+
+    public static AlertStore get(Context context) {
+        AlertStore local = instance;
+        if (local == null) {
+            synchronized (AlertStore.class) {
+                local = instance;
+                if (local == null) {
+                    local = new AlertStore(context.getApplicationContext(), DB_NAME);
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * @param name database file name, or null for an in-memory database (tests)
+     */
+    AlertStore(Context context, String name) {
+        super(context, name, null, DB_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE alerts ("
+                + "kind TEXT NOT NULL, "
+                + "id TEXT NOT NULL, "
+                + "type TEXT NOT NULL, "
+                + "symbol TEXT NOT NULL, "
+                + "status TEXT NOT NULL, "
+                + "created_at TEXT NOT NULL DEFAULT '', "
+                + "json TEXT NOT NULL, "
+                + "PRIMARY KEY (kind, id))");
+        db.execSQL("CREATE INDEX idx_alerts_symbol_status ON alerts (kind, symbol, status)");
+        db.execSQL("CREATE INDEX idx_alerts_status_created ON alerts (kind, status, created_at)");
+        db.execSQL("CREATE TABLE sync_state ("
+                + "kind TEXT PRIMARY KEY, "
+                + "cursor TEXT, "
+                + "etag TEXT, "
+                + "synced_at INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE TABLE store_owner (owner TEXT NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Local copy only: the next sync refills it
+        db.execSQL("DROP TABLE IF EXISTS alerts");
+        db.execSQL("DROP TABLE IF EXISTS sync_state");
+        db.execSQL("DROP TABLE IF EXISTS store_owner");
+        onCreate(db);
+    }
+
+    /**
+     * Make {@code owner} (the signed-in user) the owner of the local copy. Another user's
+     * rows and sync cursors are dropped first, so they are neither shown nor sent back to
+     * the backend as this user's version / ETag.
+     *
+     * @return true if a previous owner's data was dropped
+     */
+    public boolean switchOwner(String owner) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            String current = null;
+            try (Cursor cursor = db.query("store_owner", new String[] {"owner"}, null, null, null, null, null)) {
+                if (cursor.moveToFirst()) {
+                    current = cursor.getString(0);
+                }
+            }
+            if (owner.equals(current)) {
+                db.setTransactionSuccessful();
+                return false;
+            }
+            db.delete("alerts", null, null);
+            db.delete("sync_state", null, null);
+            db.delete("store_owner", null, null);
+            ContentValues values = new ContentValues();
+            values.put("owner", owner);
+            db.insert("store_owner", null, values);
+            db.setTransactionSuccessful();
+            android.util.Log.d(TAG, current != null ? "🗑️ Owner changed, dropped the previous user's alerts" : "Owner set");
+            return current != null;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Paginated read, newest first. Null filters match everything.
+     */
+    public Page query(String kind, String type, String symbol, String status, int limit, int offset) {
+        StringBuilder where = new StringBuilder("kind = ?");
+        List<String> args = new ArrayList<>(4);
+        args.add(kind);
+        if (type != null) {
+            where.append(" AND type = ?");
+            args.add(type);
+        }
+        if (symbol != null) {
+            where.append(" AND symbol = ?");
+            args.add(symbol.toUpperCase(Locale.US));
+        }
+        if (status != null) {
+            where.append(" AND status = ?");
+            args.add(status);
+        }
+        String[] selectionArgs = args.toArray(new String[0]);
+        SQLiteDatabase db = getReadableDatabase();
+
+        int total;
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM alerts WHERE " + where, selectionArgs)) {
+            total = cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+
+        List<String> alerts = new ArrayList<>(Math.min(limit, Math.max(0, total - offset)));
+        try (Cursor cursor = db.query("alerts", new String[] {"json"}, where.toString(), selectionArgs,
+                null, null, "created_at DESC, id DESC", offset + "," + limit)) {
+            while (cursor.moveToNext()) {
+                alerts.add(cursor.getString(0));
+            }
+        }
+        return new Page(alerts, total);
+    }
+
+    public SyncState getSyncState(String kind) {
+        try (Cursor cursor = getReadableDatabase().query("sync_state", new String[] {"cursor", "etag", "synced_at"},
+                "kind = ?", new String[] {kind}, null, null, null)) {
+            if (cursor.moveToFirst()) {
+                return new SyncState(cursor.isNull(0) ? null : cursor.getString(0),
+                        cursor.isNull(1) ? null : cursor.getString(1), cursor.getLong(2));
+            }
+        }
+        return new SyncState(null, null, 0);
+    }
+
+    /**
+     * Apply one sync response in a single transaction.
+     *
+     * @param full true if {@code alerts} is the complete list (alerts missing from it are
+     *             deleted), false if it only holds the changes since the previous cursor
+     * @param deletedIds ids removed since the previous cursor (incremental responses), may be null
+     */
+    public ApplyResult applySync(String kind, JSONArray alerts, JSONArray deletedIds, boolean full,
+            String cursor, String etag, long nowMs) {
+        SQLiteDatabase db = getWritableDatabase();
+        int upserted = 0;
+        int deleted = 0;
+        int unchanged = 0;
+        db.beginTransaction();
+        try {
+            Map<String, String> existing = full ? loadJsonById(db, kind) : null;
+            Set<String> seen = full ? new HashSet<>() : null;
+
+            for (int i = 0; i < alerts.length(); i++) {
+                JSONObject alert = alerts.optJSONObject(i);
+                if (alert == null || !alert.has("id")) {
+                    continue;
+                }
+                String id = alert.optString("id");
+                String json = alert.toString();
+                if (full) {
+                    seen.add(id);
+                    // A full snapshot rewrites only the rows that actually changed
+                    if (json.equals(existing.get(id))) {
+                        unchanged++;
+                        continue;
+                    }
+                }
+                db.insertWithOnConflict("alerts", null, toValues(kind, alert, json), SQLiteDatabase.CONFLICT_REPLACE);
+                upserted++;
+            }
+
+            if (full) {
+                for (String id : existing.keySet()) {
+                    if (!seen.contains(id)) {
+                        deleted += db.delete("alerts", "kind = ? AND id = ?", new String[] {kind, id});
+                    }
+                }
+            } else if (deletedIds != null) {
+                for (int i = 0; i < deletedIds.length(); i++) {
+                    deleted += db.delete("alerts", "kind = ? AND id = ?", new String[] {kind, deletedIds.optString(i)});
+                }
+            }
+
+            writeSyncState(db, kind, cursor, etag, nowMs);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return new ApplyResult(upserted, deleted, unchanged);
+    }
+
+    /**
+     * 304 Not Modified: keep the rows and cursor, only record the sync time.
+     */
+    public void markNotModified(String kind, long nowMs) {
+        ContentValues values = new ContentValues();
+        values.put("synced_at", nowMs);
+        getWritableDatabase().update("sync_state", values, "kind = ?", new String[] {kind});
+    }
+
+    /**
+     * Local write after the page created or edited an alert (the next sync reconciles it).
+     */
+    public void put(String kind, JSONObject alert) {
+        if (!alert.has("id")) {
+            throw new IllegalArgumentException("alert.id is required");
+        }
+        getWritableDatabase().insertWithOnConflict("alerts", null, toValues(kind, alert, alert.toString()),
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    public boolean remove(String kind, String id) {
+        return getWritableDatabase().delete("alerts", "kind = ? AND id = ?", new String[] {kind, id}) > 0;
+    }
+
+    /**
+     * Drop rows and cursor of one kind (null = all, including the owner), e.g. on logout or
+     * lost premium access.
+     */
+    public void clear(String kind) {
+        SQLiteDatabase db = getWritableDatabase();
+        if (kind == null) {
+            db.delete("alerts", null, null);
+            db.delete("sync_state", null, null);
+            db.delete("store_owner", null, null);
+        } else {
+            db.delete("alerts", "kind = ?", new String[] {kind});
+            db.delete("sync_state", "kind = ?", new String[] {kind});
+        }
+        android.util.Log.d(TAG, "🗑️ Cleared " + (kind != null ? kind : "all") + " alerts");
+    }
+
+    private static Map<String, String> loadJsonById(SQLiteDatabase db, String kind) {
+        Map<String, String> rows = new HashMap<>();
+        try (Cursor cursor = db.query("alerts", new String[] {"id", "json"}, "kind = ?", new String[] {kind},
+                null, null, null)) {
+            while (cursor.moveToNext()) {
+                rows.put(cursor.getString(0), cursor.getString(1));
+            }
+        }
+        return rows;
+    }
+
+    private static void writeSyncState(SQLiteDatabase db, String kind, String cursor, String etag, long nowMs) {
+        ContentValues values = new ContentValues();
+        values.put("kind", kind);
+        values.put("cursor", cursor);
+        values.put("etag", etag);
+        values.put("synced_at", nowMs);
+        db.insertWithOnConflict("sync_state", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static ContentValues toValues(String kind, JSONObject alert, String json) {
+        ContentValues values = new ContentValues();
+        values.put("kind", kind);
+        values.put("id", alert.optString("id"));
+        values.put("type", alert.optString("alert_type", KIND_PRICE));
+        values.put("symbol", alert.optString("symbol").toUpperCase(Locale.US));
+        values.put("status", statusOf(alert));
+        values.put("created_at", alert.optString("created_at", ""));
+        values.put("json", json);
+        return values;
+    }
+
+    /**
+     * "status" if the backend sends one, otherwise derived from is_active.
+     */
+    static String statusOf(JSONObject alert) {
+        Object status = alert.opt("status");
+        if (status instanceof String && !((String) status).isEmpty()) {
+            return (String) status;
+        }
+        if (alert.has("is_active")) {
+            return alert.optBoolean("is_active", true) ? "active" : "inactive";
+        }
+        return "active";
+    }
+}
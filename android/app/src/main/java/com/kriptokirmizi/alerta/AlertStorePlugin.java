@@ -0,0 +1,177 @@
+package com.kriptokirmizi.alerta;
+
+import android.webkit.CookieManager;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Page side of {@link AlertStore} / {@link AlertSyncer}: alert screens render from query()
+ * immediately and call sync() in the background, which only transfers changes.
+ *
+ * All database and network work runs on one background thread, so reads issued after a
+ * sync() see its result. query() and sync() name the signed-in user (owner); a different
+ * owner than last time starts from an empty store.
+ */
+@CapacitorPlugin(name = "AlertStore")
+public class AlertStorePlugin extends Plugin {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "alert-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * query({ owner, kind: 'price' | 'custom', type?, symbol?, status?, limit?, offset? })
+     *   -> { alerts, total, offset, hasMore }
+     */
+    @PluginMethod
+    public void query(PluginCall call) {
+        String owner = call.getString("owner");
+        if (owner == null || owner.isEmpty()) {
+            call.reject("owner is required");
+            return;
+        }
+        String kind = call.getString("kind", AlertStore.KIND_PRICE);
+        String type = call.getString("type");
+        String symbol = call.getString("symbol");
+        String status = call.getString("status");
+        int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, call.getInt("limit", DEFAULT_PAGE_SIZE)));
+        int offset = Math.max(0, call.getInt("offset", 0));
+
+        executor.execute(() -> {
+            try {
+                AlertStore store = AlertStore.get(getContext());
+                store.switchOwner(owner);
+                AlertStore.Page page = store.query(kind, type, symbol, status, limit, offset);
+                JSONArray alerts = new JSONArray();
+                for (String json : page.alerts) {
+                    alerts.put(new JSONObject(json));
+                }
+                JSObject result = new JSObject();
+                result.put("alerts", alerts);
+                result.put("total", page.total);
+                result.put("offset", offset);
+                result.put("hasMore", offset + page.alerts.size() < page.total);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error reading alerts: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * sync({ owner, deviceId, userEmail?, kinds?: ('price' | 'custom')[] }) -> { results: [...] }
+     */
+    @PluginMethod
+    public void sync(PluginCall call) {
+        String deviceId = call.getString("deviceId");
+        if (deviceId == null || deviceId.isEmpty()) {
+            call.reject("deviceId is required");
+            return;
+        }
+        String owner = call.getString("owner");
+        if (owner == null || owner.isEmpty()) {
+            call.reject("owner is required");
+            return;
+        }
+        String userEmail = call.getString("userEmail");
+        JSArray kindsArray = call.getArray("kinds");
+
+        executor.execute(() -> {
+            try {
+                String[] kinds;
+                if (kindsArray != null && kindsArray.length() > 0) {
+                    kinds = new String[kindsArray.length()];
+                    for (int i = 0; i < kinds.length; i++) {
+                        kinds[i] = kindsArray.getString(i);
+                    }
+                } else {
+                    kinds = new String[] {AlertStore.KIND_PRICE, AlertStore.KIND_CUSTOM};
+                }
+
+                AlertStore store = AlertStore.get(getContext());
+                store.switchOwner(owner);
+                CookieManager cookieManager = CookieManager.getInstance();
+                AlertSyncer syncer = new AlertSyncer(NativeHttp.client(),
+                        AppConfig.get(getContext()).serverUrlOrDefault(), cookieManager::getCookie, store);
+                JSONArray results = new JSONArray();
+                for (String kind : kinds) {
+                    AlertSyncer.Result sync = syncer.sync(kind, deviceId, userEmail);
+                    JSObject row = new JSObject();
+                    row.put("kind", sync.kind);
+                    row.put("status", sync.status);
+                    row.put("notModified", sync.notModified);
+                    row.put("full", sync.full);
+                    row.put("upserted", sync.upserted);
+                    row.put("deleted", sync.deleted);
+                    row.put("bytes", sync.bytes);
+                    row.put("durationMs", sync.durationMs);
+                    results.put(row);
+                }
+                JSObject result = new JSObject();
+                result.put("results", results);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Alert sync failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * put({ kind, alert }) - after the page created or edited an alert.
+     */
+    @PluginMethod
+    public void put(PluginCall call) {
+        String kind = call.getString("kind", AlertStore.KIND_PRICE);
+        JSObject alert = call.getObject("alert");
+        if (alert == null || !alert.has("id")) {
+            call.reject("alert with id is required");
+            return;
+        }
+        executor.execute(() -> {
+            AlertStore.get(getContext()).put(kind, alert);
+            call.resolve();
+        });
+    }
+
+    /**
+     * remove({ kind, id })
+     */
+    @PluginMethod
+    public void remove(PluginCall call) {
+        String kind = call.getString("kind", AlertStore.KIND_PRICE);
+        String id = call.getString("id");
+        if (id == null) {
+            call.reject("id is required");
+            return;
+        }
+        executor.execute(() -> {
+            JSObject result = new JSObject();
+            result.put("removed", AlertStore.get(getContext()).remove(kind, id));
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * clear({ kind? }) - e.g. on logout (no kind also forgets the owner).
+     */
+    @PluginMethod
+    public void clear(PluginCall call) {
+        String kind = call.getString("kind");
+        executor.execute(() -> {
+            AlertStore.get(getContext()).clear(kind);
+            call.resolve();
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.kriptokirmizi.alerta;
+
+import java.io.IOException;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Incremental sync of {@link AlertStore} with the alert endpoints.
+ *
+ * Every request carries the cursor of the previous sync (?since=) and its ETag
+ * (If-None-Match):
+ *   304                                   -> nothing changed, no body transferred
+ *   200 { alerts, deleted?, cursor }      -> changes since the cursor (incremental)
+ *   200 { alerts } without cursor         -> full list; applied as a diff so only changed
+ *                                            rows are written (backends without cursor support)
+ *   401 / 403                             -> local copy of that kind is dropped
+ *
+ * Blocking; callers run it off the main thread.
+ */
+public final class AlertSyncer {
+    private static final String TAG = "AlertSync";
+
+    public static final class Result {
+        public final String kind;
+        public final int status;
+        public final boolean notModified;
+        public final boolean full;
+        public final int upserted;
+        public final int deleted;
+        public final long bytes;
+        public final long durationMs;
+
+        Result(String kind, int status, boolean notModified, boolean full, int upserted, int deleted, long bytes,
+                long durationMs) {
+            this.kind = kind;
+            this.status = status;
+            this.notModified = notModified;
+            this.full = full;
+            this.upserted = upserted;
+            this.deleted = deleted;
+            this.bytes = bytes;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final StartupPrefetcher.CookieSource cookieSource;
+    private final AlertStore store;
+
+    public AlertSyncer(OkHttpClient client, String baseUrl, StartupPrefetcher.CookieSource cookieSource,
+            AlertStore store) {
+        this.client = client;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.cookieSource = cookieSource;
+        this.store = store;
+    }
+
+    /**
+     * @param kind {@link AlertStore#KIND_PRICE} or {@link AlertStore#KIND_CUSTOM}
+     * @param userEmail guest users only, may be null
+     */
+    public Result sync(String kind, String deviceId, String userEmail) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        AlertStore.SyncState state = store.getSyncState(kind);
+
+        HttpUrl base = HttpUrl.parse(baseUrl + "/api/alerts/" + kind);
+        if (base == null) {
+            throw new IOException("Invalid server URL: " + baseUrl);
+        }
+        HttpUrl.Builder url = base.newBuilder().addQueryParameter("deviceId", deviceId);
+        if (userEmail != null && !userEmail.isEmpty()) {
+            url.addQueryParameter("userEmail", userEmail);
+        }
+        if (state.cursor != null) {
+            url.addQueryParameter("since", state.cursor);
+        }
+
+        Request.Builder request = new Request.Builder().url(url.build()).header("Accept", "application/json");
+        if (state.etag != null) {
+            request.header("If-None-Match", state.etag);
+        }
+        String cookies = cookieSource != null ? cookieSource.cookiesFor(baseUrl) : null;
+        if (cookies != null && !cookies.isEmpty()) {
+            request.header("Cookie", cookies);
+        }
+
+        try (Response response = client.newCall(request.build()).execute()) {
+            int status = response.code();
+            long now = System.currentTimeMillis();
+
+            if (status == 304) {
+                store.markNotModified(kind, now);
+                log("✅ " + kind + " alerts not modified (" + (now - startedAt) + "ms)");
+                return new Result(kind, status, true, false, 0, 0, 0, now - startedAt);
+            }
+            if (status == 401 || status == 403) {
+                store.clear(kind);
+                return new Result(kind, status, false, false, 0, 0, 0, now - startedAt);
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + status + " syncing " + kind + " alerts");
+            }
+
+            ResponseBody body = response.body();
+            String text = body != null ? body.string() : "";
+            JSONObject json;
+            try {
+                json = new JSONObject(text);
+            } catch (JSONException e) {
+                throw new IOException("Invalid " + kind + " alerts response: " + e.getMessage());
+            }
+            JSONArray alerts = json.optJSONArray("alerts");
+            if (alerts == null) {
+                alerts = new JSONArray();
+            }
+            String cursor = json.isNull("cursor") ? null : json.optString("cursor", null);
+            boolean full = state.cursor == null || cursor == null || json.optBoolean("full", false);
+
+            AlertStore.ApplyResult applied = store.applySync(kind, alerts, json.optJSONArray("deleted"), full,
+                    cursor, response.header("ETag"), now);
+            long durationMs = System.currentTimeMillis() - startedAt;
+            log("✅ " + kind + " alerts synced (" + (full ? "full" : "incremental") + "): +" + applied.upserted
+                    + " -" + applied.deleted + " =" + applied.unchanged + ", " + text.length() + " chars in "
+                    + durationMs + "ms");
+            return new Result(kind, status, false, full, applied.upserted, applied.deleted, text.length(), durationMs);
+        }
+    }
+
+    private static void log(String message) {
+        android.util.Log.d(TAG, message);
+    }
+}
@@ -0,0 +1,75 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.Application;
+import android.webkit.CookieManager;
+import java.util.List;
+
+/**
+ * Process entry point. Starts work that must not wait for MainActivity / the bridge.
+ */
+public class AlertaApplication extends Application {
+    private static final long PREFETCH_MAX_AGE_MS = 30_000L;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        try (StartupTrace.Section trace = StartupTrace.begin("Application.onCreate")) {
+            startStartupPrefetch();
+            preloadAlarmSound();
+            openKvStore();
+        }
+    }
+
+    /**
+     * Replay the KV log and decode last session's hot keys before the page asks for them.
+     */
+    private void openKvStore() {
+        new Thread(() -> {
+            try (StartupTrace.Section trace = StartupTrace.begin("NativeKvStore.open")) {
+                NativeKvStore.get(this);
+            } catch (Exception e) {
+                android.util.Log.e("NativeKV", "❌ Failed to open KV store: " + e.getMessage());
+            }
+        }, "kv-open").start();
+    }
+
+    /**
+     * Decode the alarm clip now so a triggered alarm rings with a single SoundPool.play call.
+     */
+    private void preloadAlarmSound() {
+        new Thread(() -> {
+            try (StartupTrace.Section trace = StartupTrace.begin("AlarmPlayer.preload")) {
+                AlarmPlayer.get(this).preload();
+            }
+        }, "alarm-preload").start();
+    }
+
+    /**
+     * 🔥 Fire the bootstrap requests (plugins.StartupPrefetch.endpoints in capacitor.config.json)
+     * while the WebView and bridge are still initializing.
+     */
+    private void startStartupPrefetch() {
+        new Thread(() -> {
+            try (StartupTrace.Section trace = StartupTrace.begin("StartupPrefetch.start")) {
+                AppConfig config = AppConfig.get(this);
+                List<String> endpoints = config.prefetchEndpoints;
+                if (endpoints.isEmpty()) {
+                    android.util.Log.d("StartupPrefetch", "ℹ️ No startup endpoints configured");
+                    return;
+                }
+
+                // Session cookies must be in place before the authenticated bootstrap requests go out
+                SessionCookieStore.restore(this);
+                CookieManager cookieManager = CookieManager.getInstance();
+
+                StartupPrefetcher prefetcher = new StartupPrefetcher(NativeHttp.client(), config.serverUrlOrDefault(),
+                        endpoints, cookieManager::getCookie, PREFETCH_MAX_AGE_MS);
+                StartupPrefetcher.setInstance(prefetcher);
+                prefetcher.start();
+                android.util.Log.d("StartupPrefetch", "🚀 Prefetching " + endpoints.size() + " startup endpoint(s)");
+            } catch (Exception e) {
+                android.util.Log.e("StartupPrefetch", "❌ Failed to start startup prefetch: " + e.getMessage());
+            }
+        }, "startup-prefetch").start();
+    }
+}
@@ -0,0 +1,111 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The parts of capacitor.config.json the native side needs, parsed once.
+ */
+public final class AppConfig {
+    public static final String DEFAULT_SERVER_URL = "https://www.alertachart.com";
+
+    private static volatile AppConfig cached;
+
+    /** server.url, or null if not configured */
+    public final String serverUrl;
+    /** plugins.StartupPrefetch.endpoints */
+    public final List<String> prefetchEndpoints;
+    /** plugins section, for plugin-specific settings */
+    private final JSONObject plugins;
+
+    private AppConfig(String serverUrl, List<String> prefetchEndpoints, JSONObject plugins) {
+        this.serverUrl = serverUrl;
+        this.prefetchEndpoints = prefetchEndpoints;
+        this.plugins = plugins;
+    }
+
+    /**
+     * Parse capacitor.config.json content. Invalid JSON yields an empty config.
+     */
+    public static AppConfig parse(String json) {
+        try {
+            JSONObject config = new JSONObject(json);
+
+            String serverUrl = null;
+            JSONObject server = config.optJSONObject("server");
+            if (server != null && server.has("url")) {
+                serverUrl = server.getString("url");
+            }
+
+            JSONObject plugins = config.optJSONObject("plugins");
+            List<String> endpoints = Collections.emptyList();
+            JSONObject prefetch = plugins != null ? plugins.optJSONObject("StartupPrefetch") : null;
+            JSONArray endpointsArray = prefetch != null ? prefetch.optJSONArray("endpoints") : null;
+            if (endpointsArray != null && endpointsArray.length() > 0) {
+                endpoints = new ArrayList<>(endpointsArray.length());
+                for (int i = 0; i < endpointsArray.length(); i++) {
+                    endpoints.add(endpointsArray.getString(i));
+                }
+                endpoints = Collections.unmodifiableList(endpoints);
+            }
+
+            return new AppConfig(serverUrl, endpoints, plugins != null ? plugins : new JSONObject());
+        } catch (Exception e) {
+            return new AppConfig(null, Collections.<String>emptyList(), new JSONObject());
+        }
+    }
+
+    /**
+     * capacitor.config.json from assets, read and parsed once per process.
+     */
+    public static AppConfig get(Context context) {
+        AppConfig local = cached;
+        if (local == null) {
+            synchronized (AppConfig.class) {
+                local = cached;
+                if (local == null) {
+                    local = parse(readAsset(context, "capacitor.config.json"));
+                    cached = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * server.url, falling back to the production URL.
+     */
+    public String serverUrlOrDefault() {
+        return serverUrl != null && !serverUrl.isEmpty() ? serverUrl : DEFAULT_SERVER_URL;
+    }
+
+    /**
+     * plugins.&lt;name&gt; section (never null).
+     */
+    public JSONObject pluginConfig(String name) {
+        JSONObject section = plugins.optJSONObject(name);
+        return section != null ? section : new JSONObject();
+    }
+
+    private static String readAsset(Context context, String name) {
+        try (InputStream inputStream = context.getAssets().open(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            android.util.Log.e("AppConfig", "❌ Error reading " + name + ": " + e.getMessage());
+            return "{}";
+        }
+    }
+}
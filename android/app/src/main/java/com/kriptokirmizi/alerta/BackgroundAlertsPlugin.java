@@ -0,0 +1,55 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONArray;
+
+/**
+ * Hands the page's local price alerts to {@link AlertCheckWorker}, which keeps checking
+ * them after the process (and alertService.checkPrice) is gone.
+ */
+@CapacitorPlugin(name = "BackgroundAlerts")
+public class BackgroundAlertsPlugin extends Plugin {
+
+    /**
+     * setAlerts({ alerts: PriceAlert[] }) - schedules the periodic check while any alert is
+     * still untriggered, cancels it otherwise.
+     */
+    @PluginMethod
+    public void setAlerts(PluginCall call) {
+        JSArray alerts = call.getArray("alerts");
+        if (alerts == null) {
+            call.reject("alerts is required");
+            return;
+        }
+        AlertCheckWorker.setAlerts(getContext(), alerts);
+        call.resolve();
+    }
+
+    /**
+     * consumeTriggered() -> { triggered: [{ id, price, observedPrice, triggeredAt }] }
+     * (alerts fired in the background; cleared once read)
+     */
+    @PluginMethod
+    public void consumeTriggered(PluginCall call) {
+        JSObject result = new JSObject();
+        result.put("triggered", AlertCheckWorker.consumeTriggered(getContext()));
+        call.resolve(result);
+    }
+
+    /**
+     * getStats() -> { cycles: [{ startedAt, durationMs, requests, symbols, alerts, triggered, error }] }
+     */
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        JSONArray cycles = AlertCheckWorker.getCycleStats(getContext());
+        JSObject result = new JSObject();
+        result.put("cycles", cycles);
+        result.put("maxCycles", AlertCheckWorker.MAX_CYCLE_STATS);
+        call.resolve(result);
+    }
+}
@@ -0,0 +1,98 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.Activity;
+import android.content.Context;
+import com.android.billingclient.api.BillingResult;
+import com.android.billingclient.api.Purchase;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The subset of Google Play Billing used by InAppPurchasePlugin (subscriptions only).
+ * Production uses {@link PlayBillingBackend}; tests inject a scripted fake through
+ * {@link InAppPurchasePlugin#setBackendFactory(Factory)}.
+ *
+ * Callbacks may arrive on any thread.
+ */
+public interface BillingBackend {
+
+    interface Factory {
+        BillingBackend create(Context context);
+    }
+
+    /** Connection and purchase events (mirrors BillingClientStateListener + PurchasesUpdatedListener) */
+    interface Listener {
+        void onBillingSetupFinished(BillingResult billingResult);
+
+        void onBillingServiceDisconnected();
+
+        void onPurchasesUpdated(BillingResult billingResult, List<Purchase> purchases);
+    }
+
+    interface ProductsCallback {
+        void onResult(BillingResult billingResult, List<Product> products);
+    }
+
+    interface PurchasesCallback {
+        void onResult(BillingResult billingResult, List<Purchase> purchases);
+    }
+
+    interface AcknowledgeCallback {
+        void onResult(BillingResult billingResult);
+    }
+
+    /** Pricing phase of a subscription offer */
+    final class PricingPhase {
+        public final String formattedPrice;
+        public final long priceAmountMicros;
+        public final String currencyCode;
+        public final String billingPeriod;
+
+        public PricingPhase(String formattedPrice, long priceAmountMicros, String currencyCode, String billingPeriod) {
+            this.formattedPrice = formattedPrice;
+            this.priceAmountMicros = priceAmountMicros;
+            this.currencyCode = currencyCode;
+            this.billingPeriod = billingPeriod;
+        }
+    }
+
+    /** Subscription offer (base plan first) */
+    final class Offer {
+        public final String offerToken;
+        public final List<PricingPhase> pricingPhases;
+
+        public Offer(String offerToken, List<PricingPhase> pricingPhases) {
+            this.offerToken = offerToken;
+            this.pricingPhases = pricingPhases != null ? pricingPhases : Collections.<PricingPhase>emptyList();
+        }
+    }
+
+    /** Subscription product as returned by a product details query */
+    final class Product {
+        public final String productId;
+        public final String title;
+        public final String description;
+        public final List<Offer> offers;
+
+        public Product(String productId, String title, String description, List<Offer> offers) {
+            this.productId = productId;
+            this.title = title;
+            this.description = description;
+            this.offers = offers != null ? offers : Collections.<Offer>emptyList();
+        }
+    }
+
+    void startConnection(Listener listener);
+
+    void querySubscriptions(List<String> productIds, ProductsCallback callback);
+
+    /**
+     * Launch the purchase UI for a product returned by an earlier {@link #querySubscriptions} call.
+     * The outcome is delivered to {@link Listener#onPurchasesUpdated}.
+     */
+    BillingResult launchBillingFlow(Activity activity, String productId, String offerToken);
+
+    void queryActiveSubscriptions(PurchasesCallback callback);
+
+    void acknowledgePurchase(String purchaseToken, AcknowledgeCallback callback);
+}
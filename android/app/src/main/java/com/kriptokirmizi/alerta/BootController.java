@@ -0,0 +1,319 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+import android.net.NetworkRequest;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.webkit.WebView;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Launch-time glue for {@link BootSelector}: runs the reachability probe and the timeout
+ * budget, paints the bundled shell (assets/boot/shell.html with the last-known watchlist
+ * prices from {@link PriceCache}) and swaps to the remote app once it is reachable.
+ * All WebView work happens on the main thread.
+ */
+final class BootController {
+    private static final String TAG = "BootSelector";
+    static final String SHELL_BASE_URL = "file:///android_asset/boot/";
+    private static final String SHELL_ASSET = "boot/shell.html";
+    private static final String BOOT_DATA_PLACEHOLDER = "/*__BOOT_DATA__*/null";
+    // Small static file: answers fast from the edge and does not touch the database
+    private static final String PROBE_PATH = "/favicon.ico";
+    private static final long REPROBE_MIN_MS = 2_000L;
+    private static final long REPROBE_MAX_MS = 30_000L;
+
+    private static volatile BootController current;
+
+    private final Context context;
+    private final WebView webView;
+    private final String serverUrl;
+    private final BootSelector selector;
+    private final long processStartOffsetMs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final OkHttpClient probeClient;
+    private long reprobeDelayMs = REPROBE_MIN_MS;
+    private boolean probeInFlight = false;
+    private boolean clearHistoryOnRemotePaint = false;
+    private ConnectivityManager.NetworkCallback networkCallback;
+
+    private final Runnable budgetElapsed = new Runnable() {
+        @Override
+        public void run() {
+            apply(selector.onBudgetElapsed(SystemClock.elapsedRealtime()));
+        }
+    };
+
+    private final Runnable reprobe = new Runnable() {
+        @Override
+        public void run() {
+            if (selector.isShowingShell()) {
+                probe();
+            }
+        }
+    };
+
+    BootController(Context context, WebView webView, String serverUrl) {
+        this.context = context.getApplicationContext();
+        this.webView = webView;
+        this.serverUrl = serverUrl;
+        long now = SystemClock.elapsedRealtime();
+        this.selector = new BootSelector(now, BootSelector.DEFAULT_BUDGET_MS);
+        this.processStartOffsetMs = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+                ? now - Process.getStartElapsedRealtime()
+                : -1;
+        this.probeClient = NativeHttp.client().newBuilder()
+                .callTimeout(BootSelector.DEFAULT_BUDGET_MS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    static BootController getCurrent() {
+        return current;
+    }
+
+    void start() {
+        current = this;
+        boolean online = isOnline();
+        android.util.Log.d(TAG, "🚦 Boot: network " + (online ? "available" : "unavailable") + ", budget "
+                + selector.getBudgetMs() + "ms");
+        registerNetworkCallback();
+        apply(selector.onStart(online, SystemClock.elapsedRealtime()));
+        if (online) {
+            probe();
+            mainHandler.postDelayed(budgetElapsed, selector.getBudgetMs());
+        }
+    }
+
+    void release() {
+        mainHandler.removeCallbacks(budgetElapsed);
+        mainHandler.removeCallbacks(reprobe);
+        if (networkCallback != null) {
+            try {
+                connectivityManager().unregisterNetworkCallback(networkCallback);
+            } catch (Exception ignored) {
+                // Already unregistered
+            }
+            networkCallback = null;
+        }
+        if (current == this) {
+            current = null;
+        }
+    }
+
+    boolean isShowingShell() {
+        return selector.isShowingShell();
+    }
+
+    /**
+     * WebViewClient.onPageCommitVisible: first visual state of a page.
+     */
+    void onPageCommitVisible(String url) {
+        long now = SystemClock.elapsedRealtime();
+        if (isShellUrl(url)) {
+            selector.onShellPainted(now);
+            return;
+        }
+        selector.onRemotePainted(now);
+        if (clearHistoryOnRemotePaint) {
+            // Back must not return to the offline shell
+            clearHistoryOnRemotePaint = false;
+            webView.clearHistory();
+        }
+        logReport();
+    }
+
+    /**
+     * WebViewClient.onReceivedError for the main frame.
+     *
+     * @return true if the error was handled as a boot failure (the shell is shown); errors after
+     *     the first remote paint return false and get the WebView's usual error handling
+     */
+    boolean onMainFrameError(String url) {
+        if (isShellUrl(url)) {
+            return false;
+        }
+        BootSelector.Action action = selector.onRemoteError(SystemClock.elapsedRealtime());
+        apply(action);
+        return action != BootSelector.Action.NONE;
+    }
+
+    JSONObject getReport() throws org.json.JSONException {
+        return selector.toReport(processStartOffsetMs);
+    }
+
+    private void apply(BootSelector.Action action) {
+        switch (action) {
+            case SHOW_SHELL:
+                mainHandler.removeCallbacks(budgetElapsed);
+                showShell();
+                scheduleReprobe();
+                break;
+            case LOAD_REMOTE:
+                android.util.Log.d(TAG, "🔄 Server reachable again, swapping to " + serverUrl);
+                clearHistoryOnRemotePaint = true;
+                webView.loadUrl(serverUrl);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void showShell() {
+        android.util.Log.d(TAG, "📦 Showing local shell");
+        webView.stopLoading();
+        webView.loadDataWithBaseURL(SHELL_BASE_URL, renderShell(), "text/html", "utf-8", null);
+    }
+
+    private String renderShell() {
+        String template = readAsset(SHELL_ASSET);
+        JSONObject data = new JSONObject();
+        try {
+            PriceCache cache = PriceCache.get(context);
+            JSONArray prices = new JSONArray();
+            for (PriceCache.Entry entry : cache.snapshot()) {
+                JSONObject row = new JSONObject();
+                row.put("symbol", entry.symbol.toUpperCase(Locale.US));
+                if (entry.updatedAtMs > 0) {
+                    row.put("price", entry.price);
+                    row.put("change24h", entry.change24h);
+                }
+                prices.put(row);
+            }
+            data.put("marketType", cache.getMarketType());
+            data.put("prices", prices);
+            data.put("updatedAt", cache.getLastRefreshMs());
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Error building shell data: " + e.getMessage());
+        }
+        // "</" must not close the inline <script>
+        return template.replace(BOOT_DATA_PLACEHOLDER, data.toString().replace("</", "<\\/"));
+    }
+
+    private void probe() {
+        if (probeInFlight) {
+            return;
+        }
+        probeInFlight = true;
+        String base = serverUrl.endsWith("/") ? serverUrl.substring(0, serverUrl.length() - 1) : serverUrl;
+        Request request = new Request.Builder().url(base + PROBE_PATH).head().build();
+        probeClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                onProbeResult(false, e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                int code = response.code();
+                response.close();
+                // Any HTTP answer below 5xx means the server and network path are up
+                onProbeResult(code < 500, "HTTP " + code);
+            }
+        });
+    }
+
+    private void onProbeResult(boolean reachable, String detail) {
+        mainHandler.post(() -> {
+            probeInFlight = false;
+            android.util.Log.d(TAG, (reachable ? "✅" : "⚠️") + " Probe: " + detail);
+            BootSelector.Action action = selector.onProbeResult(reachable, SystemClock.elapsedRealtime());
+            if (action == BootSelector.Action.LOAD_REMOTE) {
+                reprobeDelayMs = REPROBE_MIN_MS;
+            } else if (!reachable && selector.isShowingShell() && action == BootSelector.Action.NONE) {
+                scheduleReprobe();
+            }
+            apply(action);
+        });
+    }
+
+    private void scheduleReprobe() {
+        mainHandler.removeCallbacks(reprobe);
+        mainHandler.postDelayed(reprobe, reprobeDelayMs);
+        reprobeDelayMs = Math.min(reprobeDelayMs * 2, REPROBE_MAX_MS);
+    }
+
+    private void registerNetworkCallback() {
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                mainHandler.post(() -> {
+                    if (selector.isShowingShell()) {
+                        reprobeDelayMs = REPROBE_MIN_MS;
+                        probe();
+                    }
+                });
+            }
+        };
+        try {
+            NetworkRequest request = new NetworkRequest.Builder()
+                    .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                    .build();
+            connectivityManager().registerNetworkCallback(request, networkCallback);
+        } catch (Exception e) {
+            android.util.Log.w(TAG, "⚠️ Could not register network callback: " + e.getMessage());
+            networkCallback = null;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private boolean isOnline() {
+        ConnectivityManager cm = connectivityManager();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            Network network = cm.getActiveNetwork();
+            NetworkCapabilities capabilities = network != null ? cm.getNetworkCapabilities(network) : null;
+            return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        }
+        NetworkInfo info = cm.getActiveNetworkInfo();
+        return info != null && info.isConnected();
+    }
+
+    private ConnectivityManager connectivityManager() {
+        return (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
+    private void logReport() {
+        try {
+            android.util.Log.d(TAG, "⏱️ Boot report: " + getReport());
+        } catch (Exception ignored) {
+            // Logging only
+        }
+    }
+
+    private static boolean isShellUrl(String url) {
+        return url == null || url.startsWith(SHELL_BASE_URL) || url.startsWith("data:") || url.equals("about:blank");
+    }
+
+    private String readAsset(String name) {
+        try (InputStream inputStream = context.getAssets().open(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            android.util.Log.e(TAG, "❌ Error reading " + name + ": " + e.getMessage());
+            return "<html><body style=\"background:#000;color:#fff\">Alerta Chart</body></html>";
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONException;
+
+/**
+ * Exposes the launch decision of {@link BootController} (remote app vs local shell) and its
+ * time-to-first-meaningful-paint report.
+ */
+@CapacitorPlugin(name = "Boot")
+public class BootPlugin extends Plugin {
+
+    @PluginMethod
+    public void getReport(PluginCall call) {
+        BootController controller = BootController.getCurrent();
+        if (controller == null) {
+            call.reject("Boot report not available");
+            return;
+        }
+        try {
+            call.resolve(new JSObject(controller.getReport().toString()));
+        } catch (JSONException e) {
+            call.reject("Error building boot report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Locale;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Decides between the remote app and the bundled local shell at launch (pure state machine,
+ * driven by {@link BootController}; times are SystemClock.elapsedRealtime ms).
+ *
+ *   offline at launch                         -> shell immediately
+ *   probe fails                               -> shell
+ *   budget elapsed, remote not painted and
+ *   probe not confirmed                       -> shell
+ *   remote main-frame error before the first
+ *   remote paint                              -> shell
+ *   shell + probe succeeds                    -> load remote (swap)
+ *
+ * Once the probe confirmed the server, a slow first paint keeps waiting for the remote page
+ * instead of aborting a load that is making progress. Once the remote app has painted, boot
+ * is over: later main-frame errors (a failed navigation mid-session) are left to the WebView.
+ */
+final class BootSelector {
+    static final long DEFAULT_BUDGET_MS = 1500L;
+
+    enum Mode {
+        BOOTING,
+        REMOTE,
+        SHELL
+    }
+
+    enum Action {
+        NONE,
+        SHOW_SHELL,
+        LOAD_REMOTE
+    }
+
+    private final long startMs;
+    private final long budgetMs;
+    private Mode mode = Mode.BOOTING;
+    private boolean probeConfirmed = false;
+
+    // Report (ms since start, -1 = not yet)
+    private String reason = "pending";
+    private long probeMs = -1;
+    private long firstPaintMs = -1;
+    private String firstPaintSource = null;
+    private long shellShownMs = -1;
+    private long remoteSwapMs = -1;
+    private long remotePaintMs = -1;
+    private int probes = 0;
+
+    BootSelector(long startMs, long budgetMs) {
+        this.startMs = startMs;
+        this.budgetMs = budgetMs;
+    }
+
+    synchronized Action onStart(boolean networkAvailable, long nowMs) {
+        if (!networkAvailable) {
+            return showShell("offline", nowMs);
+        }
+        return Action.NONE;
+    }
+
+    synchronized Action onProbeResult(boolean reachable, long nowMs) {
+        probes++;
+        if (probeMs < 0) {
+            probeMs = nowMs - startMs;
+        }
+        switch (mode) {
+            case BOOTING:
+                if (reachable) {
+                    probeConfirmed = true;
+                    return Action.NONE;
+                }
+                return showShell("unreachable", nowMs);
+            case SHELL:
+                if (reachable) {
+                    mode = Mode.REMOTE;
+                    remoteSwapMs = nowMs - startMs;
+                    return Action.LOAD_REMOTE;
+                }
+                return Action.NONE;
+            default:
+                return Action.NONE;
+        }
+    }
+
+    synchronized Action onBudgetElapsed(long nowMs) {
+        if (mode == Mode.BOOTING && !probeConfirmed) {
+            return showShell("slow-network", nowMs);
+        }
+        if (mode == Mode.BOOTING) {
+            // Server answered the probe, the page is just slow: keep loading it
+            mode = Mode.REMOTE;
+            reason = "remote-slow";
+        }
+        return Action.NONE;
+    }
+
+    synchronized void onRemotePainted(long nowMs) {
+        if (mode == Mode.SHELL) {
+            // Late commit of a load that was already replaced by the shell
+            return;
+        }
+        if (mode == Mode.BOOTING) {
+            reason = "remote";
+        }
+        mode = Mode.REMOTE;
+        if (remotePaintMs < 0) {
+            remotePaintMs = nowMs - startMs;
+        }
+        recordFirstPaint("remote", nowMs);
+    }
+
+    synchronized Action onRemoteError(long nowMs) {
+        if (mode == Mode.SHELL || remotePaintMs >= 0) {
+            return Action.NONE;
+        }
+        return showShell("load-error", nowMs);
+    }
+
+    synchronized void onShellPainted(long nowMs) {
+        recordFirstPaint("shell", nowMs);
+    }
+
+    synchronized Mode getMode() {
+        return mode;
+    }
+
+    synchronized boolean isShowingShell() {
+        return mode == Mode.SHELL;
+    }
+
+    long getBudgetMs() {
+        return budgetMs;
+    }
+
+    /**
+     * @param processStartOffsetMs time from process start to {@code startMs}, or -1 if unknown
+     */
+    synchronized JSONObject toReport(long processStartOffsetMs) throws JSONException {
+        JSONObject report = new JSONObject();
+        report.put("mode", mode.name().toLowerCase(Locale.US));
+        report.put("reason", reason);
+        report.put("budgetMs", budgetMs);
+        report.put("probeMs", probeMs);
+        report.put("probes", probes);
+        report.put("firstMeaningfulPaintMs", firstPaintMs);
+        report.put("firstMeaningfulPaintSource", firstPaintSource != null ? firstPaintSource : JSONObject.NULL);
+        report.put("firstMeaningfulPaintFromProcessStartMs",
+                firstPaintMs >= 0 && processStartOffsetMs >= 0 ? firstPaintMs + processStartOffsetMs : -1);
+        report.put("shellShownMs", shellShownMs);
+        report.put("remoteSwapMs", remoteSwapMs);
+        report.put("remotePaintMs", remotePaintMs);
+        return report;
+    }
+
+    private Action showShell(String why, long nowMs) {
+        mode = Mode.SHELL;
+        reason = why;
+        if (shellShownMs < 0) {
+            shellShownMs = nowMs - startMs;
+        }
+        return Action.SHOW_SHELL;
+    }
+
+    private void recordFirstPaint(String source, long nowMs) {
+        if (firstPaintMs < 0) {
+            firstPaintMs = nowMs - startMs;
+            firstPaintSource = source;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+
+/**
+ * Runs an ordered list of plugin commands received in ONE bridge message and collects all
+ * results for ONE response, instead of a JSON round trip + thread hop per call.
+ *
+ * Ordering: a command waits for the previous command to the same plugin (plugin methods may
+ * share state, e.g. consecutive logDebug lines) and for the indices in its dependsOn; every
+ * other command is independent and runs in parallel on the executor. A command is skipped
+ * when one of its dependsOn failed (same-plugin ordering alone does not propagate
+ * failures). Results keep the input order, and each one is reported to the {@link Listener}
+ * as soon as it is known, so a slow command holds back only the commands that wait for it.
+ *
+ * No Capacitor types here; {@link BridgeBatchPlugin} supplies the {@link Invoker}.
+ */
+final class BridgeBatch {
+    static final String ERROR_SKIPPED = "Skipped: a prerequisite command failed";
+    static final String ERROR_TIMEOUT = "Timed out";
+
+    static final class Command {
+        final String plugin;
+        final String method;
+        final JSONObject args;
+        final int[] dependsOn;
+
+        Command(String plugin, String method, JSONObject args, int[] dependsOn) {
+            this.plugin = plugin;
+            this.method = method;
+            this.args = args != null ? args : new JSONObject();
+            this.dependsOn = dependsOn != null ? dependsOn : new int[0];
+        }
+    }
+
+    static final class Result {
+        boolean done;
+        boolean ok;
+        JSONObject data;
+        String error;
+        long durationMs;
+    }
+
+    /** Called exactly once per invoked command, from any thread. */
+    interface Callback {
+        void onResult(boolean ok, JSONObject data, String error);
+    }
+
+    interface Invoker {
+        void invoke(Command command, Callback callback);
+    }
+
+    /** Called from any thread; onFinished exactly once, after the last onResult. */
+    interface Listener {
+        void onResult(int index, Result result);
+
+        void onFinished(Result[] results);
+    }
+
+    private final List<Command> commands;
+    private final int[][] prerequisites;
+    private final int[] pending;
+    private final List<List<Integer>> dependents = new ArrayList<>();
+    private final Result[] results;
+    private final long[] startedAtNs;
+    private int remaining;
+    private Invoker invoker;
+    private Executor executor;
+    private Listener listener;
+
+    /**
+     * @throws IllegalArgumentException if a dependsOn index does not point to an earlier command
+     */
+    BridgeBatch(List<Command> commands) {
+        this.commands = commands;
+        int size = commands.size();
+        prerequisites = plan(commands);
+        pending = new int[size];
+        results = new Result[size];
+        startedAtNs = new long[size];
+        remaining = size;
+        for (int i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+            results[i] = new Result();
+        }
+        for (int i = 0; i < size; i++) {
+            pending[i] = prerequisites[i].length;
+            for (int prerequisite : prerequisites[i]) {
+                dependents.get(prerequisite).add(i);
+            }
+        }
+    }
+
+    /**
+     * Prerequisites per command: the previous command to the same plugin plus its dependsOn.
+     */
+    static int[][] plan(List<Command> commands) {
+        int[][] plan = new int[commands.size()][];
+        for (int i = 0; i < commands.size(); i++) {
+            Command command = commands.get(i);
+            List<Integer> before = new ArrayList<>();
+            for (int j = i - 1; j >= 0; j--) {
+                if (commands.get(j).plugin.equals(command.plugin)) {
+                    before.add(j);
+                    break;
+                }
+            }
+            for (int dependency : command.dependsOn) {
+                if (dependency < 0 || dependency >= i) {
+                    throw new IllegalArgumentException("Command " + i + " can only depend on earlier commands, got "
+                            + dependency);
+                }
+                if (!before.contains(dependency)) {
+                    before.add(dependency);
+                }
+            }
+            plan[i] = new int[before.size()];
+            for (int k = 0; k < before.size(); k++) {
+                plan[i][k] = before.get(k);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Dispatch every command that has no prerequisites and return; the rest follow as their
+     * prerequisites finish. Call {@link #expire()} to give up on the unfinished ones.
+     */
+    void start(Invoker invoker, Executor executor, Listener listener) {
+        this.invoker = invoker;
+        this.executor = executor;
+        this.listener = listener;
+        List<Integer> ready = new ArrayList<>();
+        boolean empty;
+        synchronized (this) {
+            for (int i = 0; i < pending.length; i++) {
+                if (pending[i] == 0) {
+                    ready.add(i);
+                }
+            }
+            empty = remaining == 0;
+        }
+        if (empty) {
+            listener.onFinished(results);
+            return;
+        }
+        for (int index : ready) {
+            dispatch(index);
+        }
+    }
+
+    /** Report every unfinished command as {@link #ERROR_TIMEOUT}; late answers are dropped. */
+    void expire() {
+        List<Integer> expired = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < results.length; i++) {
+                if (!results[i].done) {
+                    results[i].done = true;
+                    results[i].error = ERROR_TIMEOUT;
+                    remaining--;
+                    expired.add(i);
+                }
+            }
+            report(expired, !expired.isEmpty());
+        }
+    }
+
+    /**
+     * Run every command and block until all finished or {@code timeoutMs} elapsed
+     * (unfinished commands then report {@link #ERROR_TIMEOUT}).
+     */
+    Result[] run(Invoker invoker, Executor executor, long timeoutMs) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        start(invoker, executor, new Listener() {
+            @Override
+            public void onResult(int index, Result result) {
+            }
+
+            @Override
+            public void onFinished(Result[] results) {
+                finished.countDown();
+            }
+        });
+        if (!finished.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+            expire();
+        }
+        return results;
+    }
+
+    private void dispatch(int index) {
+        executor.execute(() -> {
+            synchronized (this) {
+                startedAtNs[index] = System.nanoTime();
+            }
+            try {
+                invoker.invoke(commands.get(index), (ok, data, error) -> complete(index, ok, data, error));
+            } catch (RuntimeException e) {
+                complete(index, false, null, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+        });
+    }
+
+    private void complete(int index, boolean ok, JSONObject data, String error) {
+        List<Integer> ready = new ArrayList<>();
+        List<Integer> finished = new ArrayList<>();
+        synchronized (this) {
+            Result result = results[index];
+            if (result.done) {
+                // Late answer after the timeout, or a second resolve
+                return;
+            }
+            result.done = true;
+            result.ok = ok;
+            result.data = data;
+            result.error = error;
+            result.durationMs = (System.nanoTime() - startedAtNs[index]) / 1_000_000;
+            remaining--;
+            finished.add(index);
+            collectReady(index, ok, ready, finished);
+            // Under the lock, so onFinished never overtakes an onResult
+            report(finished, remaining == 0);
+        }
+        for (int next : ready) {
+            dispatch(next);
+        }
+    }
+
+    /** Caller holds the lock. */
+    private void report(List<Integer> finished, boolean last) {
+        for (int index : finished) {
+            listener.onResult(index, results[index]);
+        }
+        if (last) {
+            listener.onFinished(results);
+        }
+    }
+
+    /**
+     * Release dependents of a finished command; failures cascade along dependsOn (skipped
+     * commands are added to finished). Caller holds the lock.
+     */
+    private void collectReady(int index, boolean ok, List<Integer> ready, List<Integer> finished) {
+        for (int dependent : dependents.get(index)) {
+            if (results[dependent].done) {
+                continue;
+            }
+            if (!ok && dependsOn(commands.get(dependent), index)) {
+                Result skipped = results[dependent];
+                skipped.done = true;
+                skipped.error = ERROR_SKIPPED;
+                remaining--;
+                finished.add(dependent);
+                collectReady(dependent, false, ready, finished);
+            } else if (--pending[dependent] == 0) {
+                ready.add(dependent);
+            }
+        }
+    }
+
+    private static boolean dependsOn(Command command, int index) {
+        for (int dependency : command.dependsOn) {
+            if (dependency == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
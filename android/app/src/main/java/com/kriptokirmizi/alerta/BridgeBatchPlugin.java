@@ -0,0 +1,217 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginHandle;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.PluginMethodHandle;
+import com.getcapacitor.PluginResult;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * One bridge crossing for many plugin calls: batch() dispatches each command straight to the
+ * target plugin's handle ({@link BridgeBatch} decides order) and answers with all results at
+ * once, or streams each result as a "batchResult" event as soon as it is known.
+ *
+ * Commands are dispatched on the bridge's plugin thread (Bridge.execute), the thread every
+ * ordinary plugin call runs on, so plugins never see concurrency they would not see anyway.
+ * Only promise-returning methods can be batched; callback/listener methods (kept-alive
+ * calls) keep going through the normal bridge.
+ */
+@CapacitorPlugin(name = "BridgeBatch")
+public class BridgeBatchPlugin extends Plugin {
+    private static final String TAG = "BridgeBatch";
+    private static final long DEFAULT_TIMEOUT_MS = 10_000;
+    private static final long MAX_TIMEOUT_MS = 60_000;
+
+    // Gives up on unanswered commands; batches never wait on each other
+    private static final ScheduledExecutorService timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bridge-batch-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * batch({ commands: [{ plugin, method, args?, dependsOn?: number[] }], timeoutMs?, batchId? })
+     *   -> { results: [{ ok, data?, error?, durationMs }], totalMs }
+     * With batchId, each result is emitted as "batchResult" { batchId, index, ok, data?, error?,
+     * durationMs } when it finishes and the response carries only totalMs. Each event is a bridge
+     * message of its own, so callers send batchId only when they need early results.
+     */
+    @PluginMethod
+    public void batch(PluginCall call) {
+        JSArray array = call.getArray("commands");
+        if (array == null) {
+            call.reject("commands is required");
+            return;
+        }
+        long timeoutMs = Math.max(1, Math.min(MAX_TIMEOUT_MS, call.getLong("timeoutMs", DEFAULT_TIMEOUT_MS)));
+        String batchId = call.getString("batchId");
+
+        List<BridgeBatch.Command> commands;
+        BridgeBatch batch;
+        try {
+            commands = parseCommands(array);
+            batch = new BridgeBatch(commands);
+        } catch (Exception e) {
+            call.reject("Invalid batch: " + e.getMessage());
+            return;
+        }
+
+        long startNs = System.nanoTime();
+        ScheduledFuture<?> timeout = timeouts.schedule(batch::expire, timeoutMs, TimeUnit.MILLISECONDS);
+        batch.start(this::invoke, getBridge()::execute, new BridgeBatch.Listener() {
+            @Override
+            public void onResult(int index, BridgeBatch.Result result) {
+                if (batchId != null) {
+                    JSObject event = toJson(result);
+                    event.put("batchId", batchId);
+                    event.put("index", index);
+                    notifyListeners("batchResult", event);
+                }
+            }
+
+            @Override
+            public void onFinished(BridgeBatch.Result[] results) {
+                timeout.cancel(false);
+                long totalMs = (System.nanoTime() - startNs) / 1_000_000;
+                JSObject response = new JSObject();
+                if (batchId == null) {
+                    JSONArray out = new JSONArray();
+                    for (BridgeBatch.Result result : results) {
+                        out.put(toJson(result));
+                    }
+                    response.put("results", out);
+                }
+                response.put("totalMs", totalMs);
+                call.resolve(response);
+                android.util.Log.d(TAG, "📦 Ran " + commands.size() + " command(s) in " + totalMs + "ms");
+            }
+        });
+    }
+
+    /**
+     * No-op round trip, the baseline for bridge latency measurements from the page.
+     */
+    @PluginMethod
+    public void ping(PluginCall call) {
+        JSObject result = new JSObject();
+        result.put("at", System.currentTimeMillis());
+        call.resolve(result);
+    }
+
+    private static JSObject toJson(BridgeBatch.Result result) {
+        JSObject entry = new JSObject();
+        entry.put("ok", result.ok);
+        if (result.data != null) {
+            entry.put("data", result.data);
+        }
+        if (result.error != null) {
+            entry.put("error", result.error);
+        }
+        entry.put("durationMs", result.durationMs);
+        return entry;
+    }
+
+    private void invoke(BridgeBatch.Command command, BridgeBatch.Callback callback) {
+        if (getPluginHandle().getId().equals(command.plugin) && "batch".equals(command.method)) {
+            callback.onResult(false, null, "Batches cannot be nested");
+            return;
+        }
+        PluginHandle handle = getBridge().getPlugin(command.plugin);
+        if (handle == null) {
+            callback.onResult(false, null, "Plugin not found: " + command.plugin);
+            return;
+        }
+        if (!isPromiseMethod(handle, command.method)) {
+            callback.onResult(false, null, "Not a batchable (promise) method: " + command.plugin + "." + command.method);
+            return;
+        }
+        try {
+            JSObject args = JSObject.fromJSONObject(command.args);
+            handle.invoke(command.method, new BatchedCall(command, args, callback));
+        } catch (Exception e) {
+            callback.onResult(false, null, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private static boolean isPromiseMethod(PluginHandle handle, String method) {
+        for (PluginMethodHandle methodHandle : handle.getMethods()) {
+            if (methodHandle.getName().equals(method)) {
+                return PluginMethod.RETURN_PROMISE.equals(methodHandle.getReturnType());
+            }
+        }
+        return false;
+    }
+
+    private static List<BridgeBatch.Command> parseCommands(JSONArray array) {
+        List<BridgeBatch.Command> commands = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject json = array.optJSONObject(i);
+            if (json == null || json.optString("plugin").isEmpty() || json.optString("method").isEmpty()) {
+                throw new IllegalArgumentException("command " + i + " needs plugin and method");
+            }
+            JSONArray dependsOnJson = json.optJSONArray("dependsOn");
+            int[] dependsOn = new int[dependsOnJson != null ? dependsOnJson.length() : 0];
+            for (int k = 0; k < dependsOn.length; k++) {
+                dependsOn[k] = dependsOnJson.optInt(k, -1);
+            }
+            commands.add(new BridgeBatch.Command(json.optString("plugin"), json.optString("method"),
+                    json.optJSONObject("args"), dependsOn));
+        }
+        return commands;
+    }
+
+    /**
+     * PluginCall whose answer goes to the batch instead of back over the bridge.
+     */
+    private static final class BatchedCall extends PluginCall {
+        private final BridgeBatch.Callback callback;
+
+        BatchedCall(BridgeBatch.Command command, JSObject args, BridgeBatch.Callback callback) {
+            super(null, command.plugin, PluginCall.CALLBACK_ID_DANGLING, command.method, args);
+            this.callback = callback;
+        }
+
+        @Override
+        public void resolve(JSObject data) {
+            callback.onResult(true, data, null);
+        }
+
+        @Override
+        public void resolve() {
+            callback.onResult(true, null, null);
+        }
+
+        @Override
+        public void successCallback(PluginResult result) {
+            JSObject data = null;
+            try {
+                data = new JSObject(result.toString());
+            } catch (Exception ignored) {
+                // Non-object payload: report success without data
+            }
+            callback.onResult(true, data, null);
+        }
+
+        @Override
+        public void reject(String msg, String code, Exception ex, JSObject data) {
+            callback.onResult(false, data, code != null ? code + ": " + msg : msg);
+        }
+
+        @Override
+        public void errorCallback(String msg) {
+            callback.onResult(false, null, msg);
+        }
+    }
+}
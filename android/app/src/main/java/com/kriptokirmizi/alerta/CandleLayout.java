@@ -0,0 +1,101 @@
+package com.kriptokirmizi.alerta;
+
+/**
+ * Per-frame geometry for the native chart: visible index range (viewport culling),
+ * price and volume scales, and bar -> pixel mapping. Plain fields, recomputed in
+ * place by {@link #compute} so a frame allocates nothing.
+ */
+final class CandleLayout {
+    /** Fraction of the plot height used by the volume histogram */
+    static final float VOLUME_HEIGHT_RATIO = 0.2f;
+    private static final double PRICE_PADDING_RATIO = 0.05;
+
+    // Inputs
+    float width;
+    float height;
+    long fromTime;
+    long toTime;
+    long barIntervalMs;
+
+    // Outputs
+    int firstIndex;
+    /** Exclusive */
+    int endIndex;
+    double priceMin;
+    double priceMax;
+    double volumeMax;
+    float barWidth;
+    float bodyWidth;
+
+    private float pxPerMs;
+    private float priceAreaHeight;
+    private double pxPerPrice;
+
+    /**
+     * @return false if nothing is visible
+     */
+    boolean compute(CandleSeries series) {
+        if (series.size == 0 || width <= 0 || height <= 0 || toTime <= fromTime) {
+            firstIndex = 0;
+            endIndex = 0;
+            return false;
+        }
+
+        // One bar of margin on each side so partially visible candles are drawn
+        long interval = barIntervalMs > 0 ? barIntervalMs : 60_000L;
+        firstIndex = series.lowerBound(fromTime - interval);
+        endIndex = series.lowerBound(toTime + interval);
+        if (firstIndex >= endIndex) {
+            return false;
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double volMax = 0;
+        double[] high = series.high;
+        double[] low = series.low;
+        double[] volume = series.volume;
+        for (int i = firstIndex; i < endIndex; i++) {
+            if (low[i] < min) {
+                min = low[i];
+            }
+            if (high[i] > max) {
+                max = high[i];
+            }
+            if (volume[i] > volMax) {
+                volMax = volume[i];
+            }
+        }
+        double padding = (max - min) * PRICE_PADDING_RATIO;
+        if (padding == 0) {
+            padding = Math.abs(max) * 0.01 + 1e-9;
+        }
+        priceMin = min - padding;
+        priceMax = max + padding;
+        volumeMax = volMax;
+
+        pxPerMs = width / (float) (toTime - fromTime);
+        barWidth = interval * pxPerMs;
+        bodyWidth = Math.max(1f, barWidth * 0.7f);
+        priceAreaHeight = height * (1f - VOLUME_HEIGHT_RATIO);
+        pxPerPrice = priceAreaHeight / (priceMax - priceMin);
+        return true;
+    }
+
+    /** Center x of the bar opening at t */
+    float x(long t) {
+        return (t - fromTime) * pxPerMs + barWidth / 2f;
+    }
+
+    float y(double price) {
+        return (float) ((priceMax - price) * pxPerPrice);
+    }
+
+    /** Top y of a volume bar (bottom is height) */
+    float volumeTop(double volume) {
+        if (volumeMax <= 0) {
+            return height;
+        }
+        return height - (float) (volume / volumeMax) * height * VOLUME_HEIGHT_RATIO;
+    }
+}
@@ -0,0 +1,201 @@
+package com.kriptokirmizi.alerta;
+
+/**
+ * Higher timeframes built from locally held 1-minute candles of one market, so a timeframe
+ * switch is a scan over primitive arrays instead of another history download.
+ *
+ * Buckets follow the exchange session: intraday timeframes that divide the day start at the
+ * session open (UTC midnight plus sessionOffsetMs), weeks on Monday. Coverage is the contiguous
+ * run of minutes ending at the newest one; bars are only produced for buckets fully inside it,
+ * everything older has to come from the network. Live minutes only extend the store; the chart
+ * draws its open bar from its own trades. Not thread-safe: the plugin calls it from one thread.
+ */
+final class CandleResampler {
+    static final long MINUTE_MS = 60_000L;
+    static final long DAY_MS = 86_400_000L;
+    static final long WEEK_MS = 7 * DAY_MS;
+    static final int WEEK_SECONDS = 604_800;
+    // 1970-01-01 was a Thursday; exchange weeks open on Monday
+    private static final long MONDAY_MS = 4 * DAY_MS;
+
+    private static final class Bar {
+        long time;
+        double open;
+        double high;
+        double low;
+        double close;
+        double volume;
+        boolean empty = true;
+
+        void reset(long barTime) {
+            time = barTime;
+            empty = true;
+            volume = 0;
+        }
+
+        void add(double o, double h, double l, double c, double v) {
+            if (empty) {
+                open = o;
+                high = h;
+                low = l;
+                empty = false;
+            } else {
+                high = Math.max(high, h);
+                low = Math.min(low, l);
+            }
+            close = c;
+            volume += v;
+        }
+    }
+
+    private final CandleSeries minutes = new CandleSeries();
+    private final int maxMinutes;
+    private final long sessionOffsetMs;
+    private long coverFrom = Long.MAX_VALUE;
+    private long coverTo = Long.MIN_VALUE;
+
+    /**
+     * @param maxMinutes minutes kept (oldest dropped first)
+     * @param sessionOffsetMs session open relative to UTC midnight, 0 for Binance / Bybit / OKX
+     */
+    CandleResampler(int maxMinutes, long sessionOffsetMs) {
+        this.maxMinutes = maxMinutes;
+        this.sessionOffsetMs = sessionOffsetMs;
+    }
+
+    /** Whole minutes that tile the session day, or one week */
+    static boolean supports(int timeframeSeconds) {
+        if (timeframeSeconds == WEEK_SECONDS) {
+            return true;
+        }
+        long ms = timeframeSeconds * 1000L;
+        return timeframeSeconds >= 60 && ms % MINUTE_MS == 0 && DAY_MS % ms == 0;
+    }
+
+    static long bucketStart(long timeMs, int timeframeSeconds, long sessionOffsetMs) {
+        long origin = sessionOffsetMs + (timeframeSeconds == WEEK_SECONDS ? MONDAY_MS : 0);
+        long length = timeframeSeconds * 1000L;
+        long offset = timeMs - origin;
+        // floorDiv without API 24
+        long buckets = offset / length;
+        if (offset % length != 0 && offset < 0) {
+            buckets--;
+        }
+        return origin + buckets * length;
+    }
+
+    int minuteCount() {
+        return minutes.size();
+    }
+
+    boolean isEmpty() {
+        return coverTo == Long.MIN_VALUE;
+    }
+
+    /** Open time of the oldest covered minute */
+    long coveredFrom() {
+        return coverFrom;
+    }
+
+    /** Open time of the newest covered minute */
+    long coveredTo() {
+        return coverTo;
+    }
+
+    /** First bucket of the timeframe whose minutes are all covered */
+    long localFrom(int timeframeSeconds) {
+        long start = bucketStart(coverFrom, timeframeSeconds, sessionOffsetMs);
+        return start == coverFrom ? start : start + timeframeSeconds * 1000L;
+    }
+
+    /**
+     * Merge a batch of 1-minute candles (sorted by time, gap-free as the exchange returns them).
+     * A batch touching the covered run extends it; a newer one past a gap replaces it.
+     */
+    void merge(long[] time, double[] open, double[] high, double[] low, double[] close, double[] volume, int count) {
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            minutes.upsert(minuteOf(time[i]), open[i], high[i], low[i], close[i], volume[i]);
+        }
+        cover(minuteOf(time[0]), minuteOf(time[count - 1]));
+        trim();
+    }
+
+    /**
+     * Upsert the live minute (any number of times while it is open).
+     */
+    void updateMinute(long time, double o, double h, double l, double c, double v) {
+        long minute = minuteOf(time);
+        minutes.upsert(minute, o, h, l, c, v);
+        cover(minute, minute);
+        trim();
+    }
+
+    /**
+     * Bars of the timeframe for buckets in [from, to], limited to full coverage.
+     * Returns the number of bars written to out (cleared first), or -1 if the timeframe is not
+     * buildable from minutes.
+     */
+    int resample(int timeframeSeconds, long from, long to, CandleSeries out) {
+        out.clear();
+        if (!supports(timeframeSeconds)) {
+            return -1;
+        }
+        if (isEmpty()) {
+            return 0;
+        }
+        long start = Math.max(bucketStart(from, timeframeSeconds, sessionOffsetMs), localFrom(timeframeSeconds));
+        Bar bar = new Bar();
+        for (int i = minutes.lowerBound(start); i < minutes.size() && minutes.time[i] <= coverTo; i++) {
+            long bucket = bucketStart(minutes.time[i], timeframeSeconds, sessionOffsetMs);
+            if (bucket > to) {
+                break;
+            }
+            if (bar.empty || bucket != bar.time) {
+                if (!bar.empty) {
+                    out.upsert(bar.time, bar.open, bar.high, bar.low, bar.close, bar.volume);
+                }
+                bar.reset(bucket);
+            }
+            bar.add(minutes.open[i], minutes.high[i], minutes.low[i], minutes.close[i], minutes.volume[i]);
+        }
+        if (!bar.empty) {
+            out.upsert(bar.time, bar.open, bar.high, bar.low, bar.close, bar.volume);
+        }
+        return out.size();
+    }
+
+    void clear() {
+        minutes.clear();
+        coverFrom = Long.MAX_VALUE;
+        coverTo = Long.MIN_VALUE;
+    }
+
+    private void cover(long first, long last) {
+        if (isEmpty() || first > coverTo + MINUTE_MS) {
+            // Nothing yet, or newer data past a gap: the newest run wins
+            coverFrom = first;
+            coverTo = last;
+        } else if (last >= coverFrom - MINUTE_MS) {
+            coverFrom = Math.min(coverFrom, first);
+            coverTo = Math.max(coverTo, last);
+        }
+        // Older data past a gap is stored but not covered
+    }
+
+    private void trim() {
+        if (minutes.size() <= maxMinutes) {
+            return;
+        }
+        long keepFrom = minutes.time[minutes.size() - maxMinutes];
+        minutes.dropBefore(keepFrom);
+        coverFrom = Math.max(coverFrom, keepFrom);
+    }
+
+    private static long minuteOf(long time) {
+        // Candle times are after 1970, so plain division floors
+        return time / MINUTE_MS * MINUTE_MS;
+    }
+}
@@ -0,0 +1,211 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Page side of {@link CandleResampler}: the chart hands over 1-minute history and live minutes,
+ * and builds 5m / 15m / 1h / 4h / 1d bars from them on a timeframe switch instead of fetching
+ * each timeframe again. Markets are kept in a small LRU; all calls run on one thread.
+ */
+@CapacitorPlugin(name = "CandleResampler")
+public class CandleResamplerPlugin extends Plugin {
+    private static final String TAG = "CandleResampler";
+    private static final int MAX_MARKETS = 8;
+    // Two weeks of minutes (~960 KB per market)
+    private static final int MAX_MINUTES = 20_160;
+
+    private final Map<String, CandleResampler> markets = new LinkedHashMap<String, CandleResampler>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CandleResampler> eldest) {
+            return size() > MAX_MARKETS;
+        }
+    };
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "candle-resampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * merge({ market, time, open, high, low, close, volume }) -> { coveredFrom, coveredTo, minutes } -
+     * 1-minute history, sorted by time (ms).
+     */
+    @PluginMethod
+    public void merge(PluginCall call) {
+        String market = call.getString("market");
+        if (market == null) {
+            call.reject("market is required");
+            return;
+        }
+        JSONObject data = call.getData();
+        executor.execute(() -> {
+            try {
+                JSONArray time = data.getJSONArray("time");
+                int count = time.length();
+                long[] t = new long[count];
+                for (int i = 0; i < count; i++) {
+                    t[i] = time.getLong(i);
+                }
+                double[] open = column(data, "open", count);
+                double[] high = column(data, "high", count);
+                double[] low = column(data, "low", count);
+                double[] close = column(data, "close", count);
+                double[] volume = data.has("volume") ? column(data, "volume", count) : new double[count];
+                CandleResampler resampler = resampler(market);
+                resampler.merge(t, open, high, low, close, volume, count);
+                android.util.Log.d(TAG, "✅ Merged " + count + " minutes for " + market + " (" + resampler.minuteCount() + " held)");
+                call.resolve(coverage(resampler));
+            } catch (IllegalArgumentException | JSONException e) {
+                call.reject("Invalid candles: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * updateMinute({ market, time, open, high, low, close, volume }) -> { coveredFrom, coveredTo, minutes } -
+     * the live 1-minute candle.
+     */
+    @PluginMethod
+    public void updateMinute(PluginCall call) {
+        String market = call.getString("market");
+        Long time = call.getLong("time");
+        Double close = call.getDouble("close");
+        if (market == null || time == null || close == null) {
+            call.reject("market, time and close are required");
+            return;
+        }
+        double open = call.getDouble("open", close);
+        double high = call.getDouble("high", close);
+        double low = call.getDouble("low", close);
+        double volume = call.getDouble("volume", 0.0);
+        executor.execute(() -> {
+            CandleResampler resampler = resampler(market);
+            resampler.updateMinute(time, open, high, low, close, volume);
+            call.resolve(coverage(resampler));
+        });
+    }
+
+    /**
+     * resample({ market, timeframe, from, to }) -> { supported, coveredFrom, coveredTo, localFrom,
+     *   time, open, high, low, close, volume } - bars whose minutes are all held locally; anything
+     *   before localFrom has to be fetched.
+     */
+    @PluginMethod
+    public void resample(PluginCall call) {
+        String market = call.getString("market");
+        Integer timeframe = call.getInt("timeframe");
+        if (market == null || timeframe == null) {
+            call.reject("market and timeframe are required");
+            return;
+        }
+        long from = call.getLong("from", 0L);
+        long to = call.getLong("to", Long.MAX_VALUE);
+        executor.execute(() -> {
+            CandleResampler resampler = markets.get(market);
+            JSObject result = resampler != null ? coverage(resampler) : new JSObject();
+            CandleSeries bars = new CandleSeries();
+            int count = resampler != null ? resampler.resample(timeframe, from, to, bars) : 0;
+            result.put("supported", CandleResampler.supports(timeframe));
+            if (resampler != null && !resampler.isEmpty() && count >= 0) {
+                result.put("localFrom", resampler.localFrom(timeframe));
+            }
+            JSONArray time = new JSONArray();
+            JSONArray open = new JSONArray();
+            JSONArray high = new JSONArray();
+            JSONArray low = new JSONArray();
+            JSONArray close = new JSONArray();
+            JSONArray volume = new JSONArray();
+            try {
+                for (int i = 0; i < bars.size(); i++) {
+                    time.put(bars.time[i]);
+                    open.put(bars.open[i]);
+                    high.put(bars.high[i]);
+                    low.put(bars.low[i]);
+                    close.put(bars.close[i]);
+                    volume.put(bars.volume[i]);
+                }
+            } catch (JSONException e) {
+                call.reject("Error reading bars: " + e.getMessage());
+                return;
+            }
+            result.put("time", time);
+            result.put("open", open);
+            result.put("high", high);
+            result.put("low", low);
+            result.put("close", close);
+            result.put("volume", volume);
+            call.resolve(result);
+        });
+    }
+
+    /** getCoverage({ market }) -> { coveredFrom, coveredTo, minutes } */
+    @PluginMethod
+    public void getCoverage(PluginCall call) {
+        String market = call.getString("market");
+        if (market == null) {
+            call.reject("market is required");
+            return;
+        }
+        executor.execute(() -> {
+            CandleResampler resampler = markets.get(market);
+            call.resolve(resampler != null ? coverage(resampler) : new JSObject());
+        });
+    }
+
+    /** clear({ market? }) - one market, or all of them */
+    @PluginMethod
+    public void clear(PluginCall call) {
+        String market = call.getString("market");
+        executor.execute(() -> {
+            if (market != null) {
+                markets.remove(market);
+            } else {
+                markets.clear();
+            }
+            call.resolve();
+        });
+    }
+
+    private CandleResampler resampler(String market) {
+        CandleResampler resampler = markets.get(market);
+        if (resampler == null) {
+            // Binance, Bybit and OKX all open their sessions at UTC midnight
+            resampler = new CandleResampler(MAX_MINUTES, 0);
+            markets.put(market, resampler);
+        }
+        return resampler;
+    }
+
+    private static JSObject coverage(CandleResampler resampler) {
+        JSObject json = new JSObject();
+        json.put("minutes", resampler.minuteCount());
+        if (!resampler.isEmpty()) {
+            json.put("coveredFrom", resampler.coveredFrom());
+            json.put("coveredTo", resampler.coveredTo());
+        }
+        return json;
+    }
+
+    private static double[] column(JSONObject data, String name, int count) throws JSONException {
+        JSONArray values = data.getJSONArray(name);
+        if (values.length() != count) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        double[] out = new double[count];
+        for (int i = 0; i < count; i++) {
+            out[i] = values.getDouble(i);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,119 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Arrays;
+
+/**
+ * OHLCV bars in parallel primitive arrays, sorted by open time (ms).
+ * Grows by doubling so live appends do not allocate per bar. Not thread-safe:
+ * the chart surface mutates and reads it on its render thread only.
+ */
+final class CandleSeries {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    long[] time = new long[INITIAL_CAPACITY];
+    double[] open = new double[INITIAL_CAPACITY];
+    double[] high = new double[INITIAL_CAPACITY];
+    double[] low = new double[INITIAL_CAPACITY];
+    double[] close = new double[INITIAL_CAPACITY];
+    double[] volume = new double[INITIAL_CAPACITY];
+    int size = 0;
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Append or revise one bar. A bar with the same time as the last one replaces it
+     * (live candle), a newer one is appended, an older one is inserted in order.
+     */
+    void upsert(long barTime, double o, double h, double l, double c, double v) {
+        if (size > 0 && barTime == time[size - 1]) {
+            set(size - 1, barTime, o, h, l, c, v);
+            return;
+        }
+        if (size == 0 || barTime > time[size - 1]) {
+            ensureCapacity(size + 1);
+            set(size, barTime, o, h, l, c, v);
+            size++;
+            return;
+        }
+
+        int index = Arrays.binarySearch(time, 0, size, barTime);
+        if (index >= 0) {
+            set(index, barTime, o, h, l, c, v);
+            return;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity(size + 1);
+        int tail = size - insertAt;
+        System.arraycopy(time, insertAt, time, insertAt + 1, tail);
+        System.arraycopy(open, insertAt, open, insertAt + 1, tail);
+        System.arraycopy(high, insertAt, high, insertAt + 1, tail);
+        System.arraycopy(low, insertAt, low, insertAt + 1, tail);
+        System.arraycopy(close, insertAt, close, insertAt + 1, tail);
+        System.arraycopy(volume, insertAt, volume, insertAt + 1, tail);
+        set(insertAt, barTime, o, h, l, c, v);
+        size++;
+    }
+
+    /**
+     * First index with time >= t (size if none).
+     */
+    int lowerBound(long t) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (time[mid] < t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Drop every bar older than t, keeping capacity.
+     */
+    void dropBefore(long t) {
+        int start = lowerBound(t);
+        if (start == 0) {
+            return;
+        }
+        int kept = size - start;
+        System.arraycopy(time, start, time, 0, kept);
+        System.arraycopy(open, start, open, 0, kept);
+        System.arraycopy(high, start, high, 0, kept);
+        System.arraycopy(low, start, low, 0, kept);
+        System.arraycopy(close, start, close, 0, kept);
+        System.arraycopy(volume, start, volume, 0, kept);
+        size = kept;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= time.length) {
+            return;
+        }
+        int next = Math.max(capacity, time.length * 2);
+        time = Arrays.copyOf(time, next);
+        open = Arrays.copyOf(open, next);
+        high = Arrays.copyOf(high, next);
+        low = Arrays.copyOf(low, next);
+        close = Arrays.copyOf(close, next);
+        volume = Arrays.copyOf(volume, next);
+    }
+
+    private void set(int i, long barTime, double o, double h, double l, double c, double v) {
+        time[i] = barTime;
+        open[i] = o;
+        high[i] = h;
+        low[i] = l;
+        close[i] = c;
+        volume[i] = v;
+    }
+}
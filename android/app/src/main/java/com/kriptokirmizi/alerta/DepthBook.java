@@ -0,0 +1,332 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Local order book for one symbol, kept from a REST snapshot plus the exchange's diff stream
+ * (Binance "managing a local order book" rules). Each side is a pair of sorted primitive arrays
+ * (best price first) updated by binary search, so a diff costs O(log n) per level plus the
+ * shift, and aggregation into price buckets is a single pass from the top of the book.
+ *
+ * Diffs that arrive before the snapshot are buffered; a break in the update id chain marks the
+ * book unsynced and asks the caller for a new snapshot, buffering until it lands.
+ */
+final class DepthBook {
+    /** Diff applied to the book */
+    static final int APPLIED = 0;
+    /** Diff already covered by the snapshot, ignored */
+    static final int STALE = 1;
+    /** Waiting for a snapshot, diff kept for replay */
+    static final int BUFFERED = 2;
+    /** Update ids do not chain: the book is unsynced and needs a new snapshot */
+    static final int GAP = 3;
+
+    private static final int MAX_BUFFERED = 2_000;
+
+    /** One depth update event: ids plus the absolute quantity of every changed level (0 = removed) */
+    static final class Diff {
+        final long firstUpdateId;
+        final long finalUpdateId;
+        /** Futures only: final id of the previous event; -1 on spot */
+        final long previousUpdateId;
+        final double[] bidPrice;
+        final double[] bidQty;
+        final double[] askPrice;
+        final double[] askQty;
+
+        Diff(long firstUpdateId, long finalUpdateId, long previousUpdateId,
+             double[] bidPrice, double[] bidQty, double[] askPrice, double[] askQty) {
+            this.firstUpdateId = firstUpdateId;
+            this.finalUpdateId = finalUpdateId;
+            this.previousUpdateId = previousUpdateId;
+            this.bidPrice = bidPrice;
+            this.bidQty = bidQty;
+            this.askPrice = askPrice;
+            this.askQty = askQty;
+        }
+
+        /** A depthUpdate stream message: { U, u, pu?, b: [[price, qty]], a: [[price, qty]] } */
+        static Diff parse(JSONObject json) throws JSONException {
+            JSONArray bids = json.optJSONArray("b");
+            JSONArray asks = json.optJSONArray("a");
+            double[][] b = levels(bids);
+            double[][] a = levels(asks);
+            return new Diff(json.getLong("U"), json.getLong("u"), json.optLong("pu", -1),
+                    b[0], b[1], a[0], a[1]);
+        }
+    }
+
+    /** Aggregated levels: price buckets from the top of the book, quantity summed per bucket */
+    static final class Buckets {
+        double[] price;
+        double[] qty;
+        int count;
+
+        Buckets(int capacity) {
+            price = new double[capacity];
+            qty = new double[capacity];
+        }
+
+        boolean sameAs(Buckets other) {
+            if (count != other.count) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (price[i] != other.price[i] || qty[i] != other.qty[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void copyFrom(Buckets other) {
+            if (price.length < other.count) {
+                price = new double[other.count];
+                qty = new double[other.count];
+            }
+            System.arraycopy(other.price, 0, price, 0, other.count);
+            System.arraycopy(other.qty, 0, qty, 0, other.count);
+            count = other.count;
+        }
+    }
+
+    /** One side of the book, best price at index 0 */
+    static final class Side {
+        private final boolean descending;
+        private double[] price = new double[256];
+        private double[] qty = new double[256];
+        private int size;
+
+        Side(boolean descending) {
+            this.descending = descending;
+        }
+
+        int size() {
+            return size;
+        }
+
+        double price(int i) {
+            return price[i];
+        }
+
+        double qty(int i) {
+            return qty[i];
+        }
+
+        /** Index of price, or -(insertion point) - 1 */
+        int indexOf(double p) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                double value = price[mid];
+                if (value == p) {
+                    return mid;
+                }
+                if (descending ? value > p : value < p) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        /** Set the absolute quantity at a price; 0 removes the level */
+        void set(double p, double q) {
+            int i = indexOf(p);
+            if (i >= 0) {
+                if (q > 0) {
+                    qty[i] = q;
+                } else {
+                    System.arraycopy(price, i + 1, price, i, size - i - 1);
+                    System.arraycopy(qty, i + 1, qty, i, size - i - 1);
+                    size--;
+                }
+            } else if (q > 0) {
+                i = -i - 1;
+                if (size == price.length) {
+                    price = Arrays.copyOf(price, size * 2);
+                    qty = Arrays.copyOf(qty, size * 2);
+                }
+                System.arraycopy(price, i, price, i + 1, size - i);
+                System.arraycopy(qty, i, qty, i + 1, size - i);
+                price[i] = p;
+                qty[i] = q;
+                size++;
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * Sum levels into buckets of tickSize, best first, stopping after maxBuckets. Bids round
+         * down and asks round up, so a bucket never shows a better price than its orders.
+         */
+        void bucket(double tickSize, int maxBuckets, Buckets out) {
+            if (out.price.length < maxBuckets) {
+                out.price = new double[maxBuckets];
+                out.qty = new double[maxBuckets];
+            }
+            int count = 0;
+            long current = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                double steps = price[i] / tickSize;
+                // The epsilon keeps 0.3 / 0.1 = 2.9999999999999996 in bucket 3
+                long index = descending ? (long) Math.floor(steps + 1e-9) : (long) Math.ceil(steps - 1e-9);
+                if (count == 0 || index != current) {
+                    if (count == maxBuckets) {
+                        break;
+                    }
+                    current = index;
+                    out.price[count] = index * tickSize;
+                    out.qty[count] = qty[i];
+                    count++;
+                } else {
+                    out.qty[count - 1] += qty[i];
+                }
+            }
+            out.count = count;
+        }
+    }
+
+    final Side bids = new Side(true);
+    final Side asks = new Side(false);
+    private final boolean futures;
+    private final ArrayDeque<Diff> buffer = new ArrayDeque<>();
+    private long lastUpdateId = -1;
+    private boolean synced;
+    private boolean firstAfterSnapshot;
+    private int gaps;
+
+    /** futures: USDⓈ-M sequencing (pu chains to the previous u) instead of spot (U follows u + 1) */
+    DepthBook(boolean futures) {
+        this.futures = futures;
+    }
+
+    boolean isSynced() {
+        return synced;
+    }
+
+    long lastUpdateId() {
+        return lastUpdateId;
+    }
+
+    int gaps() {
+        return gaps;
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Replace the book with a snapshot, then replay the buffered diffs it does not cover.
+     * Returns APPLIED when the book is synced, or GAP when the snapshot is older than the
+     * buffered stream (or newer than any diff seen so far can bridge) and another one is needed.
+     */
+    int applySnapshot(long snapshotId, double[] bidPrice, double[] bidQty, double[] askPrice, double[] askQty) {
+        bids.clear();
+        asks.clear();
+        for (int i = 0; i < bidPrice.length; i++) {
+            bids.set(bidPrice[i], bidQty[i]);
+        }
+        for (int i = 0; i < askPrice.length; i++) {
+            asks.set(askPrice[i], askQty[i]);
+        }
+        lastUpdateId = snapshotId;
+        synced = true;
+        firstAfterSnapshot = true;
+        Diff[] pending = buffer.toArray(new Diff[0]);
+        buffer.clear();
+        for (Diff diff : pending) {
+            if (apply(diff) == GAP) {
+                // apply() re-buffered the breaking diff; keep the rest behind it
+                for (Diff rest : pending) {
+                    if (rest.finalUpdateId > diff.finalUpdateId) {
+                        buffer.addLast(rest);
+                    }
+                }
+                return GAP;
+            }
+        }
+        return APPLIED;
+    }
+
+    /** A REST depth snapshot: { lastUpdateId, bids: [[price, qty]], asks: [[price, qty]] } */
+    int applySnapshot(JSONObject json) throws JSONException {
+        double[][] b = levels(json.optJSONArray("bids"));
+        double[][] a = levels(json.optJSONArray("asks"));
+        return applySnapshot(json.getLong("lastUpdateId"), b[0], b[1], a[0], a[1]);
+    }
+
+    int apply(Diff diff) {
+        if (!synced) {
+            if (buffer.size() == MAX_BUFFERED) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(diff);
+            return BUFFERED;
+        }
+        if (firstAfterSnapshot) {
+            // Spot: the first event must straddle snapshot + 1; futures: the snapshot id itself
+            long target = futures ? lastUpdateId : lastUpdateId + 1;
+            if (diff.finalUpdateId < target) {
+                return STALE;
+            }
+            if (diff.firstUpdateId > target) {
+                return gap(diff);
+            }
+        } else if (futures ? diff.previousUpdateId != lastUpdateId : diff.firstUpdateId != lastUpdateId + 1) {
+            if (diff.finalUpdateId <= lastUpdateId) {
+                return STALE;
+            }
+            return gap(diff);
+        }
+        for (int i = 0; i < diff.bidPrice.length; i++) {
+            bids.set(diff.bidPrice[i], diff.bidQty[i]);
+        }
+        for (int i = 0; i < diff.askPrice.length; i++) {
+            asks.set(diff.askPrice[i], diff.askQty[i]);
+        }
+        lastUpdateId = diff.finalUpdateId;
+        firstAfterSnapshot = false;
+        return APPLIED;
+    }
+
+    /** Drop the book and buffered stream, e.g. when the socket reconnects */
+    void reset() {
+        bids.clear();
+        asks.clear();
+        buffer.clear();
+        synced = false;
+        lastUpdateId = -1;
+    }
+
+    private int gap(Diff diff) {
+        gaps++;
+        synced = false;
+        buffer.clear();
+        buffer.addLast(diff);
+        return GAP;
+    }
+
+    private static double[][] levels(JSONArray json) throws JSONException {
+        int n = json != null ? json.length() : 0;
+        double[] price = new double[n];
+        double[] qty = new double[n];
+        for (int i = 0; i < n; i++) {
+            JSONArray level = json.getJSONArray(i);
+            // Binance sends price and quantity as strings
+            price[i] = Double.parseDouble(level.getString(0));
+            qty[i] = Double.parseDouble(level.getString(1));
+        }
+        return new double[][] {price, qty};
+    }
+}
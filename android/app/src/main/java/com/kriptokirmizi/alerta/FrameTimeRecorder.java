@@ -0,0 +1,79 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of the last N frame intervals. record() is allocation-free;
+ * percentiles are computed on a copy when stats are requested.
+ */
+final class FrameTimeRecorder {
+    /** 16.7 ms at 60 Hz; frames above this missed a vsync */
+    static final long JANK_THRESHOLD_NANOS = 16_700_000L;
+    /**
+     * Frames are drawn on demand, so a longer gap means nothing changed on screen rather than
+     * a stall; the next frame starts a new run instead of being recorded
+     */
+    static final long IDLE_GAP_NANOS = 250_000_000L;
+
+    private final long[] durations;
+    private int next = 0;
+    private int count = 0;
+    private long total = 0;
+    private long janky = 0;
+    private long lastFrameNanos = Long.MIN_VALUE;
+
+    FrameTimeRecorder(int capacity) {
+        durations = new long[capacity];
+    }
+
+    synchronized void record(long durationNanos) {
+        durations[next] = durationNanos;
+        next = (next + 1) % durations.length;
+        if (count < durations.length) {
+            count++;
+        }
+        total++;
+        if (durationNanos > JANK_THRESHOLD_NANOS) {
+            janky++;
+        }
+    }
+
+    /** Record the interval since the previous frame's vsync time (Choreographer frameTimeNanos) */
+    synchronized void recordFrame(long frameTimeNanos) {
+        long previous = lastFrameNanos;
+        lastFrameNanos = frameTimeNanos;
+        if (previous != Long.MIN_VALUE && frameTimeNanos - previous <= IDLE_GAP_NANOS) {
+            record(frameTimeNanos - previous);
+        }
+    }
+
+    synchronized void reset() {
+        lastFrameNanos = Long.MIN_VALUE;
+        next = 0;
+        count = 0;
+        total = 0;
+        janky = 0;
+    }
+
+    /** Frames recorded since the last reset */
+    synchronized long totalFrames() {
+        return total;
+    }
+
+    synchronized long jankyFrames() {
+        return janky;
+    }
+
+    /**
+     * p-th percentile (0-100) over the retained window, in ms.
+     */
+    synchronized double percentileMs(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(durations, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1e6;
+    }
+}
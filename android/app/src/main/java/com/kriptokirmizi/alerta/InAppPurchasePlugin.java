@@ -1,6 +1,5 @@
 package com.kriptokirmizi.alerta;
 
-import android.app.Activity;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
@@ -8,16 +7,47 @@ import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.android.billingclient.api.*;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @CapacitorPlugin(name = "InAppPurchase")
-public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListener, BillingClientStateListener {
+public class InAppPurchasePlugin extends Plugin implements BillingBackend.Listener {
+
+    private static final long INITIALIZE_TIMEOUT_MS = 3000;
+    // A billing flow that never reports back must not block purchase() forever
+    private static volatile long purchaseTimeoutMs = 5 * 60 * 1000;
+
+    // Swappable for tests (scripted fake backend); production uses Google Play Billing
+    private static volatile BillingBackend.Factory backendFactory = PlayBillingBackend::new;
+
+    // One shared timer for initialize() timeouts instead of a polling thread per call
+    private static final ScheduledExecutorService timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "InAppPurchase-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BillingBackend billingClient;
+    private volatile boolean isServiceConnected = false;
+    private volatile PluginCall pendingPurchaseCall = null;
+    // The call whose billing flow is on screen, and its product; onPurchasesUpdated settles only this one
+    private PluginCall launchedPurchaseCall = null;
+    private String launchedProductId = null;
+    private long launchedAtMs = 0;
+    // A launched flow that timed out may still report once; until then its result is not the next flow's
+    private long abandonedFlowUntilMs = 0;
+    private final List<PluginCall> pendingInitializeCalls = new ArrayList<>();
+
+    static void setBackendFactory(BillingBackend.Factory factory) {
+        backendFactory = factory;
+    }
 
-    private BillingClient billingClient;
-    private boolean isServiceConnected = false;
-    private PluginCall pendingPurchaseCall = null;
+    static void setPurchaseTimeoutMs(long timeoutMs) {
+        purchaseTimeoutMs = timeoutMs;
+    }
 
     @Override
     public void load() {
@@ -25,15 +55,15 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
         android.util.Log.d("InAppPurchase", "[PLUGIN] load() called - Plugin is loading");
 
         // Initialize Google Play Billing
-        android.util.Log.d("InAppPurchase", "[PLUGIN] Creating BillingClient...");
-        billingClient = BillingClient.newBuilder(getContext())
-                .setListener(this)
-                .enablePendingPurchases()
-                .build();
+        try (StartupTrace.Section trace = StartupTrace.begin("InAppPurchasePlugin.load: create BillingClient")) {
+            billingClient = backendFactory.create(getContext());
+        }
 
         // Start connection
         android.util.Log.d("InAppPurchase", "[PLUGIN] Starting billing service connection...");
-        billingClient.startConnection(this);
+        try (StartupTrace.Section trace = StartupTrace.begin("InAppPurchasePlugin.load: startConnection")) {
+            billingClient.startConnection(this);
+        }
     }
 
     @PluginMethod
@@ -52,41 +82,36 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
                 "[INITIALIZE] billingClient: " + (billingClient != null ? "exists" : "null"));
         android.util.Log.d("InAppPurchase", "[INITIALIZE] isServiceConnected: " + isServiceConnected);
 
-        // 🔥 FIX: Wait for billing service connection with retry mechanism
+        if (billingClient == null) {
+            android.util.Log.e("InAppPurchase", "[INITIALIZE] ❌ Rejecting - billingClient is null");
+            call.reject("Billing client not initialized");
+            return;
+        }
+
+        // 🔥 FIX: Wait for billing service connection
         // This fixes race condition where JS calls initialize() before
-        // onBillingSetupFinished completes
-        if (billingClient != null && isServiceConnected) {
-            android.util.Log.d("InAppPurchase", "[INITIALIZE] ✅ Resolving - service is already connected");
-            call.resolve();
-        } else if (billingClient != null) {
-            // Billing client exists but not connected yet - wait with retries
-            android.util.Log.d("InAppPurchase", "[INITIALIZE] ⏳ Waiting for billing service connection...");
-
-            final int maxRetries = 10;
-            final int retryDelayMs = 300;
-
-            new Thread(() -> {
-                for (int i = 0; i < maxRetries; i++) {
-                    if (isServiceConnected) {
-                        android.util.Log.d("InAppPurchase",
-                                "[INITIALIZE] ✅ Service connected after " + (i * retryDelayMs) + "ms");
-                        getActivity().runOnUiThread(() -> call.resolve());
-                        return;
+        // onBillingSetupFinished completes. Waiting calls are resolved from
+        // onBillingSetupFinished (no thread per call).
+        synchronized (pendingInitializeCalls) {
+            if (!isServiceConnected) {
+                android.util.Log.d("InAppPurchase", "[INITIALIZE] ⏳ Waiting for billing service connection...");
+                pendingInitializeCalls.add(call);
+                timeouts.schedule(() -> {
+                    boolean timedOut;
+                    synchronized (pendingInitializeCalls) {
+                        timedOut = pendingInitializeCalls.remove(call);
                     }
-                    try {
-                        Thread.sleep(retryDelayMs);
-                    } catch (InterruptedException e) {
-                        break;
+                    if (timedOut) {
+                        android.util.Log.e("InAppPurchase", "[INITIALIZE] ❌ Timeout waiting for billing service connection");
+                        call.reject("Billing service connection timeout. Please try again.");
                     }
-                }
-                // Still not connected after retries
-                android.util.Log.e("InAppPurchase", "[INITIALIZE] ❌ Timeout waiting for billing service connection");
-                getActivity().runOnUiThread(() -> call.reject("Billing service connection timeout. Please try again."));
-            }).start();
-        } else {
-            android.util.Log.e("InAppPurchase", "[INITIALIZE] ❌ Rejecting - billingClient is null");
-            call.reject("Billing client not initialized");
+                }, INITIALIZE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                return;
+            }
         }
+
+        android.util.Log.d("InAppPurchase", "[INITIALIZE] ✅ Resolving - service is already connected");
+        call.resolve();
     }
 
     @PluginMethod
@@ -103,22 +128,12 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
                 return;
             }
 
-            // Build product list for Billing Library 7.x
-            List<QueryProductDetailsParams.Product> productList = new ArrayList<>();
+            List<String> productIds = new ArrayList<>();
             for (int i = 0; i < productIdsArray.length(); i++) {
-                String productId = productIdsArray.getString(i);
-                productList.add(
-                        QueryProductDetailsParams.Product.newBuilder()
-                                .setProductId(productId)
-                                .setProductType(BillingClient.ProductType.SUBS)
-                                .build());
+                productIds.add(productIdsArray.getString(i));
             }
 
-            QueryProductDetailsParams params = QueryProductDetailsParams.newBuilder()
-                    .setProductList(productList)
-                    .build();
-
-            billingClient.queryProductDetailsAsync(params, (billingResult, productDetailsList) -> {
+            billingClient.querySubscriptions(productIds, (billingResult, productDetailsList) -> {
                 int responseCode = billingResult.getResponseCode();
                 String debugMessage = billingResult.getDebugMessage();
 
@@ -132,30 +147,27 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
                     JSObject result = new JSObject();
                     org.json.JSONArray productsArray = new org.json.JSONArray();
 
-                    for (ProductDetails productDetails : productDetailsList) {
-                        android.util.Log.d("InAppPurchase", "[GET_PRODUCTS] Product: " + productDetails.getProductId());
+                    for (BillingBackend.Product productDetails : productDetailsList) {
+                        android.util.Log.d("InAppPurchase", "[GET_PRODUCTS] Product: " + productDetails.productId);
 
                         // Get subscription offer details (7.x API)
-                        List<ProductDetails.SubscriptionOfferDetails> offersList = productDetails
-                                .getSubscriptionOfferDetails();
-                        if (offersList != null && !offersList.isEmpty()) {
-                            ProductDetails.SubscriptionOfferDetails offer = offersList.get(0);
-                            List<ProductDetails.PricingPhase> pricingPhases = offer.getPricingPhases()
-                                    .getPricingPhaseList();
+                        List<BillingBackend.Offer> offersList = productDetails.offers;
+                        if (!offersList.isEmpty()) {
+                            List<BillingBackend.PricingPhase> pricingPhases = offersList.get(0).pricingPhases;
 
                             if (!pricingPhases.isEmpty()) {
-                                ProductDetails.PricingPhase pricingPhase = pricingPhases.get(0);
+                                BillingBackend.PricingPhase pricingPhase = pricingPhases.get(0);
 
                                 JSObject product = new JSObject();
-                                product.put("productId", productDetails.getProductId());
-                                product.put("price", pricingPhase.getFormattedPrice());
-                                product.put("currency", pricingPhase.getPriceCurrencyCode());
-                                product.put("title", productDetails.getTitle());
-                                product.put("description", productDetails.getDescription());
+                                product.put("productId", productDetails.productId);
+                                product.put("price", pricingPhase.formattedPrice);
+                                product.put("currency", pricingPhase.currencyCode);
+                                product.put("title", productDetails.title);
+                                product.put("description", productDetails.description);
                                 productsArray.put(product);
 
                                 android.util.Log.d("InAppPurchase",
-                                        "[GET_PRODUCTS] Price: " + pricingPhase.getFormattedPrice());
+                                        "[GET_PRODUCTS] Price: " + pricingPhase.formattedPrice);
                             }
                         }
                     }
@@ -198,23 +210,26 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
             return;
         }
 
-        // Store call for later use in onPurchasesUpdated
-        pendingPurchaseCall = call;
-
-        // Query for the product (7.x API)
-        List<QueryProductDetailsParams.Product> productList = Collections.singletonList(
-                QueryProductDetailsParams.Product.newBuilder()
-                        .setProductId(productId)
-                        .setProductType(BillingClient.ProductType.SUBS)
-                        .build());
+        // Only one billing flow can be on screen; a second call would orphan the first one's promise
+        synchronized (this) {
+            if (pendingPurchaseCall != null) {
+                android.util.Log.w("InAppPurchase", "[PURCHASE] ⚠️ Purchase already in progress, rejecting: " + productId);
+                call.reject("Purchase already in progress");
+                return;
+            }
+            // Store call for later use in onPurchasesUpdated
+            pendingPurchaseCall = call;
+        }
+        timeouts.schedule(() -> {
+            if (abandonPendingPurchase(call)) {
+                android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ No purchase result within " + purchaseTimeoutMs + "ms");
+                call.reject("Purchase timed out. Please try again.");
+            }
+        }, purchaseTimeoutMs, TimeUnit.MILLISECONDS);
 
         android.util.Log.d("InAppPurchase", "[PURCHASE] Querying product details for: " + productId);
 
-        QueryProductDetailsParams params = QueryProductDetailsParams.newBuilder()
-                .setProductList(productList)
-                .build();
-
-        billingClient.queryProductDetailsAsync(params, (billingResult, productDetailsList) -> {
+        billingClient.querySubscriptions(Collections.singletonList(productId), (billingResult, productDetailsList) -> {
             int responseCode = billingResult.getResponseCode();
             String debugMessage = billingResult.getDebugMessage();
 
@@ -224,10 +239,7 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
             if (responseCode == BillingClient.BillingResponseCode.OK) {
                 if (productDetailsList == null) {
                     android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ productDetailsList is null");
-                    if (pendingPurchaseCall != null) {
-                        pendingPurchaseCall.reject("Product query returned null list");
-                        pendingPurchaseCall = null;
-                    }
+                    rejectPurchase(call, "Product query returned null list");
                     return;
                 }
 
@@ -239,58 +251,48 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
                     android.util.Log.e("InAppPurchase", "[PURCHASE] 2. Product is not active in Play Console");
                     android.util.Log.e("InAppPurchase", "[PURCHASE] 3. App was not installed from Play Store");
                     android.util.Log.e("InAppPurchase", "[PURCHASE] 4. Wrong product type (SUBS vs INAPP)");
-                    if (pendingPurchaseCall != null) {
-                        pendingPurchaseCall
-                                .reject("Product not found: " + productId + ". Check Play Console settings.");
-                        pendingPurchaseCall = null;
-                    }
+                    rejectPurchase(call, "Product not found: " + productId + ". Check Play Console settings.");
                     return;
                 }
 
-                ProductDetails productDetails = productDetailsList.get(0);
-                android.util.Log.d("InAppPurchase", "[PURCHASE] ✅ Product found: " + productDetails.getProductId());
+                BillingBackend.Product productDetails = productDetailsList.get(0);
+                android.util.Log.d("InAppPurchase", "[PURCHASE] ✅ Product found: " + productDetails.productId);
 
                 // Get the subscription offer token (7.x API requirement)
                 // Prefer base plan offer (usually the first one) which includes free trial
-                List<ProductDetails.SubscriptionOfferDetails> offersList = productDetails.getSubscriptionOfferDetails();
-                if (offersList == null || offersList.isEmpty()) {
+                List<BillingBackend.Offer> offersList = productDetails.offers;
+                if (offersList.isEmpty()) {
                     android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ No subscription offers found");
-                    if (pendingPurchaseCall != null) {
-                        pendingPurchaseCall.reject("No subscription offers available for: " + productId);
-                        pendingPurchaseCall = null;
-                    }
+                    rejectPurchase(call, "No subscription offers available for: " + productId);
                     return;
                 }
 
                 // Log all offers for debugging
                 for (int i = 0; i < offersList.size(); i++) {
-                    ProductDetails.SubscriptionOfferDetails offer = offersList.get(i);
-                    List<ProductDetails.PricingPhase> phases = offer.getPricingPhases().getPricingPhaseList();
+                    List<BillingBackend.PricingPhase> phases = offersList.get(i).pricingPhases;
                     android.util.Log.d("InAppPurchase",
                             "[PURCHASE] Offer " + i + " has " + phases.size() + " pricing phases");
-                    for (ProductDetails.PricingPhase phase : phases) {
-                        android.util.Log.d("InAppPurchase", "[PURCHASE] Phase: " + phase.getPriceAmountMicros() + " "
-                                + phase.getPriceCurrencyCode() + " / " + phase.getBillingPeriod());
+                    for (BillingBackend.PricingPhase phase : phases) {
+                        android.util.Log.d("InAppPurchase", "[PURCHASE] Phase: " + phase.priceAmountMicros + " "
+                                + phase.currencyCode + " / " + phase.billingPeriod);
                     }
                 }
 
                 // Use base plan offer (first offer) - this should include free trial if
                 // configured
-                String offerToken = offersList.get(0).getOfferToken();
+                String offerToken = offersList.get(0).offerToken;
                 android.util.Log.d("InAppPurchase", "[PURCHASE] Using offer token: " + offerToken);
 
-                List<BillingFlowParams.ProductDetailsParams> productDetailsParamsList = Collections.singletonList(
-                        BillingFlowParams.ProductDetailsParams.newBuilder()
-                                .setProductDetails(productDetails)
-                                .setOfferToken(offerToken)
-                                .build());
-
-                BillingFlowParams flowParams = BillingFlowParams.newBuilder()
-                        .setProductDetailsParamsList(productDetailsParamsList)
-                        .build();
-
                 android.util.Log.d("InAppPurchase", "[PURCHASE] Launching billing flow...");
-                BillingResult result = billingClient.launchBillingFlow(getActivity(), flowParams);
+                BillingResult result;
+                try {
+                    result = billingClient.launchBillingFlow(getActivity(), productId, offerToken);
+                } catch (RuntimeException e) {
+                    // No activity (app went to background) or the billing service died mid-call
+                    android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ launchBillingFlow threw: " + e.getMessage());
+                    rejectPurchase(call, "Failed to launch billing flow: " + e.getMessage());
+                    return;
+                }
 
                 int launchResponseCode = result.getResponseCode();
                 String launchDebugMessage = result.getDebugMessage();
@@ -302,39 +304,27 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
                     android.util.Log.d("InAppPurchase",
                             "[PURCHASE] ✅ Billing flow launched successfully - waiting for user response");
                     // Purchase result will be handled in onPurchasesUpdated
+                    markLaunched(call, productId);
                 } else if (launchResponseCode == BillingClient.BillingResponseCode.DEVELOPER_ERROR) {
                     android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ DEVELOPER_ERROR - Usually means:");
                     android.util.Log.e("InAppPurchase", "[PURCHASE] - App not installed from Play Store");
                     android.util.Log.e("InAppPurchase", "[PURCHASE] - Wrong package name");
                     android.util.Log.e("InAppPurchase", "[PURCHASE] - Product not available in test track");
-                    if (pendingPurchaseCall != null) {
-                        pendingPurchaseCall.reject("DEVELOPER_ERROR: " + launchDebugMessage
+                    rejectPurchase(call, "DEVELOPER_ERROR: " + launchDebugMessage
                                 + ". Make sure app is installed from Play Store test track.");
-                        pendingPurchaseCall = null;
-                    }
                 } else if (launchResponseCode == BillingClient.BillingResponseCode.ITEM_UNAVAILABLE) {
                     android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ ITEM_UNAVAILABLE - Product not available");
-                    if (pendingPurchaseCall != null) {
-                        pendingPurchaseCall.reject("ITEM_UNAVAILABLE: " + launchDebugMessage);
-                        pendingPurchaseCall = null;
-                    }
+                    rejectPurchase(call, "ITEM_UNAVAILABLE: " + launchDebugMessage);
                 } else {
                     android.util.Log.e("InAppPurchase", "[PURCHASE] ❌ Failed to launch billing flow: "
                             + launchResponseCode + " - " + launchDebugMessage);
-                    if (pendingPurchaseCall != null) {
-                        pendingPurchaseCall.reject("Failed to launch billing flow: " + launchDebugMessage + " (code: "
+                    rejectPurchase(call, "Failed to launch billing flow: " + launchDebugMessage + " (code: "
                                 + launchResponseCode + ")");
-                        pendingPurchaseCall = null;
-                    }
                 }
             } else {
                 android.util.Log.e("InAppPurchase",
                         "[PURCHASE] ❌ queryProductDetailsAsync failed: " + responseCode + " - " + debugMessage);
-                if (pendingPurchaseCall != null) {
-                    pendingPurchaseCall
-                            .reject("Failed to query product: " + debugMessage + " (code: " + responseCode + ")");
-                    pendingPurchaseCall = null;
-                }
+                rejectPurchase(call, "Failed to query product: " + debugMessage + " (code: " + responseCode + ")");
             }
         });
     }
@@ -349,36 +339,13 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
             return;
         }
 
-        billingClient.queryPurchasesAsync(
-                QueryPurchasesParams.newBuilder()
-                        .setProductType(BillingClient.ProductType.SUBS)
-                        .build(),
+        billingClient.queryActiveSubscriptions(
                 (billingResult, purchasesList) -> {
                     if (billingResult.getResponseCode() == BillingClient.BillingResponseCode.OK) {
                         android.util.Log.d("InAppPurchase", "[RESTORE] ✅ Found "
                                 + (purchasesList != null ? purchasesList.size() : 0) + " purchases");
 
-                        JSObject result = new JSObject();
-                        org.json.JSONArray transactionsArray = new org.json.JSONArray();
-
-                        if (purchasesList != null) {
-                            for (Purchase purchase : purchasesList) {
-                                JSObject transaction = new JSObject();
-                                transaction.put("transactionId", purchase.getOrderId());
-                                // 7.x API: getProducts() returns List<String>
-                                List<String> products = purchase.getProducts();
-                                if (!products.isEmpty()) {
-                                    transaction.put("productId", products.get(0));
-                                }
-                                transaction.put("receipt", purchase.getPurchaseToken());
-                                transaction.put("purchaseToken", purchase.getPurchaseToken());
-                                transaction.put("originalJson", purchase.getOriginalJson());
-                                transactionsArray.put(transaction);
-                            }
-                        }
-
-                        result.put("transactions", transactionsArray);
-                        result.put("purchases", transactionsArray); // Alias for compatibility
+                        JSObject result = PurchaseMarshaller.toRestoreResult(purchasesList);
                         call.resolve(result);
                     } else {
                         android.util.Log.e("InAppPurchase", "[RESTORE] ❌ Failed: " + billingResult.getDebugMessage());
@@ -398,96 +365,44 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
 
         if (!isServiceConnected) {
             android.util.Log.e("InAppPurchase", "[CHECK_ENTITLEMENTS] ❌ Billing service not connected");
-            call.resolve(new JSObject() {
-                {
-                    put("hasReceipt", false);
-                    put("receipt", "");
-                    put("pendingTransactions", new org.json.JSONArray());
-                }
-            });
+            call.resolve(PurchaseMarshaller.noEntitlements());
             return;
         }
 
         // Query for active subscriptions
-        billingClient.queryPurchasesAsync(
-                QueryPurchasesParams.newBuilder()
-                        .setProductType(BillingClient.ProductType.SUBS)
-                        .build(),
+        billingClient.queryActiveSubscriptions(
                 (billingResult, purchasesList) -> {
                     if (billingResult.getResponseCode() == BillingClient.BillingResponseCode.OK) {
                         android.util.Log.d("InAppPurchase", "[CHECK_ENTITLEMENTS] ✅ Query successful");
 
-                        JSObject result = new JSObject();
-                        org.json.JSONArray pendingTransactions = new org.json.JSONArray();
-
                         if (purchasesList != null && !purchasesList.isEmpty()) {
                             android.util.Log.d("InAppPurchase",
                                     "[CHECK_ENTITLEMENTS] Found " + purchasesList.size() + " active subscription(s)");
 
                             // Get the first active purchase (most recent)
-                            Purchase firstPurchase = purchasesList.get(0);
-                            List<String> products = firstPurchase.getProducts();
-
+                            List<String> products = purchasesList.get(0).getProducts();
                             if (!products.isEmpty()) {
-                                String productId = products.get(0);
-                                String purchaseToken = firstPurchase.getPurchaseToken();
-
                                 android.util.Log.d("InAppPurchase",
-                                        "[CHECK_ENTITLEMENTS] Active subscription: " + productId);
-
-                                // Build result
-                                result.put("hasReceipt", true);
-                                result.put("receipt", purchaseToken); // Use purchaseToken as receipt for Android
-                                result.put("purchaseToken", purchaseToken);
-                                result.put("originalJson", firstPurchase.getOriginalJson());
-
-                                // Add all purchases as pending transactions
-                                for (Purchase purchase : purchasesList) {
-                                    JSObject transaction = new JSObject();
-                                    transaction.put("transactionId", purchase.getOrderId());
-                                    List<String> purchaseProducts = purchase.getProducts();
-                                    if (!purchaseProducts.isEmpty()) {
-                                        transaction.put("productId", purchaseProducts.get(0));
-                                    }
-                                    transaction.put("state",
-                                            purchase.getPurchaseState() == Purchase.PurchaseState.PURCHASED
-                                                    ? "purchased"
-                                                    : "pending");
-                                    transaction.put("purchaseToken", purchase.getPurchaseToken());
-                                    pendingTransactions.put(transaction);
-                                }
-
-                                result.put("pendingTransactions", pendingTransactions);
+                                        "[CHECK_ENTITLEMENTS] Active subscription: " + products.get(0));
                             } else {
                                 android.util.Log.w("InAppPurchase", "[CHECK_ENTITLEMENTS] ⚠️ Purchase has no products");
-                                result.put("hasReceipt", false);
-                                result.put("receipt", "");
-                                result.put("pendingTransactions", pendingTransactions);
                             }
                         } else {
                             android.util.Log.d("InAppPurchase",
                                     "[CHECK_ENTITLEMENTS] ℹ️ No active subscriptions found");
-                            result.put("hasReceipt", false);
-                            result.put("receipt", "");
-                            result.put("pendingTransactions", pendingTransactions);
                         }
 
+                        JSObject result = PurchaseMarshaller.toEntitlements(purchasesList);
                         call.resolve(result);
                     } else {
                         android.util.Log.e("InAppPurchase",
                                 "[CHECK_ENTITLEMENTS] ❌ Query failed: " + billingResult.getDebugMessage());
-                        call.resolve(new JSObject() {
-                            {
-                                put("hasReceipt", false);
-                                put("receipt", "");
-                                put("pendingTransactions", new org.json.JSONArray());
-                            }
-                        });
+                        call.resolve(PurchaseMarshaller.noEntitlements());
                     }
                 });
     }
 
-    // BillingClientStateListener
+    // BillingBackend.Listener
     @Override
     public void onBillingSetupFinished(BillingResult billingResult) {
         int responseCode = billingResult.getResponseCode();
@@ -498,8 +413,20 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
         android.util.Log.d("InAppPurchase", "[BILLING_SETUP] debugMessage: " + debugMessage);
 
         if (responseCode == BillingClient.BillingResponseCode.OK) {
-            isServiceConnected = true;
+            List<PluginCall> waiting;
+            synchronized (pendingInitializeCalls) {
+                isServiceConnected = true;
+                waiting = new ArrayList<>(pendingInitializeCalls);
+                pendingInitializeCalls.clear();
+            }
             android.util.Log.d("InAppPurchase", "[BILLING_SETUP] ✅ Billing service connected");
+            if (!waiting.isEmpty()) {
+                android.util.Log.d("InAppPurchase",
+                        "[BILLING_SETUP] Resolving " + waiting.size() + " waiting initialize() call(s)");
+            }
+            for (PluginCall waitingCall : waiting) {
+                waitingCall.resolve();
+            }
         } else {
             isServiceConnected = false;
             android.util.Log.e("InAppPurchase",
@@ -515,7 +442,6 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
         billingClient.startConnection(this);
     }
 
-    // PurchasesUpdatedListener
     @Override
     public void onPurchasesUpdated(BillingResult billingResult, List<Purchase> purchases) {
         int responseCode = billingResult.getResponseCode();
@@ -526,6 +452,27 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
         android.util.Log.d("InAppPurchase",
                 "[PURCHASE_UPDATE] purchases count: " + (purchases != null ? purchases.size() : 0));
 
+        // Read the launched flow once: a timeout may release it, and a later purchase() may launch another
+        PluginCall call;
+        String productId;
+        long launchedAt;
+        boolean abandonedFlowOpen;
+        synchronized (this) {
+            call = launchedPurchaseCall;
+            productId = launchedProductId;
+            launchedAt = launchedAtMs;
+            abandonedFlowOpen = abandonedFlowUntilMs > System.currentTimeMillis();
+            abandonedFlowUntilMs = 0;
+        }
+        if (abandonedFlowOpen) {
+            // Play reports flows in order, so this may be the timed-out flow's late result
+            android.util.Log.w("InAppPurchase", "[PURCHASE_UPDATE] ⚠️ A timed-out purchase flow may still be reporting");
+        }
+        if (call == null) {
+            // Late result of a flow that already timed out; purchases are still acknowledged below
+            android.util.Log.w("InAppPurchase", "[PURCHASE_UPDATE] ⚠️ No launched purchase is waiting for this result");
+        }
+
         if (responseCode == BillingClient.BillingResponseCode.OK && purchases != null) {
             android.util.Log.d("InAppPurchase", "[PURCHASE_UPDATE] ✅ Purchase successful");
             for (Purchase purchase : purchases) {
@@ -534,76 +481,91 @@ public class InAppPurchasePlugin extends Plugin implements PurchasesUpdatedListe
                 if (!products.isEmpty()) {
                     android.util.Log.d("InAppPurchase", "[PURCHASE_UPDATE] Processing purchase: " + products.get(0));
                 }
-                handlePurchase(purchase);
+                // Another product's receipt, or one bought before this flow opened, is not this flow's result
+                boolean ownReceipt = products.contains(productId)
+                        && (!abandonedFlowOpen || purchase.getPurchaseTime() >= launchedAt);
+                handlePurchase(purchase, ownReceipt ? call : null);
             }
+        } else if (abandonedFlowOpen) {
+            // A cancel or error carries no product: it can't be told apart from the timed-out flow's
+            android.util.Log.w("InAppPurchase", "[PURCHASE_UPDATE] ⚠️ Ignoring result that may belong to the timed-out flow");
         } else if (responseCode == BillingClient.BillingResponseCode.USER_CANCELED) {
             android.util.Log.d("InAppPurchase", "[PURCHASE_UPDATE] ⚠️ User canceled purchase");
-            if (pendingPurchaseCall != null) {
-                pendingPurchaseCall.reject("User canceled purchase");
-                pendingPurchaseCall = null;
-            }
+            rejectPurchase(call, "User canceled purchase");
         } else {
             android.util.Log.e("InAppPurchase",
                     "[PURCHASE_UPDATE] ❌ Purchase failed: " + debugMessage + " (code: " + responseCode + ")");
-            if (pendingPurchaseCall != null) {
-                pendingPurchaseCall.reject("Purchase failed: " + debugMessage + " (code: " + responseCode + ")");
-                pendingPurchaseCall = null;
-            }
+            rejectPurchase(call, "Purchase failed: " + debugMessage + " (code: " + responseCode + ")");
+        }
+    }
+
+    /** Record that call's billing flow is on screen, unless it was already settled (e.g. timed out) */
+    private synchronized void markLaunched(PluginCall call, String productId) {
+        if (pendingPurchaseCall == call) {
+            launchedPurchaseCall = call;
+            launchedProductId = productId;
+            launchedAtMs = System.currentTimeMillis();
+        }
+    }
+
+    /** releasePendingPurchase for a timeout; a flow already on screen may still answer for a while */
+    private synchronized boolean abandonPendingPurchase(PluginCall call) {
+        boolean launched = launchedPurchaseCall == call;
+        if (!releasePendingPurchase(call)) {
+            return false;
         }
+        if (launched) {
+            abandonedFlowUntilMs = System.currentTimeMillis() + purchaseTimeoutMs;
+        }
+        return true;
+    }
+
+    /** Clear pendingPurchaseCall if it is still call; true if the caller now owns settling it */
+    private synchronized boolean releasePendingPurchase(PluginCall call) {
+        if (call == null || pendingPurchaseCall != call) {
+            return false;
+        }
+        pendingPurchaseCall = null;
+        launchedPurchaseCall = null;
+        launchedProductId = null;
+        return true;
     }
 
-    private void handlePurchase(Purchase purchase) {
+    private void rejectPurchase(PluginCall call, String message) {
+        if (releasePendingPurchase(call)) {
+            call.reject(message);
+        }
+    }
+
+    private void resolvePurchase(PluginCall call, Purchase purchase) {
+        if (releasePendingPurchase(call)) {
+            call.resolve(PurchaseMarshaller.toPurchaseResult(purchase));
+        }
+    }
+
+    /** call is the flow this purchase settles, or null when it only needs acknowledging */
+    private void handlePurchase(Purchase purchase, PluginCall call) {
         if (purchase.getPurchaseState() == Purchase.PurchaseState.PURCHASED) {
             // Acknowledge purchase
             if (!purchase.isAcknowledged()) {
-                AcknowledgePurchaseParams acknowledgeParams = AcknowledgePurchaseParams.newBuilder()
-                        .setPurchaseToken(purchase.getPurchaseToken())
-                        .build();
-
-                billingClient.acknowledgePurchase(acknowledgeParams, (billingResult) -> {
+                billingClient.acknowledgePurchase(purchase.getPurchaseToken(), (billingResult) -> {
                     if (billingResult.getResponseCode() == BillingClient.BillingResponseCode.OK) {
                         android.util.Log.d("InAppPurchase", "✅ Purchase acknowledged");
-
-                        // Resolve pending call
-                        if (pendingPurchaseCall != null) {
-                            JSObject result = new JSObject();
-                            result.put("transactionId", purchase.getOrderId());
-                            // 7.x API: getProducts() returns List<String>
-                            List<String> products = purchase.getProducts();
-                            if (!products.isEmpty()) {
-                                result.put("productId", products.get(0));
-                            }
-                            result.put("receipt", purchase.getPurchaseToken());
-                            result.put("transactionReceipt", purchase.getOriginalJson());
-
-                            pendingPurchaseCall.resolve(result);
-                            pendingPurchaseCall = null;
-                        }
+                        resolvePurchase(call, purchase);
                     } else {
                         android.util.Log.e("InAppPurchase", "Failed to acknowledge purchase");
-                        if (pendingPurchaseCall != null) {
-                            pendingPurchaseCall.reject("Failed to acknowledge purchase");
-                            pendingPurchaseCall = null;
-                        }
+                        rejectPurchase(call, "Failed to acknowledge purchase");
                     }
                 });
             } else {
                 // Already acknowledged, resolve immediately
-                if (pendingPurchaseCall != null) {
-                    JSObject result = new JSObject();
-                    result.put("transactionId", purchase.getOrderId());
-                    // 7.x API: getProducts() returns List<String>
-                    List<String> products = purchase.getProducts();
-                    if (!products.isEmpty()) {
-                        result.put("productId", products.get(0));
-                    }
-                    result.put("receipt", purchase.getPurchaseToken());
-                    result.put("transactionReceipt", purchase.getOriginalJson());
-
-                    pendingPurchaseCall.resolve(result);
-                    pendingPurchaseCall = null;
-                }
+                resolvePurchase(call, purchase);
             }
+        } else if (purchase.getPurchaseState() == Purchase.PurchaseState.PENDING) {
+            // Slow payment method: Play delivers the final state later (checkEntitlements picks it up).
+            // Release the call so the next purchase() isn't rejected as "already in progress".
+            android.util.Log.w("InAppPurchase", "[PURCHASE_UPDATE] ⏳ Purchase is pending payment");
+            rejectPurchase(call, "Purchase is pending");
         }
     }
 }
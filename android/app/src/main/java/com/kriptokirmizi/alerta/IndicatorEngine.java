@@ -0,0 +1,143 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Indicator series per symbol / timeframe (no Android types).
+ *
+ * History is computed in bulk on a fixed pool, one series per task (each series is an inherently
+ * sequential recurrence, but symbols and timeframes are independent). Live candles then update
+ * their series in O(1). Each series is
+ * locked on its own, so updates of different symbols never wait for each other. At most
+ * {@link #MAX_SERIES} are kept: the least recently used one is dropped, and the page sends its
+ * history again when it comes back to it.
+ */
+final class IndicatorEngine {
+
+    /** Columnar candles of one symbol / timeframe, sorted by time */
+    static final class Bars {
+        final String symbol;
+        final String timeframe;
+        final long[] time;
+        final double[] high;
+        final double[] low;
+        final double[] close;
+        final double[] volume;
+        final int count;
+
+        Bars(String symbol, String timeframe, long[] time, double[] high, double[] low, double[] close, double[] volume) {
+            this.symbol = symbol;
+            this.timeframe = timeframe;
+            this.time = time;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+            this.volume = volume;
+            this.count = time.length;
+        }
+    }
+
+    /** Roughly a 9-chart layout over a few timeframes each */
+    static final int MAX_SERIES = 32;
+
+    // Access-ordered LRU; guarded by itself
+    private final LinkedHashMap<String, IndicatorSeries> series;
+    private final ExecutorService pool;
+
+    IndicatorEngine(int threads) {
+        this(threads, MAX_SERIES);
+    }
+
+    IndicatorEngine(int threads, int maxSeries) {
+        series = new LinkedHashMap<String, IndicatorSeries>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IndicatorSeries> eldest) {
+                return size() > maxSeries;
+            }
+        };
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "indicator-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Pool size for bulk work: leave a core to the UI thread */
+    static int defaultThreads() {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    static String key(String symbol, String timeframe) {
+        return symbol + "@" + timeframe;
+    }
+
+    IndicatorSeries get(String symbol, String timeframe) {
+        synchronized (series) {
+            return series.get(key(symbol, timeframe));
+        }
+    }
+
+    int seriesCount() {
+        synchronized (series) {
+            return series.size();
+        }
+    }
+
+    /**
+     * Replace the history of each given series and compute its indicators, in parallel.
+     * Returns the number of bars computed.
+     */
+    int setHistory(List<Bars> batch, IndicatorSeries.Config config) throws InterruptedException, ExecutionException {
+        List<Callable<Integer>> tasks = new ArrayList<>(batch.size());
+        for (Bars bars : batch) {
+            tasks.add(() -> {
+                IndicatorSeries computed = new IndicatorSeries(config);
+                computed.setBars(bars.time, bars.high, bars.low, bars.close, bars.volume, bars.count);
+                // Swap in a fully computed series: readers never see a half-filled one
+                synchronized (series) {
+                    series.put(key(bars.symbol, bars.timeframe), computed);
+                }
+                return bars.count;
+            });
+        }
+        int total = 0;
+        for (Future<Integer> result : pool.invokeAll(tasks)) {
+            total += result.get();
+        }
+        return total;
+    }
+
+    /**
+     * Append or revise live candles of one series. Returns the series' size afterwards.
+     */
+    int update(Bars bars, IndicatorSeries.Config config) {
+        String key = key(bars.symbol, bars.timeframe);
+        IndicatorSeries target;
+        synchronized (series) {
+            target = series.get(key);
+            if (target == null) {
+                target = new IndicatorSeries(config);
+                series.put(key, target);
+            }
+        }
+
+        synchronized (target) {
+            for (int i = 0; i < bars.count; i++) {
+                target.upsert(bars.time[i], bars.high[i], bars.low[i], bars.close[i], bars.volume[i]);
+            }
+            return target.size();
+        }
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,247 @@
+package com.kriptokirmizi.alerta;
+
+import android.os.SystemClock;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Page side of {@link IndicatorEngine}: the chart hands over its candle history once and then
+ * only live candles, and reads indicator series back instead of recomputing them in JS over the
+ * whole array.
+ */
+@CapacitorPlugin(name = "IndicatorEngine")
+public class IndicatorEnginePlugin extends Plugin {
+    private static final String TAG = "IndicatorEngine";
+
+    private final IndicatorEngine engine = new IndicatorEngine(IndicatorEngine.defaultThreads());
+    // Live updates and reads stay in call order; bulk history fans out to the engine's pool
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "indicator-calls");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile IndicatorSeries.Config config = IndicatorSeries.Config.defaults();
+
+    /**
+     * setHistory({ series: [{ symbol, timeframe, time, high, low, close, volume }], config? }) ->
+     *   { series, bars, computeMs } - config: { rsiPeriod, macdFast, macdSlow, macdSignal, bbPeriod,
+     *   bbStdDev, emaPeriods, smaPeriods }
+     */
+    @PluginMethod
+    public void setHistory(PluginCall call) {
+        JSArray list = call.getArray("series");
+        if (list == null) {
+            call.reject("series is required");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                JSONObject configJson = call.getObject("config");
+                if (configJson != null) {
+                    config = parseConfig(configJson);
+                }
+                List<IndicatorEngine.Bars> batch = new ArrayList<>();
+                for (int i = 0; i < list.length(); i++) {
+                    batch.add(readBars(list.getJSONObject(i)));
+                }
+                long startMs = SystemClock.elapsedRealtime();
+                int bars = engine.setHistory(batch, config);
+                long computeMs = SystemClock.elapsedRealtime() - startMs;
+                android.util.Log.d(TAG, "✅ Computed " + batch.size() + " series (" + bars + " bars) in " + computeMs + "ms");
+                JSObject result = new JSObject();
+                result.put("series", batch.size());
+                result.put("bars", bars);
+                result.put("computeMs", computeMs);
+                call.resolve(result);
+            } catch (IllegalArgumentException | JSONException e) {
+                call.reject("Invalid history: " + e.getMessage());
+            } catch (Exception e) {
+                call.reject("Error computing indicators: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * updateBars({ symbol, timeframe, time, high, low, close, volume }) -> { size } -
+     * new or revised live candles.
+     */
+    @PluginMethod
+    public void updateBars(PluginCall call) {
+        executor.execute(() -> {
+            try {
+                IndicatorEngine.Bars bars = readBars(call.getData());
+                JSObject result = new JSObject();
+                result.put("size", engine.update(bars, config));
+                call.resolve(result);
+            } catch (IllegalArgumentException | JSONException e) {
+                call.reject("Invalid bars: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * getSeries({ symbol, timeframe, from?, outputs? }) -> { time, rsi, macd, signal, histogram,
+     * bbUpper, bbMiddle, bbLower, vwap, ema: { [period]: [] }, sma: { [period]: [] } } -
+     * bars with time >= from; values still warming up are null.
+     */
+    @PluginMethod
+    public void getSeries(PluginCall call) {
+        String symbol = call.getString("symbol");
+        String timeframe = call.getString("timeframe");
+        if (symbol == null || timeframe == null) {
+            call.reject("symbol and timeframe are required");
+            return;
+        }
+        long from = call.getLong("from", 0L);
+        JSArray outputs = call.getArray("outputs");
+        executor.execute(() -> {
+            IndicatorSeries series = engine.get(symbol, timeframe);
+            if (series == null) {
+                call.reject("No history for " + symbol + " " + timeframe);
+                return;
+            }
+            try {
+                JSObject result = new JSObject();
+                synchronized (series) {
+                    int start = series.lowerBound(from);
+                    int end = series.size();
+                    JSONArray time = new JSONArray();
+                    for (int i = start; i < end; i++) {
+                        time.put(series.time[i]);
+                    }
+                    result.put("time", time);
+                    putIfWanted(result, outputs, "rsi", series.rsi, start, end);
+                    putIfWanted(result, outputs, "macd", series.macd, start, end);
+                    putIfWanted(result, outputs, "signal", series.signal, start, end);
+                    putIfWanted(result, outputs, "histogram", series.histogram, start, end);
+                    putIfWanted(result, outputs, "bbUpper", series.bbUpper, start, end);
+                    putIfWanted(result, outputs, "bbMiddle", series.bbMiddle, start, end);
+                    putIfWanted(result, outputs, "bbLower", series.bbLower, start, end);
+                    putIfWanted(result, outputs, "vwap", series.vwap, start, end);
+                    if (wants(outputs, "ema")) {
+                        result.put("ema", periodsJson(series.config.emaPeriods, series.ema, start, end));
+                    }
+                    if (wants(outputs, "sma")) {
+                        result.put("sma", periodsJson(series.config.smaPeriods, series.sma, start, end));
+                    }
+                }
+                call.resolve(result);
+            } catch (JSONException e) {
+                call.reject("Error reading series: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        engine.shutdown();
+        super.handleOnDestroy();
+    }
+
+    private static IndicatorEngine.Bars readBars(JSONObject json) throws JSONException {
+        String symbol = json.optString("symbol", "");
+        String timeframe = json.optString("timeframe", "");
+        JSONArray time = json.optJSONArray("time");
+        JSONArray high = json.optJSONArray("high");
+        JSONArray low = json.optJSONArray("low");
+        JSONArray close = json.optJSONArray("close");
+        JSONArray volume = json.optJSONArray("volume");
+        if (symbol.isEmpty() || timeframe.isEmpty() || time == null || high == null || low == null || close == null) {
+            throw new IllegalArgumentException("symbol, timeframe, time, high, low and close are required");
+        }
+        int count = time.length();
+        if (high.length() != count || low.length() != count || close.length() != count
+                || (volume != null && volume.length() != count)) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        long[] t = new long[count];
+        double[] h = new double[count];
+        double[] l = new double[count];
+        double[] c = new double[count];
+        double[] v = new double[count];
+        for (int i = 0; i < count; i++) {
+            t[i] = time.getLong(i);
+            h[i] = high.getDouble(i);
+            l[i] = low.getDouble(i);
+            c[i] = close.getDouble(i);
+            v[i] = volume != null ? volume.getDouble(i) : 0;
+        }
+        return new IndicatorEngine.Bars(symbol, timeframe, t, h, l, c, v);
+    }
+
+    private static IndicatorSeries.Config parseConfig(JSONObject json) {
+        IndicatorSeries.Config defaults = IndicatorSeries.Config.defaults();
+        return new IndicatorSeries.Config(
+                json.optInt("rsiPeriod", defaults.rsiPeriod),
+                json.optInt("macdFast", defaults.macdFast),
+                json.optInt("macdSlow", defaults.macdSlow),
+                json.optInt("macdSignal", defaults.macdSignal),
+                json.optInt("bbPeriod", defaults.bbPeriod),
+                json.optDouble("bbStdDev", defaults.bbStdDev),
+                periods(json.optJSONArray("emaPeriods"), defaults.emaPeriods),
+                periods(json.optJSONArray("smaPeriods"), defaults.smaPeriods));
+    }
+
+    private static int[] periods(JSONArray json, int[] fallback) {
+        if (json == null) {
+            return fallback;
+        }
+        int[] periods = new int[json.length()];
+        for (int i = 0; i < periods.length; i++) {
+            periods[i] = json.optInt(i, 0);
+        }
+        return periods;
+    }
+
+    private static boolean wants(JSArray outputs, String name) {
+        if (outputs == null) {
+            return true;
+        }
+        for (int i = 0; i < outputs.length(); i++) {
+            if (name.equals(outputs.optString(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void putIfWanted(JSObject result, JSArray outputs, String name, double[] values, int start, int end)
+            throws JSONException {
+        if (wants(outputs, name)) {
+            result.put(name, valuesJson(values, start, end));
+        }
+    }
+
+    private static JSONObject periodsJson(int[] periods, double[][] values, int start, int end) throws JSONException {
+        JSONObject json = new JSONObject();
+        for (int k = 0; k < periods.length; k++) {
+            json.put(String.valueOf(periods[k]), valuesJson(values[k], start, end));
+        }
+        return json;
+    }
+
+    private static JSONArray valuesJson(double[] values, int start, int end) throws JSONException {
+        JSONArray json = new JSONArray();
+        for (int i = start; i < end; i++) {
+            double value = values[i];
+            // JSONArray rejects NaN: warming-up values travel as null
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                json.put(JSONObject.NULL);
+            } else {
+                json.put(value);
+            }
+        }
+        return json;
+    }
+}
@@ -0,0 +1,374 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Arrays;
+
+/**
+ * Candles of one symbol / timeframe plus their indicator values, all in parallel primitive arrays.
+ *
+ * Every indicator keeps its running state per bar (EMA values, RSI average gain / loss, prefix
+ * sums for SMA, sliding mean / M2 for Bollinger, session sums for VWAP), so bar i is computed from
+ * bar i - 1 alone:
+ * appending or revising the live candle is O(1) regardless of history length. Revising an older
+ * bar recomputes from that bar on. Values follow utils/indicators.ts (SMA-seeded EMA, Wilder RSI,
+ * population standard deviation); bars still warming up hold NaN.
+ *
+ * Pure logic (no Android). Not thread-safe: {@link IndicatorEngine} locks each series.
+ */
+final class IndicatorSeries {
+    private static final int INITIAL_CAPACITY = 512;
+    private static final long DAY_MS = 86_400_000L;
+
+    static final class Config {
+        final int rsiPeriod;
+        final int macdFast;
+        final int macdSlow;
+        final int macdSignal;
+        final int bbPeriod;
+        final double bbStdDev;
+        final int[] emaPeriods;
+        final int[] smaPeriods;
+
+        Config(int rsiPeriod, int macdFast, int macdSlow, int macdSignal, int bbPeriod, double bbStdDev,
+                int[] emaPeriods, int[] smaPeriods) {
+            if (rsiPeriod < 1 || macdFast < 1 || macdSlow < 1 || macdSignal < 1 || bbPeriod < 1) {
+                throw new IllegalArgumentException("Indicator periods must be positive");
+            }
+            for (int period : emaPeriods) {
+                if (period < 1) throw new IllegalArgumentException("EMA period must be positive");
+            }
+            for (int period : smaPeriods) {
+                if (period < 1) throw new IllegalArgumentException("SMA period must be positive");
+            }
+            this.rsiPeriod = rsiPeriod;
+            this.macdFast = macdFast;
+            this.macdSlow = macdSlow;
+            this.macdSignal = macdSignal;
+            this.bbPeriod = bbPeriod;
+            this.bbStdDev = bbStdDev;
+            this.emaPeriods = emaPeriods.clone();
+            this.smaPeriods = smaPeriods.clone();
+        }
+
+        /** The chart's defaults: RSI 14, MACD 12/26/9, BB 20/2, EMA and SMA 50/100/200 */
+        static Config defaults() {
+            return new Config(14, 12, 26, 9, 20, 2, new int[] {50, 100, 200}, new int[] {50, 100, 200});
+        }
+
+        int emaIndex(int period) {
+            return indexOf(emaPeriods, period);
+        }
+
+        int smaIndex(int period) {
+            return indexOf(smaPeriods, period);
+        }
+
+        private static int indexOf(int[] periods, int period) {
+            for (int i = 0; i < periods.length; i++) {
+                if (periods[i] == period) return i;
+            }
+            return -1;
+        }
+    }
+
+    final Config config;
+
+    long[] time = new long[INITIAL_CAPACITY];
+    double[] high = new double[INITIAL_CAPACITY];
+    double[] low = new double[INITIAL_CAPACITY];
+    double[] close = new double[INITIAL_CAPACITY];
+    double[] volume = new double[INITIAL_CAPACITY];
+    int size = 0;
+
+    // Prefix sums of (close - anchor) for O(1) window means; the anchor (first close) keeps
+    // the sums small for low-priced symbols
+    private double anchor;
+    private double[] sum = new double[INITIAL_CAPACITY];
+
+    double[][] ema;
+    double[][] sma;
+    double[] rsi = new double[INITIAL_CAPACITY];
+    private double[] avgGain = new double[INITIAL_CAPACITY];
+    private double[] avgLoss = new double[INITIAL_CAPACITY];
+    private double[] macdFastEma = new double[INITIAL_CAPACITY];
+    private double[] macdSlowEma = new double[INITIAL_CAPACITY];
+    double[] macd = new double[INITIAL_CAPACITY];
+    double[] signal = new double[INITIAL_CAPACITY];
+    double[] histogram = new double[INITIAL_CAPACITY];
+    // Sliding window mean and sum of squared deviations (Welford), reseeded exactly once per
+    // period so rounding cannot drift; prefix sums of squares cancel catastrophically instead
+    private double[] bbM2 = new double[INITIAL_CAPACITY];
+    double[] bbMiddle = new double[INITIAL_CAPACITY];
+    double[] bbUpper = new double[INITIAL_CAPACITY];
+    double[] bbLower = new double[INITIAL_CAPACITY];
+    // VWAP anchored to the UTC day, over the typical price (h + l + c) / 3
+    private double[] sessionPv = new double[INITIAL_CAPACITY];
+    private double[] sessionVolume = new double[INITIAL_CAPACITY];
+    double[] vwap = new double[INITIAL_CAPACITY];
+
+    IndicatorSeries(Config config) {
+        this.config = config;
+        ema = new double[config.emaPeriods.length][INITIAL_CAPACITY];
+        sma = new double[config.smaPeriods.length][INITIAL_CAPACITY];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Replace all bars (sorted by time) and compute every indicator over them.
+     */
+    void setBars(long[] t, double[] h, double[] l, double[] c, double[] v, int count) {
+        clear();
+        ensureCapacity(count);
+        System.arraycopy(t, 0, time, 0, count);
+        System.arraycopy(h, 0, high, 0, count);
+        System.arraycopy(l, 0, low, 0, count);
+        System.arraycopy(c, 0, close, 0, count);
+        System.arraycopy(v, 0, volume, 0, count);
+        size = count;
+        for (int i = 0; i < count; i++) {
+            compute(i);
+        }
+    }
+
+    /**
+     * Append or revise one bar and update the indicators. A bar with the time of the last one
+     * revises it (live candle), a newer one is appended, an older one is inserted and everything
+     * after it recomputed. Returns the bar's index.
+     */
+    int upsert(long barTime, double h, double l, double c, double v) {
+        int index;
+        if (size > 0 && barTime == time[size - 1]) {
+            index = size - 1;
+        } else if (size == 0 || barTime > time[size - 1]) {
+            ensureCapacity(size + 1);
+            index = size++;
+        } else {
+            int found = Arrays.binarySearch(time, 0, size, barTime);
+            if (found >= 0) {
+                index = found;
+            } else {
+                index = -found - 1;
+                ensureCapacity(size + 1);
+                shiftRight(index);
+                size++;
+            }
+        }
+        time[index] = barTime;
+        high[index] = h;
+        low[index] = l;
+        close[index] = c;
+        volume[index] = v;
+        for (int i = index; i < size; i++) {
+            compute(i);
+        }
+        return index;
+    }
+
+    /**
+     * First index with time >= t (size if none).
+     */
+    int lowerBound(long t) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (time[mid] < t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void compute(int i) {
+        double c = close[i];
+        if (i == 0) {
+            anchor = c;
+        }
+        double shifted = c - anchor;
+        sum[i] = (i > 0 ? sum[i - 1] : 0) + shifted;
+
+        for (int k = 0; k < config.emaPeriods.length; k++) {
+            ema[k][i] = ema(ema[k], i, c, config.emaPeriods[k]);
+        }
+        for (int k = 0; k < config.smaPeriods.length; k++) {
+            sma[k][i] = windowMean(i, config.smaPeriods[k]);
+        }
+        computeRsi(i);
+        computeMacd(i);
+        computeBollinger(i);
+        computeVwap(i);
+    }
+
+    /**
+     * EMA seeded with the SMA of the first {@code period} values (calculateEMA).
+     */
+    private double ema(double[] out, int i, double value, int period) {
+        if (i < period - 1) {
+            return Double.NaN;
+        }
+        if (i == period - 1) {
+            return windowMean(i, period);
+        }
+        double multiplier = 2.0 / (period + 1);
+        return (value - out[i - 1]) * multiplier + out[i - 1];
+    }
+
+    private double windowMean(int i, int period) {
+        if (i < period - 1) {
+            return Double.NaN;
+        }
+        double windowSum = sum[i] - (i >= period ? sum[i - period] : 0);
+        return anchor + windowSum / period;
+    }
+
+    private void computeRsi(int i) {
+        int period = config.rsiPeriod;
+        if (i < period) {
+            rsi[i] = Double.NaN;
+            return;
+        }
+        if (i == period) {
+            double gain = 0;
+            double loss = 0;
+            for (int j = 1; j <= period; j++) {
+                double change = close[j] - close[j - 1];
+                if (change > 0) {
+                    gain += change;
+                } else {
+                    loss -= change;
+                }
+            }
+            avgGain[i] = gain / period;
+            avgLoss[i] = loss / period;
+        } else {
+            double change = close[i] - close[i - 1];
+            avgGain[i] = (avgGain[i - 1] * (period - 1) + Math.max(change, 0)) / period;
+            avgLoss[i] = (avgLoss[i - 1] * (period - 1) + Math.max(-change, 0)) / period;
+        }
+        rsi[i] = avgLoss[i] == 0 ? 100 : 100 - 100 / (1 + avgGain[i] / avgLoss[i]);
+    }
+
+    private void computeMacd(int i) {
+        double c = close[i];
+        macdFastEma[i] = ema(macdFastEma, i, c, config.macdFast);
+        macdSlowEma[i] = ema(macdSlowEma, i, c, config.macdSlow);
+        // calculateMACD: the MACD line starts with the slow EMA, the signal is an EMA over it
+        int first = Math.max(config.macdFast, config.macdSlow) - 1;
+        if (i < first) {
+            macd[i] = Double.NaN;
+            signal[i] = Double.NaN;
+            histogram[i] = Double.NaN;
+            return;
+        }
+        macd[i] = macdFastEma[i] - macdSlowEma[i];
+
+        int period = config.macdSignal;
+        int seededAt = first + period - 1;
+        if (i < seededAt) {
+            signal[i] = Double.NaN;
+        } else if (i == seededAt) {
+            double total = 0;
+            for (int j = first; j <= i; j++) {
+                total += macd[j];
+            }
+            signal[i] = total / period;
+        } else {
+            signal[i] = (macd[i] - signal[i - 1]) * (2.0 / (period + 1)) + signal[i - 1];
+        }
+        histogram[i] = macd[i] - signal[i];
+    }
+
+    private void computeBollinger(int i) {
+        int period = config.bbPeriod;
+        if (i < period - 1) {
+            bbMiddle[i] = Double.NaN;
+            bbUpper[i] = Double.NaN;
+            bbLower[i] = Double.NaN;
+            return;
+        }
+        double mean;
+        if (i % period == period - 1) {
+            mean = 0;
+            for (int j = i - period + 1; j <= i; j++) {
+                mean += close[j];
+            }
+            mean /= period;
+            double m2 = 0;
+            for (int j = i - period + 1; j <= i; j++) {
+                double diff = close[j] - mean;
+                m2 += diff * diff;
+            }
+            bbM2[i] = m2;
+        } else {
+            double added = close[i];
+            double removed = close[i - period];
+            double previousMean = bbMiddle[i - 1];
+            mean = previousMean + (added - removed) / period;
+            bbM2[i] = bbM2[i - 1] + (added - removed) * (added - mean + removed - previousMean);
+        }
+        double deviation = Math.sqrt(Math.max(0, bbM2[i] / period));
+        bbMiddle[i] = mean;
+        bbUpper[i] = mean + config.bbStdDev * deviation;
+        bbLower[i] = mean - config.bbStdDev * deviation;
+    }
+
+    private void computeVwap(int i) {
+        double typical = (high[i] + low[i] + close[i]) / 3;
+        boolean newSession = i == 0 || time[i] / DAY_MS != time[i - 1] / DAY_MS;
+        sessionPv[i] = (newSession ? 0 : sessionPv[i - 1]) + typical * volume[i];
+        sessionVolume[i] = (newSession ? 0 : sessionVolume[i - 1]) + volume[i];
+        vwap[i] = sessionVolume[i] > 0 ? sessionPv[i] / sessionVolume[i] : typical;
+    }
+
+    private void shiftRight(int from) {
+        int tail = size - from;
+        System.arraycopy(time, from, time, from + 1, tail);
+        System.arraycopy(high, from, high, from + 1, tail);
+        System.arraycopy(low, from, low, from + 1, tail);
+        System.arraycopy(close, from, close, from + 1, tail);
+        System.arraycopy(volume, from, volume, from + 1, tail);
+        // Derived values are recomputed from {@code from} on by the caller
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= time.length) {
+            return;
+        }
+        int next = Math.max(capacity, time.length * 2);
+        time = Arrays.copyOf(time, next);
+        high = Arrays.copyOf(high, next);
+        low = Arrays.copyOf(low, next);
+        close = Arrays.copyOf(close, next);
+        volume = Arrays.copyOf(volume, next);
+        sum = Arrays.copyOf(sum, next);
+        for (int k = 0; k < ema.length; k++) {
+            ema[k] = Arrays.copyOf(ema[k], next);
+        }
+        for (int k = 0; k < sma.length; k++) {
+            sma[k] = Arrays.copyOf(sma[k], next);
+        }
+        rsi = Arrays.copyOf(rsi, next);
+        avgGain = Arrays.copyOf(avgGain, next);
+        avgLoss = Arrays.copyOf(avgLoss, next);
+        macdFastEma = Arrays.copyOf(macdFastEma, next);
+        macdSlowEma = Arrays.copyOf(macdSlowEma, next);
+        macd = Arrays.copyOf(macd, next);
+        signal = Arrays.copyOf(signal, next);
+        histogram = Arrays.copyOf(histogram, next);
+        bbM2 = Arrays.copyOf(bbM2, next);
+        bbMiddle = Arrays.copyOf(bbMiddle, next);
+        bbUpper = Arrays.copyOf(bbUpper, next);
+        bbLower = Arrays.copyOf(bbLower, next);
+        sessionPv = Arrays.copyOf(sessionPv, next);
+        sessionVolume = Arrays.copyOf(sessionVolume, next);
+        vwap = Arrays.copyOf(vwap, next);
+    }
+}
@@ -0,0 +1,158 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.os.BatteryManager;
+import android.os.Process;
+import android.os.SystemClock;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Lifecycle bus: tells the page about activity transitions as they happen so feeds and
+ * chart renderers can lower their work immediately instead of waiting for Chromium's own
+ * background throttling.
+ *
+ * Event "lifecycle" (strictly ordered by seq):
+ *   seq       monotonically increasing sequence number
+ *   event     'start' | 'resume' | 'pause' | 'stop'
+ *   level     throttling level the page should apply from now on
+ *   previousLevel, timestamp (epoch ms), uptimeMs (SystemClock.elapsedRealtime)
+ *
+ * Throttling levels (contract for JS consumers):
+ *   'full'      - resumed and focused: stream and render at full rate
+ *   'reduced'   - paused but possibly still visible (multi-window, dialogs, permission
+ *                 prompts): keep sockets open, coalesce UI updates (~1 per second), no animations
+ *   'suspended' - stopped / not visible: stop rendering and UI updates; sockets may be closed,
+ *                 only state needed for a quick catch-up on 'start' is kept
+ *
+ * getStats() reports wall and process CPU time spent in each level plus the battery charge
+ * counter, to measure how much background work the throttling saves.
+ */
+@CapacitorPlugin(name = "LifecycleBus")
+public class LifecycleBusPlugin extends Plugin {
+    private static final String TAG = "LifecycleBus";
+    static final String EVENT_LIFECYCLE = "lifecycle";
+
+    static final int LEVEL_FULL = 0;
+    static final int LEVEL_REDUCED = 1;
+    static final int LEVEL_SUSPENDED = 2;
+    private static final String[] LEVEL_NAMES = { "full", "reduced", "suspended" };
+
+    private long seq = 0;
+    private int level = LEVEL_FULL;
+    private long levelSinceUptimeMs = SystemClock.elapsedRealtime();
+    private long levelSinceCpuMs = Process.getElapsedCpuTime();
+    private final long[] wallMsByLevel = new long[3];
+    private final long[] cpuMsByLevel = new long[3];
+    private final int[] transitionsByLevel = new int[3];
+
+    @Override
+    protected void handleOnStart() {
+        super.handleOnStart();
+        publish("start", LEVEL_REDUCED);
+    }
+
+    @Override
+    protected void handleOnResume() {
+        super.handleOnResume();
+        publish("resume", LEVEL_FULL);
+    }
+
+    @Override
+    protected void handleOnPause() {
+        publish("pause", LEVEL_REDUCED);
+        super.handleOnPause();
+    }
+
+    @Override
+    protected void handleOnStop() {
+        publish("stop", LEVEL_SUSPENDED);
+        super.handleOnStop();
+    }
+
+    @PluginMethod
+    public void getState(PluginCall call) {
+        JSObject state = new JSObject();
+        synchronized (this) {
+            state.put("seq", seq);
+            state.put("level", LEVEL_NAMES[level]);
+            state.put("sinceUptimeMs", levelSinceUptimeMs);
+        }
+        call.resolve(state);
+    }
+
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        JSObject stats = new JSObject();
+        synchronized (this) {
+            accumulate(SystemClock.elapsedRealtime(), Process.getElapsedCpuTime());
+            for (int i = 0; i < LEVEL_NAMES.length; i++) {
+                JSObject levelStats = new JSObject();
+                levelStats.put("wallMs", wallMsByLevel[i]);
+                levelStats.put("cpuMs", cpuMsByLevel[i]);
+                levelStats.put("entered", transitionsByLevel[i]);
+                // CPU ms per wall second spent in this level
+                levelStats.put("cpuMsPerSecond", wallMsByLevel[i] > 0 ? cpuMsByLevel[i] * 1000.0 / wallMsByLevel[i] : 0);
+                stats.put(LEVEL_NAMES[i], levelStats);
+            }
+            stats.put("level", LEVEL_NAMES[level]);
+        }
+        stats.put("batteryChargeMicroAh", batteryChargeCounter());
+        call.resolve(stats);
+    }
+
+    @PluginMethod
+    public void resetStats(PluginCall call) {
+        synchronized (this) {
+            levelSinceUptimeMs = SystemClock.elapsedRealtime();
+            levelSinceCpuMs = Process.getElapsedCpuTime();
+            for (int i = 0; i < LEVEL_NAMES.length; i++) {
+                wallMsByLevel[i] = 0;
+                cpuMsByLevel[i] = 0;
+                transitionsByLevel[i] = 0;
+            }
+        }
+        call.resolve();
+    }
+
+    private void publish(String event, int newLevel) {
+        JSObject data = new JSObject();
+        synchronized (this) {
+            long uptimeMs = SystemClock.elapsedRealtime();
+            accumulate(uptimeMs, Process.getElapsedCpuTime());
+
+            int previousLevel = level;
+            level = newLevel;
+            transitionsByLevel[newLevel]++;
+            seq++;
+
+            data.put("seq", seq);
+            data.put("event", event);
+            data.put("level", LEVEL_NAMES[newLevel]);
+            data.put("previousLevel", LEVEL_NAMES[previousLevel]);
+            data.put("timestamp", System.currentTimeMillis());
+            data.put("uptimeMs", uptimeMs);
+        }
+        android.util.Log.d(TAG, "🔁 " + event + " -> " + data.getString("level"));
+        notifyListeners(EVENT_LIFECYCLE, data);
+    }
+
+    // Caller holds the lock
+    private void accumulate(long uptimeMs, long cpuMs) {
+        wallMsByLevel[level] += uptimeMs - levelSinceUptimeMs;
+        cpuMsByLevel[level] += cpuMs - levelSinceCpuMs;
+        levelSinceUptimeMs = uptimeMs;
+        levelSinceCpuMs = cpuMs;
+    }
+
+    private long batteryChargeCounter() {
+        BatteryManager batteryManager = (BatteryManager) getContext().getSystemService(Context.BATTERY_SERVICE);
+        if (batteryManager == null) {
+            return -1;
+        }
+        return batteryManager.getLongProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
+    }
+}
@@ -5,11 +5,15 @@ import android.app.NotificationManager;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
 import android.webkit.CookieManager;
 import android.webkit.WebResourceRequest;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
+import androidx.activity.OnBackPressedCallback;
+import androidx.core.splashscreen.SplashScreen;
 import com.getcapacitor.BridgeActivity;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
@@ -17,190 +21,149 @@ import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.RemoteMessage;
-import org.json.JSONObject;
-import java.io.InputStream;
 
 public class MainActivity extends BridgeActivity {
+    private BootController bootController;
+    private SplashGate splashGate;
+    private WebViewPool webViewPool;
+    private OnBackPressedCallback poolBackCallback;
+    
     @Override
     public void onCreate(Bundle savedInstanceState) {
-        // Register plugins BEFORE super.onCreate()
-        registerPlugin(com.codetrixstudio.capacitor.GoogleAuth.GoogleAuth.class);
-        registerPlugin(com.getcapacitor.community.applesignin.SignInWithApple.class);
-        registerPlugin(WebViewController.class);
-        registerPlugin(InAppPurchasePlugin.class);
+        // Startup phases below are traced (Perfetto / StartupTrace.exportTrace)
+        StartupTrace.Section onCreateTrace = StartupTrace.begin("MainActivity.onCreate");
+        try {
         
-        super.onCreate(savedInstanceState);
+            // Hold the splash until the page has content (FCP / visual state) instead of the first
+            // activity frame, so the blank WebView and the server URL enforcement reload stay hidden
+            SplashScreen splashScreen = SplashScreen.installSplashScreen(this);
+            splashGate = new SplashGate(SystemClock.elapsedRealtime(),
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.N ? Process.getStartElapsedRealtime() : -1,
+                    SplashGate.DEFAULT_MAX_HOLD_MS);
+            splashScreen.setKeepOnScreenCondition(() -> splashGate.shouldKeepOnScreen(SystemClock.elapsedRealtime()));
         
-        // 🔥 CRITICAL: Enable cookie persistence for WebView
-        // This ensures httpOnly cookies (session tokens) are preserved when app is closed
-        try {
-            CookieManager cookieManager = CookieManager.getInstance();
-            cookieManager.setAcceptCookie(true);
+            // Register plugins BEFORE super.onCreate()
+            try (StartupTrace.Section registerTrace = StartupTrace.begin("registerPlugins")) {
+                registerPlugin(com.codetrixstudio.capacitor.GoogleAuth.GoogleAuth.class);
+                registerPlugin(com.getcapacitor.community.applesignin.SignInWithApple.class);
+                registerPlugin(WebViewController.class);
+                registerPlugin(InAppPurchasePlugin.class);
+                registerPlugin(NativeSessionPlugin.class);
+                registerPlugin(StartupPrefetchPlugin.class);
+                registerPlugin(NetworkMonitorPlugin.class);
+                registerPlugin(LifecycleBusPlugin.class);
+                registerPlugin(PriceCachePlugin.class);
+                registerPlugin(NativeChartPlugin.class);
+                registerPlugin(BootPlugin.class);
+                registerPlugin(AlertStorePlugin.class);
+                registerPlugin(AlarmPlugin.class);
+                registerPlugin(BackgroundAlertsPlugin.class);
+                registerPlugin(BridgeBatchPlugin.class);
+                registerPlugin(SplashPlugin.class);
+                registerPlugin(NativeKvPlugin.class);
+                registerPlugin(StartupTracePlugin.class);
+                registerPlugin(NavigationMonitorPlugin.class);
+                registerPlugin(WebViewPoolPlugin.class);
+                registerPlugin(WatchlistRankingPlugin.class);
+                registerPlugin(IndicatorEnginePlugin.class);
+                registerPlugin(OrderBookDepthPlugin.class);
+                registerPlugin(CandleResamplerPlugin.class);
+            }
+        
+            // 🔥 CRITICAL: Inject stored session cookies BEFORE the bridge performs its first loadUrl
+            // so the first page render is already authenticated (no /api/auth/me + restore round-trip)
+            try (StartupTrace.Section trace = StartupTrace.begin("SessionCookieStore.restore")) {
+                SessionCookieStore.restore(this);
+            }
+        
+            // Bridge + WebView creation and every plugin's load()
+            try (StartupTrace.Section trace = StartupTrace.begin("BridgeActivity.onCreate")) {
+                super.onCreate(savedInstanceState);
+            }
+        
+            // 🔥 CRITICAL: Enable cookie persistence for WebView
+            // This ensures httpOnly cookies (session tokens) are preserved when app is closed
+            try (StartupTrace.Section trace = StartupTrace.begin("WebView setup")) {
+                CookieManager cookieManager = CookieManager.getInstance();
+                cookieManager.setAcceptCookie(true);
             
-            // Enable third-party cookies (for OAuth redirects)
-            WebView webView = getBridge().getWebView();
-            if (webView != null) {
-                cookieManager.setAcceptThirdPartyCookies(webView, true);
+                // Enable third-party cookies (for OAuth redirects)
+                WebView webView = getBridge().getWebView();
+                if (webView != null) {
+                    cookieManager.setAcceptThirdPartyCookies(webView, true);
                 
-                // 🔥 CRITICAL: Configure WebView settings for cookie persistence
-                WebSettings webSettings = webView.getSettings();
-                webSettings.setDomStorageEnabled(true); // Enable DOM storage (localStorage)
-                webSettings.setDatabaseEnabled(true); // Enable database storage
+                    // 🔥 CRITICAL: Configure WebView settings for cookie persistence
+                    WebSettings webSettings = webView.getSettings();
+                    webSettings.setDomStorageEnabled(true); // Enable DOM storage (localStorage)
+                    webSettings.setDatabaseEnabled(true); // Enable database storage
                 
-                // 🔥 CRITICAL: Clear WebView cache to ensure new domain is loaded
-                // This prevents old domain (alerta.kriptokirmizi.com) from being cached
-                webView.clearCache(true);
-                webView.clearHistory();
+                    // 🔥 CRITICAL: Clear WebView cache to ensure new domain is loaded
+                    // This prevents old domain (alerta.kriptokirmizi.com) from being cached
+                    try (StartupTrace.Section clearTrace = StartupTrace.begin("WebView.clearCache")) {
+                        webView.clearCache(true);
+                        webView.clearHistory();
+                    }
                 
-                // Clear cookies for old domain
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                    cookieManager.removeAllCookies(null);
-                    cookieManager.flush();
-                }
+                    // Clear cookies for old domain only (keeps the alertachart.com session)
+                    SessionCookieStore.clearLegacyCookies(cookieManager);
                 
-                // Set cache mode to LOAD_DEFAULT (uses cache when available)
-                webSettings.setCacheMode(WebSettings.LOAD_DEFAULT);
+                    // Set cache mode to LOAD_DEFAULT (uses cache when available)
+                    webSettings.setCacheMode(WebSettings.LOAD_DEFAULT);
                 
-                // Enable JavaScript (required for cookies)
-                webSettings.setJavaScriptEnabled(true);
+                    // Enable JavaScript (required for cookies)
+                    webSettings.setJavaScriptEnabled(true);
                 
-                // 🔥 CRITICAL: Set WebViewClient to prevent external browser from opening
-                // This ensures all links (refresh button, settings tab, etc.) open within the app
-                // Note: Google OAuth is handled by native plugin (uses Custom Tabs internally)
-                webView.setWebViewClient(new WebViewClient() {
-                    @Override
-                    public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
-                        String url = request.getUrl().toString();
-                        
-                        // Handle mailto: links with email app
-                        if (url.startsWith("mailto:")) {
-                            try {
-                                Intent intent = new Intent(Intent.ACTION_SENDTO, android.net.Uri.parse(url));
-                                view.getContext().startActivity(intent);
-                                android.util.Log.d("MainActivity", "✉️ Opened mailto link: " + url);
-                                return true;
-                            } catch (Exception e) {
-                                android.util.Log.e("MainActivity", "❌ Error opening mailto: " + e.getMessage());
-                                return false;
-                            }
-                        }
-                        
-                        // Handle tel: links with phone app
-                        if (url.startsWith("tel:")) {
-                            try {
-                                Intent intent = new Intent(Intent.ACTION_DIAL, android.net.Uri.parse(url));
-                                view.getContext().startActivity(intent);
-                                android.util.Log.d("MainActivity", "📞 Opened tel link: " + url);
-                                return true;
-                            } catch (Exception e) {
-                                android.util.Log.e("MainActivity", "❌ Error opening tel: " + e.getMessage());
-                                return false;
-                            }
-                        }
-                        
-                        // 🔥 CRITICAL: Redirect old domain to new domain
-                        if (url.contains("alerta.kriptokirmizi.com")) {
-                            String newUrl = url.replace("alerta.kriptokirmizi.com", "alertachart.com");
-                            android.util.Log.d("MainActivity", "🔄 Redirecting old domain to new: " + newUrl);
-                            view.loadUrl(newUrl);
-                            return true;
-                        }
-                        
-                        // Always load URLs within WebView, never open external browser
-                        view.loadUrl(url);
-                        return true; // We handled the URL loading
-                    }
-                    
-                    @Override
-                    @SuppressWarnings("deprecation")
-                    public boolean shouldOverrideUrlLoading(WebView view, String url) {
-                        // For older Android versions
-                        
-                        // Handle mailto: links with email app
-                        if (url.startsWith("mailto:")) {
-                            try {
-                                Intent intent = new Intent(Intent.ACTION_SENDTO, android.net.Uri.parse(url));
-                                view.getContext().startActivity(intent);
-                                android.util.Log.d("MainActivity", "✉️ Opened mailto link: " + url);
-                                return true;
-                            } catch (Exception e) {
-                                android.util.Log.e("MainActivity", "❌ Error opening mailto: " + e.getMessage());
-                                return false;
-                            }
-                        }
-                        
-                        // Handle tel: links with phone app
-                        if (url.startsWith("tel:")) {
-                            try {
-                                Intent intent = new Intent(Intent.ACTION_DIAL, android.net.Uri.parse(url));
-                                view.getContext().startActivity(intent);
-                                android.util.Log.d("MainActivity", "📞 Opened tel link: " + url);
-                                return true;
-                            } catch (Exception e) {
-                                android.util.Log.e("MainActivity", "❌ Error opening tel: " + e.getMessage());
-                                return false;
-                            }
-                        }
-                        
-                        // 🔥 CRITICAL: Redirect old domain to new domain
-                        if (url.contains("alerta.kriptokirmizi.com")) {
-                            String newUrl = url.replace("alerta.kriptokirmizi.com", "alertachart.com");
-                            android.util.Log.d("MainActivity", "🔄 Redirecting old domain to new: " + newUrl);
-                            view.loadUrl(newUrl);
-                            return true;
-                        }
-                        
-                        // Always load URLs within WebView, never open external browser
-                        view.loadUrl(url);
-                        return true; // We handled the URL loading
-                    }
-                    
-                    @Override
-                    public void onReceivedError(WebView view, android.webkit.WebResourceRequest request, android.webkit.WebResourceError error) {
-                        super.onReceivedError(view, request, error);
-                        String url = request.getUrl().toString();
-                        android.util.Log.e("MainActivity", "❌ WebView error for URL: " + url + " - " + error.getDescription());
-                        
-                        // If error is for old domain, redirect to new domain
-                        if (url.contains("alerta.kriptokirmizi.com")) {
-                            String newUrl = url.replace("alerta.kriptokirmizi.com", "alertachart.com");
-                            android.util.Log.d("MainActivity", "🔄 Redirecting after error: " + newUrl);
-                            view.loadUrl(newUrl);
-                        }
+                    // 🔥 CRITICAL: Set WebViewClient to prevent external browser from opening
+                    // This ensures all links (refresh button, settings tab, etc.) open within the app
+                    // Note: Google OAuth is handled by native plugin (uses Custom Tabs internally)
+                    webView.setWebViewClient(createWebViewClient());
+                
+                    android.util.Log.d("MainActivity", "✅ WebView settings configured for cookie persistence");
+                    android.util.Log.d("MainActivity", "✅ WebViewClient configured to prevent external browser");
+                
+                    // Paint the local shell right away when offline (or after the probe/budget when slow)
+                    // and swap to the remote app once the server is reachable
+                    try (StartupTrace.Section bootTrace = StartupTrace.begin("BootController.start")) {
+                        bootController = new BootController(this, webView, AppConfig.get(this).serverUrlOrDefault());
+                        bootController.start();
                     }
-                    
-                    // Removed shouldInterceptRequest - it was breaking WebView rendering
-                    // Header will be added via User-Agent detection in Next.js instead
-                });
                 
-                android.util.Log.d("MainActivity", "✅ WebView settings configured for cookie persistence");
-                android.util.Log.d("MainActivity", "✅ WebViewClient configured to prevent external browser");
-            }
+                    // Hidden pre-rendered pages for content routes (sized by device RAM, may be 0)
+                    createWebViewPool(webView);
+                }
             
-            // Flush cookies to ensure they are persisted
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                cookieManager.flush();
-            }
+                // Flush cookies to ensure they are persisted
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                    cookieManager.flush();
+                }
             
-            android.util.Log.d("MainActivity", "✅ Cookie persistence enabled");
-        } catch (Exception e) {
-            android.util.Log.e("MainActivity", "❌ Failed to enable cookie persistence: " + e.getMessage());
-        }
+                android.util.Log.d("MainActivity", "✅ Cookie persistence enabled");
+            } catch (Exception e) {
+                android.util.Log.e("MainActivity", "❌ Failed to enable cookie persistence: " + e.getMessage());
+            }
         
-        // Create notification channels (like Expo did)
-        createNotificationChannels();
+            // Create notification channels (like Expo did)
+            try (StartupTrace.Section trace = StartupTrace.begin("createNotificationChannels")) {
+                createNotificationChannels();
+            }
         
-        // Setup Firebase Cloud Messaging listener
-        setupFCMListener();
+            // Setup Firebase Cloud Messaging listener
+            setupFCMListener();
         
-        // 🔥 CRITICAL: Force WebView to load correct URL after Capacitor initialization
-        // This ensures Play Store builds use the correct domain from capacitor.config.json
-        getBridge().getWebView().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                forceCorrectServerUrl();
-            }
-        }, 500); // Wait 500ms for Capacitor to initialize
+            // 🔥 CRITICAL: Force WebView to load correct URL after Capacitor initialization
+            // This ensures Play Store builds use the correct domain from capacitor.config.json
+            StartupTrace.mark("forceCorrectServerUrl scheduled (500ms)");
+            getBridge().getWebView().postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    try (StartupTrace.Section trace = StartupTrace.begin("forceCorrectServerUrl")) {
+                        forceCorrectServerUrl();
+                    }
+                }
+            }, 500); // Wait 500ms for Capacitor to initialize
+        } finally {
+            onCreateTrace.close();
+        }
     }
     
     /**
@@ -215,22 +178,19 @@ public class MainActivity extends BridgeActivity {
                 return;
             }
             
+            // The boot shell swaps to the server URL itself once the probe succeeds
+            if (bootController != null && bootController.isShowingShell()) {
+                return;
+            }
+            
             // Read capacitor.config.json from assets
             String serverUrl = readServerUrlFromConfig();
             if (serverUrl != null && !serverUrl.isEmpty()) {
                 String currentUrl = webView.getUrl();
                 
-                // If WebView is loading old domain or hasn't loaded yet, force correct URL
-                if (currentUrl == null || 
-                    currentUrl.contains("alerta.kriptokirmizi.com") || 
-                    currentUrl.isEmpty() ||
-                    currentUrl.equals("about:blank")) {
-                    
-                    android.util.Log.d("MainActivity", "🔄 Force loading correct server URL: " + serverUrl);
-                    webView.loadUrl(serverUrl);
-                } else if (!currentUrl.startsWith(serverUrl)) {
-                    // If current URL doesn't match config, redirect
-                    android.util.Log.d("MainActivity", "🔄 Current URL doesn't match config, redirecting to: " + serverUrl);
+                // If WebView is loading old domain, hasn't loaded yet or doesn't match config, force correct URL
+                if (UrlRouter.needsServerUrlLoad(currentUrl, serverUrl)) {
+                    android.util.Log.d("MainActivity", "🔄 Force loading correct server URL: " + serverUrl + " (current: " + currentUrl + ")");
                     webView.loadUrl(serverUrl);
                 } else {
                     android.util.Log.d("MainActivity", "✅ WebView already on correct URL: " + currentUrl);
@@ -238,9 +198,9 @@ public class MainActivity extends BridgeActivity {
             } else {
                 android.util.Log.w("MainActivity", "⚠️ Could not read server URL from config, using default");
                 // Fallback to default URL
-                String defaultUrl = "https://www.alertachart.com";
+                String defaultUrl = AppConfig.DEFAULT_SERVER_URL;
                 String currentUrl = webView.getUrl();
-                if (currentUrl == null || currentUrl.contains("alerta.kriptokirmizi.com")) {
+                if (currentUrl == null || UrlRouter.isLegacyUrl(currentUrl)) {
                     webView.loadUrl(defaultUrl);
                 }
             }
@@ -251,31 +211,10 @@ public class MainActivity extends BridgeActivity {
     }
     
     /**
-     * Read server.url from capacitor.config.json
+     * Read server.url from capacitor.config.json (parsed once per process)
      */
     private String readServerUrlFromConfig() {
-        try {
-            InputStream inputStream = getAssets().open("capacitor.config.json");
-            int size = inputStream.available();
-            byte[] buffer = new byte[size];
-            inputStream.read(buffer);
-            inputStream.close();
-            
-            String json = new String(buffer, "UTF-8");
-            JSONObject config = new JSONObject(json);
-            
-            if (config.has("server")) {
-                JSONObject server = config.getJSONObject("server");
-                if (server.has("url")) {
-                    String url = server.getString("url");
-                    android.util.Log.d("MainActivity", "✅ Read server URL from config: " + url);
-                    return url;
-                }
-            }
-        } catch (Exception e) {
-            android.util.Log.e("MainActivity", "❌ Error reading capacitor.config.json: " + e.getMessage());
-        }
-        return null;
+        return AppConfig.get(this).serverUrl;
     }
     
     private void setupFCMListener() {
@@ -348,17 +287,210 @@ public class MainActivity extends BridgeActivity {
         }
     }
     
+    /**
+     * WebViewClient shared by onCreate and onStart: keeps all navigation inside the app,
+     * redirects the old domain and captures the session cookies once a page has loaded.
+     */
+    private WebViewClient createWebViewClient() {
+        return new WebViewClient() {
+            @Override
+            public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
+                return handleUrlLoading(view, request.getUrl().toString());
+            }
+            
+            @Override
+            @SuppressWarnings("deprecation")
+            public boolean shouldOverrideUrlLoading(WebView view, String url) {
+                // For older Android versions
+                return handleUrlLoading(view, url);
+            }
+            
+            @Override
+            public void onReceivedError(WebView view, android.webkit.WebResourceRequest request, android.webkit.WebResourceError error) {
+                super.onReceivedError(view, request, error);
+                String url = request.getUrl().toString();
+                android.util.Log.e("MainActivity", "❌ WebView error for URL: " + url + " - " + error.getDescription());
+                if (request.isForMainFrame()) {
+                    navigationStats().onMainFrameError(url);
+                }
+                
+                if (request.isForMainFrame() && bootController != null && UrlRouter.migrateLegacyUrl(url) == null
+                        && bootController.onMainFrameError(url)) {
+                    return;
+                }
+                
+                // If error is for old domain, redirect to new domain
+                String newUrl = UrlRouter.migrateLegacyUrl(url);
+                if (newUrl != null) {
+                    android.util.Log.d("MainActivity", "🔄 Redirecting after error: " + newUrl);
+                    navigationStats().onLegacyRedirect(url);
+                    view.loadUrl(newUrl);
+                }
+            }
+            
+            @Override
+            public void onReceivedHttpError(WebView view, WebResourceRequest request, android.webkit.WebResourceResponse errorResponse) {
+                super.onReceivedHttpError(view, request, errorResponse);
+                if (request.isForMainFrame()) {
+                    navigationStats().onHttpError(request.getUrl().toString(), errorResponse.getStatusCode());
+                }
+            }
+            
+            @Override
+            public void onPageStarted(WebView view, String url, android.graphics.Bitmap favicon) {
+                super.onPageStarted(view, url, favicon);
+                StartupTrace.mark("onPageStarted " + url);
+                navigationStats().onPageStarted(url, SystemClock.elapsedRealtime());
+                if (isContentUrl(url)) {
+                    splashGate.onPageStarted(SystemClock.elapsedRealtime());
+                }
+            }
+            
+            @Override
+            public void onPageCommitVisible(WebView view, String url) {
+                super.onPageCommitVisible(view, url);
+                StartupTrace.mark("onPageCommitVisible " + url);
+                if (bootController != null) {
+                    bootController.onPageCommitVisible(url);
+                }
+                if (isContentUrl(url)) {
+                    boolean holdingSplash = !splashGate.isReleased();
+                    if (holdingSplash) {
+                        splashGate.onPageCommitVisible(SystemClock.elapsedRealtime());
+                    }
+                    // Fires once the DOM as of now has been drawn: the page's first real frame
+                    view.postVisualStateCallback(0, new WebView.VisualStateCallback() {
+                        @Override
+                        public void onComplete(long requestId) {
+                            long now = SystemClock.elapsedRealtime();
+                            StartupTrace.mark("visual state ready");
+                            navigationStats().onVisualStateReady(url, now);
+                            if (webViewPool != null) {
+                                webViewPool.onMainVisualState(url, now);
+                            }
+                            if (holdingSplash && splashGate.onVisualStateReady(now)) {
+                                android.util.Log.d("SplashGate", "🎨 Page visual state ready, splash released");
+                            }
+                        }
+                    });
+                }
+            }
+            
+            @Override
+            public void onPageFinished(WebView view, String url) {
+                super.onPageFinished(view, url);
+                StartupTrace.mark("onPageFinished " + url);
+                navigationStats().onPageFinished(url, SystemClock.elapsedRealtime());
+                // Keep the encrypted native copy of the session cookies up to date (login, token refresh)
+                if (url != null && url.startsWith(SessionCookieStore.SESSION_ORIGIN)) {
+                    SessionCookieStore.capture(view.getContext());
+                }
+            }
+            
+            // Removed shouldInterceptRequest - it was breaking WebView rendering
+            // Header will be added via User-Agent detection in Next.js instead
+        };
+    }
+    
+    SplashGate getSplashGate() {
+        return splashGate;
+    }
+    
+    WebViewPool getWebViewPool() {
+        return webViewPool;
+    }
+    
+    private void createWebViewPool(WebView webView) {
+        poolBackCallback = new OnBackPressedCallback(false) {
+            @Override
+            public void handleOnBackPressed() {
+                webViewPool.onBackPressed();
+            }
+        };
+        getOnBackPressedDispatcher().addCallback(this, poolBackCallback);
+        webViewPool = new WebViewPool(this, webView, new WebViewPool.Listener() {
+            @Override
+            public void onLeavePool(String url) {
+                handleUrlLoading(webView, url);
+            }
+            
+            @Override
+            public void onShowingChanged(boolean showing) {
+                poolBackCallback.setEnabled(showing);
+            }
+        });
+    }
+    
+    private NavigationStats navigationStats() {
+        return NavigationMonitor.get(this).stats();
+    }
+    
+    /**
+     * Pages that count as content for the splash: the app (or the boot shell), not about:blank.
+     */
+    private static boolean isContentUrl(String url) {
+        return url != null && (url.startsWith("http") || url.startsWith(BootController.SHELL_BASE_URL));
+    }
+    
+    /**
+     * Apply the {@link UrlRouter} decision for a navigation. Returns the shouldOverrideUrlLoading result.
+     */
+    private static boolean handleUrlLoading(WebView view, String url) {
+        switch (UrlRouter.route(url)) {
+            case OPEN_EMAIL:
+                // Handle mailto: links with email app
+                try {
+                    Intent intent = new Intent(Intent.ACTION_SENDTO, android.net.Uri.parse(url));
+                    view.getContext().startActivity(intent);
+                    android.util.Log.d("MainActivity", "✉️ Opened mailto link: " + url);
+                    return true;
+                } catch (Exception e) {
+                    android.util.Log.e("MainActivity", "❌ Error opening mailto: " + e.getMessage());
+                    return false;
+                }
+            case OPEN_DIALER:
+                // Handle tel: links with phone app
+                try {
+                    Intent intent = new Intent(Intent.ACTION_DIAL, android.net.Uri.parse(url));
+                    view.getContext().startActivity(intent);
+                    android.util.Log.d("MainActivity", "📞 Opened tel link: " + url);
+                    return true;
+                } catch (Exception e) {
+                    android.util.Log.e("MainActivity", "❌ Error opening tel: " + e.getMessage());
+                    return false;
+                }
+            case REDIRECT_LEGACY:
+                // 🔥 CRITICAL: Redirect old domain to new domain
+                NavigationMonitor.get(view.getContext()).stats().onLegacyRedirect(url);
+                String newUrl = UrlRouter.migrateLegacyUrl(url);
+                android.util.Log.d("MainActivity", "🔄 Redirecting old domain to new: " + newUrl);
+                view.loadUrl(newUrl);
+                return true;
+            default:
+                // Always load URLs within WebView, never open external browser
+                view.loadUrl(url);
+                return true; // We handled the URL loading
+        }
+    }
+    
     private boolean isFirstStart = true;
     
     @Override
     public void onStart() {
         super.onStart();
         
+        // Memory pressure that shrank the pool has passed by the time the app is started again
+        if (webViewPool != null) {
+            webViewPool.restoreCapacity();
+        }
+        
         // 🔥 CRITICAL: Force correct server URL on start (in case app was restored from background)
         getBridge().getWebView().postDelayed(new Runnable() {
             @Override
             public void run() {
-                forceCorrectServerUrl();
+                try (StartupTrace.Section trace = StartupTrace.begin("forceCorrectServerUrl (onStart)")) {
+                    forceCorrectServerUrl();
+                }
             }
         }, 300);
         
@@ -368,111 +500,7 @@ public class MainActivity extends BridgeActivity {
             // Always set WebViewClient to prevent external browser from opening
             // This ensures all links (refresh button, settings tab, etc.) open within the app
             // Note: Google OAuth is handled by native plugin (uses Custom Tabs internally)
-            webView.setWebViewClient(new WebViewClient() {
-                @Override
-                public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
-                    String url = request.getUrl().toString();
-                    
-                    // Handle mailto: links with email app
-                    if (url.startsWith("mailto:")) {
-                        try {
-                            Intent intent = new Intent(Intent.ACTION_SENDTO, android.net.Uri.parse(url));
-                            view.getContext().startActivity(intent);
-                            android.util.Log.d("MainActivity", "✉️ Opened mailto link: " + url);
-                            return true;
-                        } catch (Exception e) {
-                            android.util.Log.e("MainActivity", "❌ Error opening mailto: " + e.getMessage());
-                            return false;
-                        }
-                    }
-                    
-                    // Handle tel: links with phone app
-                    if (url.startsWith("tel:")) {
-                        try {
-                            Intent intent = new Intent(Intent.ACTION_DIAL, android.net.Uri.parse(url));
-                            view.getContext().startActivity(intent);
-                            android.util.Log.d("MainActivity", "📞 Opened tel link: " + url);
-                            return true;
-                        } catch (Exception e) {
-                            android.util.Log.e("MainActivity", "❌ Error opening tel: " + e.getMessage());
-                            return false;
-                        }
-                    }
-                    
-                    // 🔥 CRITICAL: Redirect old domain to new domain
-                    if (url.contains("alerta.kriptokirmizi.com")) {
-                        String newUrl = url.replace("alerta.kriptokirmizi.com", "alertachart.com");
-                        android.util.Log.d("MainActivity", "🔄 Redirecting old domain to new: " + newUrl);
-                        view.loadUrl(newUrl);
-                        return true;
-                    }
-                    
-                    // Always load URLs within WebView, never open external browser
-                    view.loadUrl(url);
-                    return true; // We handled the URL loading
-                }
-                
-                @Override
-                @SuppressWarnings("deprecation")
-                public boolean shouldOverrideUrlLoading(WebView view, String url) {
-                    // For older Android versions
-                    
-                    // Handle mailto: links with email app
-                    if (url.startsWith("mailto:")) {
-                        try {
-                            Intent intent = new Intent(Intent.ACTION_SENDTO, android.net.Uri.parse(url));
-                            view.getContext().startActivity(intent);
-                            android.util.Log.d("MainActivity", "✉️ Opened mailto link: " + url);
-                            return true;
-                        } catch (Exception e) {
-                            android.util.Log.e("MainActivity", "❌ Error opening mailto: " + e.getMessage());
-                            return false;
-                        }
-                    }
-                    
-                    // Handle tel: links with phone app
-                    if (url.startsWith("tel:")) {
-                        try {
-                            Intent intent = new Intent(Intent.ACTION_DIAL, android.net.Uri.parse(url));
-                            view.getContext().startActivity(intent);
-                            android.util.Log.d("MainActivity", "📞 Opened tel link: " + url);
-                            return true;
-                        } catch (Exception e) {
-                            android.util.Log.e("MainActivity", "❌ Error opening tel: " + e.getMessage());
-                            return false;
-                        }
-                    }
-                    
-                    // 🔥 CRITICAL: Redirect old domain to new domain
-                    if (url.contains("alerta.kriptokirmizi.com")) {
-                        String newUrl = url.replace("alerta.kriptokirmizi.com", "alertachart.com");
-                        android.util.Log.d("MainActivity", "🔄 Redirecting old domain to new: " + newUrl);
-                        view.loadUrl(newUrl);
-                        return true;
-                    }
-                    
-                    // Always load URLs within WebView, never open external browser
-                    view.loadUrl(url);
-                    return true; // We handled the URL loading
-                }
-                
-                @Override
-                public void onReceivedError(WebView view, android.webkit.WebResourceRequest request, android.webkit.WebResourceError error) {
-                    super.onReceivedError(view, request, error);
-                    String url = request.getUrl().toString();
-                    android.util.Log.e("MainActivity", "❌ WebView error for URL: " + url + " - " + error.getDescription());
-                    
-                    // If error is for old domain, redirect to new domain
-                    if (url.contains("alerta.kriptokirmizi.com")) {
-                        String newUrl = url.replace("alerta.kriptokirmizi.com", "alertachart.com");
-                        android.util.Log.d("MainActivity", "🔄 Redirecting after error: " + newUrl);
-                        view.loadUrl(newUrl);
-                    }
-                }
-                
-                // Removed shouldInterceptRequest - it was breaking WebView rendering
-                // Header will be added via User-Agent detection in Next.js instead
-            });
+            webView.setWebViewClient(createWebViewClient());
             android.util.Log.d("MainActivity", "✅ WebViewClient set in onStart");
         }
     }
@@ -481,26 +509,69 @@ public class MainActivity extends BridgeActivity {
     public void onResume() {
         super.onResume();
         
+        if (webViewPool != null) {
+            webViewPool.onResume();
+        }
+        
         // 🔥 CRITICAL: Force correct server URL on resume (in case app was restored)
         getBridge().getWebView().postDelayed(new Runnable() {
             @Override
             public void run() {
-                forceCorrectServerUrl();
+                try (StartupTrace.Section trace = StartupTrace.begin("forceCorrectServerUrl (onResume)")) {
+                    forceCorrectServerUrl();
+                }
             }
         }, 200);
         
         // 🔥 CRITICAL: Check if WebView is trying to load old domain and redirect
         WebView webView = getBridge().getWebView();
         if (webView != null) {
-            String currentUrl = webView.getUrl();
-            if (currentUrl != null && currentUrl.contains("alerta.kriptokirmizi.com")) {
-                String newUrl = currentUrl.replace("alerta.kriptokirmizi.com", "alertachart.com");
+            String newUrl = UrlRouter.migrateLegacyUrl(webView.getUrl());
+            if (newUrl != null) {
                 android.util.Log.d("MainActivity", "🔄 onResume: Redirecting old domain to new: " + newUrl);
+                navigationStats().onLegacyRedirect(webView.getUrl());
                 webView.loadUrl(newUrl);
             }
         }
     }
     
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (webViewPool != null) {
+            webViewPool.onTrimMemory(level);
+        }
+    }
+    
+    @Override
+    public void onDestroy() {
+        if (bootController != null) {
+            bootController.release();
+            bootController = null;
+        }
+        if (webViewPool != null) {
+            webViewPool.release();
+            webViewPool = null;
+        }
+        super.onDestroy();
+    }
+    
+    @Override
+    public void onPause() {
+        super.onPause();
+        
+        if (webViewPool != null) {
+            webViewPool.onPause();
+        }
+        
+        // Persist the latest session cookies before the process may be killed in background
+        SessionCookieStore.capture(this);
+        CookieManager.getInstance().flush();
+        
+        // Keep the navigation histograms if the process is killed before the next upload
+        NavigationMonitor.get(this).persist();
+    }
+    
     // Custom plugin to control WebView URL
     @CapacitorPlugin(name = "WebViewController")
     public static class WebViewController extends Plugin {
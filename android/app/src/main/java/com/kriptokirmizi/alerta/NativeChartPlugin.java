@@ -0,0 +1,214 @@
+package com.kriptokirmizi.alerta;
+
+import android.graphics.Color;
+import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.WebView;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONException;
+
+/**
+ * Native candlestick surface ({@link NativeChartView}) overlaid on the chart region of the page.
+ *
+ * JS sends the full series once (setData, columnar arrays) and afterwards only deltas:
+ * updateBars for new/revised candles and setViewport for pan/zoom. Rects are CSS pixels
+ * relative to the WebView. The surface sits above the WebView, so the page must hide()
+ * it while its own modals or menus cover the chart.
+ *
+ * getFrameStats() returns native render times in the same shape as
+ * nativeChartService.measureWebFrameStats() for side-by-side comparison.
+ */
+@CapacitorPlugin(name = "NativeChart")
+public class NativeChartPlugin extends Plugin {
+    private volatile NativeChartView chartView;
+
+    /**
+     * show({ left, top, width, height })
+     */
+    @PluginMethod
+    public void show(PluginCall call) {
+        Float left = call.getFloat("left");
+        Float top = call.getFloat("top");
+        Float width = call.getFloat("width");
+        Float height = call.getFloat("height");
+        if (left == null || top == null || width == null || height == null) {
+            call.reject("left, top, width and height are required");
+            return;
+        }
+
+        getActivity().runOnUiThread(() -> {
+            WebView webView = getBridge().getWebView();
+            ViewGroup parent = (ViewGroup) webView.getParent();
+            float density = webView.getResources().getDisplayMetrics().density;
+            int widthPx = Math.round(width * density);
+            int heightPx = Math.round(height * density);
+
+            if (chartView == null) {
+                chartView = new NativeChartView(getContext());
+                parent.addView(chartView, new ViewGroup.LayoutParams(widthPx, heightPx));
+            } else {
+                ViewGroup.LayoutParams params = chartView.getLayoutParams();
+                params.width = widthPx;
+                params.height = heightPx;
+                chartView.setLayoutParams(params);
+            }
+            chartView.setX(webView.getX() + left * density);
+            chartView.setY(webView.getY() + top * density);
+            chartView.setVisibility(View.VISIBLE);
+            call.resolve();
+        });
+    }
+
+    @PluginMethod
+    public void hide(PluginCall call) {
+        getActivity().runOnUiThread(() -> {
+            if (chartView != null) {
+                chartView.setVisibility(View.GONE);
+            }
+            call.resolve();
+        });
+    }
+
+    /**
+     * setData({ time: number[], open: number[], high, low, close, volume }) - replaces all bars.
+     */
+    @PluginMethod
+    public void setData(PluginCall call) {
+        applyBars(call, true);
+    }
+
+    /**
+     * updateBars({ time: number[], open: number[], ... }) - appends new bars, revises existing ones.
+     */
+    @PluginMethod
+    public void updateBars(PluginCall call) {
+        applyBars(call, false);
+    }
+
+    /**
+     * setViewport({ from, to, intervalMs }) - visible time range in ms.
+     */
+    @PluginMethod
+    public void setViewport(PluginCall call) {
+        Long from = call.getLong("from");
+        Long to = call.getLong("to");
+        if (from == null || to == null || to <= from) {
+            call.reject("from < to is required");
+            return;
+        }
+        NativeChartView view = chartView;
+        if (view == null) {
+            call.reject("Chart not shown");
+            return;
+        }
+        view.setViewport(from, to, call.getLong("intervalMs", 60_000L));
+        call.resolve();
+    }
+
+    /**
+     * setStyle({ upColor, downColor, background }) - CSS hex colors.
+     */
+    @PluginMethod
+    public void setStyle(PluginCall call) {
+        NativeChartView view = chartView;
+        if (view == null) {
+            call.reject("Chart not shown");
+            return;
+        }
+        try {
+            view.setColors(Color.parseColor(call.getString("upColor", "#0ECB81")),
+                    Color.parseColor(call.getString("downColor", "#F6465D")),
+                    Color.parseColor(call.getString("background", "#0B0E11")));
+            call.resolve();
+        } catch (IllegalArgumentException e) {
+            call.reject("Invalid color: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getFrameStats(PluginCall call) {
+        JSObject result = new JSObject();
+        NativeChartView view = chartView;
+        FrameTimeRecorder frames = view != null ? view.frameTimes : null;
+        result.put("renderer", "native");
+        result.put("frames", frames != null ? frames.totalFrames() : 0);
+        result.put("jankyFrames", frames != null ? frames.jankyFrames() : 0);
+        result.put("p50Ms", frames != null ? frames.percentileMs(50) : 0);
+        result.put("p95Ms", frames != null ? frames.percentileMs(95) : 0);
+        result.put("p99Ms", frames != null ? frames.percentileMs(99) : 0);
+        result.put("maxMs", frames != null ? frames.percentileMs(100) : 0);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void resetFrameStats(PluginCall call) {
+        NativeChartView view = chartView;
+        if (view != null) {
+            view.frameTimes.reset();
+        }
+        call.resolve();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        if (chartView != null) {
+            chartView.release();
+            chartView = null;
+        }
+        super.handleOnDestroy();
+    }
+
+    private void applyBars(PluginCall call, boolean replace) {
+        NativeChartView view = chartView;
+        if (view == null) {
+            call.reject("Chart not shown");
+            return;
+        }
+        JSArray time = call.getArray("time");
+        JSArray open = call.getArray("open");
+        JSArray high = call.getArray("high");
+        JSArray low = call.getArray("low");
+        JSArray close = call.getArray("close");
+        JSArray volume = call.getArray("volume");
+        if (time == null || open == null || high == null || low == null || close == null) {
+            call.reject("time, open, high, low and close arrays are required");
+            return;
+        }
+        int count = time.length();
+        if (open.length() != count || high.length() != count || low.length() != count
+                || close.length() != count || (volume != null && volume.length() != count)) {
+            call.reject("Arrays must have the same length");
+            return;
+        }
+
+        try {
+            long[] t = new long[count];
+            double[] o = new double[count];
+            double[] h = new double[count];
+            double[] l = new double[count];
+            double[] c = new double[count];
+            double[] v = new double[count];
+            for (int i = 0; i < count; i++) {
+                t[i] = time.getLong(i);
+                o[i] = open.getDouble(i);
+                h[i] = high.getDouble(i);
+                l[i] = low.getDouble(i);
+                c[i] = close.getDouble(i);
+                v[i] = volume != null ? volume.getDouble(i) : 0;
+            }
+            if (replace) {
+                view.setBars(t, o, h, l, c, v, count);
+            } else {
+                view.upsertBars(t, o, h, l, c, v, count);
+            }
+            call.resolve();
+        } catch (JSONException e) {
+            call.reject("Invalid bar data: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candlestick + volume surface drawn on its own render thread, GPU-backed on API 26+
+ * (Surface.lockHardwareCanvas). Bars live in a {@link CandleSeries}; every mutation is
+ * posted to the render thread and coalesced into at most one draw per vsync.
+ *
+ * The frame path allocates nothing: Paints and layout are preallocated and only the
+ * visible index range is drawn.
+ */
+public class NativeChartView extends SurfaceView implements SurfaceHolder.Callback, Choreographer.FrameCallback {
+    private static final String TAG = "NativeChart";
+
+    private final HandlerThread renderThread;
+    private final Handler renderHandler;
+    private Choreographer choreographer;
+
+    // Render-thread state
+    private final CandleSeries series = new CandleSeries();
+    private final CandleLayout layout = new CandleLayout();
+    private final Paint upPaint = new Paint();
+    private final Paint downPaint = new Paint();
+    private final Paint upVolumePaint = new Paint();
+    private final Paint downVolumePaint = new Paint();
+    private final Paint lastPricePaint = new Paint();
+    private int backgroundColor = 0xFF0B0E11;
+    private boolean surfaceReady = false;
+    private boolean frameScheduled = false;
+
+    final FrameTimeRecorder frameTimes = new FrameTimeRecorder(600);
+
+    public NativeChartView(Context context) {
+        super(context);
+        getHolder().addCallback(this);
+        // Above the WebView; the page hides this view while its own overlays cover the chart
+        setZOrderOnTop(true);
+
+        renderThread = new HandlerThread("NativeChart-render", android.os.Process.THREAD_PRIORITY_DISPLAY);
+        renderThread.start();
+        renderHandler = new Handler(renderThread.getLooper());
+        renderHandler.post(() -> choreographer = Choreographer.getInstance());
+
+        setColors(0xFF0ECB81, 0xFFF6465D, backgroundColor);
+        lastPricePaint.setStrokeWidth(1f);
+    }
+
+    /**
+     * Replace all bars (columnar arrays, sorted by time). Arrays are owned by the view afterwards.
+     */
+    void setBars(long[] time, double[] open, double[] high, double[] low, double[] close, double[] volume, int count) {
+        renderHandler.post(() -> {
+            series.clear();
+            series.ensureCapacity(count);
+            System.arraycopy(time, 0, series.time, 0, count);
+            System.arraycopy(open, 0, series.open, 0, count);
+            System.arraycopy(high, 0, series.high, 0, count);
+            System.arraycopy(low, 0, series.low, 0, count);
+            System.arraycopy(close, 0, series.close, 0, count);
+            System.arraycopy(volume, 0, series.volume, 0, count);
+            series.size = count;
+            scheduleFrame();
+        });
+    }
+
+    /**
+     * Append new bars or revise existing ones (live candle).
+     */
+    void upsertBars(long[] time, double[] open, double[] high, double[] low, double[] close, double[] volume, int count) {
+        renderHandler.post(() -> {
+            for (int i = 0; i < count; i++) {
+                series.upsert(time[i], open[i], high[i], low[i], close[i], volume[i]);
+            }
+            scheduleFrame();
+        });
+    }
+
+    void setViewport(long fromTime, long toTime, long barIntervalMs) {
+        renderHandler.post(() -> {
+            layout.fromTime = fromTime;
+            layout.toTime = toTime;
+            layout.barIntervalMs = barIntervalMs;
+            scheduleFrame();
+        });
+    }
+
+    void setColors(int upColor, int downColor, int background) {
+        renderHandler.post(() -> {
+            upPaint.setColor(upColor);
+            downPaint.setColor(downColor);
+            upVolumePaint.setColor((upColor & 0x00FFFFFF) | 0x66000000);
+            downVolumePaint.setColor((downColor & 0x00FFFFFF) | 0x66000000);
+            backgroundColor = background;
+            scheduleFrame();
+        });
+    }
+
+    void release() {
+        renderHandler.post(() -> {
+            if (choreographer != null) {
+                choreographer.removeFrameCallback(this);
+            }
+            renderThread.quitSafely();
+        });
+    }
+
+    // Render thread only
+    private void scheduleFrame() {
+        if (frameScheduled || !surfaceReady || choreographer == null) {
+            return;
+        }
+        frameScheduled = true;
+        choreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        if (!surfaceReady) {
+            return;
+        }
+
+        // Vsync-to-vsync interval, like requestAnimationFrame on the web side
+        frameTimes.recordFrame(frameTimeNanos);
+        SurfaceHolder holder = getHolder();
+        Canvas canvas;
+        try {
+            canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                    ? holder.getSurface().lockHardwareCanvas()
+                    : holder.lockCanvas();
+        } catch (Exception e) {
+            android.util.Log.w(TAG, "⚠️ lockCanvas failed: " + e.getMessage());
+            return;
+        }
+        if (canvas == null) {
+            return;
+        }
+        try {
+            drawChart(canvas);
+        } finally {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                holder.getSurface().unlockCanvasAndPost(canvas);
+            } else {
+                holder.unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+
+    private void drawChart(Canvas canvas) {
+        canvas.drawColor(backgroundColor);
+        layout.width = canvas.getWidth();
+        layout.height = canvas.getHeight();
+        if (!layout.compute(series)) {
+            return;
+        }
+
+        float halfBody = layout.bodyWidth / 2f;
+        long[] time = series.time;
+        double[] open = series.open;
+        double[] high = series.high;
+        double[] low = series.low;
+        double[] close = series.close;
+        double[] volume = series.volume;
+        for (int i = layout.firstIndex; i < layout.endIndex; i++) {
+            boolean up = close[i] >= open[i];
+            float x = layout.x(time[i]);
+
+            canvas.drawRect(x - halfBody, layout.volumeTop(volume[i]), x + halfBody, layout.height,
+                    up ? upVolumePaint : downVolumePaint);
+
+            Paint paint = up ? upPaint : downPaint;
+            canvas.drawLine(x, layout.y(high[i]), x, layout.y(low[i]), paint);
+            float top = layout.y(up ? close[i] : open[i]);
+            float bottom = layout.y(up ? open[i] : close[i]);
+            // Doji: keep at least one pixel of body
+            canvas.drawRect(x - halfBody, top, x + halfBody, Math.max(bottom, top + 1f), paint);
+        }
+
+        int last = series.size - 1;
+        lastPricePaint.setColor(close[last] >= open[last] ? upPaint.getColor() : downPaint.getColor());
+        float lastY = layout.y(close[last]);
+        canvas.drawLine(0, lastY, layout.width, lastY, lastPricePaint);
+    }
+
+    // SurfaceHolder.Callback (UI thread)
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        renderHandler.post(() -> {
+            surfaceReady = true;
+            scheduleFrame();
+        });
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // Block until the render thread stops touching the surface
+        CountDownLatch stopped = new CountDownLatch(1);
+        boolean posted = renderHandler.post(() -> {
+            surfaceReady = false;
+            stopped.countDown();
+        });
+        if (posted) {
+            try {
+                stopped.await(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Shared OkHttp client for native networking.
+ * One client = one connection pool, so every native request to www.alertachart.com
+ * reuses the same warm HTTP/2 connection.
+ */
+public final class NativeHttp {
+    private static volatile OkHttpClient client;
+
+    private NativeHttp() {
+    }
+
+    public static OkHttpClient client() {
+        OkHttpClient local = client;
+        if (local == null) {
+            synchronized (NativeHttp.class) {
+                local = client;
+                if (local == null) {
+                    local = new OkHttpClient.Builder()
+                            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                            .connectTimeout(10, TimeUnit.SECONDS)
+                            .readTimeout(15, TimeUnit.SECONDS)
+                            .build();
+                    client = local;
+                }
+            }
+        }
+        return local;
+    }
+}
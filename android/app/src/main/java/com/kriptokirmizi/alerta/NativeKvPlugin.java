@@ -0,0 +1,232 @@
+package com.kriptokirmizi.alerta;
+
+import android.util.Base64;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+
+/**
+ * Async access to {@link NativeKvStore} for the page, replacing synchronous localStorage for
+ * large state. Every call runs on one background thread, so reads/writes never block the
+ * page's JS thread and stay in call order. Binary values travel as base64.
+ */
+@CapacitorPlugin(name = "NativeKV")
+public class NativeKvPlugin extends Plugin {
+    private static final String TAG = "NativeKV";
+    private static final int DEFAULT_SCAN_LIMIT = 500;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "native-kv");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * get({ key }) -> { value: string | null, binary }
+     */
+    @PluginMethod
+    public void get(PluginCall call) {
+        String key = call.getString("key");
+        if (key == null) {
+            call.reject("key is required");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                call.resolve(entry(key, store().get(key), false));
+            } catch (Exception e) {
+                call.reject("Error reading " + key + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * getMany({ keys }) -> { entries: [{ key, value, binary }] } (missing keys have value null)
+     */
+    @PluginMethod
+    public void getMany(PluginCall call) {
+        JSArray keys = call.getArray("keys");
+        if (keys == null) {
+            call.reject("keys is required");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                NativeKvStore store = store();
+                JSONArray entries = new JSONArray();
+                for (int i = 0; i < keys.length(); i++) {
+                    String key = keys.getString(i);
+                    entries.put(entry(key, store.get(key), false));
+                }
+                JSObject result = new JSObject();
+                result.put("entries", entries);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error reading keys: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * set({ key, value, binary? }) - value is base64 when binary.
+     */
+    @PluginMethod
+    public void set(PluginCall call) {
+        String key = call.getString("key");
+        String value = call.getString("value");
+        boolean binary = call.getBoolean("binary", false);
+        if (key == null || value == null) {
+            call.reject("key and value are required");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                NativeKvStore store = store();
+                if (binary) {
+                    store.putBinary(key, Base64.decode(value, Base64.NO_WRAP));
+                } else {
+                    store.putString(key, value);
+                }
+                call.resolve();
+                compactIfNeeded(store);
+            } catch (Exception e) {
+                call.reject("Error writing " + key + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * remove({ key }) -> { removed }
+     */
+    @PluginMethod
+    public void remove(PluginCall call) {
+        String key = call.getString("key");
+        if (key == null) {
+            call.reject("key is required");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                NativeKvStore store = store();
+                JSObject result = new JSObject();
+                result.put("removed", store.remove(key));
+                call.resolve(result);
+                compactIfNeeded(store);
+            } catch (Exception e) {
+                call.reject("Error removing " + key + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * scan({ prefix, limit?, keysOnly? }) -> { entries: [{ key, value?, binary? }] } in key order
+     */
+    @PluginMethod
+    public void scan(PluginCall call) {
+        String prefix = call.getString("prefix", "");
+        int limit = Math.max(1, call.getInt("limit", DEFAULT_SCAN_LIMIT));
+        boolean keysOnly = call.getBoolean("keysOnly", false);
+        executor.execute(() -> {
+            try {
+                JSONArray entries = new JSONArray();
+                for (Map.Entry<String, NativeKvStore.Value> item : store().scan(prefix, limit, keysOnly).entrySet()) {
+                    entries.put(entry(item.getKey(), item.getValue(), keysOnly));
+                }
+                JSObject result = new JSObject();
+                result.put("entries", entries);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error scanning " + prefix + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * getPreloaded() -> { entries } - the hot keys decoded at process start, in one call.
+     */
+    @PluginMethod
+    public void getPreloaded(PluginCall call) {
+        executor.execute(() -> {
+            try {
+                JSONArray entries = new JSONArray();
+                for (Map.Entry<String, NativeKvStore.Value> item : store().getPreloaded().entrySet()) {
+                    entries.put(entry(item.getKey(), item.getValue(), false));
+                }
+                JSObject result = new JSObject();
+                result.put("entries", entries);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error reading preloaded keys: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        executor.execute(() -> {
+            try {
+                JSObject result = new JSObject();
+                for (Map.Entry<String, Object> stat : store().stats().entrySet()) {
+                    result.put(stat.getKey(), stat.getValue());
+                }
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error reading stats: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    protected void handleOnPause() {
+        super.handleOnPause();
+        // Remember the hot keys and force the log to disk while the process may be killed
+        executor.execute(() -> {
+            try {
+                store().flush();
+            } catch (Exception e) {
+                android.util.Log.e(TAG, "❌ Flush failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private NativeKvStore store() {
+        return NativeKvStore.get(getContext());
+    }
+
+    private void compactIfNeeded(NativeKvStore store) {
+        if (!store.needsCompaction()) {
+            return;
+        }
+        try {
+            store.compact();
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Compaction failed: " + e.getMessage());
+        }
+    }
+
+    private static JSObject entry(String key, NativeKvStore.Value value, boolean keysOnly) {
+        JSObject entry = new JSObject();
+        entry.put("key", key);
+        if (keysOnly) {
+            return entry;
+        }
+        if (value == null) {
+            entry.put("value", JSObject.NULL);
+            entry.put("binary", false);
+        } else if (value.isBinary()) {
+            entry.put("value", Base64.encodeToString(value.bytes, Base64.NO_WRAP));
+            entry.put("binary", true);
+        } else {
+            entry.put("value", value.asString());
+            entry.put("binary", false);
+        }
+        return entry;
+    }
+}
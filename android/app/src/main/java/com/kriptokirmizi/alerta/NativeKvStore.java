@@ -0,0 +1,521 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent key-value store for the page's large state (drawings, layouts, caches) that
+ * used to live in synchronous localStorage.
+ *
+ * Storage is one memory-mapped, append-only log: every set/remove appends a record
+ * [type:1][keyLen:4][valueLen:4][crc32:4][key][value] and the in-memory index (sorted, for
+ * prefix scans) points at the latest record per key. Writes land in the shared mapping, so
+ * they survive a process kill without an fsync; {@link #flush} forces them for power loss.
+ * On open the log is replayed up to the first torn/corrupt record. Superseded records are
+ * dropped by {@link #compact} (rewrite live records to a new file, atomic rename).
+ *
+ * The most-read keys are remembered across launches and decoded at open, so the page's
+ * first reads after startup are served from memory.
+ */
+final class NativeKvStore {
+    private static final String TAG = "NativeKV";
+    private static final int MAGIC = 0x414B5631; // "AKV1"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 13;
+    private static final long INITIAL_CAPACITY = 256 * 1024;
+    static final int MAX_KEY_BYTES = 4096;
+    static final int MAX_VALUE_BYTES = 16 * 1024 * 1024;
+
+    static final byte TYPE_STRING = 1;
+    static final byte TYPE_BINARY = 2;
+    private static final byte TYPE_DELETE = 3;
+
+    // Compact once superseded records are at least half the log and worth the rewrite
+    private static final double COMPACT_GARBAGE_RATIO = 0.5;
+    private static final long COMPACT_MIN_GARBAGE_BYTES = 512 * 1024;
+
+    static final int MAX_HOT_KEYS = 32;
+    // Reserved keys are hidden from scans
+    static final String RESERVED_PREFIX = "__kv.";
+    private static final String HOT_KEYS_KEY = RESERVED_PREFIX + "hot";
+
+    private static volatile NativeKvStore instance;
+
+    static final class Value {
+        final byte type;
+        final byte[] bytes;
+
+        Value(byte type, byte[] bytes) {
+            this.type = type;
+            this.bytes = bytes;
+        }
+
+        boolean isBinary() {
+            return type == TYPE_BINARY;
+        }
+
+        String asString() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Slot {
+        final long recordOffset;
+        final int keyBytes;
+        final int valueBytes;
+        final byte type;
+
+        Slot(long recordOffset, int keyBytes, int valueBytes, byte type) {
+            this.recordOffset = recordOffset;
+            this.keyBytes = keyBytes;
+            this.valueBytes = valueBytes;
+            this.type = type;
+        }
+
+        int recordBytes() {
+            return RECORD_HEADER_BYTES + keyBytes + valueBytes;
+        }
+
+        long valueOffset() {
+            return recordOffset + RECORD_HEADER_BYTES + keyBytes;
+        }
+    }
+
+    private final File file;
+    private final TreeMap<String, Slot> index = new TreeMap<>();
+    private final Map<String, Value> preloaded = new HashMap<>();
+    private final Map<String, Integer> reads = new HashMap<>();
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long writeOffset;
+    private long liveBytes;
+    private int compactions;
+    private long lastCompactionMs = -1;
+    private long openMs;
+
+    static NativeKvStore get(Context context) {
+        NativeKvStore local = instance;
+        if (local == null) {
+            synchronized (NativeKvStore.class) {
+                local = instance;
+                if (local == null) {
+                    File dir = new File(context.getApplicationContext().getFilesDir(), "kv");
+                    try {
+                        local = open(new File(dir, "store.log"));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Could not open the KV store: " + e.getMessage(), e);
+                    }
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Open (or create) a store, replay its log and preload the remembered hot keys.
+     */
+    static NativeKvStore open(File file) throws IOException {
+        NativeKvStore store = new NativeKvStore(file);
+        long start = System.nanoTime();
+        store.load();
+        store.preloadHotKeys();
+        store.openMs = (System.nanoTime() - start) / 1_000_000;
+        return store;
+    }
+
+    private NativeKvStore(File file) {
+        this.file = file;
+    }
+
+    synchronized Value get(String key) {
+        countRead(key);
+        Value cached = preloaded.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Slot slot = index.get(key);
+        return slot != null ? readValue(slot) : null;
+    }
+
+    synchronized void putString(String key, String value) throws IOException {
+        put(key, TYPE_STRING, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    synchronized void putBinary(String key, byte[] value) throws IOException {
+        put(key, TYPE_BINARY, value);
+    }
+
+    synchronized boolean remove(String key) throws IOException {
+        if (!index.containsKey(key)) {
+            return false;
+        }
+        append(key, TYPE_DELETE, new byte[0]);
+        return true;
+    }
+
+    /**
+     * Entries whose key starts with {@code prefix}, in key order (values null when {@code keysOnly}).
+     */
+    synchronized LinkedHashMap<String, Value> scan(String prefix, int limit, boolean keysOnly) {
+        LinkedHashMap<String, Value> out = new LinkedHashMap<>();
+        SortedMap<String, Slot> range = prefix.isEmpty() ? index : index.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (Map.Entry<String, Slot> entry : range.entrySet()) {
+            if (out.size() >= limit) {
+                break;
+            }
+            if (entry.getKey().startsWith(RESERVED_PREFIX)) {
+                continue;
+            }
+            Value cached = keysOnly ? null : preloaded.get(entry.getKey());
+            out.put(entry.getKey(), keysOnly ? null : cached != null ? cached : readValue(entry.getValue()));
+        }
+        return out;
+    }
+
+    /**
+     * Values decoded at open (last launch's most-read keys). Handing them out counts as a
+     * read, so keys the page keeps using stay hot.
+     */
+    synchronized Map<String, Value> getPreloaded() {
+        for (String key : preloaded.keySet()) {
+            countRead(key);
+        }
+        return new LinkedHashMap<>(preloaded);
+    }
+
+    synchronized int size() {
+        return index.containsKey(HOT_KEYS_KEY) ? index.size() - 1 : index.size();
+    }
+
+    synchronized long garbageBytes() {
+        return writeOffset - FILE_HEADER_BYTES - liveBytes;
+    }
+
+    synchronized boolean needsCompaction() {
+        long garbage = garbageBytes();
+        return garbage >= COMPACT_MIN_GARBAGE_BYTES
+                && garbage >= (writeOffset - FILE_HEADER_BYTES) * COMPACT_GARBAGE_RATIO;
+    }
+
+    /**
+     * Remember the current hot keys and force the mapping to disk.
+     */
+    synchronized void flush() throws IOException {
+        List<String> hot = hotKeys();
+        StringBuilder joinedBuilder = new StringBuilder();
+        for (String key : hot) {
+            if (joinedBuilder.length() > 0) {
+                joinedBuilder.append('\n');
+            }
+            joinedBuilder.append(key);
+        }
+        String joined = joinedBuilder.toString();
+        Slot current = index.get(HOT_KEYS_KEY);
+        if (!hot.isEmpty() && (current == null || !joined.equals(readValue(current).asString()))) {
+            append(HOT_KEYS_KEY, TYPE_STRING, joined.getBytes(StandardCharsets.UTF_8));
+        }
+        buffer.force();
+    }
+
+    /**
+     * Rewrite the live records into a fresh log and swap it in atomically.
+     */
+    synchronized void compact() throws IOException {
+        long start = System.nanoTime();
+        long before = writeOffset;
+        File tmp = new File(file.getPath() + ".compact");
+        TreeMap<String, Slot> moved = new TreeMap<>();
+        try (RandomAccessFile out = new RandomAccessFile(tmp, "rw")) {
+            out.setLength(0);
+            MappedByteBuffer target = out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    capacityFor(FILE_HEADER_BYTES + liveBytes));
+            target.putInt(0, MAGIC);
+            target.putInt(4, VERSION);
+            long offset = FILE_HEADER_BYTES;
+            for (Map.Entry<String, Slot> entry : index.entrySet()) {
+                Slot slot = entry.getValue();
+                ByteBuffer record = slice(slot.recordOffset, slot.recordBytes());
+                target.position((int) offset);
+                target.put(record);
+                moved.put(entry.getKey(), new Slot(offset, slot.keyBytes, slot.valueBytes, slot.type));
+                offset += slot.recordBytes();
+            }
+            target.force();
+        }
+        closeMapping();
+        if (!tmp.renameTo(file)) {
+            // Keep serving the uncompacted log; index and offsets still describe it
+            mapFile();
+            if (!tmp.delete()) {
+                android.util.Log.w(TAG, "⚠️ Could not delete " + tmp);
+            }
+            throw new IOException("Could not replace " + file + " with the compacted log");
+        }
+        mapFile();
+        index.clear();
+        index.putAll(moved);
+        writeOffset = FILE_HEADER_BYTES + liveBytes;
+        compactions++;
+        lastCompactionMs = (System.nanoTime() - start) / 1_000_000;
+        android.util.Log.d(TAG, "🧹 Compacted " + before + " -> " + writeOffset + " bytes in " + lastCompactionMs + "ms");
+    }
+
+    synchronized void close() throws IOException {
+        buffer.force();
+        closeMapping();
+    }
+
+    synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("keys", size());
+        stats.put("logBytes", writeOffset);
+        stats.put("liveBytes", liveBytes);
+        stats.put("garbageBytes", garbageBytes());
+        stats.put("mappedBytes", (long) buffer.capacity());
+        stats.put("preloadedKeys", preloaded.size());
+        stats.put("openMs", openMs);
+        stats.put("compactions", compactions);
+        stats.put("lastCompactionMs", lastCompactionMs);
+        return stats;
+    }
+
+    /**
+     * Most-read keys of this session (ties in key order), at most {@link #MAX_HOT_KEYS}.
+     */
+    synchronized List<String> hotKeys() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(reads.entrySet());
+        Collections.sort(entries, (a, b) -> {
+            int byReads = Integer.compare(b.getValue(), a.getValue());
+            return byReads != 0 ? byReads : a.getKey().compareTo(b.getKey());
+        });
+        List<String> hot = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : entries) {
+            if (hot.size() >= MAX_HOT_KEYS) {
+                break;
+            }
+            if (index.containsKey(entry.getKey())) {
+                hot.add(entry.getKey());
+            }
+        }
+        return hot;
+    }
+
+    /**
+     * Decode {@code keys} now so later reads do not touch the mapping.
+     */
+    synchronized void preload(Collection<String> keys) {
+        for (String key : keys) {
+            Slot slot = index.get(key);
+            if (slot != null && !key.startsWith(RESERVED_PREFIX)) {
+                preloaded.put(key, readValue(slot));
+            }
+        }
+    }
+
+    private void put(String key, byte type, byte[] value) throws IOException {
+        if (key.startsWith(RESERVED_PREFIX)) {
+            throw new IllegalArgumentException("Keys starting with " + RESERVED_PREFIX + " are reserved");
+        }
+        append(key, type, value);
+    }
+
+    private void append(String key, byte type, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length == 0 || keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Key must be 1.." + MAX_KEY_BYTES + " bytes");
+        }
+        if (value.length > MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("Value exceeds " + MAX_VALUE_BYTES + " bytes");
+        }
+        int recordBytes = RECORD_HEADER_BYTES + keyBytes.length + value.length;
+        ensureCapacity(writeOffset + recordBytes);
+
+        int offset = (int) writeOffset;
+        buffer.putInt(offset + 1, keyBytes.length);
+        buffer.putInt(offset + 5, value.length);
+        buffer.putInt(offset + 9, (int) crc(type, keyBytes, value));
+        buffer.position(offset + RECORD_HEADER_BYTES);
+        buffer.put(keyBytes);
+        buffer.put(value);
+        // Type byte last: until it is set the record reads as the end of the log
+        buffer.put(offset, type);
+
+        Slot previous = index.remove(key);
+        if (previous != null) {
+            liveBytes -= previous.recordBytes();
+        }
+        preloaded.remove(key);
+        if (type != TYPE_DELETE) {
+            index.put(key, new Slot(writeOffset, keyBytes.length, value.length, type));
+            liveBytes += recordBytes;
+        }
+        writeOffset += recordBytes;
+    }
+
+    private void load() throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        boolean fresh = !file.exists() || file.length() < FILE_HEADER_BYTES;
+        mapFile();
+        if (!fresh && buffer.getInt(0) != MAGIC) {
+            android.util.Log.e(TAG, "❌ Unknown log format, starting over");
+            closeMapping();
+            File corrupt = new File(file.getPath() + ".corrupt");
+            if (!file.renameTo(corrupt)) {
+                throw new IOException("Could not move the unreadable log aside");
+            }
+            mapFile();
+            fresh = true;
+        }
+        if (fresh) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            writeOffset = FILE_HEADER_BYTES;
+            return;
+        }
+        replay();
+    }
+
+    /** Rebuild the index from the log, stopping at the first incomplete or corrupt record. */
+    private void replay() {
+        long offset = FILE_HEADER_BYTES;
+        long capacity = buffer.capacity();
+        boolean torn = false;
+        while (offset + RECORD_HEADER_BYTES <= capacity) {
+            byte type = buffer.get((int) offset);
+            if (type == 0) {
+                break;
+            }
+            int keyLength = buffer.getInt((int) offset + 1);
+            int valueLength = buffer.getInt((int) offset + 5);
+            if (type > TYPE_DELETE || keyLength <= 0 || keyLength > MAX_KEY_BYTES || valueLength < 0
+                    || valueLength > MAX_VALUE_BYTES
+                    || offset + RECORD_HEADER_BYTES + keyLength + valueLength > capacity) {
+                torn = true;
+                break;
+            }
+            byte[] keyBytes = bytes(offset + RECORD_HEADER_BYTES, keyLength);
+            byte[] value = bytes(offset + RECORD_HEADER_BYTES + keyLength, valueLength);
+            if ((int) crc(type, keyBytes, value) != buffer.getInt((int) offset + 9)) {
+                torn = true;
+                break;
+            }
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            Slot previous = index.remove(key);
+            if (previous != null) {
+                liveBytes -= previous.recordBytes();
+            }
+            if (type != TYPE_DELETE) {
+                Slot slot = new Slot(offset, keyLength, valueLength, type);
+                index.put(key, slot);
+                liveBytes += slot.recordBytes();
+            }
+            offset += RECORD_HEADER_BYTES + keyLength + valueLength;
+        }
+        writeOffset = offset;
+        if (torn) {
+            // Clear the partial tail so a later append can never line up with stale bytes
+            for (long i = offset; i < capacity; i++) {
+                buffer.put((int) i, (byte) 0);
+            }
+            android.util.Log.w(TAG, "⚠️ Dropped a torn record at offset " + offset);
+        }
+    }
+
+    private void preloadHotKeys() {
+        Slot slot = index.get(HOT_KEYS_KEY);
+        if (slot == null) {
+            return;
+        }
+        String joined = readValue(slot).asString();
+        if (!joined.isEmpty()) {
+            List<String> keys = new ArrayList<>();
+            Collections.addAll(keys, joined.split("\n"));
+            preload(keys);
+        }
+    }
+
+    private void countRead(String key) {
+        Integer count = reads.get(key);
+        reads.put(key, count == null ? 1 : count + 1);
+    }
+
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        long capacity = capacityFor(needed);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("KV log would exceed 2 GB");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private static long capacityFor(long needed) {
+        long capacity = INITIAL_CAPACITY;
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private void mapFile() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(Math.max(raf.length(), 1)));
+    }
+
+    private void closeMapping() throws IOException {
+        channel.close();
+        raf.close();
+    }
+
+    private Value readValue(Slot slot) {
+        return new Value(slot.type, bytes(slot.valueOffset(), slot.valueBytes));
+    }
+
+    private byte[] bytes(long offset, int length) {
+        byte[] out = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) offset);
+        view.get(out);
+        return out;
+    }
+
+    private ByteBuffer slice(long offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) offset);
+        view.limit((int) offset + length);
+        return view;
+    }
+
+    private static long crc(byte type, byte[] key, byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(key, 0, key.length);
+        crc.update(value, 0, value.length);
+        return crc.getValue();
+    }
+}
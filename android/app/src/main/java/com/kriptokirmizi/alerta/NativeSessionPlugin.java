@@ -0,0 +1,29 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * JS access to {@link SessionCookieStore}.
+ * persist() is called right after login, clear() on logout.
+ */
+@CapacitorPlugin(name = "NativeSession")
+public class NativeSessionPlugin extends Plugin {
+
+    @PluginMethod
+    public void persist(PluginCall call) {
+        int stored = SessionCookieStore.capture(getContext());
+        JSObject result = new JSObject();
+        result.put("stored", stored);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void clear(PluginCall call) {
+        SessionCookieStore.clear(getContext());
+        call.resolve();
+    }
+}
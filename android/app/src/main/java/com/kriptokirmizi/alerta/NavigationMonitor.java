@@ -0,0 +1,74 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import org.json.JSONObject;
+
+/**
+ * Process-wide {@link NavigationStats}, persisted in SharedPreferences so the aggregates of
+ * sessions that never reach an upload are not lost. Each install draws a fixed sample value
+ * once, so a given sample rate always selects the same devices (whole-device sampling).
+ */
+final class NavigationMonitor {
+    private static final String TAG = "NavigationMonitor";
+    private static final String PREFS = "navigation_monitor";
+    private static final String KEY_STATS = "stats";
+    private static final String KEY_SAMPLE = "sample_value";
+
+    private static volatile NavigationMonitor instance;
+
+    private final SharedPreferences prefs;
+    private final NavigationStats stats;
+    private final double sampleValue;
+
+    private NavigationMonitor(Context context) {
+        prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        stats = restore(prefs);
+        if (!prefs.contains(KEY_SAMPLE)) {
+            prefs.edit().putFloat(KEY_SAMPLE, (float) Math.random()).apply();
+        }
+        sampleValue = prefs.getFloat(KEY_SAMPLE, 0f);
+    }
+
+    static NavigationMonitor get(Context context) {
+        if (instance == null) {
+            synchronized (NavigationMonitor.class) {
+                if (instance == null) {
+                    instance = new NavigationMonitor(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    NavigationStats stats() {
+        return stats;
+    }
+
+    /**
+     * Whether this install is in the upload sample for {@code sampleRate} (0-1).
+     */
+    boolean isSampled(double sampleRate) {
+        return sampleValue < sampleRate;
+    }
+
+    void persist() {
+        try {
+            prefs.edit().putString(KEY_STATS, stats.toJson(System.currentTimeMillis()).toString()).apply();
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Failed to persist navigation stats: " + e.getMessage());
+        }
+    }
+
+    private static NavigationStats restore(SharedPreferences prefs) {
+        String saved = prefs.getString(KEY_STATS, null);
+        if (saved != null) {
+            try {
+                return NavigationStats.fromJson(new JSONObject(saved), System.currentTimeMillis());
+            } catch (Exception e) {
+                android.util.Log.w(TAG, "⚠️ Discarding unreadable navigation stats: " + e.getMessage());
+            }
+        }
+        return new NavigationStats(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,49 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONException;
+
+/**
+ * Field data on main-frame navigations ({@link NavigationMonitor}): per-route load / first
+ * visual state histograms, HTTP and network errors, and old-domain redirects, for sampled upload.
+ */
+@CapacitorPlugin(name = "NavigationMonitor")
+public class NavigationMonitorPlugin extends Plugin {
+
+    /**
+     * getReport({ sampleRate?, reset? }) -> { sampled, sampleRate, windowStartMs?, windowEndMs?, bucketsMs?, routes? }
+     * Installs outside the sample get { sampled: false } and keep aggregating. With reset (default
+     * true) a sampled report starts a new window, so each navigation is uploaded once.
+     */
+    @PluginMethod
+    public void getReport(PluginCall call) {
+        double sampleRate = Math.max(0, Math.min(1, call.getDouble("sampleRate", 1.0)));
+        boolean reset = call.getBoolean("reset", true);
+        NavigationMonitor monitor = NavigationMonitor.get(getContext());
+
+        if (!monitor.isSampled(sampleRate)) {
+            JSObject result = new JSObject();
+            result.put("sampled", false);
+            result.put("sampleRate", sampleRate);
+            call.resolve(result);
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            NavigationStats stats = monitor.stats();
+            JSObject result = new JSObject((reset ? stats.drain(now) : stats.toJson(now)).toString());
+            result.put("sampled", true);
+            result.put("sampleRate", sampleRate);
+            if (reset) {
+                monitor.persist();
+            }
+            call.resolve(result);
+        } catch (JSONException e) {
+            call.reject("Error building navigation report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Main-frame navigation outcomes aggregated per normalized route (no Android types).
+ *
+ * Timings go into fixed-size histograms ({@link #BUCKET_UPPER_MS}), so memory stays constant
+ * however many navigations happen; routes are capped at {@link #MAX_ROUTES} and the rest are
+ * folded into {@link #OTHER_ROUTE}. Fed from the WebViewClient callbacks on the main thread.
+ */
+final class NavigationStats {
+    /** Inclusive bucket upper bounds; the last bucket counts everything slower */
+    static final long[] BUCKET_UPPER_MS = {100, 250, 500, 1000, 2000, 4000, 8000, 16000};
+    static final int MAX_ROUTES = 40;
+    static final String OTHER_ROUTE = "(other)";
+    static final String ID_SEGMENT = ":id";
+
+    /**
+     * Fixed-size latency histogram plus count / sum / max.
+     */
+    static final class Histogram {
+        final int[] counts = new int[BUCKET_UPPER_MS.length + 1];
+        long count = 0;
+        long sumMs = 0;
+        long maxMs = 0;
+
+        void record(long ms) {
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_MS.length && ms > BUCKET_UPPER_MS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+            count++;
+            sumMs += ms;
+            maxMs = Math.max(maxMs, ms);
+        }
+
+        /**
+         * p-th percentile (0-100) as the upper bound of the bucket it falls in (max for the last).
+         */
+        long percentileMs(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_UPPER_MS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(BUCKET_UPPER_MS[i], maxMs);
+                }
+            }
+            return maxMs;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            JSONArray buckets = new JSONArray();
+            for (int value : counts) {
+                buckets.put(value);
+            }
+            json.put("counts", buckets);
+            json.put("count", count);
+            json.put("sumMs", sumMs);
+            json.put("maxMs", maxMs);
+            json.put("p50Ms", percentileMs(50));
+            json.put("p95Ms", percentileMs(95));
+            return json;
+        }
+
+        void readJson(JSONObject json) {
+            JSONArray buckets = json.optJSONArray("counts");
+            if (buckets != null && buckets.length() == counts.length) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = buckets.optInt(i);
+                }
+            }
+            count = json.optLong("count");
+            sumMs = json.optLong("sumMs");
+            maxMs = json.optLong("maxMs");
+        }
+    }
+
+    /**
+     * Everything recorded for one route.
+     */
+    static final class RouteStats {
+        /** pageStarted -> pageFinished */
+        final Histogram load = new Histogram();
+        /** pageStarted -> first visual state (the page's first drawn frame) */
+        final Histogram visual = new Histogram();
+        int started = 0;
+        int finished = 0;
+        /** Started but replaced by another navigation before finishing */
+        int abandoned = 0;
+        int mainFrameErrors = 0;
+        int http4xx = 0;
+        int http5xx = 0;
+        int legacyRedirects = 0;
+
+        JSONObject toJson(String route) throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("route", route);
+            json.put("started", started);
+            json.put("finished", finished);
+            json.put("abandoned", abandoned);
+            json.put("mainFrameErrors", mainFrameErrors);
+            json.put("http4xx", http4xx);
+            json.put("http5xx", http5xx);
+            json.put("legacyRedirects", legacyRedirects);
+            json.put("load", load.toJson());
+            json.put("visual", visual.toJson());
+            return json;
+        }
+
+        void readJson(JSONObject json) {
+            started = json.optInt("started");
+            finished = json.optInt("finished");
+            abandoned = json.optInt("abandoned");
+            mainFrameErrors = json.optInt("mainFrameErrors");
+            http4xx = json.optInt("http4xx");
+            http5xx = json.optInt("http5xx");
+            legacyRedirects = json.optInt("legacyRedirects");
+            JSONObject loadJson = json.optJSONObject("load");
+            if (loadJson != null) {
+                load.readJson(loadJson);
+            }
+            JSONObject visualJson = json.optJSONObject("visual");
+            if (visualJson != null) {
+                visual.readJson(visualJson);
+            }
+        }
+    }
+
+    private final Map<String, RouteStats> routes = new LinkedHashMap<>();
+    private long windowStartMs;
+
+    // The main-frame navigation in flight (between onPageStarted and onPageFinished)
+    private String pendingRoute = null;
+    private long pendingStartMs = 0;
+    private boolean pendingVisualRecorded = false;
+
+    NavigationStats(long windowStartMs) {
+        this.windowStartMs = windowStartMs;
+    }
+
+    /**
+     * Route key for a URL: query and fragment dropped, numeric / hex / uuid path segments replaced
+     * by {@link #ID_SEGMENT}. Pages on the app's own domain are keyed by path alone; anything else
+     * (old domain, boot shell, OAuth pages) keeps its host so it stays distinguishable.
+     */
+    static String normalizeRoute(String url) {
+        if (url == null || url.isEmpty()) {
+            return "(none)";
+        }
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        int scheme = url.indexOf("://");
+        if (scheme < 0 || scheme >= end) {
+            // about:blank, data: and the like
+            return url.substring(0, end);
+        }
+        int hostStart = scheme + 3;
+        int slash = url.indexOf('/', hostStart);
+        int pathStart = slash >= 0 && slash < end ? slash : end;
+        String host = url.substring(hostStart, pathStart);
+        if (host.isEmpty()) {
+            // file:///android_asset/boot/... (the boot shell)
+            host = url.substring(0, scheme) + ":";
+        } else if (host.equals(UrlRouter.CURRENT_HOST) || host.endsWith("." + UrlRouter.CURRENT_HOST)) {
+            host = "";
+        }
+
+        StringBuilder route = new StringBuilder(host);
+        int segmentStart = pathStart;
+        while (segmentStart < end) {
+            int next = url.indexOf('/', segmentStart + 1);
+            if (next < 0 || next > end) {
+                next = end;
+            }
+            String segment = url.substring(segmentStart + 1, next);
+            if (!segment.isEmpty()) {
+                route.append('/').append(isIdSegment(segment) ? ID_SEGMENT : segment);
+            }
+            segmentStart = next;
+        }
+        if (route.length() == host.length()) {
+            route.append('/');
+        }
+        return route.toString();
+    }
+
+    private static boolean isIdSegment(String segment) {
+        boolean digits = true;
+        boolean hex = segment.length() >= 16;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            boolean isDigit = c >= '0' && c <= '9';
+            digits &= isDigit;
+            hex &= isDigit || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-';
+        }
+        return digits || hex;
+    }
+
+    synchronized void onPageStarted(String url, long nowMs) {
+        if (pendingRoute != null) {
+            route(pendingRoute).abandoned++;
+        }
+        pendingRoute = normalizeRoute(url);
+        pendingStartMs = nowMs;
+        pendingVisualRecorded = false;
+        route(pendingRoute).started++;
+    }
+
+    synchronized void onVisualStateReady(String url, long nowMs) {
+        if (pendingRoute != null && !pendingVisualRecorded && pendingRoute.equals(normalizeRoute(url))) {
+            route(pendingRoute).visual.record(Math.max(0, nowMs - pendingStartMs));
+            pendingVisualRecorded = true;
+        }
+    }
+
+    synchronized void onPageFinished(String url, long nowMs) {
+        if (pendingRoute == null || !pendingRoute.equals(normalizeRoute(url))) {
+            return;
+        }
+        RouteStats stats = route(pendingRoute);
+        stats.finished++;
+        stats.load.record(Math.max(0, nowMs - pendingStartMs));
+        pendingRoute = null;
+    }
+
+    synchronized void onMainFrameError(String url) {
+        route(normalizeRoute(url)).mainFrameErrors++;
+    }
+
+    synchronized void onHttpError(String url, int statusCode) {
+        RouteStats stats = route(normalizeRoute(url));
+        if (statusCode >= 500) {
+            stats.http5xx++;
+        } else if (statusCode >= 400) {
+            stats.http4xx++;
+        }
+    }
+
+    synchronized void onLegacyRedirect(String url) {
+        route(normalizeRoute(url)).legacyRedirects++;
+    }
+
+    synchronized RouteStats get(String route) {
+        return routes.get(route);
+    }
+
+    synchronized int routeCount() {
+        return routes.size();
+    }
+
+    /**
+     * Drop everything recorded; the in-flight navigation (if any) is kept.
+     */
+    synchronized void reset(long windowStartMs) {
+        routes.clear();
+        this.windowStartMs = windowStartMs;
+    }
+
+    /**
+     * { windowStartMs, windowEndMs, bucketsMs, routes: [...] }
+     */
+    synchronized JSONObject toJson(long nowMs) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("windowStartMs", windowStartMs);
+        json.put("windowEndMs", nowMs);
+        JSONArray buckets = new JSONArray();
+        for (long bound : BUCKET_UPPER_MS) {
+            buckets.put(bound);
+        }
+        json.put("bucketsMs", buckets);
+        JSONArray list = new JSONArray();
+        for (Map.Entry<String, RouteStats> entry : routes.entrySet()) {
+            list.put(entry.getValue().toJson(entry.getKey()));
+        }
+        json.put("routes", list);
+        return json;
+    }
+
+    /**
+     * {@link #toJson} and {@link #reset} in one step, so nothing recorded in between is lost.
+     */
+    synchronized JSONObject drain(long nowMs) throws JSONException {
+        JSONObject json = toJson(nowMs);
+        reset(nowMs);
+        return json;
+    }
+
+    /**
+     * Rebuild from {@link #toJson}; histograms written with a different bucket layout are ignored.
+     */
+    static NavigationStats fromJson(JSONObject json, long fallbackStartMs) {
+        NavigationStats stats = new NavigationStats(json.optLong("windowStartMs", fallbackStartMs));
+        JSONArray buckets = json.optJSONArray("bucketsMs");
+        boolean sameLayout = buckets != null && buckets.length() == BUCKET_UPPER_MS.length;
+        for (int i = 0; sameLayout && i < BUCKET_UPPER_MS.length; i++) {
+            sameLayout = buckets.optLong(i) == BUCKET_UPPER_MS[i];
+        }
+        JSONArray list = json.optJSONArray("routes");
+        for (int i = 0; sameLayout && list != null && i < list.length(); i++) {
+            JSONObject item = list.optJSONObject(i);
+            if (item != null && item.optString("route", null) != null) {
+                stats.route(item.optString("route")).readJson(item);
+            }
+        }
+        return stats;
+    }
+
+    private RouteStats route(String route) {
+        RouteStats stats = routes.get(route);
+        if (stats == null) {
+            if (routes.size() >= MAX_ROUTES) {
+                route = OTHER_ROUTE;
+                stats = routes.get(route);
+                if (stats != null) {
+                    return stats;
+                }
+            }
+            stats = new RouteStats();
+            routes.put(route, stats);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,221 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Build;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Pushes default-network changes to JS so the price stream can reconnect right after a
+ * Wi-Fi <-> cellular handover instead of waiting for its own backoff timers.
+ *
+ * Event "networkChange":
+ *   type          'available' | 'lost' | 'changed'
+ *   connected     boolean
+ *   networkId     string (changes on every handover)
+ *   transport     'wifi' | 'cellular' | 'ethernet' | 'vpn' | 'other' | 'none'
+ *   metered       boolean
+ *   bandwidthClass 'slow' | 'moderate' | 'fast' | 'unknown'
+ *   downKbps / upKbps, timestamp (ms)
+ *
+ * 'changed' is only sent when transport, metered or bandwidthClass actually change,
+ * not on every link-speed estimate update.
+ */
+@CapacitorPlugin(name = "NetworkMonitor")
+public class NetworkMonitorPlugin extends Plugin {
+    private static final String TAG = "NetworkMonitor";
+    static final String EVENT_NETWORK_CHANGE = "networkChange";
+
+    // Downstream thresholds for the bandwidth classes
+    static final int SLOW_MAX_KBPS = 1_000;
+    static final int MODERATE_MAX_KBPS = 10_000;
+
+    private ConnectivityManager connectivityManager;
+    private ConnectivityManager.NetworkCallback networkCallback;
+    private JSObject lastStatus = offlineStatus("lost");
+    private Network currentNetwork = null;
+
+    @Override
+    public void load() {
+        super.load();
+        try (StartupTrace.Section trace = StartupTrace.begin("NetworkMonitorPlugin.load")) {
+            registerNetworkCallback();
+        }
+    }
+
+    private void registerNetworkCallback() {
+        connectivityManager = (ConnectivityManager) getContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            android.util.Log.w(TAG, "⚠️ ConnectivityManager not available");
+            return;
+        }
+
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(network);
+                publish("available", network, capabilities);
+            }
+
+            @Override
+            public void onCapabilitiesChanged(Network network, NetworkCapabilities capabilities) {
+                publish("changed", network, capabilities);
+            }
+
+            @Override
+            public void onLost(Network network) {
+                handleLost(network);
+            }
+        };
+
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                connectivityManager.registerDefaultNetworkCallback(networkCallback);
+            } else {
+                NetworkRequest request = new NetworkRequest.Builder()
+                        .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                        .build();
+                connectivityManager.registerNetworkCallback(request, networkCallback);
+            }
+            android.util.Log.d(TAG, "✅ Network callback registered");
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Failed to register network callback: " + e.getMessage());
+            networkCallback = null;
+        }
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        if (connectivityManager != null && networkCallback != null) {
+            try {
+                connectivityManager.unregisterNetworkCallback(networkCallback);
+            } catch (Exception e) {
+                android.util.Log.w(TAG, "⚠️ Failed to unregister network callback: " + e.getMessage());
+            }
+        }
+        networkCallback = null;
+        super.handleOnDestroy();
+    }
+
+    @PluginMethod
+    public void getStatus(PluginCall call) {
+        call.resolve(currentStatus());
+    }
+
+    private synchronized void publish(String type, Network network, NetworkCapabilities capabilities) {
+        if (capabilities == null) {
+            return;
+        }
+
+        boolean networkSwitched = !network.equals(currentNetwork);
+        JSObject status = buildStatus(type, network, capabilities);
+
+        if (!networkSwitched && "changed".equals(type) && sameClass(lastStatus, status)) {
+            return;
+        }
+        if (networkSwitched) {
+            // A capabilities update for a new default network is a handover for JS
+            status.put("type", "available");
+        }
+
+        currentNetwork = network;
+        lastStatus = status;
+        android.util.Log.d(TAG, "📶 " + status.getString("type") + ": " + status.getString("transport")
+                + ", metered=" + status.getBool("metered") + ", bandwidth=" + status.getString("bandwidthClass"));
+        notifyListeners(EVENT_NETWORK_CHANGE, status);
+    }
+
+    private synchronized void handleLost(Network network) {
+        if (currentNetwork != null && !network.equals(currentNetwork)) {
+            // Old network dropped after the handover already happened
+            return;
+        }
+        currentNetwork = null;
+        lastStatus = offlineStatus("lost");
+        android.util.Log.d(TAG, "📴 Network lost");
+        notifyListeners(EVENT_NETWORK_CHANGE, lastStatus);
+    }
+
+    private synchronized JSObject currentStatus() {
+        if (connectivityManager != null) {
+            Network active = connectivityManager.getActiveNetwork();
+            NetworkCapabilities capabilities = active != null ? connectivityManager.getNetworkCapabilities(active) : null;
+            if (active != null && capabilities != null) {
+                return buildStatus("status", active, capabilities);
+            }
+            return offlineStatus("status");
+        }
+        return lastStatus;
+    }
+
+    private JSObject buildStatus(String type, Network network, NetworkCapabilities capabilities) {
+        int downKbps = capabilities.getLinkDownstreamBandwidthKbps();
+        JSObject status = new JSObject();
+        status.put("type", type);
+        status.put("connected", capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET));
+        status.put("networkId", network.toString());
+        status.put("transport", transportOf(capabilities));
+        status.put("metered", !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED));
+        status.put("bandwidthClass", bandwidthClass(downKbps));
+        status.put("downKbps", downKbps);
+        status.put("upKbps", capabilities.getLinkUpstreamBandwidthKbps());
+        status.put("timestamp", System.currentTimeMillis());
+        return status;
+    }
+
+    private static JSObject offlineStatus(String type) {
+        JSObject status = new JSObject();
+        status.put("type", type);
+        status.put("connected", false);
+        status.put("networkId", "");
+        status.put("transport", "none");
+        status.put("metered", false);
+        status.put("bandwidthClass", "unknown");
+        status.put("downKbps", 0);
+        status.put("upKbps", 0);
+        status.put("timestamp", System.currentTimeMillis());
+        return status;
+    }
+
+    private static boolean sameClass(JSObject previous, JSObject next) {
+        return previous.getString("transport", "").equals(next.getString("transport", ""))
+                && previous.getBool("metered").equals(next.getBool("metered"))
+                && previous.getString("bandwidthClass", "").equals(next.getString("bandwidthClass", ""));
+    }
+
+    private static String transportOf(NetworkCapabilities capabilities) {
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_VPN)) {
+            return "vpn";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+            return "wifi";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            return "cellular";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            return "ethernet";
+        }
+        return "other";
+    }
+
+    static String bandwidthClass(int downKbps) {
+        if (downKbps <= 0) {
+            return "unknown";
+        }
+        if (downKbps <= SLOW_MAX_KBPS) {
+            return "slow";
+        }
+        if (downKbps <= MODERATE_MAX_KBPS) {
+            return "moderate";
+        }
+        return "fast";
+    }
+}
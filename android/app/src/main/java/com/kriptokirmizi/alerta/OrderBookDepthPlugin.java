@@ -0,0 +1,471 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Native order book for the depth views: the full Binance diff stream (@depth@100ms) and the
+ * REST snapshot are consumed here into a {@link DepthBook} per symbol, and the page only gets
+ * "depth" events with price buckets at its tick size, at most fps times a second and only when
+ * the buckets changed. Sequence gaps trigger a new snapshot; the socket closes while the app is
+ * in the background and resyncs on resume.
+ *
+ * Everything touching a book runs on one scheduled thread; socket and HTTP callbacks only parse.
+ */
+@CapacitorPlugin(name = "OrderBookDepth")
+public class OrderBookDepthPlugin extends Plugin {
+    private static final String TAG = "OrderBookDepth";
+    private static final String SPOT_STREAM = "wss://stream.binance.com:9443/ws/";
+    private static final String FUTURES_STREAM = "wss://fstream.binance.com/ws/";
+    private static final String SPOT_SNAPSHOT = "https://api.binance.com/api/v3/depth?limit=1000&symbol=";
+    private static final String FUTURES_SNAPSHOT = "https://fapi.binance.com/fapi/v1/depth?limit=1000&symbol=";
+    private static final int MAX_DEPTH = 100;
+    private static final int MAX_FPS = 30;
+    private static final long RETRY_DELAY_MS = 3_000;
+    private static final long RESNAPSHOT_DELAY_MS = 500;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-book-depth");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Stream> streams = new HashMap<>();
+    private OkHttpClient socketClient;
+    private boolean paused;
+
+    private final class Stream {
+        final String key;
+        final String symbol;
+        final boolean futures;
+        final DepthBook book;
+        double tickSize;
+        int depth;
+        int fps;
+        // Bumped whenever the socket is replaced, so callbacks from an old one are ignored
+        int generation;
+        WebSocket socket;
+        ScheduledFuture<?> frames;
+        boolean snapshotPending;
+        boolean dirty;
+        final DepthBook.Buckets bids = new DepthBook.Buckets(MAX_DEPTH);
+        final DepthBook.Buckets asks = new DepthBook.Buckets(MAX_DEPTH);
+        final DepthBook.Buckets sentBids = new DepthBook.Buckets(MAX_DEPTH);
+        final DepthBook.Buckets sentAsks = new DepthBook.Buckets(MAX_DEPTH);
+        long diffs;
+        long framesSent;
+        long framesSkipped;
+
+        Stream(String key, String symbol, boolean futures) {
+            this.key = key;
+            this.symbol = symbol;
+            this.futures = futures;
+            this.book = new DepthBook(futures);
+        }
+    }
+
+    /**
+     * subscribe({ symbol, marketType?, tickSize, depth?, fps? }) -> { key } - depth: buckets per
+     * side (default 20); fps: maximum "depth" events per second (default 10).
+     */
+    @PluginMethod
+    public void subscribe(PluginCall call) {
+        String symbol = call.getString("symbol");
+        Double tickSize = call.getDouble("tickSize");
+        if (symbol == null || tickSize == null || !(tickSize > 0)) {
+            call.reject("symbol and a positive tickSize are required");
+            return;
+        }
+        boolean futures = "futures".equals(call.getString("marketType", "spot"));
+        int depth = call.getInt("depth", 20);
+        int fps = call.getInt("fps", 10);
+        executor.execute(() -> {
+            String key = key(symbol, futures);
+            Stream stream = streams.get(key);
+            if (stream == null) {
+                stream = new Stream(key, symbol.toLowerCase(Locale.ROOT), futures);
+                streams.put(key, stream);
+                configure(stream, tickSize, depth, fps);
+                if (!paused) {
+                    open(stream);
+                }
+            } else {
+                configure(stream, tickSize, depth, fps);
+            }
+            JSObject result = new JSObject();
+            result.put("key", key);
+            call.resolve(result);
+        });
+    }
+
+    /** setAggregation({ symbol, marketType?, tickSize?, depth?, fps? }) - re-buckets and emits at once */
+    @PluginMethod
+    public void setAggregation(PluginCall call) {
+        String symbol = call.getString("symbol");
+        if (symbol == null) {
+            call.reject("symbol is required");
+            return;
+        }
+        boolean futures = "futures".equals(call.getString("marketType", "spot"));
+        Double tickSize = call.getDouble("tickSize");
+        Integer depth = call.getInt("depth");
+        Integer fps = call.getInt("fps");
+        executor.execute(() -> {
+            Stream stream = streams.get(key(symbol, futures));
+            if (stream == null) {
+                call.reject("Not subscribed to " + symbol);
+                return;
+            }
+            configure(stream,
+                    tickSize != null && tickSize > 0 ? tickSize : stream.tickSize,
+                    depth != null ? depth : stream.depth,
+                    fps != null ? fps : stream.fps);
+            call.resolve();
+        });
+    }
+
+    /** unsubscribe({ symbol, marketType? }) */
+    @PluginMethod
+    public void unsubscribe(PluginCall call) {
+        String symbol = call.getString("symbol");
+        if (symbol == null) {
+            call.reject("symbol is required");
+            return;
+        }
+        boolean futures = "futures".equals(call.getString("marketType", "spot"));
+        executor.execute(() -> {
+            Stream stream = streams.remove(key(symbol, futures));
+            if (stream != null) {
+                close(stream);
+            }
+            call.resolve();
+        });
+    }
+
+    /**
+     * getStats({ symbol, marketType? }) -> { synced, lastUpdateId, bidLevels, askLevels, buffered,
+     *   diffs, gaps, framesSent, framesSkipped }
+     */
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        String symbol = call.getString("symbol");
+        if (symbol == null) {
+            call.reject("symbol is required");
+            return;
+        }
+        boolean futures = "futures".equals(call.getString("marketType", "spot"));
+        executor.execute(() -> {
+            Stream stream = streams.get(key(symbol, futures));
+            if (stream == null) {
+                call.reject("Not subscribed to " + symbol);
+                return;
+            }
+            JSObject result = new JSObject();
+            result.put("synced", stream.book.isSynced());
+            result.put("lastUpdateId", stream.book.lastUpdateId());
+            result.put("bidLevels", stream.book.bids.size());
+            result.put("askLevels", stream.book.asks.size());
+            result.put("buffered", stream.book.buffered());
+            result.put("diffs", stream.diffs);
+            result.put("gaps", stream.book.gaps());
+            result.put("framesSent", stream.framesSent);
+            result.put("framesSkipped", stream.framesSkipped);
+            call.resolve(result);
+        });
+    }
+
+    @Override
+    protected void handleOnResume() {
+        super.handleOnResume();
+        executor.execute(() -> {
+            paused = false;
+            for (Stream stream : streams.values()) {
+                open(stream);
+            }
+        });
+    }
+
+    @Override
+    protected void handleOnPause() {
+        // Nobody sees the book in the background: stop the stream, resync from a snapshot on resume
+        executor.execute(() -> {
+            paused = true;
+            for (Stream stream : streams.values()) {
+                close(stream);
+            }
+        });
+        super.handleOnPause();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        executor.execute(() -> {
+            for (Stream stream : streams.values()) {
+                close(stream);
+            }
+            streams.clear();
+        });
+        executor.shutdown();
+        super.handleOnDestroy();
+    }
+
+    private static String key(String symbol, boolean futures) {
+        return (futures ? "futures:" : "spot:") + symbol.toLowerCase(Locale.ROOT);
+    }
+
+    private void configure(Stream stream, double tickSize, int depth, int fps) {
+        stream.tickSize = tickSize;
+        stream.depth = Math.max(1, Math.min(MAX_DEPTH, depth));
+        int clamped = Math.max(1, Math.min(MAX_FPS, fps));
+        boolean reschedule = clamped != stream.fps;
+        stream.fps = clamped;
+        // Force the next frame out even if the book did not move
+        stream.sentBids.count = -1;
+        stream.dirty = true;
+        if (reschedule && stream.frames != null) {
+            stream.frames.cancel(false);
+            stream.frames = schedule(stream);
+        }
+    }
+
+    private void open(Stream stream) {
+        if (stream.socket != null) {
+            return;
+        }
+        int generation = ++stream.generation;
+        stream.book.reset();
+        stream.snapshotPending = false;
+        Request request = new Request.Builder()
+                .url((stream.futures ? FUTURES_STREAM : SPOT_STREAM) + stream.symbol + "@depth@100ms")
+                .build();
+        stream.socket = socketClient().newWebSocket(request, new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                android.util.Log.d(TAG, "🔌 Connected " + stream.key);
+            }
+
+            @Override
+            public void onMessage(WebSocket webSocket, String text) {
+                DepthBook.Diff diff;
+                try {
+                    diff = DepthBook.Diff.parse(new JSONObject(text));
+                } catch (JSONException | RuntimeException e) {
+                    android.util.Log.w(TAG, "⚠️ Bad depth message for " + stream.key + ": " + e.getMessage());
+                    return;
+                }
+                executor.execute(() -> onDiff(stream, generation, diff));
+            }
+
+            @Override
+            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+                android.util.Log.w(TAG, "⚠️ Stream failed for " + stream.key + ": " + t.getMessage());
+                executor.execute(() -> onDisconnected(stream, generation));
+            }
+
+            @Override
+            public void onClosed(WebSocket webSocket, int code, String reason) {
+                executor.execute(() -> onDisconnected(stream, generation));
+            }
+        });
+        if (stream.frames == null) {
+            stream.frames = schedule(stream);
+        }
+    }
+
+    private void close(Stream stream) {
+        stream.generation++;
+        if (stream.socket != null) {
+            stream.socket.close(1000, null);
+            stream.socket = null;
+        }
+        if (stream.frames != null) {
+            stream.frames.cancel(false);
+            stream.frames = null;
+        }
+        stream.book.reset();
+        stream.snapshotPending = false;
+    }
+
+    private ScheduledFuture<?> schedule(Stream stream) {
+        long periodMs = 1000L / stream.fps;
+        return executor.scheduleAtFixedRate(() -> emitFrame(stream), periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    private OkHttpClient socketClient() {
+        if (socketClient == null) {
+            // Same connection pool; pings keep an idle mobile connection from being dropped silently
+            socketClient = NativeHttp.client().newBuilder().pingInterval(20, TimeUnit.SECONDS).build();
+        }
+        return socketClient;
+    }
+
+    private void onDiff(Stream stream, int generation, DepthBook.Diff diff) {
+        if (generation != stream.generation) {
+            return;
+        }
+        stream.diffs++;
+        int status = stream.book.apply(diff);
+        if (status == DepthBook.APPLIED) {
+            stream.dirty = true;
+        } else if (status == DepthBook.GAP) {
+            android.util.Log.d(TAG, "🔁 Sequence gap on " + stream.key + " at " + diff.firstUpdateId + ", resyncing");
+            notifyStatus(stream, false);
+            requestSnapshot(stream, generation, 0);
+        } else if (status == DepthBook.BUFFERED) {
+            // The stream is buffering now, so a snapshot fetched from here on can be bridged
+            requestSnapshot(stream, generation, 0);
+        }
+    }
+
+    private void onDisconnected(Stream stream, int generation) {
+        if (generation != stream.generation || streams.get(stream.key) != stream) {
+            return;
+        }
+        stream.socket = null;
+        stream.book.reset();
+        notifyStatus(stream, false);
+        executor.schedule(() -> {
+            if (generation == stream.generation && !paused && streams.get(stream.key) == stream) {
+                open(stream);
+            }
+        }, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void requestSnapshot(Stream stream, int generation, long delayMs) {
+        if (stream.snapshotPending) {
+            return;
+        }
+        stream.snapshotPending = true;
+        executor.schedule(() -> {
+            if (generation != stream.generation) {
+                return;
+            }
+            Request request = new Request.Builder()
+                    .url((stream.futures ? FUTURES_SNAPSHOT : SPOT_SNAPSHOT) + stream.symbol.toUpperCase(Locale.ROOT))
+                    .build();
+            NativeHttp.client().newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    android.util.Log.w(TAG, "⚠️ Snapshot failed for " + stream.key + ": " + e.getMessage());
+                    executor.execute(() -> {
+                        if (generation == stream.generation) {
+                            stream.snapshotPending = false;
+                            requestSnapshot(stream, generation, RETRY_DELAY_MS);
+                        }
+                    });
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    JSONObject snapshot = null;
+                    try (ResponseBody body = response.body()) {
+                        if (response.isSuccessful() && body != null) {
+                            snapshot = new JSONObject(body.string());
+                        }
+                    } catch (IOException | JSONException e) {
+                        android.util.Log.w(TAG, "⚠️ Bad snapshot for " + stream.key + ": " + e.getMessage());
+                    }
+                    JSONObject parsed = snapshot;
+                    executor.execute(() -> onSnapshot(stream, generation, parsed));
+                }
+            });
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void onSnapshot(Stream stream, int generation, JSONObject snapshot) {
+        if (generation != stream.generation) {
+            return;
+        }
+        stream.snapshotPending = false;
+        if (snapshot == null) {
+            requestSnapshot(stream, generation, RETRY_DELAY_MS);
+            return;
+        }
+        int status;
+        try {
+            status = stream.book.applySnapshot(snapshot);
+        } catch (JSONException | RuntimeException e) {
+            android.util.Log.w(TAG, "⚠️ Bad snapshot for " + stream.key + ": " + e.getMessage());
+            requestSnapshot(stream, generation, RETRY_DELAY_MS);
+            return;
+        }
+        if (status == DepthBook.GAP) {
+            // The stream already moved past this snapshot (or skipped ahead): try a fresher one
+            requestSnapshot(stream, generation, RESNAPSHOT_DELAY_MS);
+            return;
+        }
+        android.util.Log.d(TAG, "✅ Synced " + stream.key + " at " + stream.book.lastUpdateId() + " ("
+                + stream.book.bids.size() + " bids, " + stream.book.asks.size() + " asks)");
+        stream.dirty = true;
+        notifyStatus(stream, true);
+    }
+
+    private void emitFrame(Stream stream) {
+        if (!stream.dirty || !stream.book.isSynced()) {
+            return;
+        }
+        stream.dirty = false;
+        stream.book.bids.bucket(stream.tickSize, stream.depth, stream.bids);
+        stream.book.asks.bucket(stream.tickSize, stream.depth, stream.asks);
+        // Levels beyond the visible buckets changed: nothing to send
+        if (stream.bids.sameAs(stream.sentBids) && stream.asks.sameAs(stream.sentAsks)) {
+            stream.framesSkipped++;
+            return;
+        }
+        stream.sentBids.copyFrom(stream.bids);
+        stream.sentAsks.copyFrom(stream.asks);
+        stream.framesSent++;
+        try {
+            JSObject frame = new JSObject();
+            frame.put("symbol", stream.symbol);
+            frame.put("marketType", stream.futures ? "futures" : "spot");
+            frame.put("tickSize", stream.tickSize);
+            frame.put("lastUpdateId", stream.book.lastUpdateId());
+            frame.put("bidPrice", column(stream.bids.price, stream.bids.count));
+            frame.put("bidQty", column(stream.bids.qty, stream.bids.count));
+            frame.put("askPrice", column(stream.asks.price, stream.asks.count));
+            frame.put("askQty", column(stream.asks.qty, stream.asks.count));
+            notifyListeners("depth", frame);
+        } catch (JSONException e) {
+            android.util.Log.w(TAG, "⚠️ Could not build depth frame: " + e.getMessage());
+        }
+    }
+
+    private void notifyStatus(Stream stream, boolean synced) {
+        JSObject status = new JSObject();
+        status.put("symbol", stream.symbol);
+        status.put("marketType", stream.futures ? "futures" : "spot");
+        status.put("synced", synced);
+        status.put("gaps", stream.book.gaps());
+        notifyListeners("depthStatus", status);
+    }
+
+    private static JSONArray column(double[] values, int count) throws JSONException {
+        JSONArray json = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            json.put(values[i]);
+        }
+        return json;
+    }
+}
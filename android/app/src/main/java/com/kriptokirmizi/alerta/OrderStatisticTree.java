@@ -0,0 +1,225 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Arrays;
+
+/**
+ * Order-statistics treap over (value, id) pairs, stored in primitive arrays indexed by id:
+ * every id has at most one node, so insert / remove / rank / select are O(log n) with no
+ * per-operation allocation. Ties on value are broken by id, which keeps the order total.
+ * NaN sorts lowest. Not thread-safe.
+ */
+final class OrderStatisticTree {
+    private static final int NIL = -1;
+
+    private int[] left;
+    private int[] right;
+    private int[] size;
+    private int[] priority;
+    private double[] value;
+    private boolean[] present;
+    private int root = NIL;
+    // xorshift state for node priorities (deterministic, so behavior is reproducible)
+    private int seed = 0x2545F491;
+    // Outputs of split(), kept in fields to avoid allocating a pair
+    private int splitLeft;
+    private int splitRight;
+
+    OrderStatisticTree(int capacity) {
+        int initial = Math.max(16, capacity);
+        left = new int[initial];
+        right = new int[initial];
+        size = new int[initial];
+        priority = new int[initial];
+        value = new double[initial];
+        present = new boolean[initial];
+    }
+
+    int size() {
+        return root == NIL ? 0 : size[root];
+    }
+
+    boolean contains(int id) {
+        return id < present.length && present[id];
+    }
+
+    double valueOf(int id) {
+        return value[id];
+    }
+
+    void insert(int id, double v) {
+        ensureCapacity(id + 1);
+        if (present[id]) {
+            remove(id);
+        }
+        double key = Double.isNaN(v) ? Double.NEGATIVE_INFINITY : v;
+        left[id] = NIL;
+        right[id] = NIL;
+        size[id] = 1;
+        priority[id] = nextPriority();
+        value[id] = key;
+        present[id] = true;
+
+        split(root, key, id);
+        int lower = splitLeft;
+        int upper = splitRight;
+        root = merge(merge(lower, id), upper);
+    }
+
+    void remove(int id) {
+        if (!contains(id)) {
+            return;
+        }
+        root = removeFrom(root, id);
+        present[id] = false;
+    }
+
+    /**
+     * Id at ascending position {@code rank} (0-based).
+     */
+    int select(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IndexOutOfBoundsException("rank " + rank + " of " + size());
+        }
+        int node = root;
+        while (true) {
+            int leftSize = sizeOf(left[node]);
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank == leftSize) {
+                return node;
+            } else {
+                rank -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Ascending position of {@code id}, or -1 if absent.
+     */
+    int rank(int id) {
+        if (!contains(id)) {
+            return -1;
+        }
+        double v = value[id];
+        int rank = 0;
+        int node = root;
+        while (node != NIL) {
+            if (less(node, v, id)) {
+                rank += sizeOf(left[node]) + 1;
+                node = right[node];
+            } else if (node == id) {
+                return rank + sizeOf(left[node]);
+            } else {
+                node = left[node];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Up to {@code limit} ids from ascending position {@code from} (descending when asked),
+     * written into {@code out}. Returns the number written.
+     */
+    int range(int from, int limit, boolean descending, int[] out) {
+        int total = size();
+        int count = 0;
+        for (int i = from; i < total && count < limit; i++) {
+            out[count++] = select(descending ? total - 1 - i : i);
+        }
+        return count;
+    }
+
+    void clear() {
+        Arrays.fill(present, false);
+        root = NIL;
+    }
+
+    private boolean less(int node, double v, int id) {
+        double nodeValue = value[node];
+        return nodeValue < v || (nodeValue == v && node < id);
+    }
+
+    /**
+     * Split {@code t} into nodes ordered before (v, id) and the rest.
+     */
+    private void split(int t, double v, int id) {
+        if (t == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (less(t, v, id)) {
+            split(right[t], v, id);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], v, id);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private int removeFrom(int t, int id) {
+        if (t == NIL) {
+            return NIL;
+        }
+        if (t == id) {
+            return merge(left[t], right[t]);
+        }
+        if (less(t, value[id], id)) {
+            right[t] = removeFrom(right[t], id);
+        } else {
+            left[t] = removeFrom(left[t], id);
+        }
+        update(t);
+        return t;
+    }
+
+    private void update(int t) {
+        size[t] = 1 + sizeOf(left[t]) + sizeOf(right[t]);
+    }
+
+    private int sizeOf(int t) {
+        return t == NIL ? 0 : size[t];
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= present.length) {
+            return;
+        }
+        int capacity = Math.max(needed, present.length * 2);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        size = Arrays.copyOf(size, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        value = Arrays.copyOf(value, capacity);
+        present = Arrays.copyOf(present, capacity);
+    }
+}
@@ -0,0 +1,156 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.Activity;
+import android.content.Context;
+import com.android.billingclient.api.AcknowledgePurchaseParams;
+import com.android.billingclient.api.BillingClient;
+import com.android.billingclient.api.BillingClientStateListener;
+import com.android.billingclient.api.BillingFlowParams;
+import com.android.billingclient.api.BillingResult;
+import com.android.billingclient.api.ProductDetails;
+import com.android.billingclient.api.Purchase;
+import com.android.billingclient.api.PurchasesUpdatedListener;
+import com.android.billingclient.api.QueryProductDetailsParams;
+import com.android.billingclient.api.QueryPurchasesParams;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link BillingBackend} on top of Google Play Billing Library 7.x.
+ */
+public class PlayBillingBackend implements BillingBackend, PurchasesUpdatedListener, BillingClientStateListener {
+
+    private final BillingClient billingClient;
+    private volatile Listener listener;
+    // launchBillingFlow needs the ProductDetails instance from the query
+    private final Map<String, ProductDetails> productDetailsById = new ConcurrentHashMap<>();
+
+    public PlayBillingBackend(Context context) {
+        android.util.Log.d("InAppPurchase", "[PLUGIN] Creating BillingClient...");
+        billingClient = BillingClient.newBuilder(context)
+                .setListener(this)
+                .enablePendingPurchases()
+                .build();
+    }
+
+    @Override
+    public void startConnection(Listener listener) {
+        this.listener = listener;
+        billingClient.startConnection(this);
+    }
+
+    @Override
+    public void querySubscriptions(List<String> productIds, ProductsCallback callback) {
+        List<QueryProductDetailsParams.Product> productList = new ArrayList<>();
+        for (String productId : productIds) {
+            productList.add(
+                    QueryProductDetailsParams.Product.newBuilder()
+                            .setProductId(productId)
+                            .setProductType(BillingClient.ProductType.SUBS)
+                            .build());
+        }
+
+        QueryProductDetailsParams params = QueryProductDetailsParams.newBuilder()
+                .setProductList(productList)
+                .build();
+
+        billingClient.queryProductDetailsAsync(params, (billingResult, productDetailsList) -> {
+            if (productDetailsList == null) {
+                callback.onResult(billingResult, null);
+                return;
+            }
+            List<Product> products = new ArrayList<>(productDetailsList.size());
+            for (ProductDetails productDetails : productDetailsList) {
+                productDetailsById.put(productDetails.getProductId(), productDetails);
+                products.add(toProduct(productDetails));
+            }
+            callback.onResult(billingResult, products);
+        });
+    }
+
+    @Override
+    public BillingResult launchBillingFlow(Activity activity, String productId, String offerToken) {
+        ProductDetails productDetails = productDetailsById.get(productId);
+        if (productDetails == null) {
+            return BillingResult.newBuilder()
+                    .setResponseCode(BillingClient.BillingResponseCode.ITEM_UNAVAILABLE)
+                    .setDebugMessage("Product details not queried: " + productId)
+                    .build();
+        }
+
+        List<BillingFlowParams.ProductDetailsParams> productDetailsParamsList = Collections.singletonList(
+                BillingFlowParams.ProductDetailsParams.newBuilder()
+                        .setProductDetails(productDetails)
+                        .setOfferToken(offerToken)
+                        .build());
+
+        BillingFlowParams flowParams = BillingFlowParams.newBuilder()
+                .setProductDetailsParamsList(productDetailsParamsList)
+                .build();
+
+        return billingClient.launchBillingFlow(activity, flowParams);
+    }
+
+    @Override
+    public void queryActiveSubscriptions(PurchasesCallback callback) {
+        billingClient.queryPurchasesAsync(
+                QueryPurchasesParams.newBuilder()
+                        .setProductType(BillingClient.ProductType.SUBS)
+                        .build(),
+                callback::onResult);
+    }
+
+    @Override
+    public void acknowledgePurchase(String purchaseToken, AcknowledgeCallback callback) {
+        AcknowledgePurchaseParams acknowledgeParams = AcknowledgePurchaseParams.newBuilder()
+                .setPurchaseToken(purchaseToken)
+                .build();
+        billingClient.acknowledgePurchase(acknowledgeParams, callback::onResult);
+    }
+
+    // BillingClientStateListener
+    @Override
+    public void onBillingSetupFinished(BillingResult billingResult) {
+        Listener current = listener;
+        if (current != null) {
+            current.onBillingSetupFinished(billingResult);
+        }
+    }
+
+    @Override
+    public void onBillingServiceDisconnected() {
+        Listener current = listener;
+        if (current != null) {
+            current.onBillingServiceDisconnected();
+        }
+    }
+
+    // PurchasesUpdatedListener
+    @Override
+    public void onPurchasesUpdated(BillingResult billingResult, List<Purchase> purchases) {
+        Listener current = listener;
+        if (current != null) {
+            current.onPurchasesUpdated(billingResult, purchases);
+        }
+    }
+
+    private static Product toProduct(ProductDetails productDetails) {
+        List<Offer> offers = new ArrayList<>();
+        List<ProductDetails.SubscriptionOfferDetails> offersList = productDetails.getSubscriptionOfferDetails();
+        if (offersList != null) {
+            for (ProductDetails.SubscriptionOfferDetails offer : offersList) {
+                List<PricingPhase> phases = new ArrayList<>();
+                for (ProductDetails.PricingPhase phase : offer.getPricingPhases().getPricingPhaseList()) {
+                    phases.add(new PricingPhase(phase.getFormattedPrice(), phase.getPriceAmountMicros(),
+                            phase.getPriceCurrencyCode(), phase.getBillingPeriod()));
+                }
+                offers.add(new Offer(offer.getOfferToken(), phases));
+            }
+        }
+        return new Product(productDetails.getProductId(), productDetails.getTitle(),
+                productDetails.getDescription(), offers);
+    }
+}
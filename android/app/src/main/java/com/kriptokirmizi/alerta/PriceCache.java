@@ -0,0 +1,281 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Last-known prices for the user's watchlist, shared by the page (PriceCache plugin), the
+ * home-screen widget and its refresh worker. Small binary file in filesDir, parallel
+ * primitive arrays in memory. Only watchlist symbols are kept.
+ *
+ * File layout: MAGIC, VERSION, marketType (UTF), lastRefreshMs, count, then per symbol
+ * symbol (UTF), price, change24h, volume24h (double), updatedAtMs (long).
+ */
+public final class PriceCache {
+    static final String FILE_NAME = "price_cache.bin";
+    private static final int MAGIC = 0x41504331; // "APC1"
+    private static final int VERSION = 1;
+
+    private static volatile PriceCache instance;
+
+    /** Immutable copy of one row */
+    public static final class Entry {
+        public final String symbol;
+        public final double price;
+        public final double change24h;
+        public final double volume24h;
+        /** 0 if no price yet */
+        public final long updatedAtMs;
+
+        Entry(String symbol, double price, double change24h, double volume24h, long updatedAtMs) {
+            this.symbol = symbol;
+            this.price = price;
+            this.change24h = change24h;
+            this.volume24h = volume24h;
+            this.updatedAtMs = updatedAtMs;
+        }
+    }
+
+    private final File file;
+    private String marketType = "spot";
+    private String[] symbols = new String[0];
+    private double[] prices = new double[0];
+    private double[] changes = new double[0];
+    private double[] volumes = new double[0];
+    private long[] updatedAt = new long[0];
+    private final Map<String, Integer> indexBySymbol = new HashMap<>();
+    /** Last successful batched network refresh (worker), not page pushes */
+    private long lastRefreshMs = 0;
+    private boolean dirty = false;
+
+    PriceCache(File file) {
+        this.file = file;
+        load();
+    }
+
+    public static PriceCache get(Context context) {
+        PriceCache local = instance;
+        if (local == null) {
+            synchronized (PriceCache.class) {
+                local = instance;
+                if (local == null) {
+                    local = new PriceCache(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Replace the watchlist. Prices of symbols that stay in the list are kept.
+     */
+    public synchronized void setWatchlist(String marketType, List<String> newSymbols) {
+        String[] nextSymbols = new String[newSymbols.size()];
+        double[] nextPrices = new double[nextSymbols.length];
+        double[] nextChanges = new double[nextSymbols.length];
+        double[] nextVolumes = new double[nextSymbols.length];
+        long[] nextUpdatedAt = new long[nextSymbols.length];
+
+        boolean sameMarket = this.marketType.equals(marketType);
+        for (int i = 0; i < nextSymbols.length; i++) {
+            String symbol = normalize(newSymbols.get(i));
+            nextSymbols[i] = symbol;
+            Integer previous = sameMarket ? indexBySymbol.get(symbol) : null;
+            if (previous != null) {
+                nextPrices[i] = prices[previous];
+                nextChanges[i] = changes[previous];
+                nextVolumes[i] = volumes[previous];
+                nextUpdatedAt[i] = updatedAt[previous];
+            }
+        }
+
+        if (sameMarket && Arrays.equals(symbols, nextSymbols)) {
+            return;
+        }
+
+        this.marketType = marketType;
+        symbols = nextSymbols;
+        prices = nextPrices;
+        changes = nextChanges;
+        volumes = nextVolumes;
+        updatedAt = nextUpdatedAt;
+        reindex();
+        if (!sameMarket) {
+            lastRefreshMs = 0;
+        }
+        dirty = true;
+    }
+
+    /**
+     * Store a price for a watchlist symbol. Older or unknown symbols are ignored.
+     *
+     * @return true if the row changed
+     */
+    public synchronized boolean update(String symbol, double price, double change24h, double volume24h,
+            long timestampMs) {
+        Integer index = indexBySymbol.get(normalize(symbol));
+        if (index == null || timestampMs < updatedAt[index]) {
+            return false;
+        }
+        int i = index;
+        if (prices[i] == price && changes[i] == change24h && volumes[i] == volume24h) {
+            updatedAt[i] = timestampMs;
+            return false;
+        }
+        prices[i] = price;
+        changes[i] = change24h;
+        volumes[i] = volume24h;
+        updatedAt[i] = timestampMs;
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Apply a /api/ticker/{marketType} response ({ data: [{ symbol, lastPrice,
+     * priceChangePercent, volume }] }) and mark the cache as refreshed.
+     *
+     * @return number of watchlist rows updated
+     */
+    public synchronized int applyTickerResponse(String json, long nowMs) throws org.json.JSONException {
+        JSONArray data = new JSONObject(json).optJSONArray("data");
+        int updated = 0;
+        if (data != null) {
+            for (int i = 0; i < data.length(); i++) {
+                JSONObject ticker = data.optJSONObject(i);
+                if (ticker == null) {
+                    continue;
+                }
+                double price = ticker.optDouble("lastPrice", Double.NaN);
+                if (Double.isNaN(price)) {
+                    continue;
+                }
+                if (update(ticker.optString("symbol", ""), price, ticker.optDouble("priceChangePercent", 0),
+                        ticker.optDouble("volume", 0), nowMs)) {
+                    updated++;
+                }
+            }
+        }
+        lastRefreshMs = nowMs;
+        dirty = true;
+        return updated;
+    }
+
+    public synchronized String getMarketType() {
+        return marketType;
+    }
+
+    public synchronized List<String> getSymbols() {
+        return Collections.unmodifiableList(Arrays.asList(symbols.clone()));
+    }
+
+    public synchronized long getLastRefreshMs() {
+        return lastRefreshMs;
+    }
+
+    public synchronized List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>(symbols.length);
+        for (int i = 0; i < symbols.length; i++) {
+            entries.add(new Entry(symbols[i], prices[i], changes[i], volumes[i], updatedAt[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * Write to disk if anything changed since the last flush (temp file + rename).
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(marketType);
+            out.writeLong(lastRefreshMs);
+            out.writeInt(symbols.length);
+            for (int i = 0; i < symbols.length; i++) {
+                out.writeUTF(symbols[i]);
+                out.writeDouble(prices[i]);
+                out.writeDouble(changes[i]);
+                out.writeDouble(volumes[i]);
+                out.writeLong(updatedAt[i]);
+            }
+        } catch (IOException e) {
+            android.util.Log.e("PriceCache", "❌ Error writing price cache: " + e.getMessage());
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            android.util.Log.e("PriceCache", "❌ Error replacing price cache file");
+            tmp.delete();
+            return;
+        }
+        dirty = false;
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                android.util.Log.w("PriceCache", "⚠️ Unknown price cache format, starting empty");
+                return;
+            }
+            String loadedMarketType = in.readUTF();
+            long loadedRefreshMs = in.readLong();
+            int count = in.readInt();
+            String[] loadedSymbols = new String[count];
+            double[] loadedPrices = new double[count];
+            double[] loadedChanges = new double[count];
+            double[] loadedVolumes = new double[count];
+            long[] loadedUpdatedAt = new long[count];
+            for (int i = 0; i < count; i++) {
+                loadedSymbols[i] = in.readUTF();
+                loadedPrices[i] = in.readDouble();
+                loadedChanges[i] = in.readDouble();
+                loadedVolumes[i] = in.readDouble();
+                loadedUpdatedAt[i] = in.readLong();
+            }
+            marketType = loadedMarketType;
+            lastRefreshMs = loadedRefreshMs;
+            symbols = loadedSymbols;
+            prices = loadedPrices;
+            changes = loadedChanges;
+            volumes = loadedVolumes;
+            updatedAt = loadedUpdatedAt;
+            reindex();
+        } catch (IOException e) {
+            android.util.Log.e("PriceCache", "❌ Error reading price cache: " + e.getMessage());
+        }
+    }
+
+    private void reindex() {
+        indexBySymbol.clear();
+        for (int i = 0; i < symbols.length; i++) {
+            indexBySymbol.put(symbols[i], i);
+        }
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toLowerCase(Locale.US);
+    }
+}
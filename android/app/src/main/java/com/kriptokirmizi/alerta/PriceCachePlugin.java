@@ -0,0 +1,103 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Page side of {@link PriceCache}: the watchlist pushes its symbols and (throttled) live
+ * prices here, so the home-screen widget and native screens show them without a network call.
+ */
+@CapacitorPlugin(name = "PriceCache")
+public class PriceCachePlugin extends Plugin {
+
+    /**
+     * setWatchlist({ marketType: 'spot' | 'futures', symbols: string[] })
+     */
+    @PluginMethod
+    public void setWatchlist(PluginCall call) {
+        JSArray symbolsArray = call.getArray("symbols");
+        if (symbolsArray == null) {
+            call.reject("symbols array is required");
+            return;
+        }
+        String marketType = call.getString("marketType", "spot");
+
+        try {
+            List<String> symbols = new ArrayList<>(symbolsArray.length());
+            for (int i = 0; i < symbolsArray.length(); i++) {
+                symbols.add(symbolsArray.getString(i));
+            }
+            PriceCache cache = PriceCache.get(getContext());
+            cache.setWatchlist(marketType, symbols);
+            cache.flush();
+            PriceWidgetProvider.renderAll(getContext());
+            call.resolve();
+        } catch (Exception e) {
+            call.reject("Invalid symbols: " + e.getMessage());
+        }
+    }
+
+    /**
+     * putPrices({ prices: [{ symbol, price, change24h, volume24h }] })
+     */
+    @PluginMethod
+    public void putPrices(PluginCall call) {
+        JSArray pricesArray = call.getArray("prices");
+        if (pricesArray == null) {
+            call.reject("prices array is required");
+            return;
+        }
+
+        PriceCache cache = PriceCache.get(getContext());
+        long now = System.currentTimeMillis();
+        int updated = 0;
+        for (int i = 0; i < pricesArray.length(); i++) {
+            JSONObject price = pricesArray.optJSONObject(i);
+            if (price == null || !price.has("symbol") || !price.has("price")) {
+                continue;
+            }
+            if (cache.update(price.optString("symbol"), price.optDouble("price"), price.optDouble("change24h", 0),
+                    price.optDouble("volume24h", 0), now)) {
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            cache.flush();
+            PriceWidgetProvider.renderAll(getContext());
+        }
+
+        JSObject result = new JSObject();
+        result.put("updated", updated);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void getSnapshot(PluginCall call) {
+        PriceCache cache = PriceCache.get(getContext());
+        JSONArray prices = new JSONArray();
+        for (PriceCache.Entry entry : cache.snapshot()) {
+            JSObject row = new JSObject();
+            row.put("symbol", entry.symbol);
+            if (entry.updatedAtMs > 0) {
+                row.put("price", entry.price);
+                row.put("change24h", entry.change24h);
+                row.put("volume24h", entry.volume24h);
+            }
+            row.put("updatedAt", entry.updatedAtMs);
+            prices.put(row);
+        }
+        JSObject result = new JSObject();
+        result.put("marketType", cache.getMarketType());
+        result.put("prices", prices);
+        result.put("lastRefreshMs", cache.getLastRefreshMs());
+        call.resolve(result);
+    }
+}
@@ -0,0 +1,118 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.view.View;
+import android.widget.RemoteViews;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Home-screen widget with the first watchlist prices from {@link PriceCache}.
+ * Drawing only reads the cache; network refreshes go through {@link PriceWidgetRefreshWorker}.
+ * All instances share one RemoteViews, so a refresh costs the same for one widget or five.
+ */
+public class PriceWidgetProvider extends AppWidgetProvider {
+    private static final int[] ROW_IDS = {
+            R.id.widget_row_0, R.id.widget_row_1, R.id.widget_row_2, R.id.widget_row_3, R.id.widget_row_4 };
+    private static final int[] SYMBOL_IDS = {
+            R.id.widget_symbol_0, R.id.widget_symbol_1, R.id.widget_symbol_2, R.id.widget_symbol_3,
+            R.id.widget_symbol_4 };
+    private static final int[] PRICE_IDS = {
+            R.id.widget_price_0, R.id.widget_price_1, R.id.widget_price_2, R.id.widget_price_3,
+            R.id.widget_price_4 };
+    private static final int[] CHANGE_IDS = {
+            R.id.widget_change_0, R.id.widget_change_1, R.id.widget_change_2, R.id.widget_change_3,
+            R.id.widget_change_4 };
+
+    private static final int COLOR_UP = 0xFF22C55E;
+    private static final int COLOR_DOWN = 0xFFEF4444;
+    private static final int COLOR_FLAT = 0xFF9CA3AF;
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        render(context, appWidgetManager, appWidgetIds);
+        PriceWidgetRefreshWorker.enqueueRefresh(context);
+    }
+
+    @Override
+    public void onEnabled(Context context) {
+        PriceWidgetRefreshWorker.schedulePeriodic(context);
+    }
+
+    @Override
+    public void onDisabled(Context context) {
+        PriceWidgetRefreshWorker.cancelAll(context);
+    }
+
+    static boolean hasWidgets(Context context) {
+        return widgetIds(context).length > 0;
+    }
+
+    /**
+     * Redraw every placed widget from the cache (no network).
+     */
+    static void renderAll(Context context) {
+        int[] ids = widgetIds(context);
+        if (ids.length > 0) {
+            render(context, AppWidgetManager.getInstance(context), ids);
+        }
+    }
+
+    private static int[] widgetIds(Context context) {
+        return AppWidgetManager.getInstance(context)
+                .getAppWidgetIds(new ComponentName(context, PriceWidgetProvider.class));
+    }
+
+    private static void render(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        PriceCache cache = PriceCache.get(context);
+        List<PriceCache.Entry> entries = cache.snapshot();
+
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_price);
+        views.setTextViewText(R.id.widget_title, "futures".equals(cache.getMarketType())
+                ? context.getString(R.string.widget_title_futures)
+                : context.getString(R.string.widget_title_spot));
+        views.setViewVisibility(R.id.widget_empty, entries.isEmpty() ? View.VISIBLE : View.GONE);
+
+        for (int i = 0; i < ROW_IDS.length; i++) {
+            if (i >= entries.size()) {
+                views.setViewVisibility(ROW_IDS[i], View.GONE);
+                continue;
+            }
+            PriceCache.Entry entry = entries.get(i);
+            views.setViewVisibility(ROW_IDS[i], View.VISIBLE);
+            views.setTextViewText(SYMBOL_IDS[i], entry.symbol.toUpperCase(Locale.US));
+            if (entry.updatedAtMs == 0) {
+                views.setTextViewText(PRICE_IDS[i], "—");
+                views.setTextViewText(CHANGE_IDS[i], "");
+                continue;
+            }
+            views.setTextViewText(PRICE_IDS[i], formatPrice(entry.price));
+            views.setTextViewText(CHANGE_IDS[i], String.format(Locale.US, "%+.2f%%", entry.change24h));
+            views.setTextColor(CHANGE_IDS[i],
+                    entry.change24h > 0 ? COLOR_UP : entry.change24h < 0 ? COLOR_DOWN : COLOR_FLAT);
+        }
+
+        // Tap opens the app
+        Intent launch = new Intent(context, MainActivity.class);
+        launch.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        views.setOnClickPendingIntent(R.id.widget_root, PendingIntent.getActivity(context, 0, launch,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
+
+        appWidgetManager.updateAppWidget(appWidgetIds, views);
+    }
+
+    static String formatPrice(double price) {
+        if (price >= 1000) {
+            return String.format(Locale.US, "%,.2f", price);
+        }
+        if (price >= 1) {
+            return String.format(Locale.US, "%.4f", price);
+        }
+        return String.format(Locale.US, "%.6f", price);
+    }
+}
@@ -0,0 +1,113 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Refreshes {@link PriceCache} for the home-screen widget with ONE batched
+ * /api/ticker/{marketType}?symbols=a,b,c request, then redraws every widget instance.
+ *
+ * Unique work names make refresh requests from all widget instances (and repeated
+ * onUpdate calls) collapse into a single run; refreshes closer together than
+ * MIN_REFRESH_INTERVAL_MS reuse the cache. Never touches MainActivity or the WebView.
+ */
+public class PriceWidgetRefreshWorker extends Worker {
+    private static final String TAG = "PriceWidget";
+    static final String UNIQUE_WORK_NOW = "price-widget-refresh";
+    static final String UNIQUE_WORK_PERIODIC = "price-widget-refresh-periodic";
+    private static final long PERIODIC_INTERVAL_MINUTES = 30;
+    private static final long MIN_REFRESH_INTERVAL_MS = 60_000L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    public PriceWidgetRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Refresh as soon as the network allows. Requests while one is queued or running are dropped.
+     */
+    static void enqueueRefresh(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PriceWidgetRefreshWorker.class)
+                .setConstraints(networkConstraints(false))
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(UNIQUE_WORK_NOW, ExistingWorkPolicy.KEEP, request);
+    }
+
+    static void schedulePeriodic(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(PriceWidgetRefreshWorker.class,
+                PERIODIC_INTERVAL_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(networkConstraints(true))
+                .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(UNIQUE_WORK_PERIODIC,
+                ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    static void cancelAll(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context);
+        workManager.cancelUniqueWork(UNIQUE_WORK_NOW);
+        workManager.cancelUniqueWork(UNIQUE_WORK_PERIODIC);
+    }
+
+    private static Constraints networkConstraints(boolean requireBatteryNotLow) {
+        return new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(requireBatteryNotLow)
+                .build();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        if (!PriceWidgetProvider.hasWidgets(context)) {
+            android.util.Log.d(TAG, "ℹ️ No widgets placed, skipping refresh");
+            return Result.success();
+        }
+
+        PriceCache cache = PriceCache.get(context);
+        List<String> symbols = cache.getSymbols();
+        long now = System.currentTimeMillis();
+        if (symbols.isEmpty() || now - cache.getLastRefreshMs() < MIN_REFRESH_INTERVAL_MS) {
+            PriceWidgetProvider.renderAll(context);
+            return Result.success();
+        }
+
+        String url = AppConfig.get(context).serverUrlOrDefault() + "/api/ticker/" + cache.getMarketType()
+                + "?symbols=" + android.text.TextUtils.join(",", symbols);
+        long startMs = SystemClock.elapsedRealtime();
+        Request request = new Request.Builder().url(url).build();
+        try (Response response = NativeHttp.client().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new java.io.IOException("HTTP " + response.code());
+            }
+            int updated = cache.applyTickerResponse(body.string(), System.currentTimeMillis());
+            cache.flush();
+            android.util.Log.d(TAG, "✅ Refreshed " + updated + "/" + symbols.size() + " symbol(s) in 1 request ("
+                    + (SystemClock.elapsedRealtime() - startMs) + "ms)");
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Widget refresh failed: " + e.getMessage());
+            // Show last-known prices meanwhile
+            PriceWidgetProvider.renderAll(context);
+            return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        }
+
+        PriceWidgetProvider.renderAll(context);
+        return Result.success();
+    }
+}
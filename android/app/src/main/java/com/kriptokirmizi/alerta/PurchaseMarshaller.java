@@ -0,0 +1,117 @@
+package com.kriptokirmizi.alerta;
+
+import com.android.billingclient.api.Purchase;
+import com.getcapacitor.JSObject;
+import java.util.List;
+import org.json.JSONArray;
+
+/**
+ * Purchase -> JSObject conversion for InAppPurchasePlugin.
+ * Key names are the JS contract used by services/iapService.ts and UpgradeModal - do not rename.
+ */
+final class PurchaseMarshaller {
+
+    private PurchaseMarshaller() {
+    }
+
+    /**
+     * Transaction entry for restorePurchases().
+     */
+    static JSObject toRestoredTransaction(Purchase purchase) {
+        JSObject transaction = new JSObject();
+        transaction.put("transactionId", purchase.getOrderId());
+        // 7.x API: getProducts() returns List<String>
+        List<String> products = purchase.getProducts();
+        if (!products.isEmpty()) {
+            transaction.put("productId", products.get(0));
+        }
+        transaction.put("receipt", purchase.getPurchaseToken());
+        transaction.put("purchaseToken", purchase.getPurchaseToken());
+        transaction.put("originalJson", purchase.getOriginalJson());
+        return transaction;
+    }
+
+    /**
+     * restorePurchases() result.
+     */
+    static JSObject toRestoreResult(List<Purchase> purchases) {
+        JSObject result = new JSObject();
+        JSONArray transactionsArray = new JSONArray();
+        if (purchases != null) {
+            for (Purchase purchase : purchases) {
+                transactionsArray.put(toRestoredTransaction(purchase));
+            }
+        }
+        result.put("transactions", transactionsArray);
+        result.put("purchases", transactionsArray); // Alias for compatibility
+        return result;
+    }
+
+    /**
+     * Transaction entry for checkEntitlements().
+     */
+    static JSObject toEntitlementTransaction(Purchase purchase) {
+        JSObject transaction = new JSObject();
+        transaction.put("transactionId", purchase.getOrderId());
+        List<String> purchaseProducts = purchase.getProducts();
+        if (!purchaseProducts.isEmpty()) {
+            transaction.put("productId", purchaseProducts.get(0));
+        }
+        transaction.put("state",
+                purchase.getPurchaseState() == Purchase.PurchaseState.PURCHASED
+                        ? "purchased"
+                        : "pending");
+        transaction.put("purchaseToken", purchase.getPurchaseToken());
+        return transaction;
+    }
+
+    /**
+     * checkEntitlements() result. The first purchase (most recent) provides the receipt.
+     */
+    static JSObject toEntitlements(List<Purchase> purchases) {
+        if (purchases == null || purchases.isEmpty() || purchases.get(0).getProducts().isEmpty()) {
+            return noEntitlements();
+        }
+
+        Purchase firstPurchase = purchases.get(0);
+        String purchaseToken = firstPurchase.getPurchaseToken();
+
+        JSObject result = new JSObject();
+        result.put("hasReceipt", true);
+        result.put("receipt", purchaseToken); // Use purchaseToken as receipt for Android
+        result.put("purchaseToken", purchaseToken);
+        result.put("originalJson", firstPurchase.getOriginalJson());
+
+        // Add all purchases as pending transactions
+        JSONArray pendingTransactions = new JSONArray();
+        for (Purchase purchase : purchases) {
+            pendingTransactions.put(toEntitlementTransaction(purchase));
+        }
+        result.put("pendingTransactions", pendingTransactions);
+        return result;
+    }
+
+    static JSObject noEntitlements() {
+        JSObject result = new JSObject();
+        result.put("hasReceipt", false);
+        result.put("receipt", "");
+        result.put("pendingTransactions", new JSONArray());
+        return result;
+    }
+
+    /**
+     * purchase() result once the purchase is acknowledged.
+     */
+    static JSObject toPurchaseResult(Purchase purchase) {
+        JSObject result = new JSObject();
+        result.put("transactionId", purchase.getOrderId());
+        // 7.x API: getProducts() returns List<String>
+        List<String> products = purchase.getProducts();
+        if (!products.isEmpty()) {
+            result.put("productId", products.get(0));
+        }
+        result.put("receipt", purchase.getPurchaseToken());
+        result.put("transactionReceipt", purchase.getOriginalJson());
+        return result;
+    }
+}
@@ -0,0 +1,261 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import android.webkit.CookieManager;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Iterator;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import org.json.JSONObject;
+
+/**
+ * Encrypted native copy of the web session cookies.
+ *
+ * The session cookies set by /api/auth/set-capacitor-session and /api/auth/restore-session
+ * are captured after login, encrypted with an Android Keystore key and injected back into
+ * CookieManager before the bridge performs its first loadUrl. This way a cold start renders
+ * the authenticated page directly instead of going through /api/auth/me + session restore.
+ */
+public final class SessionCookieStore {
+    private static final String TAG = "SessionCookieStore";
+
+    static final String SESSION_ORIGIN = "https://www.alertachart.com";
+    static final String SESSION_COOKIE_DOMAIN = ".alertachart.com";
+
+    // Cookie names and lifetimes (seconds) - keep in sync with app/api/auth/set-capacitor-session
+    private static final String[] SESSION_COOKIES = { "accessToken", "refreshToken", "next-auth.session-token" };
+    private static final long[] SESSION_COOKIE_MAX_AGE = { 900L, 604800L, 30L * 24 * 60 * 60 };
+
+    private static final String PREFS_NAME = "native_session";
+    private static final String PREFS_KEY = "cookies";
+    private static final String KEY_ALIAS = "alerta_session_cookies";
+    private static final String ANDROID_KEY_STORE = "AndroidKeyStore";
+    private static final int GCM_TAG_BITS = 128;
+
+    private static String lastCapturedCookieHeader = null;
+    private static int lastCapturedCount = 0;
+
+    private SessionCookieStore() {
+    }
+
+    /**
+     * Read the current session cookies from CookieManager and store them encrypted.
+     * Missing cookies never wipe the stored copy - only {@link #clear(Context)} does (logout).
+     *
+     * @return number of session cookies stored
+     */
+    public static synchronized int capture(Context context) {
+        try {
+            String cookieHeader = CookieManager.getInstance().getCookie(SESSION_ORIGIN);
+            if (cookieHeader == null) {
+                return 0;
+            }
+            // Called on every page finish - skip the Keystore round-trip when nothing changed
+            if (cookieHeader.equals(lastCapturedCookieHeader)) {
+                return lastCapturedCount;
+            }
+
+            JSONObject stored = load(context);
+            long now = System.currentTimeMillis();
+            int count = 0;
+            boolean changed = false;
+
+            for (String part : cookieHeader.split(";")) {
+                int separator = part.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String name = part.substring(0, separator).trim();
+                String value = part.substring(separator + 1).trim();
+                if (indexOfSessionCookie(name) < 0 || value.isEmpty()) {
+                    continue;
+                }
+                count++;
+
+                JSONObject previous = stored.optJSONObject(name);
+                if (previous != null && value.equals(previous.optString("value"))) {
+                    continue;
+                }
+                JSONObject entry = new JSONObject();
+                entry.put("value", value);
+                entry.put("capturedAt", now);
+                stored.put(name, entry);
+                changed = true;
+            }
+
+            if (changed) {
+                save(context, stored);
+                android.util.Log.d(TAG, "✅ Session cookies captured: " + count);
+            }
+            lastCapturedCookieHeader = cookieHeader;
+            lastCapturedCount = count;
+            return count;
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Failed to capture session cookies: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Inject stored, non-expired session cookies into CookieManager.
+     * Must run before the bridge loads the server URL (i.e. before super.onCreate()).
+     *
+     * @return number of cookies injected
+     */
+    public static synchronized int restore(Context context) {
+        try {
+            JSONObject stored = load(context);
+            if (stored.length() == 0) {
+                return 0;
+            }
+
+            CookieManager cookieManager = CookieManager.getInstance();
+            cookieManager.setAcceptCookie(true);
+            String existing = cookieManager.getCookie(SESSION_ORIGIN);
+            long now = System.currentTimeMillis();
+            int injected = 0;
+
+            Iterator<String> names = stored.keys();
+            while (names.hasNext()) {
+                String name = names.next();
+                int index = indexOfSessionCookie(name);
+                JSONObject entry = stored.optJSONObject(name);
+                if (index < 0 || entry == null) {
+                    continue;
+                }
+
+                long elapsedSeconds = (now - entry.optLong("capturedAt", 0L)) / 1000L;
+                long remaining = SESSION_COOKIE_MAX_AGE[index] - elapsedSeconds;
+                if (remaining <= 0) {
+                    continue;
+                }
+                // WebView kept the cookie itself - nothing to do
+                if (existing != null && existing.contains(name + "=")) {
+                    continue;
+                }
+
+                cookieManager.setCookie(SESSION_ORIGIN, name + "=" + entry.optString("value")
+                        + "; Domain=" + SESSION_COOKIE_DOMAIN
+                        + "; Path=/; Max-Age=" + remaining
+                        + "; Secure; HttpOnly; SameSite=None");
+                injected++;
+            }
+
+            if (injected > 0) {
+                cookieManager.flush();
+            }
+            android.util.Log.d(TAG, "✅ Session cookies restored before first load: " + injected);
+            return injected;
+        } catch (Exception e) {
+            android.util.Log.e(TAG, "❌ Failed to restore session cookies: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Drop the stored session (called on logout).
+     */
+    public static synchronized void clear(Context context) {
+        lastCapturedCookieHeader = null;
+        lastCapturedCount = 0;
+        prefs(context).edit().remove(PREFS_KEY).apply();
+        android.util.Log.d(TAG, "✅ Stored session cookies cleared");
+    }
+
+    /**
+     * Expire cookies of the legacy origin only, keeping the alertachart.com session intact.
+     */
+    public static void clearLegacyCookies(CookieManager cookieManager) {
+        String legacyUrl = "https://" + UrlRouter.LEGACY_HOST;
+        String cookieHeader = cookieManager.getCookie(legacyUrl);
+        if (cookieHeader == null || cookieHeader.isEmpty()) {
+            return;
+        }
+
+        int cleared = 0;
+        for (String part : cookieHeader.split(";")) {
+            int separator = part.indexOf('=');
+            String name = (separator > 0 ? part.substring(0, separator) : part).trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            cookieManager.setCookie(legacyUrl, name + "=; Max-Age=0; Path=/");
+            cookieManager.setCookie(legacyUrl, name + "=; Max-Age=0; Path=/; Domain=.kriptokirmizi.com");
+            cleared++;
+        }
+        cookieManager.flush();
+        android.util.Log.d(TAG, "🧹 Cleared legacy domain cookies: " + cleared);
+    }
+
+    private static int indexOfSessionCookie(String name) {
+        for (int i = 0; i < SESSION_COOKIES.length; i++) {
+            if (SESSION_COOKIES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static JSONObject load(Context context) {
+        String encoded = prefs(context).getString(PREFS_KEY, null);
+        if (encoded == null) {
+            return new JSONObject();
+        }
+        try {
+            byte[] payload = Base64.decode(encoded, Base64.NO_WRAP);
+            int ivLength = payload[0];
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, getOrCreateKey(),
+                    new GCMParameterSpec(GCM_TAG_BITS, payload, 1, ivLength));
+            byte[] plain = cipher.doFinal(payload, 1 + ivLength, payload.length - 1 - ivLength);
+            return new JSONObject(new String(plain, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            // Key lost (e.g. restored from backup on another device) - stored copy is useless
+            android.util.Log.w(TAG, "⚠️ Stored session unreadable, discarding: " + e.getMessage());
+            prefs(context).edit().remove(PREFS_KEY).apply();
+            return new JSONObject();
+        }
+    }
+
+    private static void save(Context context, JSONObject cookies) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, getOrCreateKey());
+        byte[] iv = cipher.getIV();
+        byte[] encrypted = cipher.doFinal(cookies.toString().getBytes(StandardCharsets.UTF_8));
+
+        byte[] payload = new byte[1 + iv.length + encrypted.length];
+        payload[0] = (byte) iv.length;
+        System.arraycopy(iv, 0, payload, 1, iv.length);
+        System.arraycopy(encrypted, 0, payload, 1 + iv.length, encrypted.length);
+
+        prefs(context).edit().putString(PREFS_KEY, Base64.encodeToString(payload, Base64.NO_WRAP)).apply();
+    }
+
+    private static SecretKey getOrCreateKey() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance(ANDROID_KEY_STORE);
+        keyStore.load(null);
+        if (keyStore.containsAlias(KEY_ALIAS)) {
+            return ((KeyStore.SecretKeyEntry) keyStore.getEntry(KEY_ALIAS, null)).getSecretKey();
+        }
+
+        KeyGenerator generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, ANDROID_KEY_STORE);
+        generator.init(new KeyGenParameterSpec.Builder(KEY_ALIAS,
+                KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                .setKeySize(256)
+                .build());
+        return generator.generateKey();
+    }
+}
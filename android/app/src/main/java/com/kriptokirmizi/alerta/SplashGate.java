@@ -0,0 +1,125 @@
+package com.kriptokirmizi.alerta;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Keeps the launch splash up until the first page actually has content (pure state machine,
+ * driven by {@link MainActivity}; times are SystemClock.elapsedRealtime ms).
+ *
+ *   page reports first-contentful-paint (Splash.contentReady)  -> release "fcp"
+ *   WebView visual state ready after commit-visible            -> release "visualState"
+ *   {@code maxHoldMs} after activity create                    -> release "timeout"
+ *
+ * Whatever fires first releases; later signals are still recorded as startup marks.
+ */
+final class SplashGate {
+    static final long DEFAULT_MAX_HOLD_MS = 3000L;
+
+    private final long activityCreateMs;
+    private final long processStartMs;
+    private final long maxHoldMs;
+
+    private boolean released = false;
+    private String releaseReason = null;
+    private long releasedMs = -1;
+    private long pageStartMs = -1;
+    private long pageCommitVisibleMs = -1;
+    private long visualStateMs = -1;
+    private long firstContentfulPaintMs = -1;
+    private double pageReportedFcpMs = -1;
+
+    /**
+     * @param processStartMs Process.getStartElapsedRealtime(), or -1 when unknown (API < 24)
+     */
+    SplashGate(long activityCreateMs, long processStartMs, long maxHoldMs) {
+        this.activityCreateMs = activityCreateMs;
+        this.processStartMs = processStartMs;
+        this.maxHoldMs = maxHoldMs;
+    }
+
+    /**
+     * SplashScreen keep-on-screen condition, polled every frame while the splash is up.
+     */
+    synchronized boolean shouldKeepOnScreen(long nowMs) {
+        if (!released && nowMs - activityCreateMs >= maxHoldMs) {
+            release("timeout", nowMs);
+        }
+        return !released;
+    }
+
+    synchronized boolean isReleased() {
+        return released;
+    }
+
+    synchronized void onPageStarted(long nowMs) {
+        if (pageStartMs < 0) {
+            pageStartMs = nowMs;
+        }
+    }
+
+    synchronized void onPageCommitVisible(long nowMs) {
+        if (pageCommitVisibleMs < 0) {
+            pageCommitVisibleMs = nowMs;
+        }
+    }
+
+    /**
+     * @return true if this released the splash
+     */
+    synchronized boolean onVisualStateReady(long nowMs) {
+        if (visualStateMs < 0) {
+            visualStateMs = nowMs;
+        }
+        return release("visualState", nowMs);
+    }
+
+    /**
+     * @param pageFcpMs the page's own first-contentful-paint startTime (ms since navigation start), -1 if unknown
+     * @return true if this released the splash
+     */
+    synchronized boolean onFirstContentfulPaint(long nowMs, double pageFcpMs) {
+        if (firstContentfulPaintMs < 0) {
+            firstContentfulPaintMs = nowMs;
+            pageReportedFcpMs = pageFcpMs;
+        }
+        return release("fcp", nowMs);
+    }
+
+    /**
+     * Marks in ms since process start (since activity create when the process start is unknown), -1 = not yet.
+     */
+    synchronized JSONObject toReport() throws JSONException {
+        JSONObject report = new JSONObject();
+        report.put("origin", processStartMs >= 0 ? "processStart" : "activityCreate");
+        report.put("processStartMs", processStartMs >= 0 ? 0 : -1);
+        report.put("activityCreateMs", sinceOrigin(activityCreateMs));
+        report.put("pageStartMs", sinceOrigin(pageStartMs));
+        report.put("pageCommitVisibleMs", sinceOrigin(pageCommitVisibleMs));
+        report.put("visualStateMs", sinceOrigin(visualStateMs));
+        report.put("firstContentfulPaintMs", sinceOrigin(firstContentfulPaintMs));
+        report.put("pageReportedFcpMs", pageReportedFcpMs);
+        report.put("splashReleasedMs", sinceOrigin(releasedMs));
+        report.put("splashHeldMs", releasedMs >= 0 ? releasedMs - activityCreateMs : -1);
+        report.put("releaseReason", releaseReason != null ? releaseReason : JSONObject.NULL);
+        report.put("maxHoldMs", maxHoldMs);
+        return report;
+    }
+
+    private boolean release(String reason, long nowMs) {
+        if (released) {
+            return false;
+        }
+        released = true;
+        releaseReason = reason;
+        releasedMs = nowMs;
+        return true;
+    }
+
+    private long sinceOrigin(long ms) {
+        if (ms < 0) {
+            return -1;
+        }
+        return ms - (processStartMs >= 0 ? processStartMs : activityCreateMs);
+    }
+}
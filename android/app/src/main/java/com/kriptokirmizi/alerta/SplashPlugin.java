@@ -0,0 +1,55 @@
+package com.kriptokirmizi.alerta;
+
+import android.os.SystemClock;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONException;
+
+/**
+ * Page side of {@link SplashGate}: the page reports its first contentful paint, and can read
+ * the startup marks (process start, activity create, page start, FCP, splash release).
+ */
+@CapacitorPlugin(name = "Splash")
+public class SplashPlugin extends Plugin {
+
+    /**
+     * contentReady({ fcpMs? }) -> { released }
+     */
+    @PluginMethod
+    public void contentReady(PluginCall call) {
+        SplashGate gate = currentGate();
+        if (gate == null) {
+            call.reject("Splash gate not available");
+            return;
+        }
+        Double fcpMs = call.getDouble("fcpMs");
+        boolean released = gate.onFirstContentfulPaint(SystemClock.elapsedRealtime(), fcpMs != null ? fcpMs : -1);
+        if (released) {
+            android.util.Log.d("SplashGate", "🎨 First contentful paint, splash released");
+        }
+        JSObject result = new JSObject();
+        result.put("released", released);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void getReport(PluginCall call) {
+        SplashGate gate = currentGate();
+        if (gate == null) {
+            call.reject("Splash gate not available");
+            return;
+        }
+        try {
+            call.resolve(new JSObject(gate.toReport().toString()));
+        } catch (JSONException e) {
+            call.reject("Error building splash report: " + e.getMessage());
+        }
+    }
+
+    private SplashGate currentGate() {
+        return getActivity() instanceof MainActivity ? ((MainActivity) getActivity()).getSplashGate() : null;
+    }
+}
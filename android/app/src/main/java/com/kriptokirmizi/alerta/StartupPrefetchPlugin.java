@@ -0,0 +1,67 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Lets the page claim the responses prefetched by {@link StartupPrefetcher}.
+ * A miss (hit: false) means the page should fall back to its normal fetch.
+ */
+@CapacitorPlugin(name = "StartupPrefetch")
+public class StartupPrefetchPlugin extends Plugin {
+    private static final long DEFAULT_CLAIM_TIMEOUT_MS = 1500L;
+
+    @PluginMethod
+    public void claim(PluginCall call) {
+        String endpoint = call.getString("endpoint");
+        if (endpoint == null || endpoint.isEmpty()) {
+            call.reject("endpoint is required");
+            return;
+        }
+
+        StartupPrefetcher prefetcher = StartupPrefetcher.getInstance();
+        if (prefetcher == null) {
+            call.resolve(miss());
+            return;
+        }
+
+        long timeoutMs = call.getLong("timeoutMs", DEFAULT_CLAIM_TIMEOUT_MS);
+        prefetcher.claim(endpoint, timeoutMs, result -> {
+            if (result == null) {
+                call.resolve(miss());
+                return;
+            }
+            JSObject response = new JSObject();
+            response.put("hit", true);
+            response.put("status", result.status);
+            response.put("body", result.body);
+            response.put("contentType", result.contentType);
+            response.put("ageMs", System.currentTimeMillis() - result.fetchedAtMs);
+            response.put("durationMs", result.durationMs);
+            call.resolve(response);
+        });
+    }
+
+    @PluginMethod
+    public void getEndpoints(PluginCall call) {
+        StartupPrefetcher prefetcher = StartupPrefetcher.getInstance();
+        org.json.JSONArray endpoints = new org.json.JSONArray();
+        if (prefetcher != null) {
+            for (String endpoint : prefetcher.getEndpoints()) {
+                endpoints.put(endpoint);
+            }
+        }
+        JSObject result = new JSObject();
+        result.put("endpoints", endpoints);
+        call.resolve(result);
+    }
+
+    private static JSObject miss() {
+        JSObject result = new JSObject();
+        result.put("hit", false);
+        return result;
+    }
+}
@@ -0,0 +1,212 @@
+package com.kriptokirmizi.alerta;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Fetches the bootstrap endpoints in parallel at process start and holds the responses
+ * in memory until the page claims them (StartupPrefetch.claim), so first-paint data does
+ * not wait for the WebView + bridge + JS boot before hitting the network.
+ *
+ * Each response can be claimed once. Apart from logging there are no Android dependencies,
+ * so it is tested against MockWebServer on the JVM.
+ */
+public final class StartupPrefetcher {
+    private static final String TAG = "StartupPrefetch";
+
+    public interface CookieSource {
+        String cookiesFor(String url);
+    }
+
+    public interface ClaimCallback {
+        /** @param result prefetched response, or null on miss / timeout / failure */
+        void onResult(Result result);
+    }
+
+    public static final class Result {
+        public final int status;
+        public final String body;
+        public final String contentType;
+        public final long fetchedAtMs;
+        public final long durationMs;
+
+        Result(int status, String body, String contentType, long fetchedAtMs, long durationMs) {
+            this.status = status;
+            this.body = body;
+            this.contentType = contentType;
+            this.fetchedAtMs = fetchedAtMs;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private static volatile StartupPrefetcher instance;
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final List<String> endpoints;
+    private final CookieSource cookieSource;
+    private final long maxAgeMs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-prefetch-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StartupPrefetcher(OkHttpClient client, String baseUrl, List<String> endpoints,
+            CookieSource cookieSource, long maxAgeMs) {
+        this.client = client;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.endpoints = new ArrayList<>(endpoints);
+        this.cookieSource = cookieSource;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    public static StartupPrefetcher getInstance() {
+        return instance;
+    }
+
+    static void setInstance(StartupPrefetcher prefetcher) {
+        instance = prefetcher;
+    }
+
+    /**
+     * Fire all configured endpoints at once. OkHttp multiplexes them over a single HTTP/2
+     * connection (extra connections raced during the handshake are coalesced into the first).
+     */
+    public void start() {
+        for (String endpoint : endpoints) {
+            String url = resolve(endpoint);
+            Entry entry = new Entry();
+            entries.put(endpoint, entry);
+
+            Request.Builder builder = new Request.Builder()
+                    .url(url)
+                    .header("Accept", "application/json")
+                    .header("X-Startup-Prefetch", "1");
+            String cookies = cookieSource != null ? cookieSource.cookiesFor(url) : null;
+            if (cookies != null && !cookies.isEmpty()) {
+                builder.header("Cookie", cookies);
+            }
+
+            final long startedAt = System.currentTimeMillis();
+            client.newCall(builder.build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    log("❌ Prefetch failed for " + endpoint + ": " + e.getMessage());
+                    entry.complete(null);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (ResponseBody body = response.body()) {
+                        long now = System.currentTimeMillis();
+                        String contentType = response.header("Content-Type");
+                        Result result = new Result(response.code(), body != null ? body.string() : "",
+                                contentType, now, now - startedAt);
+                        log("✅ Prefetched " + endpoint + " (" + result.status + ") in " + result.durationMs + "ms");
+                        entry.complete(result);
+                    } catch (IOException e) {
+                        log("❌ Prefetch body read failed for " + endpoint + ": " + e.getMessage());
+                        entry.complete(null);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Hand the prefetched response for {@code endpoint} to the caller, waiting at most
+     * {@code timeoutMs} if it is still in flight. Unknown, stale, failed or already
+     * claimed endpoints resolve with null so the page falls back to a normal fetch.
+     */
+    public void claim(String endpoint, long timeoutMs, ClaimCallback callback) {
+        Entry entry = entries.remove(endpoint);
+        if (entry == null) {
+            callback.onResult(null);
+            return;
+        }
+        entry.await(timeoutMs, result -> {
+            if (result != null && System.currentTimeMillis() - result.fetchedAtMs > maxAgeMs) {
+                callback.onResult(null);
+            } else {
+                callback.onResult(result);
+            }
+        });
+    }
+
+    public List<String> getEndpoints() {
+        return new ArrayList<>(endpoints);
+    }
+
+    private String resolve(String endpoint) {
+        if (endpoint.startsWith("http://") || endpoint.startsWith("https://")) {
+            return endpoint;
+        }
+        return baseUrl + (endpoint.startsWith("/") ? endpoint : "/" + endpoint);
+    }
+
+    private static void log(String message) {
+        android.util.Log.d(TAG, message);
+    }
+
+    private final class Entry {
+        private boolean done = false;
+        private Result result = null;
+        private final List<ClaimCallback> waiters = new ArrayList<>();
+
+        void complete(Result value) {
+            List<ClaimCallback> toNotify;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                result = value;
+                toNotify = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            for (ClaimCallback waiter : toNotify) {
+                waiter.onResult(value);
+            }
+        }
+
+        void await(long timeoutMs, ClaimCallback callback) {
+            AtomicBoolean delivered = new AtomicBoolean(false);
+            ClaimCallback once = value -> {
+                if (delivered.compareAndSet(false, true)) {
+                    callback.onResult(value);
+                }
+            };
+
+            Result ready;
+            synchronized (this) {
+                if (!done) {
+                    waiters.add(once);
+                    timeouts.schedule(() -> {
+                        synchronized (Entry.this) {
+                            waiters.remove(once);
+                        }
+                        once.onResult(null);
+                    }, timeoutMs, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                ready = result;
+            }
+            once.onResult(ready);
+        }
+    }
+}
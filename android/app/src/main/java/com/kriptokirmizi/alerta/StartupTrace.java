@@ -0,0 +1,135 @@
+package com.kriptokirmizi.alerta;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Cold-start tracing. Each section goes to two places:
+ * - android.os.Trace, so a live Perfetto / atrace capture shows it on the app's threads
+ * - an in-process {@link TraceRecorder}, exported as a Chrome JSON trace Perfetto UI opens
+ *   without a system capture (StartupTrace.exportTrace from JS, or {@link #export}).
+ *
+ * Usage: {@code try (StartupTrace.Section s = StartupTrace.begin("phase")) { ... }}
+ * Sections must close on the thread that opened them (android.os.Trace nests per thread).
+ * Recording stops after {@link #CAPTURE_WINDOW_MS} of uptime so the steady state pays nothing.
+ */
+final class StartupTrace {
+    private static final String TAG = "StartupTrace";
+    static final long CAPTURE_WINDOW_MS = 60_000L;
+    private static final int MAX_EVENTS = 2_000;
+    // android.os.Trace rejects section names longer than 127 chars
+    private static final int MAX_SECTION_NAME = 127;
+
+    private static final TraceRecorder recorder = new TraceRecorder(MAX_EVENTS);
+    private static final long startNs = processStartNs();
+    private static final Section NO_OP = new Section(null, -1);
+
+    static {
+        recorder.instant("process start", Process.myPid(), "main", startNs, null);
+    }
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Open trace section; close() ends it on both the system trace and the recorder.
+     */
+    static final class Section implements AutoCloseable {
+        private final String name;
+        private final int token;
+
+        private Section(String name, int token) {
+            this.name = name;
+            this.token = token;
+        }
+
+        @Override
+        public void close() {
+            if (name == null) {
+                return;
+            }
+            Trace.endSection();
+            recorder.end(token, SystemClock.elapsedRealtimeNanos());
+        }
+    }
+
+    static boolean isCapturing() {
+        return SystemClock.elapsedRealtimeNanos() - startNs < CAPTURE_WINDOW_MS * 1_000_000L;
+    }
+
+    static Section begin(String name) {
+        if (!isCapturing()) {
+            return NO_OP;
+        }
+        Trace.beginSection(name.length() > MAX_SECTION_NAME ? name.substring(0, MAX_SECTION_NAME) : name);
+        Thread thread = Thread.currentThread();
+        return new Section(name, recorder.begin(name, Process.myTid(), thread.getName(),
+                SystemClock.elapsedRealtimeNanos()));
+    }
+
+    /**
+     * Instant marker on the calling thread's track.
+     */
+    static void mark(String name) {
+        if (isCapturing()) {
+            recorder.instant(name, Process.myTid(), Thread.currentThread().getName(),
+                    SystemClock.elapsedRealtimeNanos(), null);
+        }
+    }
+
+    /**
+     * Web milestone from markTimeline. The page reports wall-clock ms (performance.timeOrigin +
+     * performance.now()); it is mapped to the native clock through the current offset between
+     * currentTimeMillis and elapsedRealtimeNanos, so native and web events share one timeline.
+     *
+     * @return false when the milestone falls outside the capture window
+     */
+    static boolean markWeb(String name, double epochMs, JSONObject args) {
+        long nowNs = SystemClock.elapsedRealtimeNanos();
+        long tsNs = nowNs - (long) ((System.currentTimeMillis() - epochMs) * 1_000_000L);
+        if (tsNs - startNs >= CAPTURE_WINDOW_MS * 1_000_000L) {
+            return false;
+        }
+        recorder.instant(name, TraceRecorder.WEB_TRACK_TID, TraceRecorder.WEB_TRACK_NAME, tsNs, args);
+        return true;
+    }
+
+    static int eventCount() {
+        return recorder.size();
+    }
+
+    static JSONObject toJson(Context context) throws JSONException {
+        return recorder.toJson(Process.myPid(), context.getPackageName());
+    }
+
+    /**
+     * Write the trace to cacheDir/traces/startup-trace.json (open in ui.perfetto.dev).
+     */
+    static File export(Context context) throws Exception {
+        File dir = new File(context.getCacheDir(), "traces");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + dir);
+        }
+        File file = new File(dir, "startup-trace.json");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(toJson(context).toString().getBytes(StandardCharsets.UTF_8));
+        }
+        android.util.Log.d(TAG, "📝 Exported " + recorder.size() + " trace events to " + file);
+        return file;
+    }
+
+    private static long processStartNs() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return Process.getStartElapsedRealtime() * 1_000_000L;
+        }
+        return SystemClock.elapsedRealtimeNanos();
+    }
+}
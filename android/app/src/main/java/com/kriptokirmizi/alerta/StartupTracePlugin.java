@@ -0,0 +1,64 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Page side of {@link StartupTrace}: web milestones go onto the native startup timeline, and
+ * the combined trace can be exported as a Chrome JSON trace for ui.perfetto.dev.
+ */
+@CapacitorPlugin(name = "StartupTrace")
+public class StartupTracePlugin extends Plugin {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-trace");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * markTimeline({ name, epochMs?, args? }) -> { recorded }
+     * epochMs is wall-clock time (performance.timeOrigin + performance.now()); defaults to now.
+     */
+    @PluginMethod
+    public void markTimeline(PluginCall call) {
+        String name = call.getString("name");
+        if (name == null || name.isEmpty()) {
+            call.reject("name is required");
+            return;
+        }
+        Double epochMs = call.getDouble("epochMs");
+        boolean recorded = StartupTrace.markWeb(name, epochMs != null ? epochMs : System.currentTimeMillis(),
+                call.getObject("args"));
+        JSObject result = new JSObject();
+        result.put("recorded", recorded);
+        call.resolve(result);
+    }
+
+    /**
+     * exportTrace({ includeJson? }) -> { path, events, trace? }
+     */
+    @PluginMethod
+    public void exportTrace(PluginCall call) {
+        boolean includeJson = call.getBoolean("includeJson", false);
+        executor.execute(() -> {
+            try {
+                File file = StartupTrace.export(getContext());
+                JSObject result = new JSObject();
+                result.put("path", file.getAbsolutePath());
+                result.put("events", StartupTrace.eventCount());
+                if (includeJson) {
+                    result.put("trace", StartupTrace.toJson(getContext()));
+                }
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error exporting startup trace: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,278 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ranked ticker table for market lists (no Android types).
+ *
+ * Tickers live in primitive arrays indexed by an interned id. Each group (a market's symbol
+ * universe, a user watchlist, a category) keeps one {@link OrderStatisticTree} per sort key,
+ * updated incrementally when a value changes, so a ticker update is O(groups * keys * log n)
+ * and a window of rows is O(limit * log n) - neither touches the other rows.
+ *
+ * Windows are served per view as diffs: the row order only when it changed, and only the rows
+ * whose values changed since that view was last served.
+ */
+final class TickerRanking {
+    static final int PRICE = 0;
+    static final int CHANGE = 1;
+    static final int VOLUME = 2;
+    /** price * volume: comparable across quote assets of similar value */
+    static final int QUOTE_VOLUME = 3;
+    static final int KEY_COUNT = 4;
+
+    private static final class Group {
+        final OrderStatisticTree[] trees = new OrderStatisticTree[KEY_COUNT];
+        boolean[] members;
+
+        Group(int capacity) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                trees[key] = new OrderStatisticTree(capacity);
+            }
+            members = new boolean[capacity];
+        }
+
+        boolean contains(int id) {
+            return id < members.length && members[id];
+        }
+    }
+
+    private static final class View {
+        int[] order = new int[0];
+        long servedVersion = -1;
+        String group;
+        int key;
+        boolean descending;
+        int offset;
+    }
+
+    /**
+     * One served window. {@code order} is null when it did not change for the view;
+     * {@code changed} lists the ids in the window whose values must be (re)sent.
+     */
+    static final class Window {
+        final long version;
+        final int total;
+        final int offset;
+        final int[] order;
+        final int[] changed;
+
+        Window(long version, int total, int offset, int[] order, int[] changed) {
+            this.version = version;
+            this.total = total;
+            this.offset = offset;
+            this.order = order;
+            this.changed = changed;
+        }
+    }
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Map<String, View> views = new HashMap<>();
+    private String[] symbols;
+    private double[][] values;
+    private long[] updatedVersion;
+    private int count = 0;
+    private long version = 0;
+    private int[] scratch = new int[64];
+
+    TickerRanking(int capacity) {
+        int initial = Math.max(16, capacity);
+        symbols = new String[initial];
+        values = new double[KEY_COUNT][initial];
+        updatedVersion = new long[initial];
+    }
+
+    int size() {
+        return count;
+    }
+
+    long version() {
+        return version;
+    }
+
+    String symbol(int id) {
+        return symbols[id];
+    }
+
+    double value(int id, int key) {
+        return values[key][id];
+    }
+
+    int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Set a ticker's values; groups containing it re-rank only the keys that changed.
+     * Returns false when nothing changed.
+     */
+    boolean update(String symbol, double price, double change, double volume) {
+        int id = intern(symbol);
+        double[] next = {price, change, volume, price * volume};
+        boolean fresh = updatedVersion[id] == 0;
+        boolean changed = fresh;
+        for (int key = 0; key < KEY_COUNT && !changed; key++) {
+            changed = Double.compare(values[key][id], next[key]) != 0;
+        }
+        if (!changed) {
+            return false;
+        }
+        version++;
+        updatedVersion[id] = version;
+        for (int key = 0; key < KEY_COUNT; key++) {
+            boolean keyChanged = fresh || Double.compare(values[key][id], next[key]) != 0;
+            values[key][id] = next[key];
+            if (!keyChanged) {
+                continue;
+            }
+            for (Group group : groups.values()) {
+                if (group.contains(id)) {
+                    group.trees[key].insert(id, next[key]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace a group's members. Symbols without a ticker yet join it on their first update.
+     */
+    void setGroup(String name, Collection<String> members) {
+        Group group = groups.get(name);
+        if (group == null) {
+            group = new Group(symbols.length);
+            groups.put(name, group);
+        }
+        boolean[] next = new boolean[symbols.length];
+        for (String symbol : members) {
+            int id = intern(symbol);
+            if (next.length <= id) {
+                next = Arrays.copyOf(next, symbols.length);
+            }
+            next[id] = true;
+        }
+        if (group.members.length < next.length) {
+            group.members = Arrays.copyOf(group.members, next.length);
+        }
+        for (int id = 0; id < count; id++) {
+            boolean wanted = next[id];
+            if (wanted == group.members[id]) {
+                continue;
+            }
+            group.members[id] = wanted;
+            for (int key = 0; key < KEY_COUNT; key++) {
+                if (!wanted) {
+                    group.trees[key].remove(id);
+                } else if (updatedVersion[id] != 0) {
+                    group.trees[key].insert(id, values[key][id]);
+                }
+            }
+        }
+        version++;
+    }
+
+    void removeGroup(String name) {
+        groups.remove(name);
+        version++;
+    }
+
+    /**
+     * Ranked symbols of a group (only those with a ticker), or 0 for an unknown group.
+     */
+    int total(String group) {
+        Group g = groups.get(group);
+        return g == null ? 0 : g.trees[PRICE].size();
+    }
+
+    /**
+     * Ascending rank of {@code symbol} within a group by {@code key}, or -1.
+     */
+    int rank(String group, int key, String symbol) {
+        Group g = groups.get(group);
+        int id = idOf(symbol);
+        return g == null || id < 0 ? -1 : g.trees[key].rank(id);
+    }
+
+    /**
+     * Rows [offset, offset + limit) of a group sorted by {@code key}, diffed against what
+     * {@code viewId} was served last. Changing the group, key, direction or offset resends all rows.
+     */
+    Window window(String viewId, String group, int key, boolean descending, int offset, int limit) {
+        Group g = groups.get(group);
+        int total = g == null ? 0 : g.trees[key].size();
+        if (scratch.length < limit) {
+            scratch = new int[limit];
+        }
+        int written = g == null ? 0 : g.trees[key].range(Math.max(0, offset), limit, descending, scratch);
+        int[] order = Arrays.copyOf(scratch, written);
+
+        View view = views.get(viewId);
+        if (view == null) {
+            view = new View();
+            views.put(viewId, view);
+        }
+        boolean sameQuery = group.equals(view.group) && key == view.key && descending == view.descending
+                && offset == view.offset;
+        if (!sameQuery) {
+            view.servedVersion = -1;
+            view.order = new int[0];
+        }
+
+        int changedCount = 0;
+        int[] changed = new int[written];
+        for (int id : order) {
+            if (updatedVersion[id] > view.servedVersion || !containsId(view.order, id)) {
+                changed[changedCount++] = id;
+            }
+        }
+        boolean orderChanged = !Arrays.equals(order, view.order);
+
+        view.group = group;
+        view.key = key;
+        view.descending = descending;
+        view.offset = offset;
+        view.order = order;
+        view.servedVersion = version;
+        return new Window(version, total, offset, orderChanged ? order : null, Arrays.copyOf(changed, changedCount));
+    }
+
+    /**
+     * Forget what a view was served (e.g. the page reloaded): its next window is complete.
+     */
+    void resetView(String viewId) {
+        views.remove(viewId);
+    }
+
+    private static boolean containsId(int[] order, int id) {
+        for (int value : order) {
+            if (value == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int intern(String symbol) {
+        Integer existing = ids.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        if (count == symbols.length) {
+            int capacity = symbols.length * 2;
+            symbols = Arrays.copyOf(symbols, capacity);
+            for (int key = 0; key < KEY_COUNT; key++) {
+                values[key] = Arrays.copyOf(values[key], capacity);
+            }
+            updatedVersion = Arrays.copyOf(updatedVersion, capacity);
+        }
+        int id = count++;
+        symbols[id] = symbol;
+        ids.put(symbol, id);
+        return id;
+    }
+}
@@ -0,0 +1,145 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Records timed sections and instant marks and writes them as a Chrome JSON trace
+ * ({"traceEvents": [...]}), which ui.perfetto.dev and chrome://tracing open directly.
+ *
+ * Pure logic (no Android); {@link StartupTrace} feeds it with elapsedRealtimeNanos timestamps.
+ * Bounded: once {@code maxEvents} are recorded, further events are dropped and counted.
+ */
+final class TraceRecorder {
+    /** Synthetic thread id for web milestones (markTimeline) */
+    static final int WEB_TRACK_TID = 1_000_000;
+    static final String WEB_TRACK_NAME = "WebView (markTimeline)";
+
+    private static final class Event {
+        final String name;
+        final boolean instant;
+        final long tsNs;
+        final int tid;
+        final JSONObject args;
+        long durNs = -1;
+
+        Event(String name, boolean instant, long tsNs, int tid, JSONObject args) {
+            this.name = name;
+            this.instant = instant;
+            this.tsNs = tsNs;
+            this.tid = tid;
+            this.args = args;
+        }
+    }
+
+    private final int maxEvents;
+    private final List<Event> events = new ArrayList<>();
+    private final Map<Integer, String> threadNames = new LinkedHashMap<>();
+    private int dropped = 0;
+
+    TraceRecorder(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * @return token for {@link #end}, -1 if the event was dropped
+     */
+    synchronized int begin(String name, int tid, String threadName, long tsNs) {
+        if (!admit(tid, threadName)) {
+            return -1;
+        }
+        events.add(new Event(name, false, tsNs, tid, null));
+        return events.size() - 1;
+    }
+
+    synchronized void end(int token, long tsNs) {
+        if (token < 0 || token >= events.size()) {
+            return;
+        }
+        Event event = events.get(token);
+        if (!event.instant && event.durNs < 0) {
+            event.durNs = Math.max(0, tsNs - event.tsNs);
+        }
+    }
+
+    synchronized void instant(String name, int tid, String threadName, long tsNs, JSONObject args) {
+        if (admit(tid, threadName)) {
+            events.add(new Event(name, true, tsNs, tid, args));
+        }
+    }
+
+    synchronized int size() {
+        return events.size();
+    }
+
+    synchronized int dropped() {
+        return dropped;
+    }
+
+    /**
+     * Chrome JSON trace: complete ("X") events for finished sections, "B" for still-open ones,
+     * global instant ("i") events for marks, and thread_name metadata. Times in microseconds.
+     */
+    synchronized JSONObject toJson(int pid, String processName) throws JSONException {
+        JSONArray traceEvents = new JSONArray();
+        traceEvents.put(metadata("process_name", pid, 0, processName));
+        for (Map.Entry<Integer, String> thread : threadNames.entrySet()) {
+            traceEvents.put(metadata("thread_name", pid, thread.getKey(), thread.getValue()));
+        }
+        for (Event event : events) {
+            JSONObject json = new JSONObject();
+            json.put("name", event.name);
+            json.put("cat", event.tid == WEB_TRACK_TID ? "web" : "startup");
+            json.put("pid", pid);
+            json.put("tid", event.tid);
+            json.put("ts", event.tsNs / 1000.0);
+            if (event.instant) {
+                json.put("ph", "i");
+                json.put("s", "g");
+            } else if (event.durNs >= 0) {
+                json.put("ph", "X");
+                json.put("dur", event.durNs / 1000.0);
+            } else {
+                json.put("ph", "B");
+            }
+            if (event.args != null) {
+                json.put("args", event.args);
+            }
+            traceEvents.put(json);
+        }
+        JSONObject trace = new JSONObject();
+        trace.put("traceEvents", traceEvents);
+        trace.put("displayTimeUnit", "ms");
+        JSONObject otherData = new JSONObject();
+        otherData.put("clock", "elapsedRealtimeNanos");
+        otherData.put("droppedEvents", dropped);
+        trace.put("otherData", otherData);
+        return trace;
+    }
+
+    private boolean admit(int tid, String threadName) {
+        if (events.size() >= maxEvents) {
+            dropped++;
+            return false;
+        }
+        if (!threadNames.containsKey(tid)) {
+            threadNames.put(tid, threadName);
+        }
+        return true;
+    }
+
+    private static JSONObject metadata(String kind, int pid, int tid, String name) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("name", kind);
+        json.put("ph", "M");
+        json.put("pid", pid);
+        json.put("tid", tid);
+        json.put("args", new JSONObject().put("name", name));
+        return json;
+    }
+}
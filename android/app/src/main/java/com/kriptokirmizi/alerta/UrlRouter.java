@@ -0,0 +1,65 @@
+package com.kriptokirmizi.alerta;
+
+/**
+ * URL routing decisions for the main WebView (no Android types, runs on the JVM).
+ * Called for every navigation, so the common path must not allocate.
+ */
+public final class UrlRouter {
+    public static final String LEGACY_HOST = "alerta.kriptokirmizi.com";
+    public static final String CURRENT_HOST = "alertachart.com";
+
+    public enum Action {
+        /** mailto: - hand to the email app */
+        OPEN_EMAIL,
+        /** tel: - hand to the dialer */
+        OPEN_DIALER,
+        /** Old domain - load {@link #migrateLegacyUrl(String)} instead */
+        REDIRECT_LEGACY,
+        /** Everything else stays inside the WebView (never the external browser) */
+        LOAD_IN_WEBVIEW
+    }
+
+    private UrlRouter() {
+    }
+
+    public static Action route(String url) {
+        if (url.startsWith("mailto:")) {
+            return Action.OPEN_EMAIL;
+        }
+        if (url.startsWith("tel:")) {
+            return Action.OPEN_DIALER;
+        }
+        if (url.contains(LEGACY_HOST)) {
+            return Action.REDIRECT_LEGACY;
+        }
+        return Action.LOAD_IN_WEBVIEW;
+    }
+
+    public static boolean isLegacyUrl(String url) {
+        return url != null && url.contains(LEGACY_HOST);
+    }
+
+    /**
+     * Old domain URL rewritten to the new domain, or null if {@code url} is not on the old domain.
+     */
+    public static String migrateLegacyUrl(String url) {
+        if (!isLegacyUrl(url)) {
+            return null;
+        }
+        return url.replace(LEGACY_HOST, CURRENT_HOST);
+    }
+
+    /**
+     * Whether the WebView must be (re)pointed at the configured server URL: nothing loaded
+     * yet, still on the old domain, or on a different origin than capacitor.config.json says.
+     */
+    public static boolean needsServerUrlLoad(String currentUrl, String serverUrl) {
+        if (currentUrl == null || currentUrl.isEmpty() || currentUrl.equals("about:blank")) {
+            return true;
+        }
+        if (isLegacyUrl(currentUrl)) {
+            return true;
+        }
+        return !currentUrl.startsWith(serverUrl);
+    }
+}
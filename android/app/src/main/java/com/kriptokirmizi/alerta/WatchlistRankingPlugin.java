@@ -0,0 +1,186 @@
+package com.kriptokirmizi.alerta;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Page side of {@link TickerRanking}: the page streams ticker changes in, and reads back only
+ * the visible window of a sorted list as a diff against what it already rendered. All calls run
+ * on one background thread, so the ranking is never touched concurrently and calls stay in order.
+ */
+@CapacitorPlugin(name = "WatchlistRanking")
+public class WatchlistRankingPlugin extends Plugin {
+    private static final String TAG = "WatchlistRanking";
+    private static final int MAX_WINDOW = 200;
+
+    private final TickerRanking ranking = new TickerRanking(1024);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "watchlist-ranking");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * update({ market, tickers: [{ symbol, price, change24h, volume24h }] }) -> { changed, version }
+     */
+    @PluginMethod
+    public void update(PluginCall call) {
+        String market = call.getString("market", "spot");
+        JSArray tickers = call.getArray("tickers");
+        if (tickers == null) {
+            call.reject("tickers is required");
+            return;
+        }
+        executor.execute(() -> {
+            int changed = 0;
+            for (int i = 0; i < tickers.length(); i++) {
+                JSONObject ticker = tickers.optJSONObject(i);
+                String symbol = ticker != null ? ticker.optString("symbol", null) : null;
+                if (symbol == null) {
+                    continue;
+                }
+                if (ranking.update(key(market, symbol), ticker.optDouble("price"),
+                        ticker.optDouble("change24h"), ticker.optDouble("volume24h"))) {
+                    changed++;
+                }
+            }
+            JSObject result = new JSObject();
+            result.put("changed", changed);
+            result.put("version", ranking.version());
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * setGroup({ group, market, symbols }) -> { total } - replaces the group's members.
+     */
+    @PluginMethod
+    public void setGroup(PluginCall call) {
+        String group = call.getString("group");
+        String market = call.getString("market", "spot");
+        JSArray symbols = call.getArray("symbols");
+        if (group == null || symbols == null) {
+            call.reject("group and symbols are required");
+            return;
+        }
+        executor.execute(() -> {
+            List<String> keys = new ArrayList<>(symbols.length());
+            for (int i = 0; i < symbols.length(); i++) {
+                String symbol = symbols.optString(i, null);
+                if (symbol != null) {
+                    keys.add(key(market, symbol));
+                }
+            }
+            ranking.setGroup(group, keys);
+            android.util.Log.d(TAG, "📋 Group " + group + ": " + keys.size() + " symbol(s)");
+            JSObject result = new JSObject();
+            result.put("total", ranking.total(group));
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * getWindow({ view, group, sortKey, descending?, offset?, limit?, rows? }) ->
+     *   { version, total, offset, order?: [symbol], rows: [{ symbol, price, change24h, volume24h }] }
+     * sortKey is price | change | volume | quoteVolume; limit is capped at 200, so page by the
+     * viewport. order is omitted when unchanged for the view; rows only holds symbols that changed
+     * since the view's previous window, and is empty with rows: false (the page has the values).
+     */
+    @PluginMethod
+    public void getWindow(PluginCall call) {
+        String view = call.getString("view", "default");
+        String group = call.getString("group");
+        int sortKey = sortKey(call.getString("sortKey", "change"));
+        if (group == null || sortKey < 0) {
+            call.reject("group and a valid sortKey are required");
+            return;
+        }
+        boolean descending = call.getBoolean("descending", true);
+        int offset = Math.max(0, call.getInt("offset", 0));
+        int limit = Math.max(0, Math.min(MAX_WINDOW, call.getInt("limit", 50)));
+        boolean withRows = call.getBoolean("rows", true);
+        executor.execute(() -> {
+            try {
+                TickerRanking.Window window = ranking.window(view, group, sortKey, descending, offset, limit);
+                JSObject result = new JSObject();
+                result.put("version", window.version);
+                result.put("total", window.total);
+                result.put("offset", window.offset);
+                if (window.order != null) {
+                    JSONArray order = new JSONArray();
+                    for (int id : window.order) {
+                        order.put(symbolOf(id));
+                    }
+                    result.put("order", order);
+                }
+                JSONArray rows = new JSONArray();
+                for (int i = 0; withRows && i < window.changed.length; i++) {
+                    int id = window.changed[i];
+                    JSONObject row = new JSONObject();
+                    row.put("symbol", symbolOf(id));
+                    putFinite(row, "price", ranking.value(id, TickerRanking.PRICE));
+                    putFinite(row, "change24h", ranking.value(id, TickerRanking.CHANGE));
+                    putFinite(row, "volume24h", ranking.value(id, TickerRanking.VOLUME));
+                    rows.put(row);
+                }
+                result.put("rows", rows);
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error reading window: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * resetView({ view }) - the next getWindow for the view returns the full window.
+     */
+    @PluginMethod
+    public void resetView(PluginCall call) {
+        String view = call.getString("view", "default");
+        executor.execute(() -> {
+            ranking.resetView(view);
+            call.resolve();
+        });
+    }
+
+    private static String key(String market, String symbol) {
+        return market + ":" + symbol;
+    }
+
+    private String symbolOf(int id) {
+        String key = ranking.symbol(id);
+        return key.substring(key.indexOf(':') + 1);
+    }
+
+    private static void putFinite(JSONObject row, String name, double value) throws Exception {
+        // JSONObject rejects NaN / Infinity; the page treats a missing field as "no data"
+        if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+            row.put(name, value);
+        }
+    }
+
+    private static int sortKey(String name) {
+        switch (name) {
+            case "price":
+                return TickerRanking.PRICE;
+            case "change":
+                return TickerRanking.CHANGE;
+            case "volume":
+                return TickerRanking.VOLUME;
+            case "quoteVolume":
+                return TickerRanking.QUOTE_VOLUME;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.Activity;
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.RenderProcessGoneDetail;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hidden, pre-rendered WebViews for bridge-free content routes (help, blog, news), layered
+ * behind the main Capacitor WebView and brought to the front on navigation instead of a full
+ * page load in the main WebView.
+ *
+ * - Same session: cookies (CookieManager) and DOM storage are per process, so pooled pages are
+ *   logged in exactly like the main one. They do not get the Capacitor bridge, which is why only
+ *   routes that need no native plugin are pooled.
+ * - Warm-ups run one per main-thread idle pass, never while the pool is over budget.
+ * - Pooled pages load with {@link #POOLED_UA_MARKER} in the user agent and hold back analytics
+ *   and data fetches until {@link #SHOWN_EVENT}, so warming a route is not a visit to it.
+ * - Size comes from {@link WebViewPoolPolicy#capacityFor}; least recently used pages are evicted
+ *   first, and onTrimMemory shrinks the pool.
+ *
+ * Main thread only.
+ */
+final class WebViewPool {
+    private static final String TAG = "WebViewPool";
+    /** Page function a pooled page may define: returns true when it consumed the back press */
+    static final String PAGE_BACK_HANDLER = "__webViewPoolBack";
+    /** Appended to the user agent of pooled pages (webViewPoolService.isPooledPage) */
+    static final String POOLED_UA_MARKER = "AlertaPool";
+    /** Window event (and flag window.__webViewPoolShown) once a pooled page is on screen */
+    static final String SHOWN_EVENT = "webviewpoolshow";
+    private static final String SHOWN_SCRIPT =
+            "window.__webViewPoolShown=true;window.dispatchEvent(new Event('" + SHOWN_EVENT + "'));";
+
+    interface Listener {
+        /** A pooled page navigated to an app route: load it in the main WebView */
+        void onLeavePool(String url);
+
+        /** Visibility changed (e.g. to enable the back handler) */
+        void onShowingChanged(boolean showing);
+    }
+
+    private static final class Entry {
+        final String url;
+        final WebView view;
+        final long warmedAtMs;
+
+        Entry(String url, WebView view, long warmedAtMs) {
+            this.url = url;
+            this.view = view;
+            this.warmedAtMs = warmedAtMs;
+        }
+    }
+
+    private final Activity activity;
+    private final WebView mainWebView;
+    private final Listener listener;
+    private final int deviceCapacity;
+    private final WebViewPoolPolicy.Stats stats = new WebViewPoolPolicy.Stats();
+    // Access-ordered: iteration starts at the least recently used page
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(4, 0.75f, true);
+    private final ArrayDeque<String> warmQueue = new ArrayDeque<>();
+
+    private int capacity;
+    private boolean enabled = true;
+    private boolean idleHandlerPosted = false;
+    private boolean paused = false;
+    private Entry showing = null;
+    // Full navigation in the main WebView after a miss, timed until its first frame
+    private String pendingMissRoute = null;
+    private long pendingMissStartMs = 0;
+
+    WebViewPool(Activity activity, WebView mainWebView, Listener listener) {
+        this.activity = activity;
+        this.mainWebView = mainWebView;
+        this.listener = listener;
+        this.deviceCapacity = deviceCapacity(activity);
+        this.capacity = deviceCapacity;
+        android.util.Log.d(TAG, "📦 Pool capacity " + capacity + " WebView(s)");
+    }
+
+    private static int deviceCapacity(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null) {
+            return 0;
+        }
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        return WebViewPoolPolicy.capacityFor(memoryInfo.totalMem / (1024 * 1024), activityManager.isLowRamDevice());
+    }
+
+    int capacity() {
+        return enabled ? capacity : 0;
+    }
+
+    boolean isShowing() {
+        return showing != null;
+    }
+
+    /**
+     * Queue pages to pre-render when the main thread is next idle. Returns how many were queued.
+     */
+    int warm(Iterable<String> urls) {
+        int queued = 0;
+        for (String url : urls) {
+            if (capacity() > 0 && !entries.containsKey(url) && !warmQueue.contains(url)) {
+                warmQueue.add(url);
+                queued++;
+            }
+        }
+        if (queued > 0 && !idleHandlerPosted) {
+            idleHandlerPosted = true;
+            Looper.myQueue().addIdleHandler(() -> {
+                String next = warmQueue.poll();
+                if (next != null) {
+                    warmNow(next);
+                }
+                idleHandlerPosted = !warmQueue.isEmpty();
+                return idleHandlerPosted;
+            });
+        }
+        return queued;
+    }
+
+    private void warmNow(String url) {
+        if (capacity() == 0 || entries.containsKey(url)) {
+            return;
+        }
+        while (entries.size() >= capacity() && evictLeastRecentlyUsed()) {
+            // Make room
+        }
+        if (entries.size() >= capacity()) {
+            return;
+        }
+        WebView view = createWebView();
+        entries.put(url, new Entry(url, view, SystemClock.elapsedRealtime()));
+        view.loadUrl(url);
+        stats.recordWarm();
+        android.util.Log.d(TAG, "🔥 Pre-rendering " + url);
+    }
+
+    /**
+     * Bring the pooled page for {@code url} to the front. False (a miss) when it is not pooled;
+     * the caller then navigates the main WebView and the full load is timed as the miss latency.
+     */
+    boolean show(String url, long requestedAtMs) {
+        Entry entry = entries.get(url);
+        if (entry != null && SystemClock.elapsedRealtime() - entry.warmedAtMs > WebViewPoolPolicy.MAX_AGE_MS) {
+            // Too old to show as-is: drop it and pre-render a fresh copy for next time
+            remove(entry);
+            stats.recordStaleReload();
+            warm(Collections.singletonList(url));
+            entry = null;
+        }
+        if (entry == null) {
+            stats.recordMiss();
+            pendingMissRoute = NavigationStats.normalizeRoute(url);
+            pendingMissStartMs = requestedAtMs;
+            return false;
+        }
+        if (showing != null && showing != entry) {
+            showing.view.setVisibility(View.INVISIBLE);
+        }
+        Entry shown = entry;
+        shown.view.setVisibility(View.VISIBLE);
+        shown.view.bringToFront();
+        shown.view.evaluateJavascript(SHOWN_SCRIPT, null);
+        showing = shown;
+        listener.onShowingChanged(true);
+        shown.view.postVisualStateCallback(0, new WebView.VisualStateCallback() {
+            @Override
+            public void onComplete(long requestId) {
+                stats.recordHit(SystemClock.elapsedRealtime() - requestedAtMs);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Back to the main WebView; the pooled page stays rendered for the next switch.
+     */
+    void hide() {
+        if (showing == null) {
+            return;
+        }
+        showing.view.setVisibility(View.INVISIBLE);
+        mainWebView.bringToFront();
+        showing = null;
+        listener.onShowingChanged(false);
+    }
+
+    /**
+     * Back press while a pooled page is showing. Pooled pages have no bridge (no App 'backButton'
+     * event), so the page is asked first through {@link #PAGE_BACK_HANDLER} (closes an open modal);
+     * otherwise go back inside it, or return to the main WebView.
+     */
+    void onBackPressed() {
+        Entry entry = showing;
+        if (entry == null) {
+            return;
+        }
+        entry.view.evaluateJavascript(
+                "(function(){var h=window." + PAGE_BACK_HANDLER + ";return typeof h==='function'&&h()===true;})()",
+                handled -> {
+                    if ("true".equals(handled) || showing != entry) {
+                        return;
+                    }
+                    if (entry.view.canGoBack()) {
+                        entry.view.goBack();
+                    } else {
+                        hide();
+                    }
+                });
+    }
+
+    /**
+     * First frame of a main WebView navigation; closes a pending miss measurement. The next full
+     * navigation settles it either way: a different route (or one after {@link
+     * WebViewPoolPolicy#MAX_MISS_MS}) means the miss was served by a client-side router.push.
+     */
+    void onMainVisualState(String url, long nowMs) {
+        if (pendingMissRoute == null) {
+            return;
+        }
+        if (pendingMissRoute.equals(NavigationStats.normalizeRoute(url))
+                && nowMs - pendingMissStartMs <= WebViewPoolPolicy.MAX_MISS_MS) {
+            stats.recordMissLatency(nowMs - pendingMissStartMs);
+        }
+        pendingMissRoute = null;
+    }
+
+    /**
+     * Activity paused / resumed: pooled pages pause their rendering, animations and media with
+     * the main WebView (the bridge only handles its own).
+     */
+    void onPause() {
+        paused = true;
+        for (Entry entry : entries.values()) {
+            entry.view.onPause();
+        }
+    }
+
+    void onResume() {
+        paused = false;
+        for (Entry entry : entries.values()) {
+            entry.view.onResume();
+        }
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            hide();
+            shrinkTo(0);
+            warmQueue.clear();
+        }
+    }
+
+    void onTrimMemory(int level) {
+        int target = WebViewPoolPolicy.capacityAfterTrim(level, capacity);
+        if (target < capacity) {
+            android.util.Log.d(TAG, "🧹 Trim level " + level + ": pool " + capacity + " -> " + target);
+            capacity = target;
+            shrinkTo(target);
+        }
+    }
+
+    /**
+     * Memory is back to normal (activity restarted): allow the full device budget again.
+     */
+    void restoreCapacity() {
+        capacity = deviceCapacity;
+    }
+
+    void release() {
+        hide();
+        warmQueue.clear();
+        shrinkTo(0);
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("capacity", capacity());
+        result.put("deviceCapacity", deviceCapacity);
+        result.put("pooled", entries.size());
+        result.put("showing", showing != null ? showing.url : null);
+        return result;
+    }
+
+    WebViewPoolPolicy.Stats switchStats() {
+        return stats;
+    }
+
+    private void shrinkTo(int size) {
+        while (entries.size() > size && evictLeastRecentlyUsed()) {
+            // Keep evicting
+        }
+    }
+
+    private boolean evictLeastRecentlyUsed() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry != showing) {
+                iterator.remove();
+                destroy(entry);
+                stats.recordEviction();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(Entry entry) {
+        if (entry == showing) {
+            hide();
+        }
+        entries.remove(entry.url);
+        destroy(entry);
+    }
+
+    private void destroy(Entry entry) {
+        ViewGroup parent = (ViewGroup) entry.view.getParent();
+        if (parent != null) {
+            parent.removeView(entry.view);
+        }
+        entry.view.destroy();
+    }
+
+    private WebView createWebView() {
+        WebView view = new WebView(activity);
+        WebSettings settings = view.getSettings();
+        WebSettings mainSettings = mainWebView.getSettings();
+        settings.setJavaScriptEnabled(true);
+        settings.setDomStorageEnabled(true);
+        settings.setDatabaseEnabled(true);
+        settings.setCacheMode(WebSettings.LOAD_DEFAULT);
+        settings.setUserAgentString(mainSettings.getUserAgentString() + " " + POOLED_UA_MARKER);
+        // Rasterize while invisible so the first frame after bringToFront is ready
+        settings.setOffscreenPreRaster(true);
+        android.webkit.CookieManager.getInstance().setAcceptThirdPartyCookies(view, true);
+        view.setBackgroundColor(0xFF000000);
+        view.setVisibility(View.INVISIBLE);
+        view.setWebViewClient(new PooledClient());
+        if (paused) {
+            view.onPause();
+        }
+
+        ViewGroup parent = (ViewGroup) mainWebView.getParent();
+        parent.addView(view, parent.indexOfChild(mainWebView), mainWebView.getLayoutParams());
+        return view;
+    }
+
+    private Entry entryFor(WebView view) {
+        for (Entry entry : entries.values()) {
+            if (entry.view == view) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keeps in-scope navigation inside the pooled page and sends everything else (app routes,
+     * mailto/tel, old domain) to the main WebView, including client-side pushState navigations.
+     */
+    private final class PooledClient extends WebViewClient {
+        @Override
+        public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
+            return leaveIfOutOfScope(view, request.getUrl().toString());
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean shouldOverrideUrlLoading(WebView view, String url) {
+            return leaveIfOutOfScope(view, url);
+        }
+
+        @Override
+        public void onPageFinished(WebView view, String url) {
+            // In-scope navigation while on screen: the new document is visible from the start
+            Entry entry = entryFor(view);
+            if (entry != null && entry == showing) {
+                view.evaluateJavascript(SHOWN_SCRIPT, null);
+            }
+        }
+
+        @Override
+        public boolean onRenderProcessGone(WebView view, RenderProcessGoneDetail detail) {
+            // Only this page's renderer died (or was reclaimed): drop it, keep the app alive
+            Entry entry = entryFor(view);
+            android.util.Log.w(TAG, "⚠️ Renderer gone for " + (entry != null ? entry.url : "a released page"));
+            if (entry != null) {
+                remove(entry);
+            }
+            return true;
+        }
+
+        @Override
+        public void doUpdateVisitedHistory(WebView view, String url, boolean isReload) {
+            super.doUpdateVisitedHistory(view, url, isReload);
+            if (leaveIfOutOfScope(view, url) && view.canGoBack()) {
+                // Client-side route change (router.push): restore the pooled page for next time
+                view.goBack();
+            }
+        }
+
+        private boolean leaveIfOutOfScope(WebView view, String url) {
+            Entry entry = entryFor(view);
+            if (entry == null || WebViewPoolPolicy.staysInPool(entry.url, url)) {
+                return false;
+            }
+            if (showing == entry) {
+                hide();
+                // Going back to the page behind the pool (e.g. help's back button pushing '/'):
+                // it is still loaded, so showing it again must not reload it
+                if (!WebViewPoolPolicy.returnsToMain(mainWebView.getUrl(), url)) {
+                    listener.onLeavePool(url);
+                }
+            }
+            return true;
+        }
+    }
+}
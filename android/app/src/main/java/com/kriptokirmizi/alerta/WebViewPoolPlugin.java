@@ -0,0 +1,120 @@
+package com.kriptokirmizi.alerta;
+
+import android.os.SystemClock;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page side of {@link WebViewPool}: pre-render likely next content routes, switch to them
+ * without a full page load, and read hit / miss switch latency for comparison.
+ */
+@CapacitorPlugin(name = "WebViewPool")
+public class WebViewPoolPlugin extends Plugin {
+
+    /**
+     * warm({ urls }) -> { queued, capacity } - absolute http(s) URLs, pre-rendered during idle time.
+     */
+    @PluginMethod
+    public void warm(PluginCall call) {
+        JSArray urls = call.getArray("urls");
+        if (urls == null) {
+            call.reject("urls is required");
+            return;
+        }
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < urls.length(); i++) {
+            String url = urls.optString(i, null);
+            if (url != null && url.startsWith("http")) {
+                list.add(url);
+            }
+        }
+        withPool(call, pool -> {
+            JSObject result = new JSObject();
+            result.put("queued", pool.warm(list));
+            result.put("capacity", pool.capacity());
+            call.resolve(result);
+        });
+    }
+
+    /**
+     * show({ url, requestedAt? }) -> { shown } - requestedAt (epoch ms of the tap) is where the
+     * switch latency starts; on { shown: false } the page should navigate normally.
+     */
+    @PluginMethod
+    public void show(PluginCall call) {
+        String url = call.getString("url");
+        if (url == null) {
+            call.reject("url is required");
+            return;
+        }
+        Double requestedAt = call.getDouble("requestedAt");
+        long requestedAtMs = SystemClock.elapsedRealtime()
+                - (requestedAt != null ? Math.max(0, System.currentTimeMillis() - requestedAt.longValue()) : 0);
+        withPool(call, pool -> {
+            JSObject result = new JSObject();
+            result.put("shown", pool.show(url, requestedAtMs));
+            call.resolve(result);
+        });
+    }
+
+    @PluginMethod
+    public void hide(PluginCall call) {
+        withPool(call, pool -> {
+            pool.hide();
+            call.resolve();
+        });
+    }
+
+    /**
+     * setEnabled({ enabled }) - disabling empties the pool (baseline measurements).
+     */
+    @PluginMethod
+    public void setEnabled(PluginCall call) {
+        boolean enabled = call.getBoolean("enabled", true);
+        withPool(call, pool -> {
+            pool.setEnabled(enabled);
+            call.resolve();
+        });
+    }
+
+    /**
+     * getStats() -> { enabled, capacity, deviceCapacity, pooled, showing, warms, hits, misses,
+     * evictions, staleReloads, hitLatency, missLatency }
+     */
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        withPool(call, pool -> {
+            try {
+                JSObject result = new JSObject(pool.switchStats().toJson().toString());
+                for (Map.Entry<String, Object> stat : pool.stats().entrySet()) {
+                    result.put(stat.getKey(), stat.getValue());
+                }
+                call.resolve(result);
+            } catch (Exception e) {
+                call.reject("Error reading pool stats: " + e.getMessage());
+            }
+        });
+    }
+
+    private interface PoolAction {
+        void run(WebViewPool pool);
+    }
+
+    private void withPool(PluginCall call, PoolAction action) {
+        getActivity().runOnUiThread(() -> {
+            WebViewPool pool = getActivity() instanceof MainActivity ? ((MainActivity) getActivity()).getWebViewPool() : null;
+            if (pool == null) {
+                call.reject("WebView pool not available");
+                return;
+            }
+            action.run(pool);
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package com.kriptokirmizi.alerta;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Sizing, eviction and scope rules for {@link WebViewPool} (no Android types).
+ *
+ * Each hidden WebView costs a renderer's worth of memory outside the Java heap, so the pool
+ * is sized from total device RAM rather than the app's heap class: {@link #BUDGET_FRACTION}
+ * of RAM divided by {@link #ESTIMATED_VIEW_MB}, capped at {@link #MAX_VIEWS}, and disabled on
+ * low-RAM devices.
+ */
+final class WebViewPoolPolicy {
+    static final int MAX_VIEWS = 3;
+    /** Rough renderer footprint of one pre-rendered content page */
+    static final int ESTIMATED_VIEW_MB = 80;
+    static final double BUDGET_FRACTION = 0.02;
+    /** Pooled pages older than this are reloaded rather than shown */
+    static final long MAX_AGE_MS = 10 * 60_000L;
+    /** A miss whose main WebView load has not drawn by then was a client-side route change */
+    static final long MAX_MISS_MS = 30_000L;
+
+    // ComponentCallbacks2 trim levels (same values, kept here so this class stays JVM-only)
+    static final int TRIM_RUNNING_MODERATE = 5;
+    static final int TRIM_RUNNING_LOW = 10;
+    static final int TRIM_RUNNING_CRITICAL = 15;
+    static final int TRIM_UI_HIDDEN = 20;
+    static final int TRIM_BACKGROUND = 40;
+
+    private WebViewPoolPolicy() {
+    }
+
+    /**
+     * Pool size for a device: 0 on low-RAM devices and under ~4 GB, then 1 / 2 / 3 views
+     * around 4 / 8 / 12 GB.
+     */
+    static int capacityFor(long totalRamMb, boolean lowRamDevice) {
+        if (lowRamDevice || totalRamMb <= 0) {
+            return 0;
+        }
+        long views = (long) (totalRamMb * BUDGET_FRACTION) / ESTIMATED_VIEW_MB;
+        return (int) Math.max(0, Math.min(MAX_VIEWS, views));
+    }
+
+    /**
+     * Pool size to shrink to for an onTrimMemory level. Going to the background (UI_HIDDEN)
+     * keeps the pool; any pressure beyond that gives memory back.
+     */
+    static int capacityAfterTrim(int level, int current) {
+        if (level == TRIM_UI_HIDDEN) {
+            return current;
+        }
+        if (level >= TRIM_RUNNING_CRITICAL) {
+            return 0;
+        }
+        if (level >= TRIM_RUNNING_LOW) {
+            return Math.min(1, current);
+        }
+        if (level >= TRIM_RUNNING_MODERATE) {
+            return Math.max(0, current - 1);
+        }
+        return current;
+    }
+
+    /**
+     * Whether a navigation inside a pooled page can stay there: same host and under the pooled
+     * page's first path segment (/blog -> /blog/some-post). Anything else is an app route that
+     * needs the bridge, so it goes to the main WebView.
+     */
+    static boolean staysInPool(String pooledUrl, String url) {
+        String pooledHost = host(pooledUrl);
+        if (pooledHost == null || !pooledHost.equals(host(url))) {
+            return false;
+        }
+        String scope = firstSegment(pooledUrl);
+        return !scope.isEmpty() && scope.equals(firstSegment(url));
+    }
+
+    /**
+     * Whether a pooled page leaving for {@code url} is just going back to what the main WebView
+     * already shows ({@code mainUrl}, same host and path): hide the pool instead of reloading it.
+     */
+    static boolean returnsToMain(String mainUrl, String url) {
+        String mainHost = host(mainUrl);
+        return mainHost != null && mainHost.equals(host(url)) && path(mainUrl).equals(path(url));
+    }
+
+    static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+        int scheme = url.indexOf("://");
+        if (scheme < 0 || !url.startsWith("http")) {
+            return null;
+        }
+        int start = scheme + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    private static String path(String url) {
+        int scheme = url.indexOf("://");
+        int start = scheme + 3;
+        while (start < url.length() && "/?#".indexOf(url.charAt(start)) < 0) {
+            start++;
+        }
+        int end = start;
+        while (end < url.length() && "?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        String path = url.substring(start, end);
+        return path.isEmpty() ? "/" : path;
+    }
+
+    private static String firstSegment(String url) {
+        int scheme = url.indexOf("://");
+        int path = url.indexOf('/', scheme + 3);
+        if (path < 0) {
+            return "";
+        }
+        int end = path + 1;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(path + 1, end);
+    }
+
+    /**
+     * Hit / miss counters and switch latency. A hit is measured from the show request to the
+     * pooled page's first frame after becoming visible; a miss from the request to the main
+     * WebView's first frame of the same route (the full navigation the pool replaces).
+     */
+    static final class Stats {
+        final NavigationStats.Histogram hitLatency = new NavigationStats.Histogram();
+        final NavigationStats.Histogram missLatency = new NavigationStats.Histogram();
+        int warms = 0;
+        int hits = 0;
+        int misses = 0;
+        int evictions = 0;
+        int staleReloads = 0;
+
+        synchronized void recordHit(long ms) {
+            hits++;
+            hitLatency.record(ms);
+        }
+
+        synchronized void recordMiss() {
+            misses++;
+        }
+
+        synchronized void recordMissLatency(long ms) {
+            missLatency.record(ms);
+        }
+
+        synchronized void recordWarm() {
+            warms++;
+        }
+
+        synchronized void recordEviction() {
+            evictions++;
+        }
+
+        synchronized void recordStaleReload() {
+            staleReloads++;
+        }
+
+        synchronized JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("warms", warms);
+            json.put("hits", hits);
+            json.put("misses", misses);
+            json.put("evictions", evictions);
+            json.put("staleReloads", staleReloads);
+            json.put("hitLatency", hitLatency.toJson());
+            json.put("missLatency", missLatency.toJson());
+            return json;
+        }
+    }
+}
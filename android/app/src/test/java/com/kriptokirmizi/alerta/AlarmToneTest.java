@@ -0,0 +1,68 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class AlarmToneTest {
+
+    @Test
+    public void writesPcmWavHeader() {
+        byte[] wav = AlarmTone.wav();
+        ByteBuffer header = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals("RIFF", new String(wav, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("WAVE", new String(wav, 8, 4, StandardCharsets.US_ASCII));
+        assertEquals(wav.length - 8, header.getInt(4));
+        assertEquals(1, header.getShort(20)); // PCM
+        assertEquals(1, header.getShort(22)); // mono
+        assertEquals(AlarmTone.SAMPLE_RATE, header.getInt(24));
+        assertEquals(16, header.getShort(34));
+        assertEquals(wav.length - 44, header.getInt(40));
+    }
+
+    @Test
+    public void clipIsExactlyOneLoopCycle() {
+        int samples = (AlarmTone.wav().length - 44) / 2;
+        assertEquals(AlarmTone.SAMPLE_RATE * AlarmTone.CLIP_MS / 1000, samples);
+    }
+
+    @Test
+    public void beepsAreAudibleAndGapsAreSilent() {
+        short[] pcm = samples(AlarmTone.wav());
+        for (double[] beep : AlarmTone.BEEPS) {
+            double start = beep[1];
+            assertTrue("beep at " + start + "s", peak(pcm, start + 0.02, start + 0.06) > 0.2 * Short.MAX_VALUE);
+        }
+        // Gap between the first two beeps, and the padding before the loop restarts
+        assertEquals(0, peak(pcm, 0.21, 0.24), 0);
+        assertEquals(0, peak(pcm, 2.71, 2.99), 0);
+    }
+
+    @Test
+    public void envelopeRampsUpThenDecaysToOnePercent() {
+        assertEquals(0, AlarmTone.envelope(0, 0.2), 1e-9);
+        assertEquals(0.3, AlarmTone.envelope(0.01, 0.2), 1e-9);
+        assertEquals(0.01, AlarmTone.envelope(0.2, 0.2), 1e-9);
+    }
+
+    private static short[] samples(byte[] wav) {
+        ByteBuffer data = ByteBuffer.wrap(wav, 44, wav.length - 44).order(ByteOrder.LITTLE_ENDIAN);
+        short[] pcm = new short[(wav.length - 44) / 2];
+        data.asShortBuffer().get(pcm);
+        return pcm;
+    }
+
+    private static double peak(short[] pcm, double fromS, double toS) {
+        int from = (int) (fromS * AlarmTone.SAMPLE_RATE);
+        int to = (int) (toS * AlarmTone.SAMPLE_RATE);
+        int max = 0;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, Math.abs(pcm[i]));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,122 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class AlertEvaluatorTest {
+
+    private static Map<String, Double> prices(Object... keyValues) {
+        Map<String, Double> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], ((Number) keyValues[i + 1]).doubleValue());
+        }
+        return map;
+    }
+
+    @Test
+    public void firstObservationOnlyRecordsPrice() {
+        List<AlertEvaluator.LocalAlert> alerts = Arrays.asList(
+                new AlertEvaluator.LocalAlert("a", "BINANCE", "btcusdt", 100, true));
+        Map<String, Double> previous = new HashMap<>();
+
+        assertTrue(AlertEvaluator.evaluate(alerts, previous, prices("spot:BTCUSDT", 150)).isEmpty());
+        assertEquals(150.0, previous.get("spot:BTCUSDT"), 0);
+    }
+
+    @Test
+    public void firesOnlyWhenLevelIsCrossed() {
+        AlertEvaluator.LocalAlert above = new AlertEvaluator.LocalAlert("up", "BINANCE", "BTCUSDT", 100, true);
+        AlertEvaluator.LocalAlert below = new AlertEvaluator.LocalAlert("down", "BINANCE", "BTCUSDT", 90, false);
+        List<AlertEvaluator.LocalAlert> alerts = Arrays.asList(above, below);
+        Map<String, Double> previous = prices("spot:BTCUSDT", 95);
+
+        // Staying between the levels fires nothing
+        assertTrue(AlertEvaluator.evaluate(alerts, previous, prices("spot:BTCUSDT", 97)).isEmpty());
+        // Reaching the level exactly counts as crossing
+        assertEquals(Arrays.asList(above), AlertEvaluator.evaluate(alerts, previous, prices("spot:BTCUSDT", 100)));
+        // Already above: no second hit
+        assertTrue(AlertEvaluator.evaluate(Arrays.asList(above), previous, prices("spot:BTCUSDT", 120)).isEmpty());
+        assertEquals(Arrays.asList(below), AlertEvaluator.evaluate(alerts, previous, prices("spot:BTCUSDT", 80)));
+    }
+
+    @Test
+    public void spotAndFuturesPricesAreKeptApart() {
+        AlertEvaluator.LocalAlert futures = new AlertEvaluator.LocalAlert("f", "BINANCE_FUTURES", "ETHUSDT", 2000, true);
+        Map<String, Double> previous = prices("futures:ETHUSDT", 1990, "spot:ETHUSDT", 1990);
+
+        assertTrue(AlertEvaluator.evaluate(Arrays.asList(futures), previous,
+                prices("spot:ETHUSDT", 2010)).isEmpty());
+        assertEquals(1, AlertEvaluator.evaluate(Arrays.asList(futures), previous,
+                prices("futures:ETHUSDT", 2005)).size());
+    }
+
+    @Test
+    public void groupsSymbolsIntoOneRequestPerMarket() {
+        Map<String, Set<String>> groups = AlertEvaluator.symbolsByMarket(Arrays.asList(
+                new AlertEvaluator.LocalAlert("1", "BINANCE", "BTCUSDT", 1, true),
+                new AlertEvaluator.LocalAlert("2", "BINANCE", "BTCUSDT", 2, false),
+                new AlertEvaluator.LocalAlert("3", "BINANCE", "ETHUSDT", 3, true),
+                new AlertEvaluator.LocalAlert("4", "BINANCE_FUTURES", "SOLUSDT", 4, true)));
+
+        assertEquals(2, groups.size());
+        assertEquals(2, groups.get("spot").size());
+        assertTrue(groups.get("futures").contains("SOLUSDT"));
+    }
+
+    @Test
+    public void parseSkipsTriggeredAndInvalidAlerts() throws Exception {
+        JSONArray json = new JSONArray("["
+                + "{\"id\":\"a\",\"exchange\":\"BINANCE\",\"pair\":\"BTCUSDT\",\"price\":100,\"direction\":\"below\"},"
+                + "{\"id\":\"b\",\"exchange\":\"BINANCE\",\"pair\":\"BTCUSDT\",\"price\":100,\"direction\":\"above\",\"isTriggered\":true},"
+                + "{\"id\":\"c\",\"exchange\":\"BINANCE\",\"pair\":\"BTCUSDT\"},"
+                + "{\"exchange\":\"BINANCE\",\"pair\":\"BTCUSDT\",\"price\":5}"
+                + "]");
+
+        List<AlertEvaluator.LocalAlert> alerts = AlertEvaluator.parse(json);
+        assertEquals(1, alerts.size());
+        assertEquals("a", alerts.get(0).id);
+        assertFalse(alerts.get(0).above);
+    }
+
+    @Test
+    public void readTickerKeysPricesByMarket() throws Exception {
+        Map<String, Double> out = new HashMap<>();
+        int read = AlertEvaluator.readTicker("futures",
+                "{\"data\":[{\"symbol\":\"BTCUSDT\",\"lastPrice\":\"65000.5\"},{\"symbol\":\"ETHUSDT\"}]}", out);
+
+        assertEquals(1, read);
+        assertEquals(65000.5, out.get("futures:BTCUSDT"), 0);
+    }
+
+    @Test
+    public void pricesOlderThanTheMaxAgeAreNotPreviousObservations() throws Exception {
+        JSONObject observed = new JSONObject().put("spot:ETHUSDT", 1990);
+        AlertEvaluator.recordPrices(observed, prices("spot:BTCUSDT", 95), 1_000);
+
+        assertEquals(95.0, AlertEvaluator.freshPrices(observed, 2_000, 1_000).get("spot:BTCUSDT"), 0);
+        assertTrue(AlertEvaluator.freshPrices(observed, 2_001, 1_000).isEmpty());
+        // Untimed entries (older format) are stale
+        assertFalse(AlertEvaluator.freshPrices(observed, 1_000, 1_000).containsKey("spot:ETHUSDT"));
+    }
+
+    @Test
+    public void changedKeysNamesSymbolsWhoseAlertsWereAddedEditedOrRemoved() {
+        AlertEvaluator.LocalAlert btc = new AlertEvaluator.LocalAlert("a", "BINANCE", "BTCUSDT", 100, true);
+        AlertEvaluator.LocalAlert eth = new AlertEvaluator.LocalAlert("b", "BINANCE", "ETHUSDT", 2000, true);
+        AlertEvaluator.LocalAlert sol = new AlertEvaluator.LocalAlert("c", "BINANCE_FUTURES", "SOLUSDT", 150, false);
+        AlertEvaluator.LocalAlert ethMoved = new AlertEvaluator.LocalAlert("b", "BINANCE", "ETHUSDT", 2100, true);
+        AlertEvaluator.LocalAlert doge = new AlertEvaluator.LocalAlert("d", "BINANCE", "DOGEUSDT", 1, true);
+
+        Set<String> changed = AlertEvaluator.changedKeys(Arrays.asList(btc, eth, sol), Arrays.asList(btc, ethMoved, doge));
+
+        assertEquals(new java.util.HashSet<>(Arrays.asList("spot:ETHUSDT", "futures:SOLUSDT", "spot:DOGEUSDT")), changed);
+    }
+}
@@ -0,0 +1,199 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * AlertStore (in-memory SQLite) and AlertSyncer against a local MockWebServer.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class AlertStoreTest {
+
+    private AlertStore store;
+    private MockWebServer server;
+    private AlertSyncer syncer;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new AlertStore(RuntimeEnvironment.getApplication(), null);
+        server = new MockWebServer();
+        server.start();
+        syncer = new AlertSyncer(new OkHttpClient(), server.url("/").toString(), url -> "accessToken=abc", store);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        store.close();
+    }
+
+    @Test
+    public void queriesBySymbolAndStatusWithPagination() throws Exception {
+        JSONArray alerts = new JSONArray();
+        for (int i = 1; i <= 120; i++) {
+            alerts.put(alert(i, i % 2 == 0 ? "btcusdt" : "ETHUSDT", i % 3 != 0, String.format("2026-01-01T00:%02d:%02dZ", i / 60, i % 60)));
+        }
+        store.applySync(AlertStore.KIND_PRICE, alerts, null, true, null, null, 1);
+
+        AlertStore.Page btc = store.query(AlertStore.KIND_PRICE, null, "BTCUSDT", null, 500, 0);
+        assertEquals(60, btc.total);
+
+        AlertStore.Page activeEth = store.query(AlertStore.KIND_PRICE, null, "ethusdt", "active", 500, 0);
+        assertEquals(40, activeEth.total);
+
+        AlertStore.Page first = store.query(AlertStore.KIND_PRICE, null, null, null, 50, 0);
+        AlertStore.Page last = store.query(AlertStore.KIND_PRICE, null, null, null, 50, 100);
+        assertEquals(120, first.total);
+        assertEquals(50, first.alerts.size());
+        assertEquals(20, last.alerts.size());
+        // Newest first
+        assertEquals(120, new JSONObject(first.alerts.get(0)).getInt("id"));
+        assertEquals(1, new JSONObject(last.alerts.get(19)).getInt("id"));
+    }
+
+    @Test
+    public void fullSnapshotOnlyRewritesChangedRowsAndDropsMissingOnes() {
+        JSONArray v1 = new JSONArray().put(alert(1, "BTCUSDT", true, "a")).put(alert(2, "ETHUSDT", true, "b"))
+                .put(alert(3, "SOLUSDT", true, "c"));
+        store.applySync(AlertStore.KIND_PRICE, v1, null, true, null, null, 1);
+
+        JSONArray v2 = new JSONArray().put(alert(1, "BTCUSDT", true, "a")).put(alert(2, "ETHUSDT", false, "b"));
+        AlertStore.ApplyResult result = store.applySync(AlertStore.KIND_PRICE, v2, null, true, null, null, 2);
+
+        assertEquals(1, result.upserted);
+        assertEquals(1, result.deleted);
+        assertEquals(1, result.unchanged);
+        assertEquals(1, store.query(AlertStore.KIND_PRICE, null, null, "inactive", 10, 0).total);
+        assertEquals(0, store.query(AlertStore.KIND_PRICE, null, "SOLUSDT", null, 10, 0).total);
+    }
+
+    @Test
+    public void syncSendsCursorAndEtagAndAppliesDeltas() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(new JSONObject()
+                .put("alerts", new JSONArray().put(alert(1, "BTCUSDT", true, "a")).put(alert(2, "ETHUSDT", true, "b")))
+                .put("cursor", "100").toString()));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody(new JSONObject()
+                .put("alerts", new JSONArray().put(alert(3, "SOLUSDT", true, "c")))
+                .put("deleted", new JSONArray().put("1"))
+                .put("cursor", "105").toString()));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        AlertSyncer.Result first = syncer.sync(AlertStore.KIND_PRICE, "device-1", null);
+        assertTrue(first.full);
+        assertEquals(2, first.upserted);
+
+        AlertSyncer.Result second = syncer.sync(AlertStore.KIND_PRICE, "device-1", null);
+        assertFalse(second.full);
+        assertEquals(1, second.upserted);
+        assertEquals(1, second.deleted);
+
+        AlertSyncer.Result third = syncer.sync(AlertStore.KIND_PRICE, "device-1", null);
+        assertTrue(third.notModified);
+        assertEquals(0, third.bytes);
+
+        RecordedRequest r1 = server.takeRequest(1, TimeUnit.SECONDS);
+        RecordedRequest r2 = server.takeRequest(1, TimeUnit.SECONDS);
+        RecordedRequest r3 = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("/api/alerts/price?deviceId=device-1", r1.getPath());
+        assertNull(r1.getHeader("If-None-Match"));
+        assertEquals("accessToken=abc", r1.getHeader("Cookie"));
+        assertEquals("/api/alerts/price?deviceId=device-1&since=100", r2.getPath());
+        assertEquals("\"v1\"", r2.getHeader("If-None-Match"));
+        assertEquals("/api/alerts/price?deviceId=device-1&since=105", r3.getPath());
+        assertEquals("\"v2\"", r3.getHeader("If-None-Match"));
+
+        AlertStore.Page page = store.query(AlertStore.KIND_PRICE, null, null, null, 10, 0);
+        assertEquals(2, page.total);
+        assertEquals("105", store.getSyncState(AlertStore.KIND_PRICE).cursor);
+    }
+
+    @Test
+    public void responseWithoutCursorIsTreatedAsFullList() throws Exception {
+        store.applySync(AlertStore.KIND_CUSTOM, new JSONArray().put(alert(7, "BTCUSDT", true, "a")), null, false,
+                "50", null, 1);
+        server.enqueue(new MockResponse().setBody(new JSONObject()
+                .put("alerts", new JSONArray().put(alert(8, "ETHUSDT", true, "b"))).toString()));
+
+        AlertSyncer.Result result = syncer.sync(AlertStore.KIND_CUSTOM, "device-1", "guest@example.com");
+
+        assertTrue(result.full);
+        assertEquals(1, result.deleted);
+        assertNull(store.getSyncState(AlertStore.KIND_CUSTOM).cursor);
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("/api/alerts/custom?deviceId=device-1&userEmail=guest%40example.com&since=50", request.getPath());
+    }
+
+    @Test
+    public void unauthorizedClearsLocalCopy() throws Exception {
+        store.applySync(AlertStore.KIND_PRICE, new JSONArray().put(alert(1, "BTCUSDT", true, "a")), null, true,
+                "10", "\"e\"", 1);
+        server.enqueue(new MockResponse().setResponseCode(403).setBody("{\"error\":\"premium required\"}"));
+
+        AlertSyncer.Result result = syncer.sync(AlertStore.KIND_PRICE, "device-1", null);
+
+        assertEquals(403, result.status);
+        assertEquals(0, store.query(AlertStore.KIND_PRICE, null, null, null, 10, 0).total);
+        assertNull(store.getSyncState(AlertStore.KIND_PRICE).cursor);
+    }
+
+    @Test
+    public void anotherOwnerStartsFromAnEmptyStore() {
+        assertFalse(store.switchOwner("a@example.com"));
+        store.applySync(AlertStore.KIND_PRICE, new JSONArray().put(alert(1, "BTCUSDT", true, "a")), null, true,
+                "10", "\"e\"", 1);
+
+        assertFalse(store.switchOwner("a@example.com"));
+        assertEquals(1, store.query(AlertStore.KIND_PRICE, null, null, null, 10, 0).total);
+
+        assertTrue(store.switchOwner("b@example.com"));
+        assertEquals(0, store.query(AlertStore.KIND_PRICE, null, null, null, 10, 0).total);
+        assertNull(store.getSyncState(AlertStore.KIND_PRICE).cursor);
+        assertNull(store.getSyncState(AlertStore.KIND_PRICE).etag);
+    }
+
+    @Test
+    public void customAlertsAreFilteredByType() {
+        JSONObject volume = alert(1, "BTCUSDT", true, "a");
+        JSONObject percentage = alert(2, "BTCUSDT", true, "b");
+        try {
+            volume.put("alert_type", "volume_spike");
+            percentage.put("alert_type", "percentage_change");
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        store.put(AlertStore.KIND_CUSTOM, volume);
+        store.put(AlertStore.KIND_CUSTOM, percentage);
+
+        assertEquals(1, store.query(AlertStore.KIND_CUSTOM, "volume_spike", null, null, 10, 0).total);
+        assertTrue(store.remove(AlertStore.KIND_CUSTOM, "2"));
+        assertEquals(0, store.query(AlertStore.KIND_CUSTOM, "percentage_change", null, null, 10, 0).total);
+    }
+
+    private static JSONObject alert(int id, String symbol, boolean active, String createdAt) {
+        try {
+            return new JSONObject()
+                    .put("id", id)
+                    .put("symbol", symbol)
+                    .put("target_price", 100 + id)
+                    .put("is_active", active)
+                    .put("created_at", createdAt);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
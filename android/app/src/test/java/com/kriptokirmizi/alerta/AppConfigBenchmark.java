@@ -0,0 +1,38 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * capacitor.config.json parsing (once per process at startup, on the critical path).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AppConfigBenchmark {
+
+    // Shape of the generated android/app/src/main/assets/capacitor.config.json
+    static final String CONFIG_JSON = "{"
+            + "\"appId\":\"com.kriptokirmizi.alerta\",\"appName\":\"Alerta Chart\",\"webDir\":\"public\","
+            + "\"server\":{\"url\":\"https://www.alertachart.com\",\"cleartext\":false,"
+            + "\"androidScheme\":\"https\",\"iosScheme\":\"https\"},"
+            + "\"plugins\":{"
+            + "\"GoogleAuth\":{\"scopes\":[\"profile\",\"email\"],"
+            + "\"serverClientId\":\"776781271347-ergb3kc3djjen47loq61icptau51rk4m.apps.googleusercontent.com\","
+            + "\"clientId\":\"776781271347-fgnaoenplt1lnnmjivcagc013fa01ch1.apps.googleusercontent.com\","
+            + "\"forceCodeForRefreshToken\":true},"
+            + "\"WebViewController\":{\"allowBackForwardNavigationGestures\":false},"
+            + "\"InAppPurchase\":{},"
+            + "\"StartupPrefetch\":{\"endpoints\":[\"/api/auth/session\",\"/api/user/plan\"]}"
+            + "}}";
+
+    @Benchmark
+    public AppConfig parse() {
+        return AppConfig.parse(CONFIG_JSON);
+    }
+}
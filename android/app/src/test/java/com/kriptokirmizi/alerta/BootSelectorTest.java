@@ -0,0 +1,123 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class BootSelectorTest {
+    private static final long T0 = 10_000L;
+
+    @Test
+    public void offlineLaunchShowsShellImmediately() throws Exception {
+        BootSelector selector = new BootSelector(T0, 1500);
+        assertEquals(BootSelector.Action.SHOW_SHELL, selector.onStart(false, T0));
+        assertTrue(selector.isShowingShell());
+
+        selector.onShellPainted(T0 + 40);
+        JSONObject report = selector.toReport(300);
+        assertEquals("offline", report.getString("reason"));
+        assertEquals("shell", report.getString("firstMeaningfulPaintSource"));
+        assertEquals(40, report.getLong("firstMeaningfulPaintMs"));
+        assertEquals(340, report.getLong("firstMeaningfulPaintFromProcessStartMs"));
+    }
+
+    @Test
+    public void fastRemoteNeverShowsShell() throws Exception {
+        BootSelector selector = new BootSelector(T0, 1500);
+        assertEquals(BootSelector.Action.NONE, selector.onStart(true, T0));
+        assertEquals(BootSelector.Action.NONE, selector.onProbeResult(true, T0 + 120));
+        selector.onRemotePainted(T0 + 900);
+        assertEquals(BootSelector.Action.NONE, selector.onBudgetElapsed(T0 + 1500));
+
+        assertEquals(BootSelector.Mode.REMOTE, selector.getMode());
+        JSONObject report = selector.toReport(-1);
+        assertEquals("remote", report.getString("reason"));
+        assertEquals(120, report.getLong("probeMs"));
+        assertEquals(900, report.getLong("firstMeaningfulPaintMs"));
+        assertEquals(-1, report.getLong("firstMeaningfulPaintFromProcessStartMs"));
+        assertEquals(-1, report.getLong("shellShownMs"));
+    }
+
+    @Test
+    public void unreachableProbeShowsShellBeforeBudget() {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(true, T0);
+        assertEquals(BootSelector.Action.SHOW_SHELL, selector.onProbeResult(false, T0 + 300));
+        // Budget timer firing later must not reload the shell
+        assertEquals(BootSelector.Action.NONE, selector.onBudgetElapsed(T0 + 1500));
+    }
+
+    @Test
+    public void budgetWithoutProbeAnswerShowsShell() throws Exception {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(true, T0);
+        assertEquals(BootSelector.Action.SHOW_SHELL, selector.onBudgetElapsed(T0 + 1500));
+        assertEquals("slow-network", selector.toReport(-1).getString("reason"));
+    }
+
+    @Test
+    public void confirmedServerKeepsWaitingForSlowPage() throws Exception {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(true, T0);
+        selector.onProbeResult(true, T0 + 200);
+        assertEquals(BootSelector.Action.NONE, selector.onBudgetElapsed(T0 + 1500));
+        assertFalse(selector.isShowingShell());
+        selector.onRemotePainted(T0 + 2400);
+        assertEquals("remote-slow", selector.toReport(-1).getString("reason"));
+    }
+
+    @Test
+    public void shellSwapsToRemoteWhenReachableAgain() throws Exception {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(false, T0);
+        selector.onShellPainted(T0 + 50);
+        assertEquals(BootSelector.Action.NONE, selector.onProbeResult(false, T0 + 2000));
+        assertEquals(BootSelector.Action.LOAD_REMOTE, selector.onProbeResult(true, T0 + 6000));
+        selector.onRemotePainted(T0 + 7000);
+
+        JSONObject report = selector.toReport(-1);
+        assertEquals("remote", report.getString("mode"));
+        assertEquals(2, report.getInt("probes"));
+        assertEquals(6000, report.getLong("remoteSwapMs"));
+        assertEquals(7000, report.getLong("remotePaintMs"));
+        // First meaningful paint stays the shell
+        assertEquals(50, report.getLong("firstMeaningfulPaintMs"));
+    }
+
+    @Test
+    public void lateRemoteCommitAfterShellIsIgnored() {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(true, T0);
+        selector.onBudgetElapsed(T0 + 1500);
+        selector.onRemotePainted(T0 + 1600);
+        assertTrue(selector.isShowingShell());
+    }
+
+    @Test
+    public void remoteErrorFallsBackToShell() {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(true, T0);
+        selector.onProbeResult(true, T0 + 100);
+        assertEquals(BootSelector.Action.SHOW_SHELL, selector.onRemoteError(T0 + 400));
+        assertEquals(BootSelector.Action.NONE, selector.onRemoteError(T0 + 500));
+    }
+
+    @Test
+    public void remoteErrorAfterFirstPaintKeepsTheRemotePage() {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(true, T0);
+        selector.onProbeResult(true, T0 + 100);
+        selector.onRemotePainted(T0 + 600);
+        assertEquals(BootSelector.Action.NONE, selector.onRemoteError(T0 + 60_000));
+        assertEquals(BootSelector.Mode.REMOTE, selector.getMode());
+    }
+
+    @Test
+    public void failedSwapFromShellFallsBackToShellAgain() {
+        BootSelector selector = new BootSelector(T0, 1500);
+        selector.onStart(false, T0);
+        assertEquals(BootSelector.Action.LOAD_REMOTE, selector.onProbeResult(true, T0 + 2000));
+        assertEquals(BootSelector.Action.SHOW_SHELL, selector.onRemoteError(T0 + 2300));
+    }
+}
@@ -0,0 +1,180 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+public class BridgeBatchTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static BridgeBatch.Command command(String plugin, String method, int... dependsOn) {
+        return new BridgeBatch.Command(plugin, method, null, dependsOn);
+    }
+
+    private static JSONObject number(int n) {
+        try {
+            return new JSONObject().put("n", n);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void planChainsSamePluginAndAddsDependsOn() {
+        int[][] plan = BridgeBatch.plan(Arrays.asList(
+                command("InAppPurchase", "logDebug"),
+                command("NativeSession", "getSession"),
+                command("InAppPurchase", "logDebug"),
+                command("PriceCache", "getSnapshot", 1)));
+
+        assertEquals(0, plan[0].length);
+        assertEquals(0, plan[1].length);
+        assertArrayEquals(new int[] {0}, plan[2]);
+        assertArrayEquals(new int[] {1}, plan[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsForwardDependencies() {
+        BridgeBatch.plan(Arrays.asList(command("A", "x", 1), command("B", "y")));
+    }
+
+    @Test
+    public void samePluginCommandsRunInOrderAndResultsKeepInputOrder() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        List<BridgeBatch.Command> commands = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            commands.add(new BridgeBatch.Command("Log", "write", new JSONObject().put("n", i), null));
+        }
+
+        BridgeBatch.Result[] results = new BridgeBatch(commands).run((command, callback) -> {
+            calls.add(command.args.optString("n"));
+            callback.onResult(true, number(command.args.optInt("n")), null);
+        }, executor, 5_000);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(String.valueOf(i), calls.get(i));
+            assertTrue(results[i].ok);
+            assertEquals(i, results[i].data.getInt("n"));
+        }
+    }
+
+    @Test
+    public void independentCommandsRunInParallel() throws Exception {
+        // Each command only finishes once the other one has started
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        BridgeBatch.Result[] results = new BridgeBatch(Arrays.asList(command("A", "x"), command("B", "y")))
+                .run((command, callback) -> {
+                    bothStarted.countDown();
+                    try {
+                        boolean parallel = bothStarted.await(2, TimeUnit.SECONDS);
+                        callback.onResult(parallel, null, parallel ? null : "ran alone");
+                    } catch (InterruptedException e) {
+                        callback.onResult(false, null, "interrupted");
+                    }
+                }, executor, 5_000);
+
+        assertTrue(results[0].ok);
+        assertTrue(results[1].ok);
+    }
+
+    @Test
+    public void failedDependencySkipsDependentsButNotSamePluginSuccessors() throws Exception {
+        List<BridgeBatch.Command> commands = Arrays.asList(
+                command("Auth", "refresh"),
+                command("Auth", "log"),
+                command("Store", "load", 0),
+                command("Store", "render", 2),
+                command("Other", "ping"));
+
+        BridgeBatch.Result[] results = new BridgeBatch(commands).run((command, callback) ->
+                callback.onResult(!command.method.equals("refresh"), null,
+                        command.method.equals("refresh") ? "401" : null), executor, 5_000);
+
+        assertFalse(results[0].ok);
+        assertEquals("401", results[0].error);
+        assertTrue(results[1].ok);
+        assertEquals(BridgeBatch.ERROR_SKIPPED, results[2].error);
+        assertEquals(BridgeBatch.ERROR_SKIPPED, results[3].error);
+        assertTrue(results[4].ok);
+    }
+
+    @Test
+    public void unansweredCommandsTimeOut() throws Exception {
+        BridgeBatch.Result[] results = new BridgeBatch(Arrays.asList(command("A", "hang"), command("B", "ok")))
+                .run((command, callback) -> {
+                    if (command.method.equals("ok")) {
+                        callback.onResult(true, null, null);
+                    }
+                }, executor, 200);
+
+        assertFalse(results[0].ok);
+        assertEquals(BridgeBatch.ERROR_TIMEOUT, results[0].error);
+        assertTrue(results[1].ok);
+    }
+
+    @Test
+    public void resultsAreReportedAsTheyFinish() throws Exception {
+        CountDownLatch fastReported = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        BridgeBatch batch = new BridgeBatch(Arrays.asList(command("Slow", "wait"), command("Fast", "ok")));
+        batch.start((command, callback) -> {
+            if (command.method.equals("wait")) {
+                // Only answers once the independent command has been reported
+                executor.execute(() -> {
+                    try {
+                        callback.onResult(fastReported.await(2, TimeUnit.SECONDS), null, null);
+                    } catch (InterruptedException e) {
+                        callback.onResult(false, null, "interrupted");
+                    }
+                });
+            } else {
+                callback.onResult(true, null, null);
+            }
+        }, executor, new BridgeBatch.Listener() {
+            @Override
+            public void onResult(int index, BridgeBatch.Result result) {
+                order.add(index);
+                if (index == 1) {
+                    fastReported.countDown();
+                }
+            }
+
+            @Override
+            public void onFinished(BridgeBatch.Result[] results) {
+                finished.countDown();
+            }
+        });
+
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 0), order);
+        batch.expire();
+        assertEquals(2, order.size());
+    }
+
+    @Test
+    public void throwingInvokerReportsError() throws Exception {
+        BridgeBatch.Result[] results = new BridgeBatch(Collections.singletonList(command("A", "boom")))
+                .run((command, callback) -> {
+                    throw new IllegalStateException("boom");
+                }, executor, 5_000);
+
+        assertFalse(results[0].ok);
+        assertEquals("boom", results[0].error);
+    }
+}
@@ -0,0 +1,251 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Startup-sequence bridge cost: individual plugin calls vs one {@link BridgeBatch}.
+ *
+ * Models the Capacitor bridge on the host JVM: a call is serialized to JSON on the "JS"
+ * thread, hops to the single plugin thread, is parsed and answered, and the answer is
+ * serialized and hops back. The WebView's own evaluateJavascript cost is not modelled, so
+ * on a device the gap is larger than reported here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BridgeRoundTripBenchmark {
+
+    // The page's startup calls: session, boot report, cached prices, purchase logging, network
+    private static final String[][] STARTUP = {
+        {"NativeSession", "getSession"},
+        {"Boot", "getReport"},
+        {"PriceCache", "getSnapshot"},
+        {"InAppPurchase", "logDebug"},
+        {"InAppPurchase", "logDebug"},
+        {"InAppPurchase", "logDebug"},
+        {"NetworkMonitor", "getStatus"},
+        {"StartupPrefetch", "getStats"},
+    };
+
+    private ExecutorService jsThread;
+    private ExecutorService pluginThread;
+    private final AtomicInteger callbackIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsThread = Executors.newSingleThreadExecutor();
+        pluginThread = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jsThread.shutdownNow();
+        pluginThread.shutdownNow();
+    }
+
+    /** `await` on every call, the way most of the page's startup code is written. */
+    @Benchmark
+    public int startupAwaitedOneByOne() throws Exception {
+        int answered = 0;
+        for (String[] call : STARTUP) {
+            CountDownLatch done = new CountDownLatch(1);
+            roundTrip(call[0], call[1], done);
+            done.await();
+            answered++;
+        }
+        return answered;
+    }
+
+    /** All calls fired at once, each still its own bridge message. */
+    @Benchmark
+    public int startupFiredConcurrently() throws Exception {
+        CountDownLatch done = new CountDownLatch(STARTUP.length);
+        for (String[] call : STARTUP) {
+            roundTrip(call[0], call[1], done);
+        }
+        done.await();
+        return STARTUP.length;
+    }
+
+    /** One batch message, one answer: what bridgeBatchService.call() sends by default. */
+    @Benchmark
+    public int startupBatched() throws Exception {
+        return batchRoundTrip(null);
+    }
+
+    /** One batch message, then one event per result before the answer ({ stream: true }). */
+    @Benchmark
+    public int startupBatchedStreamed() throws Exception {
+        return batchRoundTrip(String.valueOf(callbackIds.incrementAndGet()));
+    }
+
+    /**
+     * The plugin's path: parse on the plugin thread, BridgeBatch.start() dispatches through
+     * the same single thread (Bridge.execute) and returns without blocking it.
+     */
+    private int batchRoundTrip(String batchId) throws Exception {
+        CountDownLatch done = new CountDownLatch(batchId != null ? STARTUP.length + 1 : 1);
+        AtomicInteger answered = new AtomicInteger();
+        jsThread.execute(() -> {
+            String message = batchMessage(batchId);
+            pluginThread.execute(() -> {
+                try {
+                    JSONArray commandsJson = new JSONObject(message).getJSONObject("options").getJSONArray("commands");
+                    List<BridgeBatch.Command> commands = new ArrayList<>();
+                    for (int i = 0; i < commandsJson.length(); i++) {
+                        JSONObject json = commandsJson.getJSONObject(i);
+                        commands.add(new BridgeBatch.Command(json.getString("plugin"), json.getString("method"),
+                                json.optJSONObject("args"), null));
+                    }
+                    new BridgeBatch(commands).start(
+                            (command, callback) -> callback.onResult(true, answer(command.method), null),
+                            pluginThread, new BridgeBatch.Listener() {
+                                @Override
+                                public void onResult(int index, BridgeBatch.Result result) {
+                                    if (batchId == null) {
+                                        return;
+                                    }
+                                    JSONObject event = toJson(result);
+                                    put(event, "batchId", batchId);
+                                    put(event, "index", index);
+                                    String json = event.toString();
+                                    jsThread.execute(() -> {
+                                        parse(json);
+                                        answered.incrementAndGet();
+                                        done.countDown();
+                                    });
+                                }
+
+                                @Override
+                                public void onFinished(BridgeBatch.Result[] results) {
+                                    JSONObject response = new JSONObject();
+                                    if (batchId == null) {
+                                        JSONArray out = new JSONArray();
+                                        for (BridgeBatch.Result result : results) {
+                                            out.put(toJson(result));
+                                        }
+                                        put(response, "results", out);
+                                    }
+                                    String json = response.toString();
+                                    jsThread.execute(() -> {
+                                        JSONArray out = parse(json).optJSONArray("results");
+                                        if (out != null) {
+                                            answered.addAndGet(out.length());
+                                        }
+                                        done.countDown();
+                                    });
+                                }
+                            });
+                } catch (Exception e) {
+                    while (done.getCount() > 0) {
+                        done.countDown();
+                    }
+                }
+            });
+        });
+        done.await();
+        return answered.get();
+    }
+
+    private void roundTrip(String plugin, String method, CountDownLatch done) {
+        jsThread.execute(() -> {
+            String message = callMessage(plugin, method, new JSONObject());
+            pluginThread.execute(() -> {
+                try {
+                    JSONObject call = new JSONObject(message);
+                    String response = new JSONObject()
+                            .put("callbackId", call.getString("callbackId"))
+                            .put("success", true)
+                            .put("data", answer(call.getString("methodName")))
+                            .toString();
+                    jsThread.execute(() -> {
+                        parse(response);
+                        done.countDown();
+                    });
+                } catch (Exception e) {
+                    done.countDown();
+                }
+            });
+        });
+    }
+
+    private String callMessage(String plugin, String method, JSONObject options) {
+        try {
+            return new JSONObject()
+                    .put("type", "message")
+                    .put("callbackId", String.valueOf(callbackIds.incrementAndGet()))
+                    .put("pluginId", plugin)
+                    .put("methodName", method)
+                    .put("options", options)
+                    .toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String batchMessage(String batchId) {
+        try {
+            JSONArray commands = new JSONArray();
+            for (String[] call : STARTUP) {
+                commands.put(new JSONObject().put("plugin", call[0]).put("method", call[1]).put("args", new JSONObject()));
+            }
+            JSONObject options = new JSONObject().put("commands", commands);
+            if (batchId != null) {
+                options.put("batchId", batchId);
+            }
+            return callMessage("BridgeBatch", "batch", options);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JSONObject toJson(BridgeBatch.Result result) {
+        try {
+            return new JSONObject().put("ok", result.ok).put("data", result.data);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void put(JSONObject json, String key, Object value) {
+        try {
+            json.put(key, value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JSONObject answer(String method) {
+        try {
+            return new JSONObject().put("method", method).put("values", new JSONArray(Arrays.asList(1, 2, 3)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JSONObject parse(String json) {
+        try {
+            return new JSONObject(json);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
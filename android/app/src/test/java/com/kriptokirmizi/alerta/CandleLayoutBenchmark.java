@@ -0,0 +1,64 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * CPU side of one native chart frame (viewport culling, scales, per-bar geometry) while
+ * panning over 20k one-minute candles. Canvas submission is measured on device through
+ * NativeChart.getFrameStats().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CandleLayoutBenchmark {
+    private static final long MINUTE = 60_000L;
+
+    @Param({ "200", "2000" })
+    public int visibleBars;
+
+    private CandleSeries series;
+    private CandleLayout layout;
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        series = new CandleSeries();
+        for (int i = 0; i < 20_000; i++) {
+            double base = 30_000 + Math.sin(i / 50.0) * 500;
+            series.upsert(i * MINUTE, base, base + 20, base - 20, base + 5, 100 + i % 13);
+        }
+        layout = new CandleLayout();
+        layout.width = 1080;
+        layout.height = 900;
+        layout.barIntervalMs = MINUTE;
+    }
+
+    @Benchmark
+    public float panFrame() {
+        frame = (frame + 7) % (series.size() - visibleBars);
+        layout.fromTime = frame * MINUTE;
+        layout.toTime = layout.fromTime + visibleBars * MINUTE;
+        float checksum = 0;
+        if (layout.compute(series)) {
+            for (int i = layout.firstIndex; i < layout.endIndex; i++) {
+                checksum += layout.x(series.time[i]) + layout.y(series.high[i]) + layout.y(series.low[i])
+                        + layout.y(series.open[i]) + layout.y(series.close[i]) + layout.volumeTop(series.volume[i]);
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public void liveTick() {
+        frame++;
+        series.upsert(19_999 * MINUTE, 30_000, 30_020, 29_980, 30_000 + (frame & 15), 100);
+    }
+}
@@ -0,0 +1,123 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+
+public class CandleLayoutTest {
+    private static final long MINUTE = 60_000L;
+
+    private static CandleSeries series(int count) {
+        CandleSeries series = new CandleSeries();
+        for (int i = 0; i < count; i++) {
+            double base = 100 + Math.sin(i / 10.0) * 5;
+            series.upsert(i * MINUTE, base, base + 1, base - 1, base + 0.5, 10 + i % 7);
+        }
+        return series;
+    }
+
+    @Test
+    public void upsertAppendsRevisesAndInserts() {
+        CandleSeries series = new CandleSeries();
+        series.upsert(2 * MINUTE, 1, 2, 0.5, 1.5, 10);
+        series.upsert(3 * MINUTE, 1.5, 2, 1, 1.8, 5);
+        // Live candle revision
+        series.upsert(3 * MINUTE, 1.5, 2.5, 1, 2.2, 8);
+        // Late bar inserted in order
+        series.upsert(MINUTE, 0.9, 1.1, 0.8, 1, 3);
+
+        assertEquals(3, series.size());
+        assertEquals(MINUTE, series.time[0]);
+        assertEquals(2.2, series.close[2], 0);
+        assertEquals(8, series.volume[2], 0);
+        assertEquals(1, series.lowerBound(2 * MINUTE));
+        assertEquals(3, series.lowerBound(10 * MINUTE));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        CandleSeries series = series(5000);
+        assertEquals(5000, series.size());
+        assertEquals(4999 * MINUTE, series.time[4999]);
+    }
+
+    @Test
+    public void cullsToViewportWithOneBarMargin() {
+        CandleSeries series = series(1000);
+        CandleLayout layout = new CandleLayout();
+        layout.width = 1000;
+        layout.height = 500;
+        layout.fromTime = 100 * MINUTE;
+        layout.toTime = 200 * MINUTE;
+        layout.barIntervalMs = MINUTE;
+
+        assertTrue(layout.compute(series));
+        assertEquals(99, layout.firstIndex);
+        assertEquals(201, layout.endIndex);
+
+        double expectedMax = -Double.MAX_VALUE;
+        for (int i = 99; i < 201; i++) {
+            expectedMax = Math.max(expectedMax, series.high[i]);
+        }
+        assertTrue(layout.priceMax > expectedMax);
+        // Highest high sits inside the price area, volume bars in the bottom 20%
+        float yHigh = layout.y(expectedMax);
+        assertTrue(yHigh > 0 && yHigh < 500 * (1 - CandleLayout.VOLUME_HEIGHT_RATIO));
+        assertEquals(500 * (1 - CandleLayout.VOLUME_HEIGHT_RATIO), layout.volumeTop(layout.volumeMax), 0.01);
+        assertEquals(10f, layout.barWidth, 0.01);
+    }
+
+    @Test
+    public void emptyViewportDrawsNothing() {
+        CandleLayout layout = new CandleLayout();
+        layout.width = 1000;
+        layout.height = 500;
+        layout.fromTime = 5000 * MINUTE;
+        layout.toTime = 6000 * MINUTE;
+        layout.barIntervalMs = MINUTE;
+
+        assertFalse(layout.compute(series(100)));
+        assertFalse(layout.compute(new CandleSeries()));
+    }
+
+    @Test
+    public void framePathDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+
+        CandleSeries series = series(20_000);
+        CandleLayout layout = new CandleLayout();
+        layout.width = 1080;
+        layout.height = 800;
+        layout.barIntervalMs = MINUTE;
+
+        for (int i = 0; i < 20_000; i++) {
+            pan(series, layout, i);
+        }
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            pan(series, layout, i);
+            // Live tick on the last candle
+            series.upsert(19_999 * MINUTE, 100, 101, 99, 100 + (i % 3), 10);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("frame path allocated " + allocated + " bytes for 10k frames", allocated < 1024);
+    }
+
+    private static float pan(CandleSeries series, CandleLayout layout, int frame) {
+        layout.fromTime = (frame % 15_000) * MINUTE;
+        layout.toTime = layout.fromTime + 300 * MINUTE;
+        float sum = 0;
+        if (layout.compute(series)) {
+            for (int i = layout.firstIndex; i < layout.endIndex; i++) {
+                sum += layout.x(series.time[i]) + layout.y(series.high[i]) + layout.volumeTop(series.volume[i]);
+            }
+        }
+        return sum;
+    }
+}
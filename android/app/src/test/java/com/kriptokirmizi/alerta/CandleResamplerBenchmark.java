@@ -0,0 +1,64 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A timeframe switch over a week of local one-minute candles (what replaces a history
+ * download), and one live minute update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CandleResamplerBenchmark {
+    private static final long MINUTE = 60_000L;
+    private static final int MINUTES = 7 * 24 * 60;
+
+    @Param({ "300", "3600", "86400" })
+    public int timeframe;
+
+    private final CandleResampler resampler = new CandleResampler(20_160, 0);
+    private final CandleSeries out = new CandleSeries();
+    private long liveTime;
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        long[] time = new long[MINUTES];
+        double[] open = new double[MINUTES];
+        double[] high = new double[MINUTES];
+        double[] low = new double[MINUTES];
+        double[] close = new double[MINUTES];
+        double[] volume = new double[MINUTES];
+        for (int i = 0; i < MINUTES; i++) {
+            double base = 30_000 + Math.sin(i / 50.0) * 500;
+            time[i] = 1_704_067_200_000L + i * MINUTE;
+            open[i] = base;
+            high[i] = base + 20;
+            low[i] = base - 20;
+            close[i] = base + 5;
+            volume[i] = 100 + i % 13;
+        }
+        resampler.merge(time, open, high, low, close, volume, MINUTES);
+        liveTime = time[MINUTES - 1];
+    }
+
+    @Benchmark
+    public int switchTimeframe() {
+        return resampler.resample(timeframe, 0, Long.MAX_VALUE, out);
+    }
+
+    @Benchmark
+    public long liveMinuteTick() {
+        double price = 30_000 + (tick++ & 63);
+        resampler.updateMinute(liveTime, 30_000, 30_064, 29_990, price, 1);
+        return resampler.coveredTo();
+    }
+}
@@ -0,0 +1,199 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class CandleResamplerTest {
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    // 2024-01-03 00:00 UTC, a Wednesday
+    private static final long WEDNESDAY = 1_704_240_000_000L;
+
+    /** count minutes from start: a random walk with high/low around open/close */
+    private static final class Minutes {
+        final long[] time;
+        final double[] open;
+        final double[] high;
+        final double[] low;
+        final double[] close;
+        final double[] volume;
+
+        Minutes(long start, int count, long seed) {
+            time = new long[count];
+            open = new double[count];
+            high = new double[count];
+            low = new double[count];
+            close = new double[count];
+            volume = new double[count];
+            Random random = new Random(seed);
+            double price = 100;
+            for (int i = 0; i < count; i++) {
+                time[i] = start + i * MINUTE;
+                open[i] = price;
+                price *= 1 + random.nextGaussian() * 0.001;
+                close[i] = price;
+                high[i] = Math.max(open[i], close[i]) + random.nextDouble() * 0.1;
+                low[i] = Math.min(open[i], close[i]) - random.nextDouble() * 0.1;
+                volume[i] = random.nextInt(100);
+            }
+        }
+
+        void mergeInto(CandleResampler resampler, int from, int to) {
+            int n = to - from;
+            resampler.merge(slice(time, from, n), slice(open, from, n), slice(high, from, n),
+                    slice(low, from, n), slice(close, from, n), slice(volume, from, n), n);
+        }
+
+        /** Reference aggregation of minutes [from, to) */
+        double[] aggregate(int from, int to) {
+            double h = high[from];
+            double l = low[from];
+            double v = 0;
+            for (int i = from; i < to; i++) {
+                h = Math.max(h, high[i]);
+                l = Math.min(l, low[i]);
+                v += volume[i];
+            }
+            return new double[] {open[from], h, l, close[to - 1], v};
+        }
+    }
+
+    private static double[] slice(double[] values, int from, int n) {
+        double[] out = new double[n];
+        System.arraycopy(values, from, out, 0, n);
+        return out;
+    }
+
+    private static long[] slice(long[] values, int from, int n) {
+        long[] out = new long[n];
+        System.arraycopy(values, from, out, 0, n);
+        return out;
+    }
+
+    private static void assertBar(double[] expected, CandleSeries series, int i) {
+        assertEquals(expected[0], series.open[i], 1e-12);
+        assertEquals(expected[1], series.high[i], 1e-12);
+        assertEquals(expected[2], series.low[i], 1e-12);
+        assertEquals(expected[3], series.close[i], 1e-12);
+        assertEquals(expected[4], series.volume[i], 1e-9);
+    }
+
+    @Test
+    public void bucketsAlignToSessionBoundaries() {
+        long t = WEDNESDAY + 13 * HOUR + 37 * MINUTE;
+        assertEquals(WEDNESDAY + 12 * HOUR, CandleResampler.bucketStart(t, 14_400, 0));
+        assertEquals(WEDNESDAY + 13 * HOUR + 30 * MINUTE, CandleResampler.bucketStart(t, 900, 0));
+        assertEquals(WEDNESDAY, CandleResampler.bucketStart(t, 86_400, 0));
+        // Weeks open on Monday 2024-01-01, not on the epoch's Thursday
+        assertEquals(WEDNESDAY - 2 * CandleResampler.DAY_MS, CandleResampler.bucketStart(t, 604_800, 0));
+        // A session opening at 16:00 UTC (UTC+8 midnight)
+        assertEquals(WEDNESDAY - 8 * HOUR, CandleResampler.bucketStart(WEDNESDAY + 15 * HOUR, 86_400, 16 * HOUR));
+        assertEquals(WEDNESDAY + 16 * HOUR, CandleResampler.bucketStart(WEDNESDAY + 16 * HOUR, 86_400, 16 * HOUR));
+
+        assertTrue(CandleResampler.supports(300));
+        assertTrue(CandleResampler.supports(14_400));
+        assertTrue(CandleResampler.supports(604_800));
+        assertFalse(CandleResampler.supports(30));
+        assertFalse(CandleResampler.supports(420));
+    }
+
+    @Test
+    public void resamplesOnlyFullyCoveredBuckets() {
+        // Coverage starts at 00:10, so the 00:00 hour is partial and must come from the network
+        Minutes minutes = new Minutes(WEDNESDAY + 10 * MINUTE, 200, 1);
+        CandleResampler resampler = new CandleResampler(10_000, 0);
+        minutes.mergeInto(resampler, 0, 200);
+        assertEquals(WEDNESDAY + HOUR, resampler.localFrom(3_600));
+        assertEquals(WEDNESDAY + 10 * MINUTE, resampler.localFrom(300));
+
+        CandleSeries out = new CandleSeries();
+        assertEquals(3, resampler.resample(3_600, 0, Long.MAX_VALUE, out));
+        assertEquals(WEDNESDAY + HOUR, out.time[0]);
+        assertBar(minutes.aggregate(50, 110), out, 0);
+        assertBar(minutes.aggregate(110, 170), out, 1);
+        // The open hour holds the minutes so far
+        assertEquals(WEDNESDAY + 3 * HOUR, out.time[2]);
+        assertBar(minutes.aggregate(170, 200), out, 2);
+
+        // A range in the middle
+        assertEquals(2, resampler.resample(900, WEDNESDAY + HOUR + 20 * MINUTE, WEDNESDAY + HOUR + 40 * MINUTE, out));
+        assertEquals(WEDNESDAY + HOUR + 15 * MINUTE, out.time[0]);
+        assertBar(minutes.aggregate(65, 80), out, 0);
+
+        assertEquals(-1, resampler.resample(30, 0, Long.MAX_VALUE, out));
+    }
+
+    @Test
+    public void liveMinutesResampleLikeTheSameMinutesMergedAtOnce() {
+        Minutes minutes = new Minutes(WEDNESDAY, 600, 2);
+        CandleResampler live = new CandleResampler(10_000, 0);
+        minutes.mergeInto(live, 0, 100);
+        Random random = new Random(4);
+
+        for (int i = 100; i < 600; i++) {
+            // A few partial states of the live minute, then its final one
+            for (int tick = 0; tick < 2; tick++) {
+                double c = minutes.open[i] + random.nextGaussian() * 0.01;
+                live.updateMinute(minutes.time[i] + 5_000, minutes.open[i], Math.max(minutes.open[i], c),
+                        Math.min(minutes.open[i], c), c, tick);
+            }
+            live.updateMinute(minutes.time[i], minutes.open[i], minutes.high[i],
+                    minutes.low[i], minutes.close[i], minutes.volume[i]);
+        }
+        assertEquals(WEDNESDAY, live.coveredFrom());
+        assertEquals(WEDNESDAY + 599 * MINUTE, live.coveredTo());
+
+        CandleResampler batch = new CandleResampler(10_000, 0);
+        minutes.mergeInto(batch, 0, 600);
+        for (int timeframe : new int[] {300, 3_600}) {
+            CandleSeries expected = new CandleSeries();
+            CandleSeries out = new CandleSeries();
+            batch.resample(timeframe, 0, Long.MAX_VALUE, expected);
+            live.resample(timeframe, 0, Long.MAX_VALUE, out);
+            assertEquals(expected.size(), out.size());
+            for (int i = 0; i < out.size(); i++) {
+                assertEquals(expected.time[i], out.time[i]);
+                assertBar(new double[] {expected.open[i], expected.high[i], expected.low[i], expected.close[i],
+                        expected.volume[i]}, out, i);
+            }
+        }
+        // The open hour holds the minutes so far
+        CandleSeries hours = new CandleSeries();
+        live.resample(3_600, 0, Long.MAX_VALUE, hours);
+        assertBar(minutes.aggregate(540, 600), hours, hours.size() - 1);
+    }
+
+    @Test
+    public void coverageGrowsWithAdjacentBatchesAndRestartsAfterAGap() {
+        Minutes minutes = new Minutes(WEDNESDAY, 3_000, 3);
+        CandleResampler resampler = new CandleResampler(2_000, 0);
+        assertTrue(resampler.isEmpty());
+
+        // Newest chunk first, then an older overlapping one
+        minutes.mergeInto(resampler, 1_000, 1_500);
+        minutes.mergeInto(resampler, 400, 1_001);
+        assertEquals(WEDNESDAY + 400 * MINUTE, resampler.coveredFrom());
+        assertEquals(WEDNESDAY + 1_499 * MINUTE, resampler.coveredTo());
+
+        // Older data past a gap is kept but not covered
+        minutes.mergeInto(resampler, 0, 300);
+        assertEquals(WEDNESDAY + 400 * MINUTE, resampler.coveredFrom());
+
+        // The live feed stalled: the run restarts at the new minute
+        int i = 1_600;
+        resampler.updateMinute(minutes.time[i], minutes.open[i], minutes.high[i], minutes.low[i],
+                minutes.close[i], minutes.volume[i]);
+        assertEquals(WEDNESDAY + 1_600 * MINUTE, resampler.coveredFrom());
+        assertEquals(WEDNESDAY + 1_600 * MINUTE, resampler.coveredTo());
+        CandleSeries out = new CandleSeries();
+        assertEquals(1, resampler.resample(300, 0, Long.MAX_VALUE, out));
+
+        // A backfill bridging the gap joins the run; the oldest minutes are trimmed
+        minutes.mergeInto(resampler, 1_400, 3_000);
+        assertEquals(2_000, resampler.minuteCount());
+        assertEquals(WEDNESDAY + 1_400 * MINUTE, resampler.coveredFrom());
+        assertEquals(WEDNESDAY + 2_999 * MINUTE, resampler.coveredTo());
+    }
+}
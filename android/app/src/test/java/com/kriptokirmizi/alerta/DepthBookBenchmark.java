@@ -0,0 +1,86 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One 100ms diff plus a frame of buckets on the sorted-array book, vs aggregating a full-depth
+ * book the way OrderBook.tsx does per message (hash by rounded price, then sort the keys).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DepthBookBenchmark {
+    private static final int LEVELS = 1_000;
+    private static final int DIFFS = 512;
+
+    private final Random random = new Random(9);
+    private final DepthBook book = new DepthBook(false);
+    private final DepthBook.Buckets out = new DepthBook.Buckets(20);
+    private final List<DepthBook.Diff> diffs = new ArrayList<>();
+    private int next;
+    private long updateId;
+
+    @Setup
+    public void setUp() {
+        double[] bidPrice = new double[LEVELS];
+        double[] askPrice = new double[LEVELS];
+        double[] qty = new double[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            bidPrice[i] = 60_000 - i * 0.1;
+            askPrice[i] = 60_000.1 + i * 0.1;
+            qty[i] = 1 + random.nextInt(100) / 10.0;
+        }
+        book.applySnapshot(0, bidPrice, qty, askPrice, qty);
+        for (int d = 0; d < DIFFS; d++) {
+            int n = 20;
+            double[] bp = new double[n];
+            double[] bq = new double[n];
+            double[] ap = new double[n];
+            double[] aq = new double[n];
+            for (int i = 0; i < n; i++) {
+                bp[i] = 60_000 - random.nextInt(LEVELS) * 0.1;
+                bq[i] = random.nextInt(5) == 0 ? 0 : random.nextInt(100) / 10.0;
+                ap[i] = 60_000.1 + random.nextInt(LEVELS) * 0.1;
+                aq[i] = random.nextInt(5) == 0 ? 0 : random.nextInt(100) / 10.0;
+            }
+            diffs.add(new DepthBook.Diff(0, 0, -1, bp, bq, ap, aq));
+        }
+    }
+
+    @Benchmark
+    public int applyDiffAndBucket() {
+        DepthBook.Diff template = diffs.get(next++ & (DIFFS - 1));
+        updateId++;
+        book.apply(new DepthBook.Diff(updateId, updateId, -1,
+                template.bidPrice, template.bidQty, template.askPrice, template.askQty));
+        book.bids.bucket(10, 20, out);
+        int count = out.count;
+        book.asks.bucket(10, 20, out);
+        return count + out.count;
+    }
+
+    @Benchmark
+    public int aggregateWholeBookLikeJs() {
+        Map<Double, Double> aggregated = new HashMap<>();
+        for (int i = 0; i < book.bids.size(); i++) {
+            double rounded = Math.floor(book.bids.price(i) / 10) * 10;
+            Double existing = aggregated.get(rounded);
+            aggregated.put(rounded, (existing != null ? existing : 0) + book.bids.qty(i));
+        }
+        List<Double> prices = new ArrayList<>(aggregated.keySet());
+        prices.sort((a, b) -> Double.compare(b, a));
+        return prices.size();
+    }
+}
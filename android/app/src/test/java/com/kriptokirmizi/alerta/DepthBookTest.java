@@ -0,0 +1,184 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class DepthBookTest {
+    // Recorded BTCUSDT spot session (levels trimmed): the socket opens before the snapshot is fetched
+    private static final String SPOT_SNAPSHOT = "{\"lastUpdateId\":1002,"
+            + "\"bids\":[[\"100.00\",\"1.0\"],[\"99.90\",\"2.0\"],[\"99.80\",\"3.0\"]],"
+            + "\"asks\":[[\"100.10\",\"1.5\"],[\"100.20\",\"2.5\"],[\"100.40\",\"4.0\"]]}";
+    private static final String[] SPOT_STREAM = {
+            // Covered by the snapshot
+            "{\"e\":\"depthUpdate\",\"U\":995,\"u\":1000,\"b\":[[\"99.90\",\"5.0\"]],\"a\":[]}",
+            // Straddles lastUpdateId + 1
+            "{\"e\":\"depthUpdate\",\"U\":1001,\"u\":1004,\"b\":[[\"100.00\",\"0.5\"]],\"a\":[[\"100.10\",\"0\"]]}",
+            "{\"e\":\"depthUpdate\",\"U\":1005,\"u\":1007,\"b\":[[\"100.05\",\"0.7\"]],\"a\":[[\"100.30\",\"1.0\"]]}",
+            "{\"e\":\"depthUpdate\",\"U\":1008,\"u\":1008,\"b\":[[\"99.80\",\"0\"]],\"a\":[]}",
+    };
+
+    private static DepthBook.Diff diff(String json) throws Exception {
+        return DepthBook.Diff.parse(new JSONObject(json));
+    }
+
+    private static void assertSide(DepthBook.Side side, double... priceQty) {
+        assertEquals(priceQty.length / 2, side.size());
+        for (int i = 0; i < side.size(); i++) {
+            assertEquals(priceQty[2 * i], side.price(i), 0);
+            assertEquals(priceQty[2 * i + 1], side.qty(i), 1e-12);
+        }
+    }
+
+    @Test
+    public void replaysSpotStreamBufferedBeforeTheSnapshot() throws Exception {
+        DepthBook book = new DepthBook(false);
+        for (String message : SPOT_STREAM) {
+            assertEquals(DepthBook.BUFFERED, book.apply(diff(message)));
+        }
+        assertFalse(book.isSynced());
+
+        assertEquals(DepthBook.APPLIED, book.applySnapshot(new JSONObject(SPOT_SNAPSHOT)));
+
+        assertTrue(book.isSynced());
+        assertEquals(1008, book.lastUpdateId());
+        assertEquals(0, book.buffered());
+        assertSide(book.bids, 100.05, 0.7, 100.00, 0.5, 99.90, 2.0);
+        assertSide(book.asks, 100.20, 2.5, 100.30, 1.0, 100.40, 4.0);
+
+        // Live events keep chaining; a replayed old one is ignored
+        assertEquals(DepthBook.APPLIED, book.apply(diff(
+                "{\"U\":1009,\"u\":1010,\"b\":[],\"a\":[[\"100.15\",\"0.2\"]]}")));
+        assertEquals(DepthBook.STALE, book.apply(diff(SPOT_STREAM[3])));
+        assertSide(book.asks, 100.15, 0.2, 100.20, 2.5, 100.30, 1.0, 100.40, 4.0);
+    }
+
+    @Test
+    public void sequenceGapUnsyncsAndResyncsFromANewSnapshot() throws Exception {
+        DepthBook book = new DepthBook(false);
+        book.apply(diff(SPOT_STREAM[1]));
+        book.applySnapshot(new JSONObject(SPOT_SNAPSHOT));
+        assertTrue(book.isSynced());
+
+        // 1005..1007 was lost
+        assertEquals(DepthBook.GAP, book.apply(diff(SPOT_STREAM[3])));
+        assertFalse(book.isSynced());
+        assertEquals(1, book.gaps());
+        assertEquals(DepthBook.BUFFERED, book.apply(diff(
+                "{\"U\":1009,\"u\":1012,\"b\":[[\"100.01\",\"9.0\"]],\"a\":[]}")));
+
+        // A snapshot older than the buffered stream cannot be bridged
+        assertEquals(DepthBook.GAP, book.applySnapshot(new JSONObject(SPOT_SNAPSHOT)));
+        assertFalse(book.isSynced());
+        assertEquals(2, book.buffered());
+
+        // A fresh one at 1010: the 1008 event is stale, 1009..1012 straddles it
+        String fresh = "{\"lastUpdateId\":1010,\"bids\":[[\"100.00\",\"4.0\"]],\"asks\":[[\"100.20\",\"1.0\"]]}";
+        assertEquals(DepthBook.APPLIED, book.applySnapshot(new JSONObject(fresh)));
+        assertTrue(book.isSynced());
+        assertEquals(1012, book.lastUpdateId());
+        assertSide(book.bids, 100.01, 9.0, 100.00, 4.0);
+        assertSide(book.asks, 100.20, 1.0);
+    }
+
+    @Test
+    public void futuresEventsChainOnPreviousUpdateId() throws Exception {
+        DepthBook book = new DepthBook(true);
+        book.applySnapshot(new JSONObject("{\"lastUpdateId\":500,\"bids\":[[\"10\",\"1\"]],\"asks\":[[\"11\",\"1\"]]}"));
+
+        assertEquals(DepthBook.STALE, book.apply(diff("{\"U\":490,\"u\":499,\"pu\":489,\"b\":[],\"a\":[]}")));
+        // First event must contain the snapshot id itself
+        assertEquals(DepthBook.APPLIED, book.apply(diff("{\"U\":495,\"u\":503,\"pu\":494,\"b\":[[\"10\",\"2\"]],\"a\":[]}")));
+        // Futures ids are not contiguous: only pu has to match
+        assertEquals(DepthBook.APPLIED, book.apply(diff("{\"U\":510,\"u\":512,\"pu\":503,\"b\":[],\"a\":[[\"11\",\"3\"]]}")));
+        assertEquals(DepthBook.GAP, book.apply(diff("{\"U\":520,\"u\":525,\"pu\":515,\"b\":[],\"a\":[]}")));
+        assertSide(book.bids, 10, 2);
+        assertSide(book.asks, 11, 3);
+    }
+
+    @Test
+    public void bucketsRoundAwayFromTheSpreadAndStopAtDepth() {
+        DepthBook book = new DepthBook(false);
+        book.applySnapshot(1,
+                new double[] {0.3, 0.29, 0.21, 0.2, 0.19, 0.05},
+                new double[] {1, 2, 3, 4, 5, 6},
+                new double[] {0.31, 0.4, 0.45, 0.7},
+                new double[] {1, 2, 3, 4});
+        DepthBook.Buckets out = new DepthBook.Buckets(2);
+
+        book.bids.bucket(0.1, 3, out);
+        assertEquals(3, out.count);
+        // 0.3 stays in its own bucket despite 0.3 / 0.1 = 2.9999999999999996
+        assertEquals(0.3, out.price[0], 1e-12);
+        assertEquals(1, out.qty[0], 0);
+        assertEquals(0.2, out.price[1], 1e-12);
+        assertEquals(2 + 3 + 4, out.qty[1], 0);
+        assertEquals(0.1, out.price[2], 1e-12);
+        assertEquals(5, out.qty[2], 0);
+
+        book.asks.bucket(0.1, 10, out);
+        assertEquals(3, out.count);
+        assertEquals(0.4, out.price[0], 1e-12);
+        assertEquals(1 + 2, out.qty[0], 0);
+        assertEquals(0.5, out.price[1], 1e-12);
+        assertEquals(0.7, out.price[2], 1e-12);
+
+        DepthBook.Buckets copy = new DepthBook.Buckets(1);
+        copy.copyFrom(out);
+        assertTrue(copy.sameAs(out));
+        book.apply(new DepthBook.Diff(2, 2, -1, new double[0], new double[0], new double[] {0.9}, new double[] {1}));
+        book.asks.bucket(0.1, 3, out);
+        // A change beyond the visible buckets leaves the frame unchanged
+        assertTrue(copy.sameAs(out));
+    }
+
+    @Test
+    public void randomDiffStreamMatchesATreeMapBook() {
+        Random random = new Random(11);
+        DepthBook book = new DepthBook(false);
+        TreeMap<Double, Double> bids = new TreeMap<>();
+        TreeMap<Double, Double> asks = new TreeMap<>();
+        book.applySnapshot(0, new double[0], new double[0], new double[0], new double[0]);
+        for (long id = 1; id <= 5_000; id++) {
+            int n = 1 + random.nextInt(6);
+            double[] bp = new double[n];
+            double[] bq = new double[n];
+            double[] ap = new double[n];
+            double[] aq = new double[n];
+            for (int i = 0; i < n; i++) {
+                bp[i] = 900 + random.nextInt(100) * 0.5;
+                bq[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(50) / 10.0;
+                ap[i] = 1000 + random.nextInt(100) * 0.5;
+                aq[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(50) / 10.0;
+                apply(bids, bp[i], bq[i]);
+                apply(asks, ap[i], aq[i]);
+            }
+            assertEquals(DepthBook.APPLIED, book.apply(new DepthBook.Diff(id, id, -1, bp, bq, ap, aq)));
+        }
+
+        assertSide(book.bids, flatten(bids.descendingMap()));
+        assertSide(book.asks, flatten(asks));
+    }
+
+    private static void apply(TreeMap<Double, Double> side, double price, double qty) {
+        if (qty > 0) {
+            side.put(price, qty);
+        } else {
+            side.remove(price);
+        }
+    }
+
+    private static double[] flatten(Map<Double, Double> side) {
+        double[] out = new double[side.size() * 2];
+        int i = 0;
+        for (Map.Entry<Double, Double> level : side.entrySet()) {
+            out[i++] = level.getKey();
+            out[i++] = level.getValue();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,200 @@
+package com.kriptokirmizi.alerta;
+
+import android.app.Activity;
+import android.content.Context;
+import com.android.billingclient.api.BillingClient;
+import com.android.billingclient.api.BillingResult;
+import com.android.billingclient.api.Purchase;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Scriptable in-process {@link BillingBackend} for JVM tests.
+ *
+ * Every callback is delivered from a small scheduler after {@link #latencyMs}, like the
+ * Play Billing service callbacks. Connection failures, disconnects, pending purchases and
+ * acknowledgement failures are switched on with the setters below.
+ */
+class FakeBillingBackend implements BillingBackend {
+
+    enum PurchaseOutcome {
+        PURCHASED,
+        PENDING,
+        USER_CANCELED,
+        /** The billing sheet never reports back */
+        NO_RESPONSE
+    }
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "FakeBilling");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Product> products = new ConcurrentHashMap<>();
+    private final List<Purchase> activePurchases = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger orderCounter = new AtomicInteger();
+
+    volatile long latencyMs = 0;
+    volatile long connectLatencyMs = 0;
+    /** Response code for the next startConnection() calls (OK = connects) */
+    volatile int connectResponseCode = BillingClient.BillingResponseCode.OK;
+    volatile PurchaseOutcome purchaseOutcome = PurchaseOutcome.PURCHASED;
+    volatile boolean failAcknowledge = false;
+    volatile boolean throwOnLaunch = false;
+    /** Extra delay before a billing flow reports its outcome, on top of {@link #latencyMs} */
+    volatile long resultDelayMs = 0;
+
+    final AtomicInteger connectionAttempts = new AtomicInteger();
+    final AtomicInteger productQueries = new AtomicInteger();
+    final AtomicInteger purchaseQueries = new AtomicInteger();
+    final AtomicInteger billingFlows = new AtomicInteger();
+    final AtomicInteger acknowledgements = new AtomicInteger();
+
+    private volatile Listener listener;
+
+    static BillingBackend.Factory factoryFor(FakeBillingBackend backend) {
+        return (Context context) -> backend;
+    }
+
+    FakeBillingBackend addSubscription(String productId, String formattedPrice, long priceAmountMicros) {
+        PricingPhase phase = new PricingPhase(formattedPrice, priceAmountMicros, "USD", "P1M");
+        Offer offer = new Offer("offer-" + productId, Collections.singletonList(phase));
+        products.put(productId, new Product(productId, productId + " (Alerta)", "Premium", Collections.singletonList(offer)));
+        return this;
+    }
+
+    FakeBillingBackend addActivePurchase(String productId) {
+        activePurchases.add(purchase(productId, 0, true));
+        return this;
+    }
+
+    /** Drop the connection (synchronously, on the caller's thread); the plugin is expected to reconnect */
+    void disconnect() {
+        Listener current = listener;
+        if (current != null) {
+            current.onBillingServiceDisconnected();
+        }
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void startConnection(Listener listener) {
+        this.listener = listener;
+        connectionAttempts.incrementAndGet();
+        int code = connectResponseCode;
+        scheduler.schedule(() -> listener.onBillingSetupFinished(result(code, code == BillingClient.BillingResponseCode.OK
+                ? "" : "Fake connection failure")), connectLatencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void querySubscriptions(List<String> productIds, ProductsCallback callback) {
+        productQueries.incrementAndGet();
+        List<Product> found = new ArrayList<>();
+        for (String productId : productIds) {
+            Product product = products.get(productId);
+            if (product != null) {
+                found.add(product);
+            }
+        }
+        later(() -> callback.onResult(ok(), found));
+    }
+
+    @Override
+    public BillingResult launchBillingFlow(Activity activity, String productId, String offerToken) {
+        billingFlows.incrementAndGet();
+        if (throwOnLaunch) {
+            throw new IllegalStateException("Fake launch failure");
+        }
+        if (!products.containsKey(productId)) {
+            return result(BillingClient.BillingResponseCode.ITEM_UNAVAILABLE, "Unknown product: " + productId);
+        }
+
+        PurchaseOutcome outcome = purchaseOutcome;
+        scheduler.schedule(() -> {
+            Listener current = listener;
+            if (current == null) {
+                return;
+            }
+            switch (outcome) {
+                case USER_CANCELED:
+                    current.onPurchasesUpdated(result(BillingClient.BillingResponseCode.USER_CANCELED, "Canceled"), null);
+                    break;
+                case PENDING:
+                    current.onPurchasesUpdated(ok(), Collections.singletonList(purchase(productId, 4, false)));
+                    break;
+                case NO_RESPONSE:
+                    break;
+                default:
+                    Purchase purchase = purchase(productId, 0, false);
+                    activePurchases.add(purchase);
+                    current.onPurchasesUpdated(ok(), Collections.singletonList(purchase));
+                    break;
+            }
+        }, latencyMs + resultDelayMs, TimeUnit.MILLISECONDS);
+        return ok();
+    }
+
+    @Override
+    public void queryActiveSubscriptions(PurchasesCallback callback) {
+        purchaseQueries.incrementAndGet();
+        List<Purchase> snapshot;
+        synchronized (activePurchases) {
+            snapshot = new ArrayList<>(activePurchases);
+        }
+        later(() -> callback.onResult(ok(), snapshot));
+    }
+
+    @Override
+    public void acknowledgePurchase(String purchaseToken, AcknowledgeCallback callback) {
+        acknowledgements.incrementAndGet();
+        boolean fail = failAcknowledge;
+        later(() -> callback.onResult(fail
+                ? result(BillingClient.BillingResponseCode.ERROR, "Fake acknowledge failure")
+                : ok()));
+    }
+
+    private void later(Runnable runnable) {
+        scheduler.schedule(runnable, latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Purchase purchase(String productId, int purchaseState, boolean acknowledged) {
+        int order = orderCounter.incrementAndGet();
+        try {
+            JSONObject json = new JSONObject();
+            json.put("orderId", "GPA.0000-" + order);
+            json.put("packageName", "com.kriptokirmizi.alerta");
+            json.put("productIds", new JSONArray().put(productId));
+            json.put("purchaseTime", System.currentTimeMillis());
+            json.put("purchaseState", purchaseState);
+            json.put("purchaseToken", "token-" + order);
+            json.put("acknowledged", acknowledged);
+            return new Purchase(json.toString(), "signature");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BillingResult ok() {
+        return result(BillingClient.BillingResponseCode.OK, "");
+    }
+
+    private static BillingResult result(int responseCode, String debugMessage) {
+        return BillingResult.newBuilder()
+                .setResponseCode(responseCode)
+                .setDebugMessage(debugMessage)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FrameTimeRecorderTest {
+    private static final long VSYNC = 16_666_667L;
+
+    @Test
+    public void recordsVsyncIntervalsAndSkipsIdleGaps() {
+        FrameTimeRecorder recorder = new FrameTimeRecorder(16);
+        long t = 1_000_000_000L;
+        recorder.recordFrame(t);
+        assertEquals(0, recorder.totalFrames());
+
+        // Three on-time frames, then one that missed a vsync
+        for (int i = 0; i < 3; i++) {
+            t += VSYNC;
+            recorder.recordFrame(t);
+        }
+        t += 2 * VSYNC;
+        recorder.recordFrame(t);
+        assertEquals(4, recorder.totalFrames());
+        assertEquals(1, recorder.jankyFrames());
+        assertEquals(VSYNC / 1e6, recorder.percentileMs(50), 1e-6);
+        assertEquals(2 * VSYNC / 1e6, recorder.percentileMs(100), 1e-6);
+
+        // Nothing drawn for a second: not a stall, the next frame starts a new run
+        t += 1_000_000_000L;
+        recorder.recordFrame(t);
+        t += VSYNC;
+        recorder.recordFrame(t);
+        assertEquals(5, recorder.totalFrames());
+        assertEquals(1, recorder.jankyFrames());
+
+        recorder.reset();
+        recorder.recordFrame(t + VSYNC);
+        assertEquals(0, recorder.totalFrames());
+    }
+}
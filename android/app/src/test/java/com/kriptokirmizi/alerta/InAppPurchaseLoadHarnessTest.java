@@ -0,0 +1,435 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.android.billingclient.api.BillingClient;
+import com.getcapacitor.Bridge;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.MessageHandler;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginResult;
+import java.io.File;
+import java.io.FileWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * InAppPurchasePlugin flows against {@link FakeBillingBackend}, plus a load harness that fires
+ * hundreds of concurrent bridge calls and reports throughput, latency percentiles and thread
+ * counts (stdout and app/build/reports/benchmarks/iap-load-harness.txt). No Play Store needed:
+ *
+ *   ./gradlew :app:testDebugUnitTest --tests '*InAppPurchaseLoadHarnessTest'
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class InAppPurchaseLoadHarnessTest {
+
+    private static final String MONTHLY = "premium_monthly";
+    private static final String YEARLY = "premium_yearly";
+
+    private FakeBillingBackend backend;
+    private InAppPurchasePlugin plugin;
+    private MessageHandler messageHandler;
+
+    /** callbackId -> outcome, filled by the mocked MessageHandler */
+    private final Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+    private final AtomicInteger callIds = new AtomicInteger();
+
+    private static final class Outcome {
+        final long startNanos;
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile long endNanos;
+        volatile boolean resolved;
+        volatile JSObject data;
+        volatile String error;
+
+        Outcome(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        backend = new FakeBillingBackend()
+                .addSubscription(MONTHLY, "$4.99", 4_990_000L)
+                .addSubscription(YEARLY, "$39.99", 39_990_000L);
+        InAppPurchasePlugin.setBackendFactory(FakeBillingBackend.factoryFor(backend));
+
+        messageHandler = mock(MessageHandler.class);
+        doAnswer(invocation -> {
+            PluginCall call = invocation.getArgument(0);
+            PluginResult success = invocation.getArgument(1);
+            PluginResult error = invocation.getArgument(2);
+            Outcome outcome = outcomes.get(call.getCallbackId());
+            if (outcome != null) {
+                outcome.endNanos = System.nanoTime();
+                outcome.resolved = error == null;
+                if (success != null) {
+                    outcome.data = new JSObject(success.toString());
+                }
+                if (error != null) {
+                    outcome.error = new JSObject(error.toString()).getString("message");
+                }
+                outcome.done.countDown();
+            }
+            return null;
+        }).when(messageHandler).sendResponseMessage(any(), any(), any());
+
+        Bridge bridge = mock(Bridge.class);
+        when(bridge.getContext()).thenReturn(RuntimeEnvironment.getApplication());
+
+        plugin = new InAppPurchasePlugin();
+        plugin.setBridge(bridge);
+    }
+
+    @After
+    public void tearDown() {
+        backend.shutdown();
+        InAppPurchasePlugin.setBackendFactory(PlayBillingBackend::new);
+        InAppPurchasePlugin.setPurchaseTimeoutMs(5 * 60 * 1000);
+    }
+
+    @Test
+    public void initializeWaitsForSlowConnection() throws Exception {
+        backend.connectLatencyMs = 300;
+        plugin.load();
+
+        Outcome outcome = invoke("initialize", new JSObject());
+        assertTrue(outcome.done.await(2, TimeUnit.SECONDS));
+        assertTrue(outcome.resolved);
+        assertTrue((outcome.endNanos - outcome.startNanos) / 1_000_000L >= 250);
+    }
+
+    @Test
+    public void initializeTimesOutWhenConnectionFails() throws Exception {
+        backend.connectResponseCode = BillingClient.BillingResponseCode.BILLING_UNAVAILABLE;
+        plugin.load();
+
+        Outcome outcome = invoke("initialize", new JSObject());
+        assertTrue(outcome.done.await(5, TimeUnit.SECONDS));
+        assertFalse(outcome.resolved);
+        assertTrue(outcome.error.contains("timeout"));
+    }
+
+    @Test
+    public void reconnectsAfterDisconnect() throws Exception {
+        connect();
+        backend.connectLatencyMs = 200;
+        backend.disconnect();
+
+        Outcome outcome = invoke("initialize", new JSObject());
+        assertTrue(outcome.done.await(2, TimeUnit.SECONDS));
+        assertTrue(outcome.resolved);
+        assertEquals(2, backend.connectionAttempts.get());
+    }
+
+    @Test
+    public void purchaseIsAcknowledgedAndResolved() throws Exception {
+        connect();
+
+        Outcome outcome = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(outcome.done.await(2, TimeUnit.SECONDS));
+        assertTrue(outcome.resolved);
+        assertEquals(MONTHLY, outcome.data.getString("productId"));
+        assertEquals(1, backend.acknowledgements.get());
+
+        Outcome entitlements = invoke("checkEntitlements", new JSObject());
+        assertTrue(entitlements.done.await(2, TimeUnit.SECONDS));
+        assertTrue(entitlements.data.getBoolean("hasReceipt"));
+    }
+
+    @Test
+    public void acknowledgeFailureRejectsPurchase() throws Exception {
+        connect();
+        backend.failAcknowledge = true;
+
+        Outcome outcome = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(outcome.done.await(2, TimeUnit.SECONDS));
+        assertFalse(outcome.resolved);
+        assertEquals("Failed to acknowledge purchase", outcome.error);
+    }
+
+    @Test
+    public void pendingPurchaseReleasesTheNextPurchase() throws Exception {
+        connect();
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.PENDING;
+
+        Outcome pending = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(pending.done.await(2, TimeUnit.SECONDS));
+        assertFalse(pending.resolved);
+        assertEquals("Purchase is pending", pending.error);
+        assertEquals(0, backend.acknowledgements.get());
+
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.PURCHASED;
+        Outcome next = invoke("purchase", new JSObject().put("productId", YEARLY));
+        assertTrue(next.done.await(2, TimeUnit.SECONDS));
+        assertTrue(next.resolved);
+    }
+
+    @Test
+    public void concurrentPurchaseIsRejected() throws Exception {
+        connect();
+        backend.latencyMs = 100;
+
+        Outcome first = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        Outcome second = invoke("purchase", new JSObject().put("productId", YEARLY));
+        assertTrue(first.done.await(2, TimeUnit.SECONDS));
+        assertTrue(second.done.await(2, TimeUnit.SECONDS));
+        assertTrue(first.resolved);
+        assertEquals("Purchase already in progress", second.error);
+        assertEquals(1, backend.billingFlows.get());
+    }
+
+    @Test
+    public void unansweredPurchaseTimesOutAndReleasesTheNextPurchase() throws Exception {
+        connect();
+        InAppPurchasePlugin.setPurchaseTimeoutMs(200);
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.NO_RESPONSE;
+
+        Outcome stuck = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(stuck.done.await(2, TimeUnit.SECONDS));
+        assertFalse(stuck.resolved);
+        assertTrue(stuck.error.contains("timed out"));
+
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.PURCHASED;
+        Outcome next = invoke("purchase", new JSObject().put("productId", YEARLY));
+        assertTrue(next.done.await(2, TimeUnit.SECONDS));
+        assertTrue(next.resolved);
+    }
+
+    @Test
+    public void lateCancelOfATimedOutPurchaseDoesNotSettleTheNextOne() throws Exception {
+        connect();
+        InAppPurchasePlugin.setPurchaseTimeoutMs(300);
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.USER_CANCELED;
+        backend.resultDelayMs = 500;
+
+        Outcome stuck = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(stuck.done.await(2, TimeUnit.SECONDS));
+        assertTrue(stuck.error.contains("timed out"));
+
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.NO_RESPONSE;
+        backend.resultDelayMs = 0;
+        Outcome next = invoke("purchase", new JSObject().put("productId", YEARLY));
+        assertTrue(next.done.await(2, TimeUnit.SECONDS));
+        assertTrue(next.error, next.error.contains("timed out"));
+    }
+
+    @Test
+    public void lateReceiptOfATimedOutPurchaseIsAcknowledgedButDoesNotSettleTheNextOne() throws Exception {
+        connect();
+        InAppPurchasePlugin.setPurchaseTimeoutMs(300);
+        backend.resultDelayMs = 500;
+
+        Outcome stuck = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(stuck.done.await(2, TimeUnit.SECONDS));
+        assertTrue(stuck.error.contains("timed out"));
+
+        backend.purchaseOutcome = FakeBillingBackend.PurchaseOutcome.NO_RESPONSE;
+        backend.resultDelayMs = 0;
+        Outcome next = invoke("purchase", new JSObject().put("productId", YEARLY));
+        assertTrue(next.done.await(2, TimeUnit.SECONDS));
+        assertTrue(next.error, next.error.contains("timed out"));
+        assertEquals(1, backend.acknowledgements.get());
+    }
+
+    @Test
+    public void launchFailureRejectsAndReleasesTheNextPurchase() throws Exception {
+        connect();
+        backend.throwOnLaunch = true;
+
+        Outcome failed = invoke("purchase", new JSObject().put("productId", MONTHLY));
+        assertTrue(failed.done.await(2, TimeUnit.SECONDS));
+        assertFalse(failed.resolved);
+        assertTrue(failed.error.startsWith("Failed to launch billing flow"));
+
+        backend.throwOnLaunch = false;
+        Outcome next = invoke("purchase", new JSObject().put("productId", YEARLY));
+        assertTrue(next.done.await(2, TimeUnit.SECONDS));
+        assertTrue(next.resolved);
+    }
+
+    /**
+     * 800 calls from 16 caller threads while the billing service is still connecting and
+     * answering with 5-25 ms latency.
+     */
+    @Test
+    public void loadHarness() throws Exception {
+        final int callers = 16;
+        final int callsPerMethod = 200;
+        final List<String> methods = Arrays.asList("initialize", "getProducts", "checkEntitlements", "purchase");
+
+        backend.connectLatencyMs = 150;
+        backend.latencyMs = 5;
+        backend.addActivePurchase(MONTHLY);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        plugin.load();
+        // The app calls initialize() first and everything else once it resolves
+        Outcome gate = invoke("initialize", new JSObject());
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Outcome> all = new ArrayList<>();
+        Map<String, List<Outcome>> byMethod = new ConcurrentHashMap<>();
+        long startNanos = System.nanoTime();
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (int i = 0; i < callsPerMethod; i++) {
+            for (String method : methods) {
+                final int index = i;
+                futures.add(pool.submit(() -> {
+                    if (!"initialize".equals(method)) {
+                        gate.done.await(5, TimeUnit.SECONDS);
+                        Thread.sleep(index % 20);
+                    }
+                    backend.latencyMs = 5 + (index % 21);
+                    Outcome outcome = invoke(method, argumentsFor(method));
+                    byMethod.computeIfAbsent(method, key -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(outcome);
+                    return outcome;
+                }));
+            }
+        }
+        for (Future<Outcome> future : futures) {
+            all.add(future.get(30, TimeUnit.SECONDS));
+        }
+        for (Outcome outcome : all) {
+            assertTrue("call did not complete", outcome.done.await(10, TimeUnit.SECONDS));
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        pool.shutdownNow();
+
+        int peakThreads = threads.getPeakThreadCount();
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "InAppPurchase load harness: %d calls, %d caller threads%n",
+                all.size(), callers));
+        report.append(String.format(Locale.US, "  throughput: %.0f calls/s over %d ms%n",
+                all.size() / (elapsedNanos / 1e9), elapsedNanos / 1_000_000L));
+        report.append(String.format(Locale.US, "  threads: baseline=%d peak=%d (+%d incl. %d callers)%n",
+                baselineThreads, peakThreads, peakThreads - baselineThreads, callers));
+        for (String method : methods) {
+            List<Outcome> outcomesForMethod = byMethod.get(method);
+            long[] latencies = new long[outcomesForMethod.size()];
+            int resolved = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                Outcome outcome = outcomesForMethod.get(i);
+                latencies[i] = outcome.endNanos - outcome.startNanos;
+                if (outcome.resolved) {
+                    resolved++;
+                }
+            }
+            Arrays.sort(latencies);
+            report.append(String.format(Locale.US,
+                    "  %-18s n=%d resolved=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                    method, latencies.length, resolved, percentileMs(latencies, 50), percentileMs(latencies, 95),
+                    percentileMs(latencies, 99), latencies[latencies.length - 1] / 1e6));
+        }
+        System.out.print(report);
+        writeReport(report.toString());
+
+        // Every initialize() queued before the connection finished must resolve once it does
+        for (Outcome outcome : byMethod.get("initialize")) {
+            assertTrue(outcome.resolved);
+        }
+        for (Outcome outcome : byMethod.get("getProducts")) {
+            assertTrue(outcome.resolved);
+            assertEquals(2, outcome.data.getJSONArray("products").length());
+        }
+        for (Outcome outcome : byMethod.get("checkEntitlements")) {
+            assertTrue(outcome.data.getBoolean("hasReceipt"));
+        }
+        // Purchases: one billing flow at a time, the rest are rejected rather than orphaned
+        for (Outcome outcome : byMethod.get("purchase")) {
+            assertTrue(outcome.resolved || "Purchase already in progress".equals(outcome.error));
+        }
+        // Waiting initialize() calls share one timer instead of a thread each
+        assertTrue("thread growth " + (peakThreads - baselineThreads),
+                peakThreads - baselineThreads <= callers + 8);
+    }
+
+    private void connect() throws Exception {
+        plugin.load();
+        Outcome outcome = invoke("initialize", new JSObject());
+        assertTrue(outcome.done.await(2, TimeUnit.SECONDS));
+        assertTrue(outcome.resolved);
+    }
+
+    private JSObject argumentsFor(String method) {
+        switch (method) {
+            case "getProducts":
+                JSObject data = new JSObject();
+                data.put("productIds", new JSONArray().put(MONTHLY).put(YEARLY));
+                return data;
+            case "purchase":
+                return new JSObject().put("productId", YEARLY);
+            default:
+                return new JSObject();
+        }
+    }
+
+    private Outcome invoke(String method, JSObject data) {
+        String callbackId = "cb-" + callIds.incrementAndGet();
+        Outcome outcome = new Outcome(System.nanoTime());
+        outcomes.put(callbackId, outcome);
+        PluginCall call = new PluginCall(messageHandler, "InAppPurchase", callbackId, method, data);
+        switch (method) {
+            case "initialize":
+                plugin.initialize(call);
+                break;
+            case "getProducts":
+                plugin.getProducts(call);
+                break;
+            case "checkEntitlements":
+                plugin.checkEntitlements(call);
+                break;
+            case "purchase":
+                plugin.purchase(call);
+                break;
+            default:
+                throw new IllegalArgumentException(method);
+        }
+        return outcome;
+    }
+
+    private static double percentileMs(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static void writeReport(String report) {
+        File reportDir = new File(System.getProperty("alerta.benchmarkReportDir", "build/reports/benchmarks"));
+        reportDir.mkdirs();
+        try (FileWriter writer = new FileWriter(new File(reportDir, "iap-load-harness.txt"))) {
+            writer.write(report);
+        } catch (Exception e) {
+            System.err.println("Could not write load harness report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Live candle tick: O(1) incremental update vs recomputing every indicator over the whole history
+ * (what the chart does in JS today); and bulk history for a watchlist on one thread vs the pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndicatorEngineBenchmark {
+    private static final int BARS = 5_000;
+    private static final int SYMBOLS = 20;
+
+    private final IndicatorSeries.Config config = IndicatorSeries.Config.defaults();
+    private final Random random = new Random(5);
+    private IndicatorSeries live;
+    private long[] time;
+    private double[] close;
+    private double[] volume;
+    private List<IndicatorEngine.Bars> watchlist;
+    private IndicatorEngine sequentialEngine;
+    private IndicatorEngine parallelEngine;
+
+    @Setup
+    public void setUp() {
+        time = new long[BARS];
+        close = new double[BARS];
+        volume = new double[BARS];
+        double price = 60_000;
+        for (int i = 0; i < BARS; i++) {
+            price *= 1 + random.nextGaussian() * 0.002;
+            time[i] = i * 60_000L;
+            close[i] = price;
+            volume[i] = 10;
+        }
+        live = new IndicatorSeries(config);
+        live.setBars(time, close, close, close, volume, BARS);
+
+        watchlist = new ArrayList<>();
+        for (int s = 0; s < SYMBOLS; s++) {
+            watchlist.add(new IndicatorEngine.Bars("S" + s, "60", time, close, close, close, volume));
+        }
+        sequentialEngine = new IndicatorEngine(1);
+        parallelEngine = new IndicatorEngine(4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sequentialEngine.shutdown();
+        parallelEngine.shutdown();
+    }
+
+    @Benchmark
+    public int incrementalLiveTick() {
+        double c = close[BARS - 1] * (1 + random.nextGaussian() * 0.001);
+        return live.upsert(time[BARS - 1], c, c, c, 10);
+    }
+
+    @Benchmark
+    public int fullRecomputePerTick() {
+        close[BARS - 1] *= 1 + random.nextGaussian() * 0.001;
+        live.setBars(time, close, close, close, volume, BARS);
+        return live.size();
+    }
+
+    @Benchmark
+    public int bulkHistorySequential() throws Exception {
+        return sequentialEngine.setHistory(watchlist, config);
+    }
+
+    @Benchmark
+    public int bulkHistoryParallel() throws Exception {
+        return parallelEngine.setHistory(watchlist, config);
+    }
+}
@@ -0,0 +1,84 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class IndicatorEngineTest {
+    private static final long MINUTE = 60_000L;
+
+    private static IndicatorEngine.Bars bars(String symbol, long firstTime, double... closes) {
+        long[] time = new long[closes.length];
+        double[] volume = new double[closes.length];
+        for (int i = 0; i < closes.length; i++) {
+            time[i] = firstTime + i * MINUTE;
+            volume[i] = 1;
+        }
+        return new IndicatorEngine.Bars(symbol, "60", time, closes, closes, closes, volume);
+    }
+
+    private static IndicatorSeries.Config config() {
+        return new IndicatorSeries.Config(3, 2, 4, 2, 3, 2, new int[] {2}, new int[] {3});
+    }
+
+    @Test
+    public void liveCandlesAppendOrReviseTheLastBar() {
+        IndicatorEngine engine = new IndicatorEngine(1);
+        IndicatorSeries.Config config = config();
+
+        assertEquals(3, engine.update(bars("X", 0, 10, 10, 10), config));
+        // Same open time: the live candle is revised in place
+        assertEquals(3, engine.update(bars("X", 2 * MINUTE, 12), config));
+        assertEquals(12.0, engine.get("X", "60").close[2], 0);
+        assertEquals(4, engine.update(bars("X", 3 * MINUTE, 13), config));
+    }
+
+    @Test
+    public void leastRecentlyUsedSeriesIsDroppedPastTheCap() {
+        IndicatorEngine engine = new IndicatorEngine(1, 2);
+        IndicatorSeries.Config config = config();
+        engine.update(bars("A", 0, 10, 11), config);
+        engine.update(bars("B", 0, 10, 11), config);
+        // A is read, so B is now the least recently used
+        assertNotNull(engine.get("A", "60"));
+        engine.update(bars("C", 0, 10, 11), config);
+
+        assertEquals(2, engine.seriesCount());
+        assertNotNull(engine.get("A", "60"));
+        assertNull(engine.get("B", "60"));
+        // A live candle for a dropped series starts it over; the page sees the size and resends history
+        assertEquals(1, engine.update(bars("B", 2 * MINUTE, 12), config));
+    }
+
+    @Test
+    public void bulkHistoryIsComputedInParallelAndMatchesSequentialUpdates() throws Exception {
+        IndicatorEngine engine = new IndicatorEngine(4);
+        IndicatorSeries.Config config = IndicatorSeries.Config.defaults();
+        List<IndicatorEngine.Bars> batch = new ArrayList<>();
+        for (int s = 0; s < 12; s++) {
+            double[] closes = new double[1_000];
+            for (int i = 0; i < closes.length; i++) {
+                closes[i] = 100 + s + Math.sin(i / 10.0) * 5;
+            }
+            batch.add(bars("S" + s, 0, closes));
+        }
+
+        assertEquals(12_000, engine.setHistory(batch, config));
+        assertEquals(12, engine.seriesCount());
+
+        IndicatorSeries sequential = new IndicatorSeries(config);
+        IndicatorEngine.Bars last = batch.get(11);
+        for (int i = 0; i < last.count; i++) {
+            sequential.upsert(last.time[i], last.high[i], last.low[i], last.close[i], last.volume[i]);
+        }
+        IndicatorSeries parallel = engine.get("S11", "60");
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.rsi[i], parallel.rsi[i], 1e-9);
+            assertEquals(sequential.macd[i], parallel.macd[i], 1e-9);
+        }
+        engine.shutdown();
+    }
+}
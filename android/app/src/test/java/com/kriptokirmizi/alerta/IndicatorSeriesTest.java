@@ -0,0 +1,250 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class IndicatorSeriesTest {
+    private static final long MINUTE = 60_000L;
+
+    private static IndicatorSeries.Config small() {
+        return new IndicatorSeries.Config(3, 2, 4, 2, 3, 2, new int[] {3}, new int[] {3});
+    }
+
+    @Test
+    public void handComputedValues() {
+        IndicatorSeries series = new IndicatorSeries(small());
+        double[] closes = {1, 2, 3, 4, 5, 4};
+        for (int i = 0; i < closes.length; i++) {
+            series.upsert(i * MINUTE, closes[i], closes[i], closes[i], 1);
+        }
+
+        // EMA(3): seeded with SMA(1, 2, 3) = 2, then k = 0.5
+        assertTrue(Double.isNaN(series.ema[0][1]));
+        assertEquals(2.0, series.ema[0][2], 1e-12);
+        assertEquals(3.0, series.ema[0][3], 1e-12);
+        assertEquals(4.0, series.ema[0][4], 1e-12);
+        assertEquals(4.0, series.ema[0][5], 1e-12);
+        // SMA(3)
+        assertEquals(13.0 / 3, series.sma[0][5], 1e-12);
+        // RSI(3): three gains, no loss -> 100; then Wilder smoothing gain 2/3, loss 1/3
+        assertTrue(Double.isNaN(series.rsi[2]));
+        assertEquals(100.0, series.rsi[3], 1e-12);
+        assertEquals(100.0 - 100.0 / (1 + (2.0 / 3) / (1.0 / 3)), series.rsi[5], 1e-9);
+        // Bollinger(3, 2) over 3, 4, 5: mean 4, population sd sqrt(2/3)
+        assertEquals(4.0, series.bbMiddle[4], 1e-12);
+        assertEquals(4.0 + 2 * Math.sqrt(2.0 / 3), series.bbUpper[4], 1e-9);
+        assertEquals(4.0 - 2 * Math.sqrt(2.0 / 3), series.bbLower[4], 1e-9);
+        // VWAP with high = low = close and equal volume: running mean of the closes
+        assertEquals(19.0 / 6, series.vwap[5], 1e-12);
+    }
+
+    @Test
+    public void matchesTheChartsJsFormulasOnRandomData() {
+        IndicatorSeries.Config config = IndicatorSeries.Config.defaults();
+        IndicatorSeries series = new IndicatorSeries(config);
+        double[] close = randomWalk(600, 42, 60_000);
+        for (int i = 0; i < close.length; i++) {
+            series.upsert(i * MINUTE, close[i] * 1.001, close[i] * 0.999, close[i], 10 + i % 7);
+        }
+
+        assertSeries(Reference.rsi(close, 14), series.rsi);
+        assertSeries(Reference.ema(close, 50), series.ema[0]);
+        assertSeries(Reference.ema(close, 200), series.ema[2]);
+        assertSeries(Reference.sma(close, 100), series.sma[1]);
+        double[][] macd = Reference.macd(close, 12, 26, 9);
+        assertSeries(macd[0], series.macd);
+        assertSeries(macd[1], series.signal);
+        assertSeries(macd[2], series.histogram);
+        double[][] bands = Reference.bollinger(close, 20, 2);
+        assertSeries(bands[0], series.bbUpper);
+        assertSeries(bands[1], series.bbMiddle);
+        assertSeries(bands[2], series.bbLower);
+    }
+
+    @Test
+    public void liveRevisionsAndLateBarsEqualAFullRecompute() {
+        double[] close = randomWalk(400, 7, 2.5);
+        IndicatorSeries live = new IndicatorSeries(IndicatorSeries.Config.defaults());
+        Random random = new Random(3);
+        for (int i = 0; i < close.length; i++) {
+            // A few intermediate ticks of the live candle before its final close
+            for (int tick = 0; tick < 3; tick++) {
+                double c = close[i] * (1 + (random.nextDouble() - 0.5) * 0.01);
+                live.upsert(i * MINUTE, c, c, c, 5);
+            }
+            live.upsert(i * MINUTE, close[i], close[i], close[i], 5);
+        }
+        IndicatorSeries full = new IndicatorSeries(IndicatorSeries.Config.defaults());
+        long[] time = new long[close.length];
+        double[] volume = new double[close.length];
+        for (int i = 0; i < close.length; i++) {
+            time[i] = i * MINUTE;
+            volume[i] = 5;
+        }
+        full.setBars(time, close, close, close, volume, close.length);
+
+        assertEquals(full.size(), live.size());
+        assertSeries(full.rsi, live.rsi);
+        assertSeries(full.macd, live.macd);
+        assertSeries(full.signal, live.signal);
+        assertSeries(full.bbUpper, live.bbUpper);
+        assertSeries(full.vwap, live.vwap);
+
+        // A bar arriving late is inserted and everything after it recomputed
+        IndicatorSeries outOfOrder = new IndicatorSeries(IndicatorSeries.Config.defaults());
+        for (int i = 0; i < close.length; i++) {
+            if (i != 150) {
+                outOfOrder.upsert(i * MINUTE, close[i], close[i], close[i], 5);
+            }
+        }
+        outOfOrder.upsert(150 * MINUTE, close[150], close[150], close[150], 5);
+        assertEquals(close.length, outOfOrder.size());
+        assertSeries(full.rsi, outOfOrder.rsi);
+        assertSeries(full.ema[1], outOfOrder.ema[1]);
+    }
+
+    @Test
+    public void vwapRestartsEveryUtcDay() {
+        IndicatorSeries series = new IndicatorSeries(small());
+        long day = 86_400_000L;
+        series.upsert(day - 2 * MINUTE, 10, 10, 10, 1);
+        series.upsert(day - MINUTE, 20, 20, 20, 3);
+        series.upsert(day, 40, 40, 40, 1);
+
+        assertEquals((10 + 60) / 4.0, series.vwap[1], 1e-12);
+        assertEquals(40.0, series.vwap[2], 1e-12);
+    }
+
+    @Test
+    public void bollingerStaysAccurateFarFromTheFirstClose() {
+        // Price jumps from 0.001 to 100k with a tiny variance: rounding must not swamp the bands
+        IndicatorSeries series = new IndicatorSeries(IndicatorSeries.Config.defaults());
+        double[] close = new double[3_000];
+        for (int i = 0; i < close.length; i++) {
+            close[i] = i < 10 ? 0.001 : 100_000 + Math.sin(i) * 0.5;
+            series.upsert(i * MINUTE, close[i], close[i], close[i], 1);
+        }
+        double[][] bands = Reference.bollinger(close, 20, 2);
+        int last = close.length - 1;
+        assertEquals(bands[0][last] - bands[1][last], series.bbUpper[last] - series.bbMiddle[last], 1e-4);
+    }
+
+    private static void assertSeries(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.isNaN(expected[i])) {
+                assertTrue("bar " + i + " should be warming up, was " + actual[i], Double.isNaN(actual[i]));
+            } else {
+                double tolerance = 1e-9 * Math.max(1, Math.abs(expected[i]));
+                assertEquals("bar " + i, expected[i], actual[i], tolerance);
+            }
+        }
+    }
+
+    private static double[] randomWalk(int n, long seed, double start) {
+        Random random = new Random(seed);
+        double[] close = new double[n];
+        double price = start;
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.01;
+            close[i] = price;
+        }
+        return close;
+    }
+
+    /** Straight ports of utils/indicators.ts (full recomputation), NaN for null */
+    private static final class Reference {
+        static double[] ema(double[] close, int period) {
+            double[] ema = nans(close.length);
+            if (close.length < period) return ema;
+            double sum = 0;
+            for (int i = 0; i < period; i++) sum += close[i];
+            ema[period - 1] = sum / period;
+            double multiplier = 2.0 / (period + 1);
+            for (int i = period; i < close.length; i++) {
+                ema[i] = (close[i] - ema[i - 1]) * multiplier + ema[i - 1];
+            }
+            return ema;
+        }
+
+        static double[] sma(double[] close, int period) {
+            double[] sma = nans(close.length);
+            for (int i = period - 1; i < close.length; i++) {
+                double sum = 0;
+                for (int j = 0; j < period; j++) sum += close[i - j];
+                sma[i] = sum / period;
+            }
+            return sma;
+        }
+
+        static double[] rsi(double[] close, int period) {
+            double[] rsi = nans(close.length);
+            if (close.length < period + 1) return rsi;
+            double avgGain = 0;
+            double avgLoss = 0;
+            for (int i = 1; i <= period; i++) {
+                double change = close[i] - close[i - 1];
+                if (change > 0) avgGain += change;
+                else avgLoss += Math.abs(change);
+            }
+            avgGain /= period;
+            avgLoss /= period;
+            rsi[period] = avgLoss == 0 ? 100 : 100 - 100 / (1 + avgGain / avgLoss);
+            for (int i = period + 1; i < close.length; i++) {
+                double change = close[i] - close[i - 1];
+                avgGain = (avgGain * (period - 1) + (change > 0 ? change : 0)) / period;
+                avgLoss = (avgLoss * (period - 1) + (change < 0 ? -change : 0)) / period;
+                rsi[i] = avgLoss == 0 ? 100 : 100 - 100 / (1 + avgGain / avgLoss);
+            }
+            return rsi;
+        }
+
+        static double[][] macd(double[] close, int fast, int slow, int signalPeriod) {
+            double[] macd = nans(close.length);
+            double[] signal = nans(close.length);
+            double[] histogram = nans(close.length);
+            double[] fastEma = ema(close, fast);
+            double[] slowEma = ema(close, slow);
+            int count = 0;
+            double[] compact = new double[close.length];
+            int[] at = new int[close.length];
+            for (int i = slow - 1; i < close.length; i++) {
+                if (!Double.isNaN(fastEma[i]) && !Double.isNaN(slowEma[i])) {
+                    macd[i] = fastEma[i] - slowEma[i];
+                    compact[count] = macd[i];
+                    at[count++] = i;
+                }
+            }
+            if (count >= signalPeriod) {
+                double[] signalEma = ema(java.util.Arrays.copyOf(compact, count), signalPeriod);
+                for (int k = 0; k < count; k++) signal[at[k]] = signalEma[k];
+            }
+            for (int i = 0; i < close.length; i++) histogram[i] = macd[i] - signal[i];
+            return new double[][] {macd, signal, histogram};
+        }
+
+        static double[][] bollinger(double[] close, int period, double stdDev) {
+            double[] upper = nans(close.length);
+            double[] lower = nans(close.length);
+            double[] middle = sma(close, period);
+            for (int i = period - 1; i < close.length; i++) {
+                double squared = 0;
+                for (int j = 0; j < period; j++) {
+                    double diff = close[i - j] - middle[i];
+                    squared += diff * diff;
+                }
+                double deviation = Math.sqrt(squared / period);
+                upper[i] = middle[i] + stdDev * deviation;
+                lower[i] = middle[i] - stdDev * deviation;
+            }
+            return new double[][] {upper, middle, lower};
+        }
+
+        private static double[] nans(int n) {
+            double[] values = new double[n];
+            java.util.Arrays.fill(values, Double.NaN);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * JMH entry point for the native hot-path benchmarks (*Benchmark classes in this package).
+ * Runs on the host JVM, no device needed. Skipped during normal unit test runs:
+ *
+ *   ./gradlew :app:testDebugUnitTest --tests '*NativeBenchmarkSuite' -Pbenchmarks
+ *
+ * The GC profiler reports gc.alloc.rate.norm (bytes allocated per call) next to the
+ * time per call. Results are written to app/build/reports/benchmarks/jmh-results.json.
+ */
+public class NativeBenchmarkSuite {
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        assumeTrue("Benchmarks disabled (pass -Pbenchmarks)", Boolean.getBoolean("alerta.benchmarks"));
+
+        File reportDir = new File(System.getProperty("alerta.benchmarkReportDir", "build/reports/benchmarks"));
+        reportDir.mkdirs();
+
+        Options options = new OptionsBuilder()
+                .include(NativeBenchmarkSuite.class.getPackage().getName() + "\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                // The Gradle test worker classpath is not forkable - run in-process
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(reportDir, "jmh-results.json").getAbsolutePath())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeKvStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File logFile() {
+        return new File(folder.getRoot(), "kv/store.log");
+    }
+
+    @Test
+    public void valuesSurviveReopen() throws Exception {
+        NativeKvStore store = NativeKvStore.open(logFile());
+        store.putString("drawings_BINANCE_BTCUSDT", "[{\"id\":1}]");
+        store.putString("drawings_BINANCE_BTCUSDT", "[{\"id\":1},{\"id\":2}]");
+        store.putBinary("candles", new byte[] {0, 1, 2, (byte) 0xFF});
+        store.putString("layout", "2x2");
+        assertTrue(store.remove("layout"));
+        assertFalse(store.remove("layout"));
+        store.close();
+
+        NativeKvStore reopened = NativeKvStore.open(logFile());
+        assertEquals("[{\"id\":1},{\"id\":2}]", reopened.get("drawings_BINANCE_BTCUSDT").asString());
+        assertNull(reopened.get("layout"));
+        NativeKvStore.Value binary = reopened.get("candles");
+        assertTrue(binary.isBinary());
+        assertArrayEquals(new byte[] {0, 1, 2, (byte) 0xFF}, binary.bytes);
+        assertEquals(2, reopened.size());
+    }
+
+    @Test
+    public void scanReturnsPrefixMatchesInKeyOrder() throws Exception {
+        NativeKvStore store = NativeKvStore.open(logFile());
+        store.putString("drawings_BINANCE_ETHUSDT", "[]");
+        store.putString("watchlist", "[]");
+        store.putString("drawings_BINANCE_BTCUSDT", "[]");
+        store.putString("drawings_BINANCE_SOLUSDT", "[]");
+
+        LinkedHashMap<String, NativeKvStore.Value> all = store.scan("drawings_", 10, false);
+        assertEquals(Arrays.asList("drawings_BINANCE_BTCUSDT", "drawings_BINANCE_ETHUSDT", "drawings_BINANCE_SOLUSDT"),
+                Arrays.asList(all.keySet().toArray()));
+        assertEquals(2, store.scan("drawings_", 2, true).size());
+        assertNull(store.scan("drawings_", 1, true).values().iterator().next());
+    }
+
+    @Test
+    public void tornTailRecordIsDroppedAndLogStaysWritable() throws Exception {
+        NativeKvStore store = NativeKvStore.open(logFile());
+        store.putString("kept", "value");
+        long end = (Long) store.stats().get("logBytes");
+        store.putString("torn", "value");
+        store.close();
+
+        // Corrupt the last record's CRC, as a write cut short by a crash would
+        try (RandomAccessFile raf = new RandomAccessFile(logFile(), "rw")) {
+            raf.seek(end + 9);
+            raf.writeInt(0x12345678);
+        }
+
+        NativeKvStore recovered = NativeKvStore.open(logFile());
+        assertEquals("value", recovered.get("kept").asString());
+        assertNull(recovered.get("torn"));
+        recovered.putString("next", "ok");
+        recovered.close();
+        assertEquals("ok", NativeKvStore.open(logFile()).get("next").asString());
+    }
+
+    @Test
+    public void compactionDropsSupersededRecords() throws Exception {
+        NativeKvStore store = NativeKvStore.open(logFile());
+        char[] chars = new char[100_000];
+        Arrays.fill(chars, 'x');
+        String big = new String(chars);
+        for (int i = 0; i < 20; i++) {
+            store.putString("cache", big + i);
+        }
+        store.putString("small", "s");
+        assertTrue(store.needsCompaction());
+
+        store.compact();
+        assertFalse(store.needsCompaction());
+        assertEquals(0, store.garbageBytes());
+        assertTrue(logFile().length() < 20 * 100_000);
+        store.close();
+
+        NativeKvStore reopened = NativeKvStore.open(logFile());
+        assertEquals(big + 19, reopened.get("cache").asString());
+        assertEquals("s", reopened.get("small").asString());
+    }
+
+    @Test
+    public void hotKeysArePreloadedOnNextOpen() throws Exception {
+        NativeKvStore store = NativeKvStore.open(logFile());
+        store.putString("hot", "h");
+        store.putString("cold", "c");
+        for (int i = 0; i < 5; i++) {
+            store.get("hot");
+        }
+        store.get("cold");
+        assertEquals(Arrays.asList("hot", "cold"), store.hotKeys());
+        store.flush();
+        store.close();
+
+        NativeKvStore reopened = NativeKvStore.open(logFile());
+        assertEquals("h", reopened.getPreloaded().get("hot").asString());
+        // The remembered list is internal: not visible to scans or size
+        assertEquals(2, reopened.scan("", 10, true).size());
+        assertEquals(2, reopened.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedKeysCannotBeWritten() throws Exception {
+        NativeKvStore.open(logFile()).putString(NativeKvStore.RESERVED_PREFIX + "hot", "x");
+    }
+}
@@ -0,0 +1,108 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class NavigationStatsTest {
+
+    @Test
+    public void normalizesRoutes() {
+        assertEquals("/", NavigationStats.normalizeRoute("https://www.alertachart.com"));
+        assertEquals("/", NavigationStats.normalizeRoute("https://alertachart.com/?tab=alerts"));
+        assertEquals("/blog/:id", NavigationStats.normalizeRoute("https://www.alertachart.com/blog/123#top"));
+        assertEquals("/support/:id/reply",
+                NavigationStats.normalizeRoute("https://alertachart.com/support/3f2a9c1e-77b0-4d1e-9a53-0c6f1b2a8e41/reply"));
+        assertEquals("/chart/BTCUSDT", NavigationStats.normalizeRoute("https://alertachart.com/chart/BTCUSDT/"));
+        assertEquals("alerta.kriptokirmizi.com/settings",
+                NavigationStats.normalizeRoute("https://alerta.kriptokirmizi.com/settings?x=1"));
+        assertEquals("file:/android_asset/boot/index.html",
+                NavigationStats.normalizeRoute("file:///android_asset/boot/index.html"));
+        assertEquals("about:blank", NavigationStats.normalizeRoute("about:blank"));
+    }
+
+    @Test
+    public void pairsStartWithVisualStateAndFinish() {
+        NavigationStats stats = new NavigationStats(0);
+        stats.onPageStarted("https://alertachart.com/blog/1", 1_000);
+        stats.onVisualStateReady("https://alertachart.com/blog/1", 1_300);
+        stats.onVisualStateReady("https://alertachart.com/blog/1", 1_900);
+        stats.onPageFinished("https://alertachart.com/blog/1?ref=home", 2_500);
+        // A finish without a matching start (e.g. a late callback) is ignored
+        stats.onPageFinished("https://alertachart.com/blog/1", 9_000);
+
+        NavigationStats.RouteStats blog = stats.get("/blog/:id");
+        assertEquals(1, blog.started);
+        assertEquals(1, blog.finished);
+        assertEquals(1, blog.visual.count);
+        assertEquals(300, blog.visual.sumMs);
+        assertEquals(1, blog.load.count);
+        assertEquals(1_500, blog.load.maxMs);
+    }
+
+    @Test
+    public void countsAbandonedNavigationsErrorsAndRedirects() {
+        NavigationStats stats = new NavigationStats(0);
+        stats.onPageStarted("https://alertachart.com/", 0);
+        stats.onPageStarted("https://alertachart.com/settings", 100);
+        stats.onHttpError("https://alertachart.com/settings", 503);
+        stats.onHttpError("https://alertachart.com/settings", 404);
+        stats.onMainFrameError("https://alertachart.com/settings");
+        stats.onLegacyRedirect("https://alerta.kriptokirmizi.com/settings");
+
+        assertEquals(1, stats.get("/").abandoned);
+        NavigationStats.RouteStats settings = stats.get("/settings");
+        assertEquals(1, settings.http5xx);
+        assertEquals(1, settings.http4xx);
+        assertEquals(1, settings.mainFrameErrors);
+        assertEquals(1, stats.get("alerta.kriptokirmizi.com/settings").legacyRedirects);
+    }
+
+    @Test
+    public void histogramBucketsAreFixedAndPercentilesUseBucketBounds() {
+        NavigationStats.Histogram histogram = new NavigationStats.Histogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(80);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(3_000);
+        }
+        histogram.record(60_000);
+
+        assertEquals(NavigationStats.BUCKET_UPPER_MS.length + 1, histogram.counts.length);
+        assertEquals(90, histogram.counts[0]);
+        assertEquals(10, histogram.counts[5]);
+        assertEquals(1, histogram.counts[NavigationStats.BUCKET_UPPER_MS.length]);
+        assertEquals(100, histogram.percentileMs(50));
+        assertEquals(4_000, histogram.percentileMs(95));
+        assertEquals(60_000, histogram.percentileMs(100));
+    }
+
+    @Test
+    public void routesBeyondTheCapAreFolded() {
+        NavigationStats stats = new NavigationStats(0);
+        for (int i = 0; i < NavigationStats.MAX_ROUTES + 10; i++) {
+            stats.onMainFrameError("https://alertachart.com/page" + i);
+        }
+        assertEquals(NavigationStats.MAX_ROUTES + 1, stats.routeCount());
+        assertEquals(10, stats.get(NavigationStats.OTHER_ROUTE).mainFrameErrors);
+    }
+
+    @Test
+    public void survivesJsonRoundTripAndDrainResets() throws Exception {
+        NavigationStats stats = new NavigationStats(5);
+        stats.onPageStarted("https://alertachart.com/", 0);
+        stats.onPageFinished("https://alertachart.com/", 700);
+
+        NavigationStats restored = NavigationStats.fromJson(new JSONObject(stats.toJson(10).toString()), 0);
+        assertEquals(1, restored.get("/").finished);
+        assertEquals(700, restored.get("/").load.sumMs);
+        assertEquals(1, restored.get("/").load.counts[3]);
+
+        JSONObject drained = restored.drain(20);
+        assertEquals(5, drained.getLong("windowStartMs"));
+        assertEquals(1, drained.getJSONArray("routes").length());
+        assertEquals(0, restored.routeCount());
+    }
+}
@@ -0,0 +1,89 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PriceCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String TICKER_RESPONSE = "{\"data\":["
+            + "{\"symbol\":\"BTCUSDT\",\"lastPrice\":\"64250.10\",\"priceChangePercent\":\"2.15\",\"volume\":\"1200.5\"},"
+            + "{\"symbol\":\"ETHUSDT\",\"lastPrice\":\"3120.00\",\"priceChangePercent\":\"-1.02\",\"volume\":\"8400\"},"
+            + "{\"symbol\":\"DOGEUSDT\",\"lastPrice\":\"0.12\",\"priceChangePercent\":\"0\",\"volume\":\"1\"}"
+            + "]}";
+
+    @Test
+    public void appliesBatchedTickerResponseToWatchlistOnly() throws Exception {
+        PriceCache cache = new PriceCache(folder.newFile(PriceCache.FILE_NAME));
+        cache.setWatchlist("spot", Arrays.asList("btcusdt", "ethusdt", "solusdt"));
+
+        assertEquals(2, cache.applyTickerResponse(TICKER_RESPONSE, 1_000L));
+
+        List<PriceCache.Entry> entries = cache.snapshot();
+        assertEquals(3, entries.size());
+        assertEquals("btcusdt", entries.get(0).symbol);
+        assertEquals(64250.10, entries.get(0).price, 1e-9);
+        assertEquals(-1.02, entries.get(1).change24h, 1e-9);
+        assertEquals(0, entries.get(2).updatedAtMs);
+        assertEquals(1_000L, cache.getLastRefreshMs());
+    }
+
+    @Test
+    public void survivesReloadFromDisk() throws Exception {
+        File file = new File(folder.getRoot(), PriceCache.FILE_NAME);
+        PriceCache cache = new PriceCache(file);
+        cache.setWatchlist("futures", Arrays.asList("BTCUSDT", "ethusdt"));
+        cache.applyTickerResponse(TICKER_RESPONSE, 5_000L);
+        cache.flush();
+
+        PriceCache reloaded = new PriceCache(file);
+        assertEquals("futures", reloaded.getMarketType());
+        assertEquals(Arrays.asList("btcusdt", "ethusdt"), reloaded.getSymbols());
+        assertEquals(3120.00, reloaded.snapshot().get(1).price, 1e-9);
+        assertEquals(5_000L, reloaded.getLastRefreshMs());
+    }
+
+    @Test
+    public void keepsPricesOfRetainedSymbolsWhenWatchlistChanges() throws Exception {
+        PriceCache cache = new PriceCache(folder.newFile(PriceCache.FILE_NAME));
+        cache.setWatchlist("spot", Arrays.asList("btcusdt", "ethusdt"));
+        cache.applyTickerResponse(TICKER_RESPONSE, 1_000L);
+
+        cache.setWatchlist("spot", Arrays.asList("ethusdt", "solusdt"));
+        assertEquals(3120.00, cache.snapshot().get(0).price, 1e-9);
+        assertEquals(0, cache.snapshot().get(1).updatedAtMs);
+
+        // A different market type has different prices for the same symbols
+        cache.setWatchlist("futures", Arrays.asList("ethusdt"));
+        assertEquals(0, cache.snapshot().get(0).updatedAtMs);
+        assertEquals(0, cache.getLastRefreshMs());
+    }
+
+    @Test
+    public void ignoresOutOfOrderUpdates() throws Exception {
+        PriceCache cache = new PriceCache(folder.newFile(PriceCache.FILE_NAME));
+        cache.setWatchlist("spot", Arrays.asList("btcusdt"));
+
+        assertTrue(cache.update("BTCUSDT", 100, 1, 10, 2_000L));
+        assertFalse(cache.update("btcusdt", 90, 1, 10, 1_000L));
+        assertFalse(cache.update("xrpusdt", 1, 1, 1, 3_000L));
+        assertEquals(100, cache.snapshot().get(0).price, 1e-9);
+    }
+
+    @Test
+    public void corruptFileStartsEmpty() throws Exception {
+        File file = folder.newFile(PriceCache.FILE_NAME);
+        java.nio.file.Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+
+        PriceCache cache = new PriceCache(file);
+        assertTrue(cache.getSymbols().isEmpty());
+    }
+}
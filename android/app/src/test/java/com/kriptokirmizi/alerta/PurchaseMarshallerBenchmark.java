@@ -0,0 +1,66 @@
+package com.kriptokirmizi.alerta;
+
+import com.android.billingclient.api.Purchase;
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Purchase -> JSObject marshalling (checkEntitlements runs on every app start and foreground).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PurchaseMarshallerBenchmark {
+
+    @Param({ "1", "5" })
+    public int purchaseCount;
+
+    private List<Purchase> purchases;
+
+    @Setup
+    public void setUp() throws JSONException {
+        purchases = new ArrayList<>();
+        for (int i = 0; i < purchaseCount; i++) {
+            purchases.add(samplePurchase(i));
+        }
+    }
+
+    @Benchmark
+    public JSObject checkEntitlementsResult() {
+        return PurchaseMarshaller.toEntitlements(purchases);
+    }
+
+    @Benchmark
+    public JSObject restorePurchasesResult() {
+        return PurchaseMarshaller.toRestoreResult(purchases);
+    }
+
+    @Benchmark
+    public JSObject purchaseResult() {
+        return PurchaseMarshaller.toPurchaseResult(purchases.get(0));
+    }
+
+    static Purchase samplePurchase(int index) throws JSONException {
+        String json = "{\"orderId\":\"GPA.3346-1234-5678-" + index + "\","
+                + "\"packageName\":\"com.kriptokirmizi.alerta\","
+                + "\"productId\":\"premium_monthly\","
+                + "\"purchaseTime\":1730000000000,"
+                + "\"purchaseState\":0,"
+                + "\"purchaseToken\":\"token-" + index + "-abcdefghijklmnopqrstuvwxyz0123456789\","
+                + "\"quantity\":1,"
+                + "\"autoRenewing\":true,"
+                + "\"acknowledged\":true}";
+        return new Purchase(json, "signature");
+    }
+}
@@ -0,0 +1,56 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class SplashGateTest {
+    private static final long PROCESS_START = 1_000L;
+    private static final long CREATE = 1_250L;
+
+    @Test
+    public void keepsSplashUntilFirstContentfulPaint() throws Exception {
+        SplashGate gate = new SplashGate(CREATE, PROCESS_START, 3000);
+        gate.onPageStarted(CREATE + 100);
+        assertTrue(gate.shouldKeepOnScreen(CREATE + 500));
+
+        assertTrue(gate.onFirstContentfulPaint(CREATE + 900, 640.5));
+        assertFalse(gate.shouldKeepOnScreen(CREATE + 901));
+
+        JSONObject report = gate.toReport();
+        assertEquals("processStart", report.getString("origin"));
+        assertEquals(250, report.getLong("activityCreateMs"));
+        assertEquals(350, report.getLong("pageStartMs"));
+        assertEquals(1150, report.getLong("firstContentfulPaintMs"));
+        assertEquals(640.5, report.getDouble("pageReportedFcpMs"), 0);
+        assertEquals("fcp", report.getString("releaseReason"));
+        assertEquals(900, report.getLong("splashHeldMs"));
+    }
+
+    @Test
+    public void visualStateReleasesFirstAndLaterFcpIsOnlyRecorded() throws Exception {
+        SplashGate gate = new SplashGate(CREATE, PROCESS_START, 3000);
+        gate.onPageCommitVisible(CREATE + 600);
+        assertTrue(gate.onVisualStateReady(CREATE + 620));
+        assertFalse(gate.onFirstContentfulPaint(CREATE + 700, -1));
+
+        JSONObject report = gate.toReport();
+        assertEquals("visualState", report.getString("releaseReason"));
+        assertEquals(950, report.getLong("firstContentfulPaintMs"));
+        assertEquals(870, report.getLong("splashReleasedMs"));
+    }
+
+    @Test
+    public void timeoutReleasesWhenThePageNeverPaints() throws Exception {
+        SplashGate gate = new SplashGate(CREATE, -1, 3000);
+        assertTrue(gate.shouldKeepOnScreen(CREATE + 2999));
+        assertFalse(gate.shouldKeepOnScreen(CREATE + 3000));
+
+        JSONObject report = gate.toReport();
+        assertEquals("timeout", report.getString("releaseReason"));
+        assertEquals("activityCreate", report.getString("origin"));
+        assertEquals(-1, report.getLong("processStartMs"));
+        assertEquals(-1, report.getLong("firstContentfulPaintMs"));
+    }
+}
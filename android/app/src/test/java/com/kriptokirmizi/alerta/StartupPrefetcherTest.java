@@ -0,0 +1,134 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * StartupPrefetcher against a local MockWebServer.
+ */
+public class StartupPrefetcherTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if ("/api/slow".equals(path)) {
+                    return new MockResponse().setBody("{\"slow\":true}").setHeadersDelay(2, TimeUnit.SECONDS);
+                }
+                if ("/api/missing".equals(path)) {
+                    return new MockResponse().setResponseCode(404).setBody("{}");
+                }
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"path\":\"" + path + "\"}");
+            }
+        });
+        server.start();
+        client = new OkHttpClient();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void fetchesAllEndpointsInParallelAndHandsOutJson() throws Exception {
+        StartupPrefetcher prefetcher = newPrefetcher(Arrays.asList("/api/auth/session", "/api/user/plan"));
+        prefetcher.start();
+
+        StartupPrefetcher.Result session = claim(prefetcher, "/api/auth/session", 5000);
+        StartupPrefetcher.Result plan = claim(prefetcher, "/api/user/plan", 5000);
+
+        assertNotNull(session);
+        assertNotNull(plan);
+        assertEquals(200, session.status);
+        assertEquals("{\"path\":\"/api/auth/session\"}", session.body);
+        assertEquals("application/json", session.contentType);
+        assertEquals("{\"path\":\"/api/user/plan\"}", plan.body);
+
+        Set<String> paths = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+            assertEquals("accessToken=abc", request.getHeader("Cookie"));
+            assertEquals("1", request.getHeader("X-Startup-Prefetch"));
+            paths.add(request.getPath());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("/api/auth/session", "/api/user/plan")), paths);
+    }
+
+    @Test
+    public void responseCanOnlyBeClaimedOnce() throws Exception {
+        StartupPrefetcher prefetcher = newPrefetcher(Collections.singletonList("/api/user/plan"));
+        prefetcher.start();
+
+        assertNotNull(claim(prefetcher, "/api/user/plan", 5000));
+        assertNull(claim(prefetcher, "/api/user/plan", 5000));
+    }
+
+    @Test
+    public void unknownEndpointIsAMiss() throws Exception {
+        StartupPrefetcher prefetcher = newPrefetcher(Collections.singletonList("/api/user/plan"));
+        prefetcher.start();
+
+        assertNull(claim(prefetcher, "/api/alerts/price", 100));
+    }
+
+    @Test
+    public void claimTimesOutWhileResponseIsInFlight() throws Exception {
+        StartupPrefetcher prefetcher = newPrefetcher(Collections.singletonList("/api/slow"));
+        prefetcher.start();
+
+        long startedAt = System.nanoTime();
+        assertNull(claim(prefetcher, "/api/slow", 200));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 1500);
+    }
+
+    @Test
+    public void httpErrorsAreHandedOutWithTheirStatus() throws Exception {
+        StartupPrefetcher prefetcher = newPrefetcher(Collections.singletonList("/api/missing"));
+        prefetcher.start();
+
+        StartupPrefetcher.Result result = claim(prefetcher, "/api/missing", 5000);
+        assertNotNull(result);
+        assertEquals(404, result.status);
+    }
+
+    private StartupPrefetcher newPrefetcher(java.util.List<String> endpoints) {
+        return new StartupPrefetcher(client, server.url("/").toString(), endpoints,
+                url -> "accessToken=abc", 30_000L);
+    }
+
+    private static StartupPrefetcher.Result claim(StartupPrefetcher prefetcher, String endpoint, long timeoutMs)
+            throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<StartupPrefetcher.Result> result = new AtomicReference<>();
+        prefetcher.claim(endpoint, timeoutMs, value -> {
+            result.set(value);
+            latch.countDown();
+        });
+        assertTrue("claim callback not invoked", latch.await(timeoutMs + 2000, TimeUnit.MILLISECONDS));
+        return result.get();
+    }
+}
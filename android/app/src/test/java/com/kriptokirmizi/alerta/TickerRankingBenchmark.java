@@ -0,0 +1,67 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One ticker tick followed by a 50-row window read, against re-sorting the whole list per tick
+ * (what the page does today on every price update).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickerRankingBenchmark {
+
+    @Param({"500", "5000"})
+    public int symbols;
+
+    private TickerRanking ranking;
+    private String[] keys;
+    private double[] change;
+    private Integer[] order;
+    private final Random random = new Random(11);
+
+    @Setup
+    public void setUp() {
+        ranking = new TickerRanking(symbols);
+        keys = new String[symbols];
+        change = new double[symbols];
+        order = new Integer[symbols];
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < symbols; i++) {
+            keys[i] = "spot:S" + i + "USDT";
+            change[i] = random.nextGaussian() * 5;
+            order[i] = i;
+            ranking.update(keys[i], 1 + random.nextDouble() * 100, change[i], random.nextDouble() * 1e6);
+            members.add(keys[i]);
+        }
+        ranking.setGroup("all", members);
+    }
+
+    @Benchmark
+    public TickerRanking.Window incrementalTickAndWindow() {
+        int i = random.nextInt(symbols);
+        change[i] = random.nextGaussian() * 5;
+        ranking.update(keys[i], 50, change[i], 1_000);
+        return ranking.window("bench", "all", TickerRanking.CHANGE, true, 0, 50);
+    }
+
+    @Benchmark
+    public Integer[] fullSortPerTick() {
+        int i = random.nextInt(symbols);
+        change[i] = random.nextGaussian() * 5;
+        Arrays.sort(order, (a, b) -> Double.compare(change[b], change[a]));
+        return Arrays.copyOf(order, 50);
+    }
+}
@@ -0,0 +1,142 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TickerRankingTest {
+
+    @Test
+    public void treeMatchesAFullSortUnderRandomUpdates() {
+        OrderStatisticTree tree = new OrderStatisticTree(4);
+        double[] values = new double[300];
+        boolean[] present = new boolean[300];
+        Random random = new Random(7);
+        for (int step = 0; step < 5_000; step++) {
+            int id = random.nextInt(values.length);
+            if (random.nextInt(5) == 0) {
+                tree.remove(id);
+                present[id] = false;
+            } else {
+                // Coarse values so ties (broken by id) are common
+                values[id] = random.nextInt(50) - 25;
+                tree.insert(id, values[id]);
+                present[id] = true;
+            }
+        }
+
+        Integer[] expected = Arrays.stream(range(values.length)).filter(id -> present[id]).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, (a, b) -> values[a] != values[b] ? Double.compare(values[a], values[b]) : Integer.compare(a, b));
+        assertEquals(expected.length, tree.size());
+        for (int rank = 0; rank < expected.length; rank++) {
+            assertEquals(expected[rank].intValue(), tree.select(rank));
+            assertEquals(rank, tree.rank(expected[rank]));
+        }
+    }
+
+    @Test
+    public void nanSortsLowestAndRangeRunsBothWays() {
+        OrderStatisticTree tree = new OrderStatisticTree(0);
+        tree.insert(0, 5);
+        tree.insert(1, Double.NaN);
+        tree.insert(2, -3);
+        int[] out = new int[3];
+
+        assertEquals(3, tree.range(0, 3, false, out));
+        assertArrayEquals(new int[] {1, 2, 0}, out);
+        assertEquals(2, tree.range(1, 5, true, out));
+        assertEquals(2, out[0]);
+        assertEquals(1, out[1]);
+    }
+
+    @Test
+    public void groupsOnlyRankTheirMembers() {
+        TickerRanking ranking = new TickerRanking(0);
+        ranking.update("spot:BTCUSDT", 60_000, 2.5, 100);
+        ranking.update("spot:ETHUSDT", 3_000, -1.0, 2_000);
+        ranking.update("spot:SOLUSDT", 150, 8.0, 10_000);
+        ranking.setGroup("watchlist", Arrays.asList("spot:BTCUSDT", "spot:SOLUSDT", "spot:DOGEUSDT"));
+
+        assertEquals(2, ranking.total("watchlist"));
+        assertEquals(-1, ranking.rank("watchlist", TickerRanking.CHANGE, "spot:ETHUSDT"));
+        assertEquals(1, ranking.rank("watchlist", TickerRanking.CHANGE, "spot:SOLUSDT"));
+
+        // DOGE joins the ranking with its first ticker
+        ranking.update("spot:DOGEUSDT", 0.1, 20.0, 1_000_000);
+        assertEquals(3, ranking.total("watchlist"));
+        assertEquals(2, ranking.rank("watchlist", TickerRanking.CHANGE, "spot:DOGEUSDT"));
+
+        ranking.setGroup("watchlist", Arrays.asList("spot:ETHUSDT"));
+        assertEquals(1, ranking.total("watchlist"));
+        assertEquals(0, ranking.rank("watchlist", TickerRanking.VOLUME, "spot:ETHUSDT"));
+    }
+
+    @Test
+    public void windowsAreDiffedPerView() {
+        TickerRanking ranking = new TickerRanking(0);
+        ranking.update("spot:A", 1, 1, 1);
+        ranking.update("spot:B", 1, 2, 1);
+        ranking.update("spot:C", 1, 3, 1);
+        ranking.setGroup("all", Arrays.asList("spot:A", "spot:B", "spot:C"));
+        int a = ranking.idOf("spot:A");
+        int b = ranking.idOf("spot:B");
+        int c = ranking.idOf("spot:C");
+
+        TickerRanking.Window first = ranking.window("list", "all", TickerRanking.CHANGE, true, 0, 2);
+        assertEquals(3, first.total);
+        assertArrayEquals(new int[] {c, b}, first.order);
+        assertEquals(2, first.changed.length);
+
+        TickerRanking.Window idle = ranking.window("list", "all", TickerRanking.CHANGE, true, 0, 2);
+        assertNull(idle.order);
+        assertEquals(0, idle.changed.length);
+
+        // Same ticker, same values: not a change
+        assertFalse(ranking.update("spot:B", 1, 2, 1));
+        // A price move inside the window resends one row without reordering
+        assertTrue(ranking.update("spot:C", 2, 3, 1));
+        TickerRanking.Window moved = ranking.window("list", "all", TickerRanking.CHANGE, true, 0, 2);
+        assertNull(moved.order);
+        assertArrayEquals(new int[] {c}, moved.changed);
+
+        // A ticker entering the window sends the new order and only the newcomer
+        ranking.update("spot:A", 1, 10, 1);
+        TickerRanking.Window entered = ranking.window("list", "all", TickerRanking.CHANGE, true, 0, 2);
+        assertArrayEquals(new int[] {a, c}, entered.order);
+        assertArrayEquals(new int[] {a}, entered.changed);
+
+        // Another view, or a reset one, starts from a full window
+        assertEquals(2, ranking.window("other", "all", TickerRanking.CHANGE, true, 0, 2).changed.length);
+        ranking.resetView("list");
+        assertEquals(2, ranking.window("list", "all", TickerRanking.CHANGE, true, 0, 2).changed.length);
+    }
+
+    @Test
+    public void pagingAndUnknownGroups() {
+        TickerRanking ranking = new TickerRanking(0);
+        String[] symbols = new String[100];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = "spot:S" + i;
+            ranking.update(symbols[i], i, 0, 0);
+        }
+        ranking.setGroup("all", Arrays.asList(symbols));
+
+        TickerRanking.Window page = ranking.window("list", "all", TickerRanking.PRICE, false, 90, 20);
+        assertEquals(10, page.order.length);
+        assertEquals(ranking.idOf("spot:S90"), page.order[0]);
+
+        TickerRanking.Window none = ranking.window("list", "missing", TickerRanking.PRICE, false, 0, 20);
+        assertEquals(0, none.total);
+        assertEquals(0, none.changed.length);
+    }
+
+    private static int[] range(int n) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+}
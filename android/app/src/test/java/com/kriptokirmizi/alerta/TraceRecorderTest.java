@@ -0,0 +1,86 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class TraceRecorderTest {
+
+    private static JSONObject find(JSONArray events, String name) throws Exception {
+        for (int i = 0; i < events.length(); i++) {
+            JSONObject event = events.getJSONObject(i);
+            if (name.equals(event.getString("name"))) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void sectionsBecomeCompleteEventsInMicroseconds() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(100);
+        int outer = recorder.begin("MainActivity.onCreate", 42, "main", 1_000_000L);
+        int inner = recorder.begin("BridgeActivity.onCreate", 42, "main", 1_500_000L);
+        recorder.end(inner, 3_500_000L);
+        recorder.end(outer, 5_000_000L);
+
+        JSONArray events = recorder.toJson(42, "com.kriptokirmizi.alerta").getJSONArray("traceEvents");
+        JSONObject bridge = find(events, "BridgeActivity.onCreate");
+        assertEquals("X", bridge.getString("ph"));
+        assertEquals(1500.0, bridge.getDouble("ts"), 0.001);
+        assertEquals(2000.0, bridge.getDouble("dur"), 0.001);
+        assertEquals(42, bridge.getInt("tid"));
+        assertEquals(4000.0, find(events, "MainActivity.onCreate").getDouble("dur"), 0.001);
+    }
+
+    @Test
+    public void openSectionsAndMarksAreExported() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(100);
+        recorder.begin("forceCorrectServerUrl", 42, "main", 10_000L);
+        recorder.instant("web: first-contentful-paint", TraceRecorder.WEB_TRACK_TID,
+                TraceRecorder.WEB_TRACK_NAME, 20_000L, new JSONObject().put("fcpMs", 812));
+
+        JSONArray events = recorder.toJson(42, "app").getJSONArray("traceEvents");
+        assertEquals("B", find(events, "forceCorrectServerUrl").getString("ph"));
+        JSONObject fcp = find(events, "web: first-contentful-paint");
+        assertEquals("i", fcp.getString("ph"));
+        assertEquals("web", fcp.getString("cat"));
+        assertEquals(812, fcp.getJSONObject("args").getInt("fcpMs"));
+    }
+
+    @Test
+    public void threadsGetNameMetadata() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(100);
+        recorder.instant("process start", 42, "main", 0L, null);
+        recorder.begin("NativeKvStore.open", 57, "kv-open", 100L);
+        recorder.instant("web: navigationStart", TraceRecorder.WEB_TRACK_TID, TraceRecorder.WEB_TRACK_NAME, 200L, null);
+
+        JSONArray events = recorder.toJson(42, "app").getJSONArray("traceEvents");
+        int threadNames = 0;
+        for (int i = 0; i < events.length(); i++) {
+            JSONObject event = events.getJSONObject(i);
+            if ("M".equals(event.getString("ph")) && "thread_name".equals(event.getString("name"))) {
+                threadNames++;
+                if (event.getInt("tid") == 57) {
+                    assertEquals("kv-open", event.getJSONObject("args").getString("name"));
+                }
+            }
+        }
+        assertEquals(3, threadNames);
+    }
+
+    @Test
+    public void eventsPastTheCapAreDroppedAndCounted() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(2);
+        recorder.instant("a", 1, "main", 0L, null);
+        recorder.instant("b", 1, "main", 1L, null);
+        assertEquals(-1, recorder.begin("c", 1, "main", 2L));
+        recorder.end(-1, 3L);
+
+        assertEquals(2, recorder.size());
+        assertEquals(1, recorder.dropped());
+        assertEquals(1, recorder.toJson(1, "app").getJSONObject("otherData").getInt("droppedEvents"));
+    }
+}
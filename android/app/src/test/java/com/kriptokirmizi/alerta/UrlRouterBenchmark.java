@@ -0,0 +1,45 @@
+package com.kriptokirmizi.alerta;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-navigation routing cost (shouldOverrideUrlLoading, forceCorrectServerUrl, onResume).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UrlRouterBenchmark {
+
+    private final String appUrl = "https://www.alertachart.com/chart?symbol=BTCUSDT&tf=1h";
+    private final String legacyUrl = "https://alerta.kriptokirmizi.com/settings?tab=alerts";
+    private final String mailtoUrl = "mailto:support@alertachart.com";
+    private final String serverUrl = "https://www.alertachart.com";
+
+    @Benchmark
+    public UrlRouter.Action routeAppUrl() {
+        return UrlRouter.route(appUrl);
+    }
+
+    @Benchmark
+    public UrlRouter.Action routeMailto() {
+        return UrlRouter.route(mailtoUrl);
+    }
+
+    @Benchmark
+    public void routeAndMigrateLegacyUrl(Blackhole blackhole) {
+        blackhole.consume(UrlRouter.route(legacyUrl));
+        blackhole.consume(UrlRouter.migrateLegacyUrl(legacyUrl));
+    }
+
+    @Benchmark
+    public boolean needsServerUrlLoad() {
+        return UrlRouter.needsServerUrlLoad(appUrl, serverUrl);
+    }
+}
@@ -0,0 +1,60 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+
+public class UrlRouterTest {
+
+    @Test
+    public void routesSpecialSchemesAndLegacyDomain() {
+        assertEquals(UrlRouter.Action.OPEN_EMAIL, UrlRouter.route("mailto:support@alertachart.com"));
+        assertEquals(UrlRouter.Action.OPEN_DIALER, UrlRouter.route("tel:+905551112233"));
+        assertEquals(UrlRouter.Action.REDIRECT_LEGACY, UrlRouter.route("https://alerta.kriptokirmizi.com/settings"));
+        assertEquals(UrlRouter.Action.LOAD_IN_WEBVIEW, UrlRouter.route("https://www.alertachart.com/chart"));
+        assertEquals(UrlRouter.Action.LOAD_IN_WEBVIEW, UrlRouter.route("https://accounts.google.com/o/oauth2"));
+    }
+
+    @Test
+    public void migratesLegacyUrls() {
+        assertEquals("https://alertachart.com/settings?tab=1",
+                UrlRouter.migrateLegacyUrl("https://alerta.kriptokirmizi.com/settings?tab=1"));
+        assertNull(UrlRouter.migrateLegacyUrl("https://www.alertachart.com/settings"));
+        assertNull(UrlRouter.migrateLegacyUrl(null));
+    }
+
+    @Test
+    public void decidesWhenServerUrlMustBeLoaded() {
+        String serverUrl = "https://www.alertachart.com";
+        assertTrue(UrlRouter.needsServerUrlLoad(null, serverUrl));
+        assertTrue(UrlRouter.needsServerUrlLoad("", serverUrl));
+        assertTrue(UrlRouter.needsServerUrlLoad("about:blank", serverUrl));
+        assertTrue(UrlRouter.needsServerUrlLoad("https://alerta.kriptokirmizi.com/", serverUrl));
+        assertTrue(UrlRouter.needsServerUrlLoad("https://localhost/", serverUrl));
+        assertFalse(UrlRouter.needsServerUrlLoad("https://www.alertachart.com/chart", serverUrl));
+    }
+
+    @Test
+    public void routeDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+        String url = "https://www.alertachart.com/chart?symbol=BTCUSDT";
+
+        // Warm up so the measured loop runs compiled code
+        for (int i = 0; i < 20_000; i++) {
+            UrlRouter.route(url);
+        }
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            UrlRouter.route(url);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Allow a little noise from the measurement itself
+        assertTrue("route() allocated " + allocated + " bytes for 10k calls", allocated < 1024);
+    }
+}
@@ -0,0 +1,66 @@
+package com.kriptokirmizi.alerta;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class WebViewPoolPolicyTest {
+
+    @Test
+    public void capacityFollowsDeviceRamClass() {
+        assertEquals(0, WebViewPoolPolicy.capacityFor(2_048, false));
+        assertEquals(0, WebViewPoolPolicy.capacityFor(3_072, false));
+        assertEquals(1, WebViewPoolPolicy.capacityFor(4_096, false));
+        assertEquals(2, WebViewPoolPolicy.capacityFor(8_192, false));
+        assertEquals(3, WebViewPoolPolicy.capacityFor(12_288, false));
+        assertEquals(WebViewPoolPolicy.MAX_VIEWS, WebViewPoolPolicy.capacityFor(24_576, false));
+        assertEquals(0, WebViewPoolPolicy.capacityFor(12_288, true));
+    }
+
+    @Test
+    public void trimLevelsShrinkThePool() {
+        assertEquals(3, WebViewPoolPolicy.capacityAfterTrim(WebViewPoolPolicy.TRIM_UI_HIDDEN, 3));
+        assertEquals(2, WebViewPoolPolicy.capacityAfterTrim(WebViewPoolPolicy.TRIM_RUNNING_MODERATE, 3));
+        assertEquals(1, WebViewPoolPolicy.capacityAfterTrim(WebViewPoolPolicy.TRIM_RUNNING_LOW, 3));
+        assertEquals(0, WebViewPoolPolicy.capacityAfterTrim(WebViewPoolPolicy.TRIM_RUNNING_CRITICAL, 3));
+        assertEquals(0, WebViewPoolPolicy.capacityAfterTrim(WebViewPoolPolicy.TRIM_BACKGROUND, 3));
+        assertEquals(0, WebViewPoolPolicy.capacityAfterTrim(WebViewPoolPolicy.TRIM_RUNNING_MODERATE, 0));
+    }
+
+    @Test
+    public void navigationStaysInPoolOnlyWithinTheRouteScope() {
+        String blog = "https://www.alertachart.com/blog";
+        assertTrue(WebViewPoolPolicy.staysInPool(blog, "https://www.alertachart.com/blog/btc-halving"));
+        assertTrue(WebViewPoolPolicy.staysInPool(blog, "https://www.alertachart.com/blog?page=2"));
+        assertFalse(WebViewPoolPolicy.staysInPool(blog, "https://www.alertachart.com/?tab=alerts"));
+        assertFalse(WebViewPoolPolicy.staysInPool(blog, "https://www.alertachart.com/blogger"));
+        assertFalse(WebViewPoolPolicy.staysInPool(blog, "https://alerta.kriptokirmizi.com/blog"));
+        assertFalse(WebViewPoolPolicy.staysInPool(blog, "mailto:support@alertachart.com"));
+        assertFalse(WebViewPoolPolicy.staysInPool("https://www.alertachart.com/", "https://www.alertachart.com/"));
+    }
+
+    @Test
+    public void leavingForTheMainPageIsAReturnNotANavigation() {
+        String home = "https://www.alertachart.com/?tab=alerts";
+        assertTrue(WebViewPoolPolicy.returnsToMain(home, "https://www.alertachart.com/"));
+        assertTrue(WebViewPoolPolicy.returnsToMain("https://www.alertachart.com", "https://www.alertachart.com/#top"));
+        assertTrue(WebViewPoolPolicy.returnsToMain("https://www.alertachart.com/settings", "https://www.alertachart.com/settings?x=1"));
+        assertFalse(WebViewPoolPolicy.returnsToMain("https://www.alertachart.com/settings", "https://www.alertachart.com/"));
+        assertFalse(WebViewPoolPolicy.returnsToMain(home, "https://alerta.kriptokirmizi.com/"));
+        assertFalse(WebViewPoolPolicy.returnsToMain(null, "https://www.alertachart.com/"));
+    }
+
+    @Test
+    public void statsSeparateHitAndMissLatency() throws Exception {
+        WebViewPoolPolicy.Stats stats = new WebViewPoolPolicy.Stats();
+        stats.recordHit(40);
+        stats.recordMiss();
+        stats.recordMissLatency(1_800);
+
+        assertEquals(1, stats.toJson().getInt("hits"));
+        assertEquals(1, stats.toJson().getInt("misses"));
+        assertEquals(40, stats.toJson().getJSONObject("hitLatency").getLong("p50Ms"));
+        assertEquals(1_800, stats.missLatency.maxMs);
+        assertEquals(1, stats.hitLatency.counts[0]);
+    }
+}
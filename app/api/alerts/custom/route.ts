@@ -48,15 +48,35 @@ export async function GET(request: NextRequest) {
             console.log('[Next.js API] Including userEmail for guest user:', userEmail);
         }
 
+        // Incremental sync (native AlertStore): forward the version cursor and the ETag
+        const since = searchParams.get('since');
+        if (since) {
+            backendQuery += `&since=${encodeURIComponent(since)}`;
+        }
+        const headers: Record<string, string> = {
+            'Cookie': cookieString,
+        };
+        const ifNoneMatch = request.headers.get('if-none-match');
+        if (ifNoneMatch) {
+            headers['If-None-Match'] = ifNoneMatch;
+        }
+
         const response = await fetch(`${backendUrl}/api/alerts/custom?${backendQuery}`, {
-            headers: {
-                'Cookie': cookieString,
-            },
+            headers,
         });
 
+        const etag = response.headers.get('etag');
+        if (response.status === 304) {
+            return new NextResponse(null, { status: 304, headers: etag ? { ETag: etag } : undefined });
+        }
+
         const result = await response.json();
 
-        return NextResponse.json(result, { status: response.status });
+        const nextResponse = NextResponse.json(result, { status: response.status });
+        if (etag) {
+            nextResponse.headers.set('ETag', etag);
+        }
+        return nextResponse;
     } catch (error: any) {
         console.error('[Next.js API] Error fetching custom alerts:', error);
         return NextResponse.json(
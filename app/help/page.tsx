@@ -7,6 +7,7 @@ import SupportRequestModal from '@/components/SupportRequestModal';
 import { t, Language } from '@/utils/translations';
 import { App } from '@capacitor/app';
 import MobileNav from '@/components/MobileNav';
+import webViewPoolService from '@/services/webViewPoolService';
 
 interface FAQItem {
   questionKey: string;
@@ -656,9 +657,12 @@ export default function HelpCenter() {
   const [loadingRequests, setLoadingRequests] = useState(false);
   const [expandedRequest, setExpandedRequest] = useState<number | null>(null);
 
-  // Fetch user's support requests
+  // Fetch user's support requests (a pre-rendered copy waits until it is on screen)
   useEffect(() => {
+    let cancelled = false;
     const fetchMyRequests = async () => {
+      await webViewPoolService.whenShown();
+      if (cancelled) return;
       setLoadingRequests(true);
       try {
         const response = await fetch('/api/my-support-requests');
@@ -680,6 +684,9 @@ export default function HelpCenter() {
     };
 
     fetchMyRequests();
+    return () => {
+      cancelled = true;
+    };
   }, []);
 
   // Check if running in Capacitor
@@ -700,19 +707,27 @@ export default function HelpCenter() {
     }
   }, []);
 
-  // Controlled back navigation - handles modals and missing history
-  const handleGoBack = useCallback(() => {
-    // First check if any modal is open
+  // Close the topmost open modal; false when none is open
+  const closeTopModal = useCallback(() => {
     if (selectedArticle) {
       setSelectedArticle(null);
-      return true; // Handled
+      return true;
     }
     if (showKnowledgeBase) {
       setShowKnowledgeBase(false);
-      return true; // Handled
+      return true;
     }
     if (showSupportModal) {
       setShowSupportModal(false);
+      return true;
+    }
+    return false;
+  }, [selectedArticle, showKnowledgeBase, showSupportModal]);
+
+  // Controlled back navigation - handles modals and missing history
+  const handleGoBack = useCallback(() => {
+    // First check if any modal is open
+    if (closeTopModal()) {
       return true; // Handled
     }
 
@@ -724,7 +739,17 @@ export default function HelpCenter() {
       router.push('/');
     }
     return true;
-  }, [selectedArticle, showKnowledgeBase, showSupportModal, router]);
+  }, [closeTopModal, router]);
+
+  // Pre-rendered copy in the Android WebView pool (no Capacitor bridge): the pool asks this
+  // function first on hardware back, and only goes back / hides the page when it returns false
+  useEffect(() => {
+    if (isCapacitor) return;
+    (window as any).__webViewPoolBack = closeTopModal;
+    return () => {
+      delete (window as any).__webViewPoolBack;
+    };
+  }, [isCapacitor, closeTopModal]);
 
   // Handle Android hardware back button (Capacitor)
   useEffect(() => {
@@ -319,14 +319,27 @@ export default function RootLayout({
         {/* Android Chrome */}
         <link rel="manifest" href="/manifest.json" />
 
+        {/* Pre-rendered pages (Android WebView pool, see webViewPoolService) are not visits:
+            analytics start when the pool brings the page on screen */}
+        <Script id="webview-pool-shown" strategy="beforeInteractive">
+          {`
+            window.__whenPageShown = function(start) {
+              if (navigator.userAgent.indexOf('AlertaPool') < 0 || window.__webViewPoolShown) start();
+              else window.addEventListener('webviewpoolshow', start, { once: true });
+            };
+          `}
+        </Script>
+
         {/* Google Tag Manager */}
         <Script id="google-tag-manager" strategy="afterInteractive">
           {`
+            window.__whenPageShown(function(){
             (function(w,d,s,l,i){w[l]=w[l]||[];w[l].push({'gtm.start':
             new Date().getTime(),event:'gtm.js'});var f=d.getElementsByTagName(s)[0],
             j=d.createElement(s),dl=l!='dataLayer'?'&l='+l:'';j.async=true;j.src=
             'https://www.googletagmanager.com/gtm.js?id='+i+dl;f.parentNode.insertBefore(j,f);
             })(window,document,'script','dataLayer','GTM-WNHMV25K');
+            });
           `}
         </Script>
 
@@ -339,10 +352,12 @@ export default function RootLayout({
           {`
             window.dataLayer = window.dataLayer || [];
             function gtag(){dataLayer.push(arguments);}
-            gtag('js', new Date());
-            gtag('config', 'G-Y9LZHKV3RQ');
-            gtag('config', 'G-S5GPGS5B15');
-            gtag('config', 'G-ZPK9VPSBL2');
+            window.__whenPageShown(function(){
+              gtag('js', new Date());
+              gtag('config', 'G-Y9LZHKV3RQ');
+              gtag('config', 'G-S5GPGS5B15');
+              gtag('config', 'G-ZPK9VPSBL2');
+            });
           `}
         </Script>
 
@@ -388,6 +403,61 @@ export default function RootLayout({
           }}
         />
 
+        {/* Native splash (Android): report first contentful paint so the splash drops on real content */}
+        <Script
+          id="native-splash-fcp"
+          strategy="beforeInteractive"
+          dangerouslySetInnerHTML={{
+            __html: `
+              (function() {
+                if (typeof window === 'undefined' || typeof PerformanceObserver === 'undefined') return;
+                var reported = false;
+                // Web milestones onto the native startup trace (StartupTrace plugin, same timeline)
+                function markTimeline(cap, fcpMs) {
+                  try {
+                    var plugin = cap.Plugins && cap.Plugins.StartupTrace;
+                    if (!plugin || typeof performance.timeOrigin !== 'number') return;
+                    var origin = performance.timeOrigin;
+                    var marks = [['web: navigationStart', 0]];
+                    var nav = performance.getEntriesByType && performance.getEntriesByType('navigation')[0];
+                    if (nav) {
+                      marks.push(['web: responseStart', nav.responseStart]);
+                      marks.push(['web: domInteractive', nav.domInteractive]);
+                      marks.push(['web: domContentLoaded', nav.domContentLoadedEventEnd]);
+                    }
+                    marks.push(['web: first-contentful-paint', fcpMs]);
+                    marks.forEach(function(mark) {
+                      if (mark[1] > 0 || mark[0] === 'web: navigationStart') {
+                        plugin.markTimeline({ name: mark[0], epochMs: origin + mark[1] });
+                      }
+                    });
+                  } catch (e) {}
+                }
+                function report(fcpMs) {
+                  var cap = window.Capacitor;
+                  if (reported || !cap || !cap.isNativePlatform || !cap.isNativePlatform()) return;
+                  reported = true;
+                  markTimeline(cap, fcpMs);
+                  try {
+                    if (cap.Plugins && cap.Plugins.Splash) {
+                      cap.Plugins.Splash.contentReady({ fcpMs: fcpMs });
+                    } else if (cap.nativePromise) {
+                      cap.nativePromise('Splash', 'contentReady', { fcpMs: fcpMs });
+                    }
+                  } catch (e) {}
+                }
+                try {
+                  new PerformanceObserver(function(list) {
+                    list.getEntries().forEach(function(entry) {
+                      if (entry.name === 'first-contentful-paint') report(entry.startTime);
+                    });
+                  }).observe({ type: 'paint', buffered: true });
+                } catch (e) {}
+              })();
+            `,
+          }}
+        />
+
         {/* Google Identity Services (GIS) for Web OAuth - ONLY for web, NOT for Android/iOS */}
         {/* 🔥 CRITICAL: Android'de bu script ERR_BLOCKED_BY_ORB hatasına neden oluyor */}
         {/* Script'i sadece web'de yüklemek için - app/page.tsx'de dinamik olarak yüklenecek */}
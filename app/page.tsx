@@ -21,6 +21,11 @@ import TrialPromotionModal from '@/components/TrialPromotionModal';
 import DrawingToolbar, { DrawingTool } from '@/components/chart/DrawingToolbar';
 import NotificationDropdown from '@/components/NotificationDropdown';
 import alertService from '@/services/alertService';
+import nativeAlarmService from '@/services/nativeAlarmService';
+import lifecycleBusService from '@/services/lifecycleBusService';
+import navigationMonitorService from '@/services/navigationMonitorService';
+import startupTraceService from '@/services/startupTraceService';
+import webViewPoolService from '@/services/webViewPoolService';
 import { authService } from '@/services/authService';
 import { pushNotificationService } from '@/services/pushNotificationService';
 import { setupAutomaticEntitlementSync, syncEntitlements } from '@/services/entitlementSyncService';
@@ -111,6 +116,9 @@ export default function Home() {
 
   // 🔥 HYDRATION FIX: Read cache on client-side mount (guaranteed to run after hydration)
   useEffect(() => {
+    startupTraceService.markTimeline('web: app hydrated');
+    // Pre-render the content pages users open from here (Android, when the device has pool budget)
+    webViewPoolService.warmWhenIdle();
     if (typeof window !== 'undefined') {
       try {
         const cached = localStorage.getItem('user_plan_cache');
@@ -816,6 +824,16 @@ export default function Home() {
     }
   }, []);
 
+  // Upload the native navigation field data each time the app goes to the background (Android)
+  useEffect(() => {
+    if (!navigationMonitorService.isAvailable()) return;
+    return lifecycleBusService.onLevelChange((event) => {
+      if (event.level === 'suspended') {
+        void navigationMonitorService.uploadReport();
+      }
+    });
+  }, []);
+
   // Load saved layout on mount
   useEffect(() => {
     const savedLayout = localStorage.getItem('chartLayout');
@@ -882,6 +900,25 @@ export default function Home() {
     return () => unsubscribe();
   }, []);
 
+  // Android: Snooze / Dismiss pressed on the alarm notification, and snoozed re-rings
+  useEffect(() => {
+    return nativeAlarmService.onEvent((event) => {
+      console.log('[App] Native alarm event:', event.type, event.alarmId);
+      if (event.type === 'ringing') {
+        const alert = alertService.getAlerts().find((a) => a.id === event.alarmId);
+        if (alert) setTriggeredAlert(alert);
+      } else if (event.type === 'snoozed') {
+        setTriggeredAlert((current) => (current?.id === event.alarmId ? null : current));
+      } else if (event.type === 'dismissed' && event.alarmId) {
+        // Same as the modal's Dismiss button (already done if the page dismissed it)
+        if (alertService.getAlerts().some((a) => a.id === event.alarmId)) {
+          alertService.dismissAlert(event.alarmId);
+        }
+        setTriggeredAlert((current) => (current?.id === event.alarmId ? null : current));
+      }
+    });
+  }, []);
+
   // Subscribe to auth state changes (both OAuth and legacy)
   useEffect(() => {
     // Check legacy auth on mount (for cookie-based auth)
@@ -2116,7 +2153,7 @@ export default function Home() {
                 )}
               </button>
               <button
-                onClick={() => window.location.href = '/blog'}
+                onClick={() => webViewPoolService.open('/blog')}
                 className="px-3 py-1.5 text-sm text-gray-400 hover:text-white hover:bg-gray-900 rounded transition-colors"
               >
                 News
@@ -2192,7 +2229,7 @@ export default function Home() {
               <button
                 onClick={() => {
                   if (typeof window !== 'undefined') {
-                    window.location.href = '/help';
+                    webViewPoolService.open('/help');
                   }
                 }}
                 className="px-3 py-1.5 text-sm text-gray-400 hover:text-white hover:bg-gray-900 rounded transition-colors"
@@ -19,6 +19,8 @@ import AddPriceAlertModal from '@/components/AddPriceAlertModal';
 import AddVolumeAlertModal from '@/components/AddVolumeAlertModal';
 import AddPercentageAlertModal from '@/components/AddPercentageAlertModal';
 import AlertsModal from '@/components/AlertsModal';
+import alertStoreService from '@/services/alertStoreService';
+import webViewPoolService from '@/services/webViewPoolService';
 
 export default function SettingsPage() {
   const [loading, setLoading] = useState(false);
@@ -835,9 +837,30 @@ export default function SettingsPage() {
 
     console.log('[Settings] ✅ Premium access confirmed, fetching alerts...');
 
+    // 🔥 NATIVE STORE: indexed on-device copy of the alerts (Android)
+    // Keyed by the signed-in user: another account's local copy is dropped, not shown
+    const owner = user.email;
+    const loadFromNativeStore = async () => {
+      const [priceAlerts, volumeAlertsData, percentageAlertsData] = await Promise.all([
+        alertStoreService.queryAll({ owner, kind: 'price' }),
+        alertStoreService.queryAll({ owner, kind: 'custom', type: 'volume_spike' }),
+        alertStoreService.queryAll({ owner, kind: 'custom', type: 'percentage_change' }),
+      ]);
+      setCustomAlerts(priceAlerts);
+      setVolumeAlerts(volumeAlertsData);
+      setPercentageAlerts(percentageAlertsData);
+    };
+
     const fetchCustomAlerts = async () => {
       // 🔥 OPTIMISTIC UI: Load from cache first (instant display)
-      if (typeof window !== 'undefined') {
+      if (alertStoreService.isAvailable()) {
+        try {
+          await loadFromNativeStore();
+          console.log('[Settings] ✅ Alerts loaded from native store');
+        } catch (storeError) {
+          console.warn('[Settings] Native alert store read failed:', storeError);
+        }
+      } else if (typeof window !== 'undefined') {
         try {
           const cachedPriceAlerts = localStorage.getItem('custom_alerts_cache');
           const cachedVolumeAlerts = localStorage.getItem('volume_alerts_cache');
@@ -921,6 +944,15 @@ export default function SettingsPage() {
           return;
         }
 
+        // Native store: pull only the changes since the last sync, then re-read locally
+        if (alertStoreService.isAvailable()) {
+          const results = await alertStoreService.sync(owner, deviceId);
+          if (results) {
+            await loadFromNativeStore();
+            return;
+          }
+        }
+
         // Use Next.js API route proxy (forwards cookies automatically)
         const response = await fetch(`/api/alerts/price?deviceId=${deviceId}`, {
           credentials: 'include',
@@ -2635,7 +2667,7 @@ export default function SettingsPage() {
 
             {/* Help Center Button */}
             <button
-              onClick={() => router.push('/help')}
+              onClick={() => webViewPoolService.open('/help', () => router.push('/help'))}
               className="p-1.5 text-slate-400 hover:text-blue-300 transition-colors group relative rounded-lg hover:bg-blue-950/20"
               title="Help Center"
             >
@@ -3428,7 +3460,10 @@ export default function SettingsPage() {
         loading={loading}
         setLoading={setLoading}
         user={user}
-        onAlertCreated={(alert) => setCustomAlerts([...customAlerts, alert])}
+        onAlertCreated={(alert) => {
+          setCustomAlerts([...customAlerts, alert]);
+          alertStoreService.put('price', alert);
+        }}
         symbolInputRef={symbolInputRef}
         suggestionsRef={suggestionsRef}
       />
@@ -3727,7 +3762,10 @@ export default function SettingsPage() {
         volumeSymbolInputRef={volumeSymbolInputRef}
         setError={setError}
         user={user}
-        onAlertCreated={(alert) => setVolumeAlerts(prev => [...prev, alert])}
+        onAlertCreated={(alert) => {
+          setVolumeAlerts(prev => [...prev, alert]);
+          alertStoreService.put('custom', alert);
+        }}
       />
 
       {/* Percentage Alert Modal - Extracted Component */}
@@ -3745,7 +3783,10 @@ export default function SettingsPage() {
         percentageSymbolInputRef={percentageSymbolInputRef}
         setError={setError}
         user={user}
-        onAlertCreated={(alert) => setPercentageAlerts(prev => [...prev, alert])}
+        onAlertCreated={(alert) => {
+          setPercentageAlerts(prev => [...prev, alert]);
+          alertStoreService.put('custom', alert);
+        }}
       />
 
       {/* Unified Alerts Modal - Tabbed view */}
@@ -3768,6 +3809,7 @@ export default function SettingsPage() {
             });
             if (response.ok) {
               setCustomAlerts(prev => prev.filter(a => a.id !== alert.id));
+              alertStoreService.remove('price', alert.id);
             }
           } catch (e) {
             console.error('Failed to delete price alert:', e);
@@ -3786,6 +3828,7 @@ export default function SettingsPage() {
             });
             if (response.ok) {
               setVolumeAlerts(prev => prev.filter(a => a.id !== alert.id));
+              alertStoreService.remove('custom', alert.id);
             }
           } catch (e) {
             console.error('Failed to delete volume alert:', e);
@@ -3804,6 +3847,7 @@ export default function SettingsPage() {
             });
             if (response.ok) {
               setPercentageAlerts(prev => prev.filter(a => a.id !== alert.id));
+              alertStoreService.remove('custom', alert.id);
             }
           } catch (e) {
             console.error('Failed to delete percentage alert:', e);
@@ -35,6 +35,11 @@ const config: CapacitorConfig = {
       // Plugin auto-discovered from ios/App/App/Plugins/InAppPurchasePlugin
       // and android/app/src/main/java/.../InAppPurchasePlugin.java
     },
+    // 🚀 Android: bootstrap endpoints fetched natively at process start (in parallel)
+    // and claimed by the page via StartupPrefetch.claim({ endpoint })
+    StartupPrefetch: {
+      endpoints: ['/api/auth/session', '/api/user/plan'],
+    },
   },
 };
 
@@ -9,6 +9,8 @@ import SymbolSearchModal from './SymbolSearchModal';
 import MarketCapItems from './MarketCapCard';
 import alertService from '@/services/alertService';
 import websocketService from '@/services/websocketService';
+import priceCacheService from '@/services/priceCacheService';
+import watchlistRankingService from '@/services/watchlistRankingService';
 import { loadCategories, getCategories, type Category } from '@/utils/categories';
 
 interface WatchlistItem {
@@ -36,6 +38,20 @@ interface WatchlistProps {
 // Free users are limited to 10 watchlist items
 const FREE_WATCHLIST_LIMIT = 10;
 
+// Ranked sorts re-rank at most once a second, and only the rows on screen (plus a margin)
+const RANK_INTERVAL_MS = 1000;
+const RANK_OVERSCAN_ROWS = 5;
+const DEFAULT_ROW_HEIGHT = 44;
+
+// 'custom' keeps the user's drag & drop order; the others rank by live ticker values
+type WatchlistSort = 'custom' | 'change' | 'volume' | 'price';
+const SORT_LABELS: Record<WatchlistSort, string> = {
+  custom: 'Custom',
+  change: '24h %',
+  volume: 'Volume',
+  price: 'Price',
+};
+
 export default function Watchlist({ onSymbolClick, currentSymbol, marketType = 'spot', isPremium = false, onUpgradeRequest, onMarketTypeChange, onLayoutChange, currentLayout = 1 }: WatchlistProps) {
   const [watchlist, setWatchlist] = useState<string[]>([]);
   const [priceData, setPriceData] = useState<Map<string, WatchlistItem>>(new Map());
@@ -66,6 +82,12 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
   const [backgroundColor, setBackgroundColor] = useState<string>('solid-dark');
   const [isIPad, setIsIPad] = useState(false);
   const [showMarketCap, setShowMarketCap] = useState(true); // Market cap indices visibility
+  const [sortMode, setSortMode] = useState<WatchlistSort>('custom');
+  const [rankedSymbols, setRankedSymbols] = useState<string[] | null>(null); // null = custom order
+  const [rankingViewport, setRankingViewport] = useState({ offset: 0, limit: 30 });
+  const listScrollRef = useRef<HTMLDivElement>(null);
+  const priceDataRef = useRef(priceData);
+  priceDataRef.current = priceData;
 
   // Detect client-side for responsive width
   useEffect(() => {
@@ -88,6 +110,11 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
     if (savedShowMarketCap !== null) {
       setShowMarketCap(savedShowMarketCap === 'true');
     }
+
+    const savedSort = localStorage.getItem('watchlist-sort');
+    if (savedSort && savedSort in SORT_LABELS) {
+      setSortMode(savedSort as WatchlistSort);
+    }
   }, []);
 
 
@@ -268,6 +295,9 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
       return;
     }
 
+    // Home-screen widget / native price cache follows the watchlist
+    priceCacheService.setWatchlist(marketType, watchlist);
+
     // WebSocket callback for real-time price updates
     const handlePriceUpdate = async (wsPriceData: Map<string, { symbol: string; price: number; change24h: number; volume24h: number; high24h: number; low24h: number }>) => {
       const newPriceData = new Map<string, WatchlistItem>();
@@ -303,6 +333,7 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
 
       setPriceData(newPriceData);
       prevPricesRef.current = newPrevPrices; // Update ref directly (no re-render)
+      priceCacheService.reportPrices(wsPriceData);
 
       // Wait for all price checks to complete (fire-and-forget, don't block UI)
       Promise.all(checkPricePromises).catch(err => {
@@ -378,6 +409,89 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
     // These are updated via priceData updates, not WebSocket reconnection
   }, [watchlist, marketType]);
 
+  // Ranked order for the non-custom sorts (native incremental ranking on Android, JS sort elsewhere).
+  // Ticks only update priceDataRef; the ranking pass runs on an interval and reads the rows in
+  // view, so a tick costs neither a re-sort nor a bridge message.
+  useEffect(() => {
+    if (sortMode === 'custom') {
+      setRankedSymbols(null);
+      return;
+    }
+    let cancelled = false;
+    const visible = getVisibleSymbols();
+    const group = `watchlist:${marketType}:${selectedFilter}`;
+    const { offset, limit } = rankingViewport;
+    const rank = async () => {
+      // Issued in one tick so the three calls share a bridge message
+      const [, , result] = await Promise.all([
+        watchlistRankingService.report(marketType, priceDataRef.current),
+        watchlistRankingService.setGroup(group, marketType, visible),
+        watchlistRankingService.getWindow('watchlist', group, marketType, sortMode, true, offset, limit),
+      ]);
+      if (cancelled) return;
+      setRankedSymbols((previous) => {
+        // Rows outside the window keep their last place; the window is spliced in at its offset
+        const members = new Set(visible);
+        const windowed = new Set(result.symbols);
+        const base = previous ? previous.filter((symbol) => members.has(symbol)) : [];
+        const placed = new Set(base);
+        const rest = [...base, ...visible.filter((symbol) => !placed.has(symbol))]
+          .filter((symbol) => !windowed.has(symbol));
+        const at = Math.min(result.offset, rest.length);
+        const next = [...rest.slice(0, at), ...result.symbols, ...rest.slice(at)];
+        return previous && previous.length === next.length && previous.every((symbol, i) => symbol === next[i]) ? previous : next;
+      });
+    };
+    rank();
+    const timer = setInterval(rank, RANK_INTERVAL_MS);
+    return () => {
+      cancelled = true;
+      clearInterval(timer);
+    };
+  }, [sortMode, watchlist, marketType, selectedFilter, favorites, symbolCategories, rankingViewport]);
+
+  // Rows on screen for the ranked window
+  useEffect(() => {
+    const list = listScrollRef.current;
+    if (!list || sortMode === 'custom') return;
+    let frame = 0;
+    const measure = () => {
+      frame = 0;
+      const first = list.querySelector<HTMLElement>('[data-symbol]');
+      const rowHeight = first?.offsetHeight || DEFAULT_ROW_HEIGHT;
+      // Rows start below the market cap items
+      const listTop = first ? first.getBoundingClientRect().top - list.getBoundingClientRect().top + list.scrollTop : 0;
+      const firstRow = Math.floor(Math.max(0, list.scrollTop - listTop) / rowHeight);
+      const offset = Math.max(0, firstRow - RANK_OVERSCAN_ROWS);
+      const limit = Math.ceil(list.clientHeight / rowHeight) + 2 * RANK_OVERSCAN_ROWS;
+      setRankingViewport((current) => (current.offset === offset && current.limit === limit ? current : { offset, limit }));
+    };
+    const onScroll = () => {
+      if (!frame) frame = requestAnimationFrame(measure);
+    };
+    measure();
+    list.addEventListener('scroll', onScroll, { passive: true });
+    window.addEventListener('resize', onScroll);
+    return () => {
+      if (frame) cancelAnimationFrame(frame);
+      list.removeEventListener('scroll', onScroll);
+      window.removeEventListener('resize', onScroll);
+    };
+  }, [sortMode, watchlist.length]);
+
+  const changeSortMode = (mode: WatchlistSort) => {
+    setSortMode(mode);
+    localStorage.setItem('watchlist-sort', mode);
+  };
+
+  const getVisibleSymbols = () => {
+    return watchlist.filter((symbol) => {
+      if (selectedFilter === 'ALL') return true;
+      if (selectedFilter === 'FAVORITES') return favorites.has(symbol);
+      return symbolCategories.get(symbol) === selectedFilter;
+    });
+  };
+
   const addSymbol = async (symbol: string) => {
     const normalizedSymbol = symbol.toLowerCase();
 
@@ -524,6 +638,8 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
 
   // Touch event handlers for mobile drag & drop
   const handleTouchStart = (e: React.TouchEvent, symbol: string) => {
+    // Reordering only applies to the custom order
+    if (sortMode !== 'custom') return;
     const touch = e.touches[0];
     setTouchStartY(touch.clientY);
     setTouchCurrentY(touch.clientY);
@@ -1166,10 +1282,23 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
             + Category
           </button>
         )}
+
+        <select
+          value={sortMode}
+          onChange={(e) => changeSortMode(e.target.value as WatchlistSort)}
+          className="ml-auto text-[10px] md:text-[10px] px-2 md:px-2 py-1 md:py-1 bg-gray-800/50 text-gray-400 hover:text-white rounded-lg border-none focus:outline-none transition-all duration-200 font-medium flex-shrink-0"
+          title="Sort watchlist"
+        >
+          {(Object.keys(SORT_LABELS) as WatchlistSort[]).map((mode) => (
+            <option key={mode} value={mode}>
+              ⇅ {SORT_LABELS[mode]}
+            </option>
+          ))}
+        </select>
       </div>
 
       {/* Watchlist Items */}
-      <div className="flex-1 overflow-y-auto scrollbar-thin bg-gradient-to-b from-transparent via-gray-900/20 to-transparent">
+      <div ref={listScrollRef} className="flex-1 overflow-y-auto scrollbar-thin bg-gradient-to-b from-transparent via-gray-900/20 to-transparent">
         {/* Market Cap Indices - Toggle visibility */}
         {showMarketCap && (
           <MarketCapItems
@@ -1195,12 +1324,7 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
             </button>
           </div>
         ) : (
-          watchlist
-            .filter((symbol) => {
-              if (selectedFilter === 'ALL') return true;
-              if (selectedFilter === 'FAVORITES') return favorites.has(symbol);
-              return symbolCategories.get(symbol) === selectedFilter;
-            })
+          (rankedSymbols ?? getVisibleSymbols())
             .map((symbol) => {
               const data = priceData.get(symbol);
               const isActive = currentSymbol === symbol;
@@ -1227,10 +1351,10 @@ export default function Watchlist({ onSymbolClick, currentSymbol, marketType = '
                     e.preventDefault();
                     setContextMenu({ x: e.clientX, y: e.clientY, symbol });
                   }}
-                  draggable={typeof window !== 'undefined' && window.innerWidth >= 768}
+                  draggable={sortMode === 'custom' && typeof window !== 'undefined' && window.innerWidth >= 768}
                   onDragStart={(e) => {
                     // Only allow drag on desktop
-                    if (typeof window !== 'undefined' && window.innerWidth < 768) {
+                    if (sortMode !== 'custom' || (typeof window !== 'undefined' && window.innerWidth < 768)) {
                       e.preventDefault();
                       return;
                     }
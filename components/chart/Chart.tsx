@@ -23,6 +23,10 @@ import { Drawing, DrawingPoint, DrawingType } from '@/types/drawing';
 import ChartCache from './ChartCache';
 import historicalService from '@/services/historicalService';
 import alertService from '@/services/alertService';
+import nativeKvService from '@/services/nativeKvService';
+import indicatorEngineService from '@/services/indicatorEngineService';
+import candleResamplerService from '@/services/candleResamplerService';
+import nativeChartService from '@/services/nativeChartService';
 import { floorTimestampToTimeframe } from '@/utils/helpers';
 import { calculateRSI, calculateMACD, calculateSMA, calculateEMA, calculateBollingerBands } from '@/utils/indicators';
 import ChartSettings, { ChartSettingsType, DEFAULT_SETTINGS } from './ChartSettings';
@@ -151,6 +155,7 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
   const rafIdRef = useRef<number | null>(null); // requestAnimationFrame ID
   const lastBarCountRef = useRef<number>(0); // Track bar count to detect full vs partial updates
   const lastIndicatorUpdateRef = useRef<number>(0); // Track last indicator update time (throttle)
+  const nativeIndicatorsFailedRef = useRef<boolean>(false); // Native indicator engine errored: use JS
   const lastSetDataTimeRef = useRef<number>(0); // Track last full setData call
   const isInitialDataLoadedRef = useRef<boolean>(false); // Track if initial data loaded
   const currentExchangeRef = useRef(exchange);
@@ -276,6 +281,28 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
     onChange24hRef.current = onChange24h;
   }, [onConnectionChange, onPriceUpdate, onChange24h]);
 
+  // ?frameBench=1 (Android): pan the loaded bars on the web chart, then on the native surface,
+  // and log both frame-interval stats for comparison on this device
+  useEffect(() => {
+    if (isLoading || layout !== 1 || !nativeChartService.isAvailable()) return;
+    if (new URLSearchParams(window.location.search).get('frameBench') !== '1') return;
+    const bars = cacheRef.current.getAllBars();
+    if (!containerRef.current || !chartRef.current || bars.length < 2) return;
+
+    const rect = containerRef.current.getBoundingClientRect();
+    const visibleBars = Math.min(150, bars.length);
+    const travel = Math.max(0, bars.length - visibleBars);
+    nativeChartService
+      .compareRenderers(bars, { left: rect.left, top: rect.top, width: rect.width, height: rect.height }, visibleBars, 5000, (progress) => {
+        const from = progress * travel;
+        chartRef.current?.timeScale().setVisibleLogicalRange({ from, to: from + visibleBars });
+      })
+      .then((result) => {
+        if (result) console.log('[Chart] 🎞️ Frame intervals (web vs native):', result.web, result.native);
+      })
+      .catch((e) => console.error('[Chart] ❌ Renderer comparison failed:', e));
+  }, [isLoading, layout]);
+
   /**
    * Calculate and apply precision based on price
    * This ensures price scale shows correct decimal places
@@ -646,7 +673,8 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
   const drawingSeriesRef = useRef<Map<string, ISeriesApi<'Line'>>>(new Map());
   const horizontalLinesRef = useRef<Map<string, any>>(new Map()); // Store price lines for horizontal drawings
   const precisionSetRef = useRef<boolean>(false); // Track if precision has been set for current pair
-  const drawingsLoadedRef = useRef<boolean>(false); // Track if drawings have been loaded from localStorage
+  const drawingsLoadedRef = useRef<boolean>(false); // Track if drawings have been loaded from storage
+  const persistedDrawingsCountRef = useRef<number>(0); // Drawings count last loaded from / saved to storage
 
   // Update container size
   useEffect(() => {
@@ -695,60 +723,55 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
     return () => resizeObserver.disconnect();
   }, []);
 
-  // Load drawings from localStorage on mount
+  // Load drawings on mount (native KV store on Android, localStorage elsewhere - async either way)
   useEffect(() => {
     const storageKey = `drawings_${exchange}_${pair}`;
     drawingsLoadedRef.current = false; // Reset flag when exchange/pair changes
-    try {
-      const saved = localStorage.getItem(storageKey);
-      if (saved) {
-        const loadedDrawings = JSON.parse(saved);
-        if (Array.isArray(loadedDrawings)) {
-          // Always set drawings, even if empty (preserves localStorage state)
-          setDrawings(loadedDrawings);
-        } else {
-          // Invalid data, set empty array
-          setDrawings([]);
-        }
-      } else {
-        // No saved data, set empty array
+    let cancelled = false;
+    nativeKvService.getItem(storageKey).then((saved) => {
+      if (cancelled) return;
+      try {
+        const loadedDrawings = saved ? JSON.parse(saved) : [];
+        // Always set drawings, even if empty (preserves stored state)
+        const valid = Array.isArray(loadedDrawings) ? loadedDrawings : [];
+        persistedDrawingsCountRef.current = valid.length;
+        setDrawings(valid);
+      } catch (e) {
+        // Error parsing, set empty array
+        persistedDrawingsCountRef.current = 0;
         setDrawings([]);
       }
-      drawingsLoadedRef.current = true; // Mark as loaded
-    } catch (e) {
-      // Error parsing, set empty array
-      setDrawings([]);
       drawingsLoadedRef.current = true; // Mark as loaded even on error
-    }
+    }).catch(() => {
+      if (cancelled) return;
+      setDrawings([]);
+      drawingsLoadedRef.current = true;
+    });
+    return () => {
+      cancelled = true;
+    };
   }, [exchange, pair]);
 
-  // Save drawings to localStorage whenever they change (only after initial load)
+  // Save drawings whenever they change (only after initial load)
   useEffect(() => {
     // Don't save if drawings haven't been loaded yet (prevents overwriting with empty array)
     if (!drawingsLoadedRef.current) {
       return;
     }
 
-    const storageKey = `drawings_${exchange}_${pair}`;
-    try {
-      // Check if we're saving an empty array and if localStorage already has data
-      // This prevents overwriting existing drawings with empty array on mount/refresh
-      const existingData = localStorage.getItem(storageKey);
-      if (drawings.length === 0 && existingData) {
-        const existingDrawings = JSON.parse(existingData);
-        // If localStorage has drawings but we're trying to save empty array, skip save
-        // This only happens if user explicitly cleared drawings (handled by handleClearAllDrawings)
-        if (Array.isArray(existingDrawings) && existingDrawings.length > 0) {
-          return; // Don't overwrite existing drawings with empty array
-        }
-      }
+    // Don't overwrite stored drawings with an empty array on mount/refresh;
+    // an explicit clear goes through handleClearAllDrawings
+    if (drawings.length === 0 && persistedDrawingsCountRef.current > 0) {
+      return;
+    }
 
-      // Save drawings state to localStorage after initial load
-      // This ensures user actions (add/remove/clear) are persisted
-      localStorage.setItem(storageKey, JSON.stringify(drawings));
-    } catch (e) {
+    // Save drawings state after initial load
+    // This ensures user actions (add/remove/clear) are persisted
+    const storageKey = `drawings_${exchange}_${pair}`;
+    persistedDrawingsCountRef.current = drawings.length;
+    nativeKvService.setItem(storageKey, JSON.stringify(drawings)).catch(() => {
       // Silent fail in production
-    }
+    });
   }, [drawings, exchange, pair]);
 
   // OHLCV legend state (TradingView-style hover info)
@@ -1573,7 +1596,7 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
             showMACD: chartSettings.showMACD,
             showBB: chartSettings.showBB,
           });
-          updateIndicators(bars);
+          updateIndicators(bars, true);
         } else {
           console.log('[Chart] Not enough bars for indicators yet:', bars.length);
         }
@@ -2548,6 +2571,19 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
             // Add worker generation to tick for debugging
             handleTick({ ...data, _workerGen: thisWorkerGeneration });
             break;
+          case 'minute':
+            // Keep the local 1m candles current so the next timeframe switch resamples them
+            // (historicalService only resamples single-market charts, keyed by that market)
+            if (candleResamplerService.isAvailable() && markets.length === 1) {
+              candleResamplerService.updateMinute(markets[0], data);
+            }
+            break;
+          case 'minuteGap':
+            // The worker skips the minute in progress at its start: download it once it closes
+            if (candleResamplerService.isAvailable() && markets.length === 1) {
+              historicalService.repairMinute(markets[0], data.time, marketType);
+            }
+            break;
           case 'error':
             console.error('[Chart] Worker error:', data);
             break;
@@ -2936,7 +2972,7 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
     }
   };
 
-  const updateIndicators = (bars: Bar[]) => {
+  const updateIndicators = (bars: Bar[], fullRedraw = false) => {
     if (bars.length < 30) {
       console.log('[Indicators] ⚠️ Not enough data:', bars.length, 'bars (need 30+)');
       return; // Need minimum data for indicators
@@ -2948,6 +2984,15 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
       return;
     }
 
+    if (indicatorEngineService.isAvailable() && !nativeIndicatorsFailedRef.current) {
+      updateIndicatorsNative(bars, fullRedraw).catch((error) => {
+        console.error('[Indicators] ❌ Native engine failed, using JS:', error);
+        nativeIndicatorsFailedRef.current = true;
+        updateIndicators(bars, true);
+      });
+      return;
+    }
+
     const settings = chartSettingsRef.current; // ✅ Use ref for up-to-date values
 
     // console.log('[Indicators] ✅ Updating with', bars.length, 'bars, last close:', bars[bars.length - 1].close);
@@ -3180,6 +3225,65 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
     }
   };
 
+  /**
+   * Android: indicators come from the native engine, which updates them in O(1) per live candle.
+   * Only the points that changed are pushed to the chart series (full redraw on new history).
+   */
+  const updateIndicatorsNative = async (bars: Bar[], fullRedraw: boolean) => {
+    const settings = chartSettingsRef.current;
+    const symbol = `${currentExchangeRef.current}:${currentPairRef.current}`;
+    const timeframeKey = String(currentTimeframeRef.current);
+    const sync = await indicatorEngineService.sync(symbol, timeframeKey, bars, {
+      rsiPeriod: settings.rsiPeriod,
+      macdFast: settings.macdFast,
+      macdSlow: settings.macdSlow,
+      macdSignal: settings.macdSignal,
+      bbPeriod: settings.bbPeriod,
+      bbStdDev: settings.bbStdDev,
+      emaPeriods: [50, 100, 200],
+      smaPeriods: [50, 100, 200],
+    });
+    if (!sync) return;
+    const full = fullRedraw || sync.full;
+    const data = await indicatorEngineService.getSeries(symbol, timeframeKey, full ? 0 : sync.from);
+    // The chart may have been disposed or switched symbol meanwhile
+    if (!data || !chartRef.current || symbol !== `${currentExchangeRef.current}:${currentPairRef.current}`) return;
+
+    const apply = (series: ISeriesApi<any> | null, values: (number | null)[] | undefined, enabled: boolean, color?: (value: number) => string) => {
+      if (!enabled || !series || !values) return;
+      const points: any[] = [];
+      values.forEach((value, index) => {
+        if (value === null) return;
+        const point: any = { time: Math.floor(data.time[index] / 1000) as Time, value };
+        if (color) point.color = color(value);
+        points.push(point);
+      });
+      try {
+        if (full) {
+          series.setData(points);
+        } else {
+          points.forEach((point) => series.update(point));
+        }
+      } catch (error) {
+        // Series might be disposed, ignore
+      }
+    };
+
+    apply(rsiSeriesRef.current, data.rsi, settings.showRSI);
+    apply(macdLineSeriesRef.current, data.macd, settings.showMACD);
+    apply(macdSignalSeriesRef.current, data.signal, settings.showMACD);
+    apply(macdHistogramSeriesRef.current, data.histogram, settings.showMACD, (value) => (value >= 0 ? '#26a69a' : '#ef5350'));
+    apply(bbUpperRef.current, data.bbUpper, settings.showBB);
+    apply(bbMiddleRef.current, data.bbMiddle, settings.showBB);
+    apply(bbLowerRef.current, data.bbLower, settings.showBB);
+    apply(ma50Ref.current, data.ema?.['50'], settings.showMA50);
+    apply(ma100Ref.current, data.ema?.['100'], settings.showMA100);
+    apply(ma200Ref.current, data.ema?.['200'], settings.showMA200);
+    apply(sma50Ref.current, data.sma?.['50'], settings.showSMA50);
+    apply(sma100Ref.current, data.sma?.['100'], settings.showSMA100);
+    apply(sma200Ref.current, data.sma?.['200'], settings.showSMA200);
+  };
+
   const handleContextMenu = (e: React.MouseEvent) => {
     e.preventDefault();
     e.stopPropagation();
@@ -3502,13 +3606,12 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
     setDrawings([]);
     setSelectedDrawingId(null);
 
-    // Explicitly clear localStorage for this exchange/pair
+    // Explicitly clear stored drawings for this exchange/pair
     const storageKey = `drawings_${exchange}_${pair}`;
-    try {
-      localStorage.removeItem(storageKey);
-    } catch (e) {
+    persistedDrawingsCountRef.current = 0;
+    nativeKvService.removeItem(storageKey).catch(() => {
       // Silent fail
-    }
+    });
   };
 
   // Expose handleClearAllDrawings to parent via onClearAll prop (for multi-chart)
@@ -3539,13 +3642,12 @@ export default function Chart({ exchange, pair, timeframe, markets = [], onPrice
         Haptics.impact({ style: ImpactStyle.Medium }).catch(() => { });
       }
 
-      // Save to localStorage
+      // Save to storage
       const storageKey = `drawings_${exchange}_${pair}`;
-      try {
-        localStorage.setItem(storageKey, JSON.stringify(previousState));
-      } catch (e) {
+      persistedDrawingsCountRef.current = previousState.length;
+      nativeKvService.setItem(storageKey, JSON.stringify(previousState)).catch(() => {
         // Silent fail
-      }
+      });
     }
   };
 
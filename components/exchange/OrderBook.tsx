@@ -2,11 +2,13 @@
  * Order Book Component - Displays live bid/ask data
  * Uses dedicated WebSocket connection for real-time updates
  * Supports price aggregation via tick size selector
+ * On Android the native OrderBookDepth plugin keeps the full book and sends ready-made buckets
  */
 
 'use client';
 
 import { useState, useEffect, useRef } from 'react';
+import orderBookDepthService, { DepthLevel } from '@/services/orderBookDepthService';
 
 interface OrderBookEntry {
     price: number;
@@ -31,11 +33,15 @@ export default function OrderBook({ symbol, marketType }: OrderBookProps) {
     const [tickSize, setTickSize] = useState(0.01); // Default tick size
     const [showTickDropdown, setShowTickDropdown] = useState(false);
     const [reconnectKey, setReconnectKey] = useState(0); // 🔥 Trigger reconnect
+    // Buckets from the native book (Android); null on web, where rawBids/rawAsks are aggregated here
+    const [nativeBook, setNativeBook] = useState<{ bids: DepthLevel[]; asks: DepthLevel[] } | null>(null);
     const wsRef = useRef<WebSocket | null>(null);
     const currentSymbolRef = useRef<string>('');
     const isMountedRef = useRef(true);
     const timeoutRef = useRef<NodeJS.Timeout | null>(null);
     const dropdownRef = useRef<HTMLDivElement>(null);
+    const tickSizeRef = useRef(tickSize);
+    tickSizeRef.current = tickSize;
 
     // Auto-detect appropriate tick size based on price
     useEffect(() => {
@@ -80,8 +86,8 @@ export default function OrderBook({ symbol, marketType }: OrderBookProps) {
     };
 
     // Aggregated bids and asks
-    const bids = aggregateOrders(rawBids, false);
-    const asks = aggregateOrders(rawAsks, true);
+    const bids = nativeBook ? nativeBook.bids : aggregateOrders(rawBids, false);
+    const asks = nativeBook ? nativeBook.asks : aggregateOrders(rawAsks, true);
 
     // Calculate max total for depth visualization
     const maxTotal = Math.max(
@@ -103,7 +109,38 @@ export default function OrderBook({ symbol, marketType }: OrderBookProps) {
         }
     }, [showTickDropdown]);
 
+    // Native depth stream: the full diff stream stays in Java, only buckets cross the bridge
     useEffect(() => {
+        if (!orderBookDepthService.isAvailable()) return;
+
+        setNativeBook(null);
+        setLoading(true);
+        setConnected(false);
+        const unsubscribe = orderBookDepthService.subscribe(symbol, marketType, {
+            tickSize: tickSizeRef.current,
+            depth,
+            fps: 10,
+        }, {
+            onFrame: (frame) => {
+                setNativeBook({ bids: frame.bids, asks: frame.asks });
+                setConnected(true);
+                setLoading(false);
+            },
+            onStatus: (synced) => setConnected(synced),
+        });
+        return unsubscribe;
+    }, [symbol, marketType, reconnectKey]);
+
+    // Re-bucket natively when the tick size or depth changes
+    useEffect(() => {
+        if (!orderBookDepthService.isAvailable()) return;
+        orderBookDepthService.setAggregation(symbol, marketType, { tickSize, depth });
+    }, [tickSize, depth]);
+
+    useEffect(() => {
+        // Android: the native depth stream above replaces this socket
+        if (orderBookDepthService.isAvailable()) return;
+
         isMountedRef.current = true;
         const normalizedSymbol = symbol.toLowerCase();
 
@@ -234,7 +271,8 @@ export default function OrderBook({ symbol, marketType }: OrderBookProps) {
     // 🔥 Auto-reconnect when app resumes from background
     useEffect(() => {
         const handleVisibilityChange = () => {
-            if (document.visibilityState === 'visible') {
+            // The native depth stream resyncs on resume by itself
+            if (document.visibilityState === 'visible' && !orderBookDepthService.isAvailable()) {
                 // App resumed - check if WebSocket is disconnected
                 if (!wsRef.current || wsRef.current.readyState !== WebSocket.OPEN) {
                     console.log('[OrderBook] App resumed - reconnecting WebSocket...');
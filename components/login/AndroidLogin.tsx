@@ -3,6 +3,7 @@
 import { signIn } from 'next-auth/react';
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/navigation';
+import { fetchBootstrapJson } from '@/services/startupPrefetchService';
 
 export default function AndroidLogin() {
   const [loading, setLoading] = useState(false);
@@ -29,9 +30,8 @@ export default function AndroidLogin() {
       }
     }
 
-    // Check if already logged in
-    fetch('/api/auth/session')
-      .then(res => res.json())
+    // Check if already logged in (the Android app prefetches the session at process start)
+    fetchBootstrapJson('/api/auth/session')
       .then(data => {
         if (data?.user) {
           router.push('/');
@@ -226,6 +226,16 @@ export default function AndroidLogin() {
                 }
               }
 
+              // 🔥 Store session cookies natively (encrypted) so cold starts skip session restore
+              if (Capacitor?.Plugins?.NativeSession) {
+                try {
+                  await Capacitor.Plugins.NativeSession.persist();
+                  console.log('[AndroidLogin] ✅ Session cookies stored natively');
+                } catch (e) {
+                  console.warn('[AndroidLogin] ⚠️ Failed to store session cookies natively:', e);
+                }
+              }
+
               console.log('[AndroidLogin] ✅ All async operations completed (session, cookies, Preferences)');
 
               // 🔥 CRITICAL FIX: Wait for all async operations to complete before redirect
@@ -5,6 +5,8 @@
 
 import { PriceAlert } from '@/types/alert';
 import { authService } from './authService';
+import nativeAlarmService from './nativeAlarmService';
+import backgroundAlertService from './backgroundAlertService';
 
 /**
  * Format price for notifications
@@ -42,6 +44,7 @@ class AlertService {
 
   constructor() {
     this.loadFromStorage();
+    this.applyBackgroundTriggers();
 
     if (typeof window !== 'undefined') {
       window.addEventListener('nativeMessage', this.handleNativeMessage);
@@ -227,6 +230,28 @@ class AlertService {
     } catch (e) {
       console.error('[AlertService] Failed to save alerts:', e);
     }
+    // Keep the native background checker in step (Android only)
+    backgroundAlertService.setAlerts(this.alerts);
+  }
+
+  /**
+   * Mark alerts the native background job already fired (and notified) while the page was
+   * gone as triggered, without ringing again.
+   */
+  private async applyBackgroundTriggers() {
+    if (!backgroundAlertService.isAvailable()) return;
+    const triggered = await backgroundAlertService.consumeTriggered();
+    if (triggered.length === 0) return;
+    for (const hit of triggered) {
+      const alert = this.alerts.find(a => a.id === hit.id);
+      if (alert && !alert.isTriggered) {
+        alert.isTriggered = true;
+        alert.triggeredAt = hit.triggeredAt;
+      }
+    }
+    console.log('[AlertService] Applied', triggered.length, 'background-triggered alert(s)');
+    this.saveToStorage();
+    this.notifyListeners();
   }
 
   private notifyListeners() {
@@ -349,7 +374,7 @@ class AlertService {
       this.notifyListeners();
 
       // Play sound in loop until dismissed
-      this.playAlertSoundLoop();
+      this.playAlertSoundLoop(alert);
 
       // Show notification
       this.showNotification(alert);
@@ -639,6 +664,9 @@ class AlertService {
   }
 
   stopAlertSound() {
+    if (nativeAlarmService.isAvailable()) {
+      nativeAlarmService.dismiss().catch((e) => console.warn('[AlertService] Native alarm dismiss failed:', e));
+    }
     if (this.soundIntervalId) {
       clearInterval(this.soundIntervalId);
       this.soundIntervalId = null;
@@ -694,10 +722,26 @@ class AlertService {
     this.notifyListeners();
   }
 
-  private playAlertSoundLoop() {
-    // Stop any existing sound
-    this.stopAlertSound();
+  private playAlertSoundLoop(alert: PriceAlert) {
+    // Stop any existing web sound (a native alarm is simply restarted by start())
+    if (this.soundIntervalId) {
+      clearInterval(this.soundIntervalId);
+      this.soundIntervalId = null;
+    }
+
+    // 🔔 Android: ring from the native alarm service (alarm stream, keeps ringing in background)
+    if (nativeAlarmService.isAvailable()) {
+      const message = `${alert.pair.toUpperCase()} ${alert.direction === 'above' ? '⬆' : '⬇'} ${formatPrice(alert.price)}`;
+      nativeAlarmService.start(alert.id, '💰 Price Alert', message).then((started) => {
+        if (!started) this.playWebAlertSoundLoop();
+      });
+      return;
+    }
+
+    this.playWebAlertSoundLoop();
+  }
 
+  private playWebAlertSoundLoop() {
     // Play immediately
     this.playAlertSound();
 
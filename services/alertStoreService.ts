@@ -0,0 +1,112 @@
+/**
+ * Alert Store Service
+ * Wrapper around the native Android AlertStore plugin: an on-device SQLite copy of the
+ * user's price and custom (volume / percentage) alerts, synced incrementally with the
+ * backend (version cursor + ETag). Alert screens render from local data first and sync
+ * in the background. No-op on web and iOS (isAvailable() === false).
+ *
+ * The copy belongs to one user: query() and sync() pass the signed-in user's email as
+ * `owner`, and the plugin starts from an empty store when it differs from the last one.
+ * Logout clears it.
+ */
+
+export type AlertKind = 'price' | 'custom';
+
+export interface AlertPage<T = any> {
+  alerts: T[];
+  total: number;
+  offset: number;
+  hasMore: boolean;
+}
+
+export interface AlertQuery {
+  /** Signed-in user's email */
+  owner: string;
+  kind: AlertKind;
+  type?: 'volume_spike' | 'percentage_change';
+  symbol?: string;
+  status?: string;
+  limit?: number;
+  offset?: number;
+}
+
+export interface AlertSyncResult {
+  kind: AlertKind;
+  status: number;
+  notModified: boolean;
+  full: boolean;
+  upserted: number;
+  deleted: number;
+  bytes: number;
+  durationMs: number;
+}
+
+// Plugin caps a page at 500 rows
+const MAX_PAGE_SIZE = 500;
+
+class AlertStoreService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.AlertStore ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  async query<T = any>(query: AlertQuery): Promise<AlertPage<T>> {
+    const plugin = this.getPlugin();
+    if (!plugin) return { alerts: [], total: 0, offset: 0, hasMore: false };
+    return plugin.query(query);
+  }
+
+  /** All rows matching the query, read page by page */
+  async queryAll<T = any>(query: Omit<AlertQuery, 'limit' | 'offset'>): Promise<T[]> {
+    const alerts: T[] = [];
+    let offset = 0;
+    for (;;) {
+      const page = await this.query<T>({ ...query, limit: MAX_PAGE_SIZE, offset });
+      alerts.push(...page.alerts);
+      if (!page.hasMore) return alerts;
+      offset += page.alerts.length;
+    }
+  }
+
+  /**
+   * Pull changes since the last sync. Returns null when the plugin is missing or the sync
+   * failed (local data stays as it was).
+   */
+  async sync(owner: string, deviceId: string, userEmail?: string, kinds?: AlertKind[]): Promise<AlertSyncResult[] | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    try {
+      const { results } = await plugin.sync({ owner, deviceId, userEmail, kinds });
+      results.forEach((r: AlertSyncResult) => {
+        console.log(`[AlertStore] ${r.kind}: ${r.notModified ? 'not modified' : `+${r.upserted} -${r.deleted}`} (${r.durationMs}ms)`);
+      });
+      return results;
+    } catch (e) {
+      console.warn('[AlertStore] ⚠️ Sync failed:', e);
+      return null;
+    }
+  }
+
+  async put(kind: AlertKind, alert: { id: number | string }): Promise<void> {
+    await this.getPlugin()?.put({ kind, alert }).catch((e: any) => {
+      console.warn('[AlertStore] ⚠️ put failed:', e);
+    });
+  }
+
+  async remove(kind: AlertKind, id: number | string): Promise<void> {
+    await this.getPlugin()?.remove({ kind, id: String(id) }).catch((e: any) => {
+      console.warn('[AlertStore] ⚠️ remove failed:', e);
+    });
+  }
+
+  async clear(kind?: AlertKind): Promise<void> {
+    await this.getPlugin()?.clear(kind ? { kind } : {});
+  }
+}
+
+const alertStoreService = new AlertStoreService();
+export default alertStoreService;
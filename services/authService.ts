@@ -3,6 +3,8 @@
  * Manages user authentication, tokens, and API calls
  */
 
+import alertStoreService from './alertStoreService';
+
 interface User {
   id: number;
   email: string;
@@ -348,6 +350,26 @@ class AuthService {
         }
       }
 
+        // Drop the native (encrypted) copy of the session cookies (Android)
+      if (Capacitor?.Plugins?.NativeSession) {
+        try {
+          await Capacitor.Plugins.NativeSession.clear();
+          console.log('[AuthService] ✅ Native session cookies cleared');
+        } catch (e) {
+          console.error('[AuthService] Failed to clear native session cookies:', e);
+        }
+      }
+
+        // Drop the on-device alert copy (Android) so the next account doesn't see it
+      if (alertStoreService.isAvailable()) {
+        try {
+          await alertStoreService.clear();
+          console.log('[AuthService] ✅ Native alert store cleared');
+        } catch (e) {
+          console.error('[AuthService] Failed to clear native alert store:', e);
+        }
+      }
+
         // Note: httpOnly cookies (accessToken, refreshToken, next-auth.session-token) 
         // cannot be cleared from client-side. They are cleared server-side in /api/auth/logout
         // But Android uses Preferences, not cookies, so we clear Preferences above
@@ -0,0 +1,75 @@
+/**
+ * Background Alert Service
+ * Wrapper around the Android BackgroundAlerts plugin: the device's local price alerts are
+ * mirrored to a periodic WorkManager job that keeps checking them (one batched ticker
+ * request per cycle) after the app process is gone. isAvailable() === false on web and iOS.
+ */
+
+import { PriceAlert } from '@/types/alert';
+
+export interface BackgroundTriggeredAlert {
+  id: string;
+  price: number;
+  observedPrice: number | null;
+  triggeredAt: number;
+}
+
+export interface BackgroundAlertCycle {
+  startedAt: number;
+  durationMs: number;
+  requests: number;
+  symbols: number;
+  alerts: number;
+  triggered: number;
+  error: string | null;
+}
+
+class BackgroundAlertService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.BackgroundAlerts ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /** Replace the natively checked alerts (triggered ones are ignored). */
+  async setAlerts(alerts: PriceAlert[]): Promise<void> {
+    const plugin = this.getPlugin();
+    if (!plugin) return;
+    try {
+      await plugin.setAlerts({
+        alerts: alerts.map(({ id, exchange, pair, price, direction, isTriggered }) => ({
+          id, exchange, pair, price, direction, isTriggered,
+        })),
+      });
+    } catch (e) {
+      console.error('[BackgroundAlerts] ❌ setAlerts failed:', e);
+    }
+  }
+
+  /** Alerts the background job fired (and notified) since the last call. */
+  async consumeTriggered(): Promise<BackgroundTriggeredAlert[]> {
+    const plugin = this.getPlugin();
+    if (!plugin) return [];
+    try {
+      const result = await plugin.consumeTriggered();
+      return result?.triggered ?? [];
+    } catch (e) {
+      console.error('[BackgroundAlerts] ❌ consumeTriggered failed:', e);
+      return [];
+    }
+  }
+
+  /** Duration and request count of the last background cycles. */
+  async getStats(): Promise<BackgroundAlertCycle[]> {
+    const plugin = this.getPlugin();
+    if (!plugin) return [];
+    const result = await plugin.getStats();
+    return result?.cycles ?? [];
+  }
+}
+
+const backgroundAlertService = new BackgroundAlertService();
+export default backgroundAlertService;
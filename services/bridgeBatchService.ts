@@ -0,0 +1,205 @@
+/**
+ * Bridge Batch Service
+ * Sends many Capacitor plugin calls in ONE bridge message (Android BridgeBatch plugin):
+ * one JSON serialization and one thread hop instead of one per call. Commands to the same
+ * plugin keep their order, other commands don't wait for each other unless they list
+ * dependsOn. call() coalesces calls made in the same tick and settles them all from the one
+ * response; a call that passes { stream: true } gets its result as its own event as soon as it
+ * is known (one extra bridge message per call in that batch). Without the plugin (web, iOS)
+ * commands fall back to individual calls.
+ */
+
+export interface BridgeCommand {
+  plugin: string;
+  method: string;
+  args?: Record<string, any>;
+  /** Indices of earlier commands that must succeed first */
+  dependsOn?: number[];
+}
+
+export interface BridgeCommandResult {
+  ok: boolean;
+  data?: any;
+  error?: string;
+  durationMs?: number;
+}
+
+export interface BridgeBenchmarkResult {
+  commands: number;
+  sequentialMs: number;
+  concurrentMs: number;
+  batchedMs: number;
+}
+
+export interface BridgeCallOptions {
+  /** Settle this call as soon as its own result is back instead of with the whole batch */
+  stream?: boolean;
+}
+
+interface QueuedCall {
+  command: BridgeCommand;
+  stream: boolean;
+  resolve: (data: any) => void;
+  reject: (error: Error) => void;
+}
+
+class BridgeBatchService {
+  private queue: QueuedCall[] = [];
+  private flushScheduled = false;
+  private nextBatchId = 0;
+  // Streamed batches waiting for their per-command results
+  private inFlight = new Map<string, QueuedCall[]>();
+  private listening = false;
+
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.BridgeBatch ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /** Run commands in one crossing; results are in input order. */
+  async batch(commands: BridgeCommand[], timeoutMs?: number): Promise<BridgeCommandResult[]> {
+    if (commands.length === 0) return [];
+    const plugin = this.getPlugin();
+    if (!plugin) return this.runIndividually(commands);
+    const response = await plugin.batch({ commands, timeoutMs });
+    return response?.results ?? [];
+  }
+
+  /**
+   * One plugin call that shares a bridge message with the other calls made in the same tick.
+   * Resolves with the method's result (rejects with its error) when the batch answers, or as
+   * soon as that result is back with { stream: true }.
+   */
+  call<T = any>(
+    plugin: string,
+    method: string,
+    args?: Record<string, any>,
+    options: BridgeCallOptions = {},
+  ): Promise<T> {
+    const native = this.getPlugin();
+    if (!native) {
+      return this.runIndividually([{ plugin, method, args }]).then(([result]) => {
+        if (!result.ok) throw new Error(result.error);
+        return result.data as T;
+      });
+    }
+    return new Promise<T>((resolve, reject) => {
+      this.queue.push({ command: { plugin, method, args }, stream: options.stream === true, resolve, reject });
+      if (this.flushScheduled) return;
+      this.flushScheduled = true;
+      setTimeout(() => this.flush(native), 0);
+    });
+  }
+
+  /** Fire-and-forget call (logging, analytics marks), batched like call(). */
+  enqueue(command: BridgeCommand): void {
+    this.call(command.plugin, command.method, command.args).catch((e) =>
+      console.error(`[BridgeBatch] ❌ ${command.plugin}.${command.method} failed:`, e),
+    );
+  }
+
+  private flush(native: any): void {
+    const calls = this.queue;
+    this.queue = [];
+    this.flushScheduled = false;
+    const commands = calls.map((queued) => queued.command);
+    if (!calls.some((queued) => queued.stream)) {
+      // One message out, one back: every call settles from the response
+      native
+        .batch({ commands })
+        .then((response: { results?: BridgeCommandResult[] }) => {
+          calls.forEach((queued, index) => this.settle(queued, response?.results?.[index]));
+        })
+        .catch((e: any) => {
+          for (const queued of calls) queued.reject(new Error(e?.message ?? String(e)));
+        });
+      return;
+    }
+    this.listen(native);
+    const batchId = String(++this.nextBatchId);
+    this.inFlight.set(batchId, calls);
+    native
+      .batch({ commands, batchId })
+      .catch((e: any) => {
+        // The whole message failed: nothing was streamed for the remaining calls
+        for (const queued of this.inFlight.get(batchId) ?? []) {
+          queued?.reject(new Error(e?.message ?? String(e)));
+        }
+      })
+      .finally(() => this.inFlight.delete(batchId));
+  }
+
+  private listen(native: any): void {
+    if (this.listening) return;
+    this.listening = true;
+    native.addListener('batchResult', (event: BridgeCommandResult & { batchId: string; index: number }) => {
+      const calls = this.inFlight.get(event.batchId);
+      const queued = calls?.[event.index];
+      if (!calls || !queued) return;
+      delete calls[event.index];
+      this.settle(queued, event);
+    });
+  }
+
+  private settle(queued: QueuedCall, result: BridgeCommandResult | undefined): void {
+    if (result?.ok) {
+      queued.resolve(result.data);
+    } else {
+      queued.reject(new Error(result?.error ?? 'Batched call failed'));
+    }
+  }
+
+  /**
+   * Bridge round-trip benchmark on the device: `count` no-op calls awaited one by one,
+   * fired concurrently, and sent as one batch.
+   */
+  async benchmark(count = 10, iterations = 5): Promise<BridgeBenchmarkResult | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    const commands: BridgeCommand[] = Array.from({ length: count }, () => ({ plugin: 'BridgeBatch', method: 'ping' }));
+    // All pings target one plugin, so the batch runs them in order (the worst case for batching)
+    const timeIt = async (run: () => Promise<unknown>) => {
+      await run(); // warm-up
+      const start = performance.now();
+      for (let i = 0; i < iterations; i++) await run();
+      return (performance.now() - start) / iterations;
+    };
+    const sequentialMs = await timeIt(async () => {
+      for (let i = 0; i < count; i++) await plugin.ping();
+    });
+    const concurrentMs = await timeIt(() => Promise.all(commands.map(() => plugin.ping())));
+    const batchedMs = await timeIt(() => this.batch(commands));
+    const result = { commands: count, sequentialMs, concurrentMs, batchedMs };
+    console.log('[BridgeBatch] ⏱️ Round trips:', result);
+    return result;
+  }
+
+  private async runIndividually(commands: BridgeCommand[]): Promise<BridgeCommandResult[]> {
+    const plugins = (typeof window !== 'undefined' && (window as any).Capacitor?.Plugins) || {};
+    const results: BridgeCommandResult[] = [];
+    for (const command of commands) {
+      if (command.dependsOn?.some((i) => !results[i]?.ok)) {
+        results.push({ ok: false, error: 'Skipped: a prerequisite command failed' });
+        continue;
+      }
+      const fn = plugins[command.plugin]?.[command.method];
+      if (typeof fn !== 'function') {
+        results.push({ ok: false, error: `Not available: ${command.plugin}.${command.method}` });
+        continue;
+      }
+      try {
+        results.push({ ok: true, data: await fn.call(plugins[command.plugin], command.args ?? {}) });
+      } catch (e: any) {
+        results.push({ ok: false, error: e?.message ?? String(e) });
+      }
+    }
+    return results;
+  }
+}
+
+const bridgeBatchService = new BridgeBatchService();
+export default bridgeBatchService;
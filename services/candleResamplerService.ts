@@ -0,0 +1,135 @@
+/**
+ * Candle Resampler Service
+ * Higher timeframes built on the device from 1-minute candles by the Android CandleResampler
+ * plugin: historicalService hands it 1m history, the chart's worker streams the live minute,
+ * and switching 1m → 5m → 15m → 1h → 4h → 1d reads bars back locally instead of downloading
+ * the overlapping range again. Only history older than the local minutes goes to the network.
+ * No-op on web and iOS, where every timeframe is fetched as before.
+ */
+
+import type { Bar } from '@/types/chart';
+
+const MINUTE_MS = 60_000;
+const DAY_SECONDS = 86_400;
+
+export interface ResampledBars {
+  bars: Bar[];
+  /** First bar time built locally; anything older has to be fetched */
+  localFrom: number;
+  /** Open time of the newest local minute */
+  coveredTo: number;
+}
+
+export interface MinuteCoverage {
+  minutes: number;
+  coveredFrom?: number;
+  coveredTo?: number;
+}
+
+class CandleResamplerService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.CandleResampler ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /**
+   * Timeframes (seconds) that tile the UTC day in whole minutes. Weekly bars stay on the network:
+   * the live worker floors weeks to the epoch (Thursday) while the exchange opens them on Monday.
+   */
+  supports(timeframe: number): boolean {
+    return timeframe > 60 && timeframe % 60 === 0 && DAY_SECONDS % timeframe === 0;
+  }
+
+  /** Add 1-minute history (any order of chunks; overlapping chunks join the local run). */
+  async merge(market: string, bars: Bar[]): Promise<MinuteCoverage | null> {
+    const plugin = this.getPlugin();
+    if (!plugin || bars.length === 0) return null;
+    try {
+      return await plugin.merge({
+        market,
+        time: bars.map((bar) => bar.time),
+        open: bars.map((bar) => bar.open),
+        high: bars.map((bar) => bar.high),
+        low: bars.map((bar) => bar.low),
+        close: bars.map((bar) => bar.close),
+        volume: bars.map((bar) => bar.volume ?? 0),
+      });
+    } catch (e) {
+      console.error('[CandleResampler] ❌ merge failed:', e);
+      return null;
+    }
+  }
+
+  /** Live 1-minute candle (sent every second while it is open). */
+  async updateMinute(market: string, minute: Bar): Promise<MinuteCoverage | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    try {
+      return await plugin.updateMinute({
+        market,
+        time: minute.time,
+        open: minute.open,
+        high: minute.high,
+        low: minute.low,
+        close: minute.close,
+        volume: minute.volume,
+      });
+    } catch {
+      return null;
+    }
+  }
+
+  /**
+   * Bars of `timeframe` in [from, to] built from local minutes, or null when there are none or
+   * they stop short of `to` (the live feed stalled).
+   */
+  async resample(market: string, timeframe: number, from: number, to: number): Promise<ResampledBars | null> {
+    const plugin = this.getPlugin();
+    if (!plugin || !this.supports(timeframe)) return null;
+    try {
+      const result = await plugin.resample({ market, timeframe, from, to });
+      if (!result.supported || result.coveredTo === undefined || result.time.length === 0) return null;
+      // The open minute may not have been written yet; older than that means a gap
+      if (result.coveredTo < Math.floor(to / MINUTE_MS) * MINUTE_MS - MINUTE_MS) return null;
+      const bars: Bar[] = new Array(result.time.length);
+      for (let i = 0; i < bars.length; i++) {
+        bars[i] = this.toBar(result.time[i], result.open[i], result.high[i], result.low[i], result.close[i], result.volume[i]);
+      }
+      return { bars, localFrom: result.localFrom, coveredTo: result.coveredTo };
+    } catch (e) {
+      console.error('[CandleResampler] ❌ resample failed:', e);
+      return null;
+    }
+  }
+
+  async getCoverage(market: string): Promise<MinuteCoverage | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    try {
+      return await plugin.getCoverage({ market });
+    } catch {
+      return null;
+    }
+  }
+
+  /** Drop a market's local minutes (its next timeframe switch downloads again). */
+  async clear(market: string): Promise<void> {
+    try {
+      await this.getPlugin()?.clear({ market });
+    } catch (e) {
+      console.error('[CandleResampler] ❌ clear failed:', e);
+    }
+  }
+
+  private toBar(time: number, open: number, high: number, low: number, close: number, volume: number): Bar {
+    // Minutes carry no taker split: halve it like the Railway history does
+    return { time, open, high, low, close, volume, vbuy: volume / 2, vsell: volume / 2, cbuy: 0, csell: 0, lbuy: 0, lsell: 0 };
+  }
+}
+
+const candleResamplerService = new CandleResamplerService();
+export default candleResamplerService;
@@ -5,6 +5,7 @@
  */
 
 import { isIAPAvailable, getIAPPlugin } from './iapService';
+import { fetchBootstrapJson } from './startupPrefetchService';
 
 interface EntitlementSyncResult {
   success: boolean;
@@ -28,11 +29,8 @@ export async function syncEntitlements(): Promise<EntitlementSyncResult> {
 
     // Try to get from session
     try {
-      const sessionResponse = await fetch('/api/auth/session');
-      if (sessionResponse.ok) {
-        const session = await sessionResponse.json();
-        userEmail = session?.user?.email || null;
-      }
+      const session = await fetchBootstrapJson('/api/auth/session');
+      userEmail = session?.user?.email || null;
     } catch (e) {
       // Ignore
     }
@@ -68,13 +66,13 @@ export async function syncEntitlements(): Promise<EntitlementSyncResult> {
         }
       }
 
-      const planResponse = await fetch(planApiUrl, {
+      // The prefetched plan is only claimed for the exact configured endpoint (signed-in users)
+      const planData = await fetchBootstrapJson(planApiUrl, {
         cache: 'no-store',
         headers: { 'Cache-Control': 'no-cache' },
       });
 
-      if (planResponse.ok) {
-        const planData = await planResponse.json();
+      if (planData) {
         console.log('[Entitlement Sync] ✅ User plan checked (expired subscriptions auto-downgraded if needed):', {
           email: userEmail,
           plan: planData.plan,
@@ -82,7 +80,7 @@ export async function syncEntitlements(): Promise<EntitlementSyncResult> {
           expiryDate: planData.expiryDate,
         });
       } else {
-        console.log('[Entitlement Sync] ⚠️ Could not check user plan for expiry (non-critical):', planResponse.status);
+        console.log('[Entitlement Sync] ⚠️ Could not check user plan for expiry (non-critical)');
       }
     }
   } catch (expiryCheckError) {
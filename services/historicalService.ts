@@ -2,14 +2,28 @@
  * Historical Service - Based on aggr.trade
  * Fetches and caches historical bar data from exchanges
  * Supports Railway backend for unlimited pagination
+ * On Android, minute-multiple timeframes are resampled from local 1m candles when covered
  */
 
 import { Bar, HistoricalResponse } from '@/types/chart';
 import EventEmitter from 'eventemitter3';
+import candleResamplerService from './candleResamplerService';
+
+const MINUTE_MS = 60_000;
+// 1m history kept on the device: a week covers the default 5m / 15m / 1h chart ranges
+const LOCAL_MINUTES = 7 * 24 * 60;
+// Railway returns at most 5000 candles per request
+const MINUTES_PER_REQUEST = 5000;
+// Time the exchange gets to close a minute before it is re-downloaded
+const MINUTE_REPAIR_DELAY_MS = 5_000;
 
 class HistoricalService extends EventEmitter {
   private promisesOfData: Map<string, Promise<HistoricalResponse>> = new Map();
   private cache: Map<string, HistoricalResponse> = new Map();
+  private backfills: Set<string> = new Set();
+  // Per market: a minute whose local copy is truncated until it has been downloaded again
+  // (bars from it on are fetched, older ones still resampled)
+  private minuteRepairs: Map<string, number> = new Map();
 
   // Railway backend URL (fallback to local API if not set)
   private railwayApi = process.env.NEXT_PUBLIC_RAILWAY_API ||
@@ -95,7 +109,8 @@ class HistoricalService extends EventEmitter {
   }
 
   /**
-   * Fetch historical data from API
+   * Fetch historical data
+   * Resampled from local 1m candles when they cover the range; only older history hits the network
    */
   async fetch(
     from: number,
@@ -104,6 +119,39 @@ class HistoricalService extends EventEmitter {
     markets: string[],
     useRailway = false,
     marketType: 'spot' | 'futures' = 'spot'
+  ): Promise<HistoricalResponse> {
+    if (useRailway && markets.length === 1 && !this.isMarketCapIndex(markets) && candleResamplerService.isAvailable()) {
+      const market = markets[0];
+      if (timeframe === 60) {
+        // 1m history is exactly what the resampler needs
+        const response = await this.fetchRemote(from, to, timeframe, markets, useRailway, marketType);
+        candleResamplerService.merge(market, response.data);
+        return response;
+      }
+      if (candleResamplerService.supports(timeframe)) {
+        const truncatedMinute = this.minuteRepairs.get(market);
+        const local = truncatedMinute === undefined
+          ? await this.fetchResampled(from, to, timeframe, markets, marketType)
+          : await this.fetchAroundMinute(from, to, timeframe, markets, marketType, truncatedMinute);
+        if (local) return local;
+        // Not covered yet: fetch as usual, and hold 1m candles for the next switch
+        this.backfillMinutes(market, marketType);
+      }
+    }
+
+    return this.fetchRemote(from, to, timeframe, markets, useRailway, marketType);
+  }
+
+  /**
+   * Fetch historical data from API
+   */
+  private async fetchRemote(
+    from: number,
+    to: number,
+    timeframe: number,
+    markets: string[],
+    useRailway = false,
+    marketType: 'spot' | 'futures' = 'spot'
   ): Promise<HistoricalResponse> {
     // Keep using Railway for all requests (including BINANCE_FUTURES)
     // Railway backend should handle both Spot and Futures
@@ -251,6 +299,127 @@ class HistoricalService extends EventEmitter {
     return promise;
   }
 
+  /**
+   * Bars built from local 1m candles, plus the older part (if any) from the network
+   */
+  private async fetchResampled(
+    from: number,
+    to: number,
+    timeframe: number,
+    markets: string[],
+    marketType: 'spot' | 'futures'
+  ): Promise<HistoricalResponse | null> {
+    const local = await candleResamplerService.resample(markets[0], timeframe, from, to);
+    if (!local) {
+      return null;
+    }
+
+    let data = local.bars;
+    if (from < local.localFrom) {
+      try {
+        const older = await this.fetchRemote(from, local.localFrom - 1, timeframe, markets, true, marketType);
+        data = older.data.filter(bar => bar.time < local.localFrom).concat(data);
+      } catch (err) {
+        console.warn(`[Historical Service] Older bars unavailable, using local range only: ${(err as Error).message}`);
+      }
+    }
+
+    console.log(`[Historical Service] ⚡ ${local.bars.length} bars resampled locally from 1m candles (${timeframe}s)`);
+    return { from, to, data, initialPrices: {} };
+  }
+
+  /**
+   * Like fetchResampled, but the bar holding a truncated local minute (and anything newer)
+   * comes from the network: bars before it are resampled, the rest is downloaded
+   */
+  private async fetchAroundMinute(
+    from: number,
+    to: number,
+    timeframe: number,
+    markets: string[],
+    marketType: 'spot' | 'futures',
+    minute: number
+  ): Promise<HistoricalResponse | null> {
+    const bucket = Math.floor(minute / (timeframe * 1000)) * timeframe * 1000;
+    if (bucket <= from) {
+      return null;
+    }
+    const head = await this.fetchResampled(from, Math.min(to, bucket - 1), timeframe, markets, marketType);
+    if (!head || bucket > to) {
+      return head && { ...head, to };
+    }
+    try {
+      const tail = await this.fetchRemote(bucket, to, timeframe, markets, true, marketType);
+      return { ...head, to, data: head.data.concat(tail.data.filter(bar => bar.time >= bucket)) };
+    } catch (err) {
+      console.warn(`[Historical Service] Bars from the truncated minute on unavailable: ${(err as Error).message}`);
+      return null;
+    }
+  }
+
+  /**
+   * Download recent 1m candles into the native resampler, newest chunk first,
+   * resuming from the local coverage when it is recent
+   */
+  private async backfillMinutes(market: string, marketType: 'spot' | 'futures') {
+    if (this.backfills.has(market)) {
+      return;
+    }
+    this.backfills.add(market);
+
+    try {
+      const now = Date.now();
+      const oldest = now - LOCAL_MINUTES * MINUTE_MS;
+      const coverage = await candleResamplerService.getCoverage(market);
+      const stopAt = coverage?.coveredTo && coverage.coveredTo > oldest ? coverage.coveredTo : oldest;
+
+      let chunkTo = now;
+      while (chunkTo > stopAt) {
+        const chunkFrom = Math.max(stopAt, chunkTo - MINUTES_PER_REQUEST * MINUTE_MS);
+        const response = await this.fetchRemote(chunkFrom, chunkTo, 60, [market], true, marketType);
+        const merged = await candleResamplerService.merge(market, response.data);
+        console.log(`[Historical Service] 1m backfill ${market}: ${response.data.length} candles, ${merged?.minutes ?? 0} held`);
+        chunkTo = chunkFrom;
+      }
+    } catch (err) {
+      console.warn(`[Historical Service] 1m backfill failed for ${market}: ${(err as Error).message}`);
+    } finally {
+      this.backfills.delete(market);
+    }
+  }
+
+  /**
+   * The live worker cannot know the trades of the minute in progress when it started, so the
+   * local copy of that minute (streamed by the previous worker, or the open candle of the 1m
+   * history) stays truncated. Until the minute has closed and been downloaded over it, only
+   * the bar containing it (and newer ones) is fetched instead of resampled; if the download
+   * fails, the market's minutes are dropped.
+   */
+  repairMinute(market: string, minute: number, marketType: 'spot' | 'futures' = 'spot') {
+    if (!candleResamplerService.isAvailable() || this.isMarketCapIndex([market]) || this.minuteRepairs.get(market) === minute) {
+      return;
+    }
+    this.minuteRepairs.set(market, minute);
+
+    const delay = Math.max(0, minute + MINUTE_MS + MINUTE_REPAIR_DELAY_MS - Date.now());
+    setTimeout(async () => {
+      try {
+        const response = await this.fetchRemote(minute, minute + MINUTE_MS - 1, 60, [market], true, marketType);
+        const closed = response.data.filter(bar => bar.time === minute);
+        if (closed.length === 0 || !(await candleResamplerService.merge(market, closed))) {
+          throw new Error('minute not returned');
+        }
+      } catch (err) {
+        console.warn(`[Historical Service] 1m repair failed for ${market}, dropping local minutes: ${(err as Error).message}`);
+        await candleResamplerService.clear(market);
+      } finally {
+        if (this.minuteRepairs.get(market) === minute) {
+          this.minuteRepairs.delete(market);
+        }
+      }
+    }, delay);
+  }
+
   /**
    * Fetch older candles (lazy loading)
    * Used when user scrolls back in time
@@ -4,8 +4,11 @@
  * Uses custom Capacitor plugin: InAppPurchase
  */
 
+import bridgeBatchService from './bridgeBatchService';
+
 /**
- * Log to native Android (always visible in Logcat)
+ * Log to native Android (always visible in Logcat).
+ * Lines logged in the same tick share one bridge message (bridgeBatchService).
  */
 function logToNative(message: string) {
   if (typeof window === 'undefined') return;
@@ -13,7 +16,11 @@ function logToNative(message: string) {
   try {
     const Capacitor = (window as any).Capacitor;
     if (Capacitor?.Plugins?.InAppPurchase?.logDebug) {
-      Capacitor.Plugins.InAppPurchase.logDebug({ message });
+      if (bridgeBatchService.isAvailable()) {
+        bridgeBatchService.enqueue({ plugin: 'InAppPurchase', method: 'logDebug', args: { message } });
+      } else {
+        Capacitor.Plugins.InAppPurchase.logDebug({ message });
+      }
     }
   } catch (error) {
     // Ignore errors
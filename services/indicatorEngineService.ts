@@ -0,0 +1,132 @@
+/**
+ * Indicator Engine Service
+ * Technical indicators (EMA, SMA, RSI, MACD, Bollinger, VWAP) computed by the Android
+ * IndicatorEngine plugin: the chart hands over its candle history once, then only the live
+ * candle, and the native side updates every indicator in O(1) per bar instead of recomputing
+ * the whole array in JS. No-op on web and iOS, where the chart keeps using utils/indicators.ts.
+ */
+
+import type { Bar } from '@/types/chart';
+
+export interface IndicatorConfig {
+  rsiPeriod: number;
+  macdFast: number;
+  macdSlow: number;
+  macdSignal: number;
+  bbPeriod: number;
+  bbStdDev: number;
+  emaPeriods: number[];
+  smaPeriods: number[];
+}
+
+export type IndicatorOutput = 'rsi' | 'macd' | 'signal' | 'histogram' | 'bbUpper' | 'bbMiddle' | 'bbLower' | 'vwap' | 'ema' | 'sma';
+
+/** Values aligned with `time` (ms); null while an indicator is still warming up */
+export interface IndicatorSeriesData {
+  time: number[];
+  rsi?: (number | null)[];
+  macd?: (number | null)[];
+  signal?: (number | null)[];
+  histogram?: (number | null)[];
+  bbUpper?: (number | null)[];
+  bbMiddle?: (number | null)[];
+  bbLower?: (number | null)[];
+  vwap?: (number | null)[];
+  ema?: Record<string, (number | null)[]>;
+  sma?: Record<string, (number | null)[]>;
+}
+
+export interface IndicatorSyncResult {
+  /** The whole history was (re)sent: redraw every series */
+  full: boolean;
+  /** First bar time that changed (read series from here) */
+  from: number;
+}
+
+interface SentState {
+  firstTime: number;
+  lastTime: number;
+  count: number;
+  configKey: string;
+}
+
+class IndicatorEngineService {
+  private sent = new Map<string, SentState>();
+
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.IndicatorEngine ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /**
+   * Bring the native series up to date with `bars`: the full history when it is new, was
+   * reloaded (older bars prepended) or the config changed, otherwise only the live candle and
+   * anything newer.
+   */
+  async sync(symbol: string, timeframe: string, bars: Bar[], config: IndicatorConfig): Promise<IndicatorSyncResult | null> {
+    const plugin = this.getPlugin();
+    if (!plugin || bars.length === 0) return null;
+    const key = `${symbol}@${timeframe}`;
+    const configKey = JSON.stringify(config);
+    const state = this.sent.get(key);
+    const first = bars[0].time;
+    const last = bars[bars.length - 1].time;
+
+    if (!state || state.firstTime !== first || state.configKey !== configKey || last < state.lastTime) {
+      return this.sendHistory(plugin, symbol, timeframe, bars, config);
+    }
+
+    // Bars from the last one sent (it may have been revised) onwards
+    let start = bars.length - 1;
+    while (start > 0 && bars[start].time > state.lastTime) start--;
+    const { size } = await plugin.updateBars(this.columns(symbol, timeframe, bars.slice(start)));
+    if (size < bars.length) {
+      // The native side dropped this series (least recently used): start it over
+      return this.sendHistory(plugin, symbol, timeframe, bars, config);
+    }
+    this.sent.set(key, { ...state, lastTime: last, count: bars.length });
+    return { full: false, from: bars[start].time };
+  }
+
+  private async sendHistory(plugin: any, symbol: string, timeframe: string, bars: Bar[], config: IndicatorConfig): Promise<IndicatorSyncResult> {
+    const { computeMs } = await plugin.setHistory({ series: [this.columns(symbol, timeframe, bars)], config });
+    console.log('[IndicatorEngine] History', symbol, timeframe, bars.length, 'bars in', computeMs, 'ms');
+    this.sent.set(`${symbol}@${timeframe}`, {
+      firstTime: bars[0].time,
+      lastTime: bars[bars.length - 1].time,
+      count: bars.length,
+      configKey: JSON.stringify(config),
+    });
+    return { full: true, from: bars[0].time };
+  }
+
+  async getSeries(symbol: string, timeframe: string, from = 0, outputs?: IndicatorOutput[]): Promise<IndicatorSeriesData | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    try {
+      return await plugin.getSeries({ symbol, timeframe, from, outputs });
+    } catch (e) {
+      console.error('[IndicatorEngine] ❌ getSeries failed:', e);
+      return null;
+    }
+  }
+
+  private columns(symbol: string, timeframe: string, bars: Bar[]) {
+    return {
+      symbol,
+      timeframe,
+      time: bars.map((bar) => bar.time),
+      high: bars.map((bar) => bar.high),
+      low: bars.map((bar) => bar.low),
+      close: bars.map((bar) => bar.close),
+      volume: bars.map((bar) => bar.volume ?? 0),
+    };
+  }
+}
+
+const indicatorEngineService = new IndicatorEngineService();
+export default indicatorEngineService;
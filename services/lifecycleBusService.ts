@@ -0,0 +1,96 @@
+/**
+ * Lifecycle Bus Service
+ * Native activity transitions (Android LifecycleBus plugin) mapped to throttling levels.
+ *
+ * Contract:
+ * - 'full':      stream and render at full rate
+ * - 'reduced':   keep connections, coalesce UI updates to ~1/s, skip animations
+ * - 'suspended': stop rendering/UI updates; connections may be closed, catch up on 'full'
+ *
+ * On web and iOS the level follows document.visibilityState (visible = full, hidden = suspended).
+ */
+
+export type ThrottleLevel = 'full' | 'reduced' | 'suspended';
+
+export interface LifecycleEvent {
+  seq: number;
+  event: 'start' | 'resume' | 'pause' | 'stop' | 'visibility';
+  level: ThrottleLevel;
+  previousLevel: ThrottleLevel;
+  timestamp: number;
+}
+
+type LevelListener = (event: LifecycleEvent) => void;
+
+class LifecycleBusService {
+  private level: ThrottleLevel = 'full';
+  private lastSeq = 0;
+  private listeners: Set<LevelListener> = new Set();
+
+  constructor() {
+    if (typeof window === 'undefined') return;
+
+    const Capacitor = (window as any).Capacitor;
+    if (Capacitor?.Plugins?.LifecycleBus) {
+      Capacitor.Plugins.LifecycleBus.addListener('lifecycle', this.handleEvent);
+      Capacitor.Plugins.LifecycleBus.getState()
+        .then((state: { seq: number; level: ThrottleLevel }) => {
+          // Only apply if no newer event arrived meanwhile
+          if (state.seq > this.lastSeq) {
+            this.lastSeq = state.seq;
+            this.level = state.level;
+          }
+        })
+        .catch(() => {
+          // Plugin not available - keep 'full'
+        });
+    } else if (typeof document !== 'undefined') {
+      document.addEventListener('visibilitychange', () => {
+        const next: ThrottleLevel = document.visibilityState === 'visible' ? 'full' : 'suspended';
+        this.handleEvent({
+          seq: this.lastSeq + 1,
+          event: 'visibility',
+          level: next,
+          previousLevel: this.level,
+          timestamp: Date.now(),
+        });
+      });
+    }
+  }
+
+  private handleEvent = (event: LifecycleEvent) => {
+    // Events are ordered natively; drop anything older than what we've applied
+    if (event.seq <= this.lastSeq) return;
+    this.lastSeq = event.seq;
+
+    if (event.level === this.level) return;
+    this.level = event.level;
+    console.log(`[LifecycleBus] ${event.event} -> ${event.level}`);
+    this.listeners.forEach(listener => {
+      try {
+        listener(event);
+      } catch (error) {
+        console.error('[LifecycleBus] Listener error:', error);
+      }
+    });
+  };
+
+  getLevel(): ThrottleLevel {
+    return this.level;
+  }
+
+  /**
+   * Subscribe to throttling level changes. Returns an unsubscribe function.
+   */
+  onLevelChange(listener: LevelListener): () => void {
+    this.listeners.add(listener);
+    return () => {
+      this.listeners.delete(listener);
+    };
+  }
+}
+
+// Singleton instance
+const lifecycleBusService = new LifecycleBusService();
+
+export default lifecycleBusService;
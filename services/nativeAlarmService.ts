@@ -0,0 +1,71 @@
+/**
+ * Native Alarm Service
+ * Wrapper around the Android Alarm plugin: a triggered alert rings from a short-lived
+ * foreground service (alarm audio stream, preloaded clip, vibration) instead of a
+ * setInterval loop in the WebView, so it keeps ringing with the page throttled in the
+ * background. isAvailable() === false on web and iOS.
+ */
+
+export interface NativeAlarmEvent {
+  type: 'ringing' | 'snoozed' | 'dismissed' | 'timeout';
+  alarmId: string | null;
+  snoozedUntil: number;
+}
+
+export interface NativeAlarmState {
+  ringing: boolean;
+  alarmId: string | null;
+  snoozedUntil: number;
+  preloaded: boolean;
+  lastStartLatencyMs: number;
+}
+
+class NativeAlarmService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.Alarm ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  async start(alarmId: string, title: string, body: string, vibrate = true): Promise<boolean> {
+    const plugin = this.getPlugin();
+    if (!plugin) return false;
+    try {
+      await plugin.start({ alarmId, title, body, vibrate });
+      return true;
+    } catch (e) {
+      console.error('[NativeAlarm] ❌ start failed:', e);
+      return false;
+    }
+  }
+
+  async snooze(minutes = 5): Promise<void> {
+    await this.getPlugin()?.snooze({ minutes });
+  }
+
+  async dismiss(): Promise<void> {
+    await this.getPlugin()?.dismiss();
+  }
+
+  async getState(): Promise<NativeAlarmState | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    return plugin.getState();
+  }
+
+  /** Also fires when the user snoozes/dismisses from the notification. Returns an unsubscribe function. */
+  onEvent(listener: (event: NativeAlarmEvent) => void): () => void {
+    const plugin = this.getPlugin();
+    if (!plugin) return () => {};
+    const handle = plugin.addListener('alarmEvent', listener);
+    return () => {
+      Promise.resolve(handle).then((h: any) => h?.remove?.());
+    };
+  }
+}
+
+const nativeAlarmService = new NativeAlarmService();
+export default nativeAlarmService;
@@ -0,0 +1,203 @@
+/**
+ * Native Chart Service
+ * Thin wrapper around the Android NativeChart plugin (candles + volume drawn on a
+ * native surface overlaid on the chart region) plus frame-interval measurement for the
+ * web renderer, so both can be compared on the same device. Both sides report vsync-to-vsync
+ * intervals: Choreographer frame times natively, requestAnimationFrame timestamps on the web.
+ */
+
+import { Bar } from '@/types/chart';
+
+export interface FrameStats {
+  renderer: 'native' | 'web';
+  frames: number;
+  jankyFrames: number;
+  p50Ms: number;
+  p95Ms: number;
+  p99Ms: number;
+  maxMs: number;
+}
+
+export interface RendererComparison {
+  web: FrameStats;
+  native: FrameStats;
+}
+
+export interface ChartRect {
+  left: number;
+  top: number;
+  width: number;
+  height: number;
+}
+
+// Same threshold as FrameTimeRecorder.JANK_THRESHOLD_NANOS (one 60Hz vsync)
+const JANK_THRESHOLD_MS = 16.7;
+
+function toColumns(bars: Bar[]) {
+  const n = bars.length;
+  const time = new Array<number>(n);
+  const open = new Array<number>(n);
+  const high = new Array<number>(n);
+  const low = new Array<number>(n);
+  const close = new Array<number>(n);
+  const volume = new Array<number>(n);
+  for (let i = 0; i < n; i++) {
+    const bar = bars[i];
+    time[i] = bar.time;
+    open[i] = bar.open;
+    high[i] = bar.high;
+    low[i] = bar.low;
+    close[i] = bar.close;
+    volume[i] = bar.volume;
+  }
+  return { time, open, high, low, close, volume };
+}
+
+/** Run step(progress) once per animation frame for durationMs; progress sweeps 0 → 1 → 0 */
+function sweep(durationMs: number, step: (progress: number) => void): Promise<void> {
+  return new Promise((resolve) => {
+    let start = 0;
+    const tick = (now: number) => {
+      if (start === 0) start = now;
+      const elapsed = now - start;
+      if (elapsed >= durationMs) {
+        resolve();
+        return;
+      }
+      const phase = (elapsed / durationMs) * 2;
+      step(phase <= 1 ? phase : 2 - phase);
+      requestAnimationFrame(tick);
+    };
+    requestAnimationFrame(tick);
+  });
+}
+
+function percentile(sorted: number[], p: number): number {
+  if (sorted.length === 0) return 0;
+  const index = Math.min(sorted.length - 1, Math.max(0, Math.ceil((p / 100) * sorted.length) - 1));
+  return sorted[index];
+}
+
+class NativeChartService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.NativeChart ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /** Place the native surface over the chart element (CSS px relative to the viewport) */
+  async show(rect: ChartRect): Promise<void> {
+    await this.getPlugin()?.show(rect);
+  }
+
+  /** Hide while page overlays (modals, menus) cover the chart region */
+  async hide(): Promise<void> {
+    await this.getPlugin()?.hide();
+  }
+
+  /** Full series, once per symbol/timeframe */
+  async setBars(bars: Bar[]): Promise<void> {
+    await this.getPlugin()?.setData(toColumns(bars));
+  }
+
+  /** Live candle revisions and newly closed bars only */
+  async updateBars(bars: Bar[]): Promise<void> {
+    if (bars.length === 0) return;
+    await this.getPlugin()?.updateBars(toColumns(bars));
+  }
+
+  async setViewport(from: number, to: number, intervalMs: number): Promise<void> {
+    await this.getPlugin()?.setViewport({ from, to, intervalMs });
+  }
+
+  async getNativeFrameStats(): Promise<FrameStats | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    return plugin.getFrameStats();
+  }
+
+  async resetNativeFrameStats(): Promise<void> {
+    await this.getPlugin()?.resetFrameStats();
+  }
+
+  /**
+   * Frame intervals of the WebView (requestAnimationFrame) while the web chart is being
+   * panned/zoomed, in the same shape as getNativeFrameStats().
+   */
+  measureWebFrameStats(durationMs: number): Promise<FrameStats> {
+    return new Promise((resolve) => {
+      const intervals: number[] = [];
+      let last = 0;
+      let start = 0;
+
+      const tick = (now: number) => {
+        if (start === 0) {
+          start = now;
+        } else {
+          intervals.push(now - last);
+        }
+        last = now;
+        if (now - start < durationMs) {
+          requestAnimationFrame(tick);
+          return;
+        }
+
+        const sorted = [...intervals].sort((a, b) => a - b);
+        resolve({
+          renderer: 'web',
+          frames: intervals.length,
+          jankyFrames: intervals.filter((ms) => ms > JANK_THRESHOLD_MS).length,
+          p50Ms: percentile(sorted, 50),
+          p95Ms: percentile(sorted, 95),
+          p99Ms: percentile(sorted, 99),
+          maxMs: sorted.length > 0 ? sorted[sorted.length - 1] : 0,
+        });
+      };
+      requestAnimationFrame(tick);
+    });
+  }
+
+  /**
+   * Pan benchmark: sweep `visibleBars` across `bars` for `durationMs` on each renderer, one
+   * step per animation frame, and return both frame-interval stats. `panWeb(progress)` scrolls
+   * the web chart (0 = oldest, 1 = newest); the native surface covers `rect` only during its run.
+   */
+  async compareRenderers(
+    bars: Bar[],
+    rect: ChartRect,
+    visibleBars: number,
+    durationMs: number,
+    panWeb: (progress: number) => void,
+  ): Promise<RendererComparison | null> {
+    const plugin = this.getPlugin();
+    if (!plugin || bars.length < 2) return null;
+
+    const webStats = this.measureWebFrameStats(durationMs);
+    await sweep(durationMs, panWeb);
+    const web = await webStats;
+
+    const intervalMs = bars[1].time - bars[0].time;
+    const first = bars[0].time;
+    const span = Math.min(visibleBars, bars.length) * intervalMs;
+    const travel = Math.max(0, bars[bars.length - 1].time - first - span);
+    try {
+      await this.show(rect);
+      await this.setBars(bars);
+      await this.resetNativeFrameStats();
+      await sweep(durationMs, (progress) => {
+        const from = first + progress * travel;
+        plugin.setViewport({ from, to: from + span, intervalMs }).catch(() => {});
+      });
+      const native: FrameStats = await plugin.getFrameStats();
+      return { web, native };
+    } finally {
+      await this.hide();
+    }
+  }
+}
+
+const nativeChartService = new NativeChartService();
+export default nativeChartService;
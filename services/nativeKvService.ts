@@ -0,0 +1,156 @@
+/**
+ * Native KV Service
+ * Async key-value storage backed by the Android NativeKV plugin (memory-mapped append-only
+ * log) for large page state that used to sit in synchronous localStorage, which blocks the
+ * JS thread and is parsed in full on every page load. Falls back to localStorage on web
+ * and iOS. Values found in localStorage are moved to the native store on first read.
+ * Reads and writes go through bridgeBatchService, so the burst when several charts mount
+ * (one drawings key each) crosses the bridge as one message.
+ */
+
+import bridgeBatchService from './bridgeBatchService';
+
+export interface NativeKvEntry {
+  key: string;
+  value: string | null;
+  binary: boolean;
+}
+
+export interface NativeKvStats {
+  keys: number;
+  logBytes: number;
+  liveBytes: number;
+  garbageBytes: number;
+  mappedBytes: number;
+  preloadedKeys: number;
+  openMs: number;
+  compactions: number;
+  lastCompactionMs: number;
+}
+
+class NativeKvService {
+  // Hot keys the native side decoded at process start, fetched in one call
+  private preloaded: Map<string, string | null> | null = null;
+  private preloadPromise: Promise<void> | null = null;
+
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.NativeKV ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  async getItem(key: string): Promise<string | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return this.localGet(key);
+
+    await this.preload();
+    if (this.preloaded?.has(key)) {
+      return this.preloaded.get(key) ?? null;
+    }
+    const result = await bridgeBatchService.call('NativeKV', 'get', { key });
+    if (result?.value != null) return result.value;
+
+    // Not in the native store yet: move the legacy localStorage copy over
+    const legacy = this.localGet(key);
+    if (legacy !== null) {
+      await bridgeBatchService.call('NativeKV', 'set', { key, value: legacy });
+      this.localRemove(key);
+      console.log('[NativeKV] Migrated from localStorage:', key);
+    }
+    return legacy;
+  }
+
+  async setItem(key: string, value: string): Promise<void> {
+    const plugin = this.getPlugin();
+    if (!plugin) {
+      localStorage.setItem(key, value);
+      return;
+    }
+    this.preloaded?.set(key, value);
+    await bridgeBatchService.call('NativeKV', 'set', { key, value });
+  }
+
+  async removeItem(key: string): Promise<void> {
+    const plugin = this.getPlugin();
+    this.localRemove(key);
+    if (!plugin) return;
+    this.preloaded?.delete(key);
+    await bridgeBatchService.call('NativeKV', 'remove', { key });
+  }
+
+  /** Binary value as base64 (e.g. cached candle blocks); native only. */
+  async getBinary(key: string): Promise<string | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    const result = await plugin.get({ key });
+    return result?.binary ? result.value : null;
+  }
+
+  async setBinary(key: string, base64: string): Promise<void> {
+    const plugin = this.getPlugin();
+    if (!plugin) return;
+    this.preloaded?.delete(key);
+    await plugin.set({ key, value: base64, binary: true });
+  }
+
+  /** Entries whose key starts with `prefix`, in key order. */
+  async scan(prefix: string, limit = 500, keysOnly = false): Promise<NativeKvEntry[]> {
+    const plugin = this.getPlugin();
+    if (!plugin) {
+      const entries: NativeKvEntry[] = [];
+      for (let i = 0; i < localStorage.length && entries.length < limit; i++) {
+        const key = localStorage.key(i);
+        if (key && key.startsWith(prefix)) {
+          entries.push({ key, value: keysOnly ? null : localStorage.getItem(key), binary: false });
+        }
+      }
+      return entries.sort((a, b) => (a.key < b.key ? -1 : a.key > b.key ? 1 : 0));
+    }
+    const result = await plugin.scan({ prefix, limit, keysOnly });
+    return result?.entries ?? [];
+  }
+
+  async getStats(): Promise<NativeKvStats | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    return plugin.getStats();
+  }
+
+  private preload(): Promise<void> {
+    if (!this.preloadPromise) {
+      this.preloadPromise = (async () => {
+        try {
+          const result = await this.getPlugin().getPreloaded();
+          const entries: NativeKvEntry[] = result?.entries ?? [];
+          this.preloaded = new Map(entries.filter((e) => !e.binary).map((e) => [e.key, e.value]));
+        } catch (e) {
+          console.error('[NativeKV] ❌ Preload failed:', e);
+          this.preloaded = new Map();
+        }
+      })();
+    }
+    return this.preloadPromise;
+  }
+
+  private localGet(key: string): string | null {
+    try {
+      return typeof localStorage !== 'undefined' ? localStorage.getItem(key) : null;
+    } catch {
+      return null;
+    }
+  }
+
+  private localRemove(key: string): void {
+    try {
+      if (typeof localStorage !== 'undefined') localStorage.removeItem(key);
+    } catch {
+      // Ignore
+    }
+  }
+}
+
+const nativeKvService = new NativeKvService();
+export default nativeKvService;
@@ -0,0 +1,113 @@
+/**
+ * Navigation Monitor Service
+ * Reads the Android NavigationMonitor aggregates: per-route page load and first visual state
+ * histograms, HTTP / network errors and old-domain redirects of the main WebView. Sampling is
+ * per install, so the same devices report every time for a given rate. The app shell uploads
+ * the report to Google Analytics each time the app goes to the background. No-op on web and iOS.
+ */
+
+/** Share of installs that upload navigation reports */
+const REPORT_SAMPLE_RATE = 0.1;
+
+export interface NavigationHistogram {
+  /** One count per bucket of `bucketsMs`, plus a final bucket for slower navigations */
+  counts: number[];
+  count: number;
+  sumMs: number;
+  maxMs: number;
+  p50Ms: number;
+  p95Ms: number;
+}
+
+export interface NavigationRouteStats {
+  route: string;
+  started: number;
+  finished: number;
+  abandoned: number;
+  mainFrameErrors: number;
+  http4xx: number;
+  http5xx: number;
+  legacyRedirects: number;
+  load: NavigationHistogram;
+  visual: NavigationHistogram;
+}
+
+export interface NavigationReport {
+  sampled: boolean;
+  sampleRate: number;
+  windowStartMs?: number;
+  windowEndMs?: number;
+  bucketsMs?: number[];
+  routes?: NavigationRouteStats[];
+}
+
+class NavigationMonitorService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.NavigationMonitor ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /**
+   * Aggregates since the last sampled report. With `reset` (default) the native window restarts,
+   * so upload the result: it will not be returned again.
+   */
+  async getReport(sampleRate = 1, reset = true): Promise<NavigationReport | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    try {
+      return await plugin.getReport({ sampleRate, reset });
+    } catch (e) {
+      console.error('[NavigationMonitor] ❌ getReport failed:', e);
+      return null;
+    }
+  }
+
+  /**
+   * Fetch the window since the last upload and send one analytics event per route (sampled
+   * installs only). Returns the number of routes sent.
+   */
+  async uploadReport(sampleRate = REPORT_SAMPLE_RATE): Promise<number> {
+    const gtag = typeof window !== 'undefined' ? (window as any).gtag : undefined;
+    if (typeof gtag !== 'function') return 0;
+    const report = await this.getReport(sampleRate);
+    if (!report?.sampled || !report.routes) return 0;
+    let sent = 0;
+    for (const route of report.routes) {
+      if (route.started === 0) continue;
+      gtag('event', 'navigation_route', {
+        route: route.route,
+        started: route.started,
+        finished: route.finished,
+        abandoned: route.abandoned,
+        main_frame_errors: route.mainFrameErrors,
+        http_4xx: route.http4xx,
+        http_5xx: route.http5xx,
+        legacy_redirects: route.legacyRedirects,
+        load_p50_ms: Math.round(route.load.p50Ms),
+        load_p95_ms: Math.round(route.load.p95Ms),
+        visual_p50_ms: Math.round(route.visual.p50Ms),
+        visual_p95_ms: Math.round(route.visual.p95Ms),
+        sample_rate: report.sampleRate,
+      });
+      sent++;
+    }
+    const slowest = this.slowestRoutes(report, 3).map((route) => `${route.route} ${Math.round(route.load.p95Ms)}ms`);
+    console.log(`[NavigationMonitor] 📊 Uploaded ${sent} routes; slowest p95: ${slowest.join(', ') || 'n/a'}`);
+    return sent;
+  }
+
+  /** Slowest routes by p95 page load, for quick inspection. */
+  slowestRoutes(report: NavigationReport, limit = 5): NavigationRouteStats[] {
+    return [...(report.routes ?? [])]
+      .filter((route) => route.load.count > 0)
+      .sort((a, b) => b.load.p95Ms - a.load.p95Ms)
+      .slice(0, limit);
+  }
+}
+
+const navigationMonitorService = new NavigationMonitorService();
+export default navigationMonitorService;
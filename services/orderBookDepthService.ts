@@ -0,0 +1,131 @@
+/**
+ * Order Book Depth Service
+ * Order book depth from the Android OrderBookDepth plugin: the native side consumes Binance's
+ * full diff stream plus a REST snapshot into a local book (with sequence-gap resync) and only
+ * sends aggregated price buckets at the chosen tick size, at most `fps` times a second and only
+ * when the visible buckets changed. The WebView no longer parses every depth message.
+ * No-op on web and iOS, where OrderBook keeps its own depth20 WebSocket.
+ */
+
+export interface DepthLevel {
+  price: number;
+  quantity: number;
+  /** Cumulative quantity from the best price */
+  total: number;
+}
+
+export interface DepthFrame {
+  symbol: string;
+  marketType: 'spot' | 'futures';
+  tickSize: number;
+  lastUpdateId: number;
+  /** Best bid first */
+  bids: DepthLevel[];
+  /** Best ask first */
+  asks: DepthLevel[];
+}
+
+export interface DepthOptions {
+  tickSize: number;
+  /** Buckets per side (max 100) */
+  depth?: number;
+  /** Maximum frames per second (max 30) */
+  fps?: number;
+}
+
+export interface DepthHandlers {
+  onFrame: (frame: DepthFrame) => void;
+  /** false while the book is resyncing or reconnecting */
+  onStatus?: (synced: boolean) => void;
+}
+
+class OrderBookDepthService {
+  private handlers = new Map<string, DepthHandlers>();
+  private listening = false;
+
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.OrderBookDepth ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /** Start streaming a symbol's book; returns an unsubscribe function. */
+  subscribe(symbol: string, marketType: 'spot' | 'futures', options: DepthOptions, handlers: DepthHandlers): () => void {
+    const plugin = this.getPlugin();
+    if (!plugin) return () => {};
+    this.listen(plugin);
+    const key = this.key(symbol, marketType);
+    this.handlers.set(key, handlers);
+    plugin.subscribe({ symbol, marketType, ...options }).catch((e: any) => {
+      console.error('[OrderBookDepth] ❌ subscribe failed:', e);
+    });
+    console.log('[OrderBookDepth] Subscribed', key, options);
+
+    return () => {
+      if (this.handlers.get(key) !== handlers) return;
+      this.handlers.delete(key);
+      plugin.unsubscribe({ symbol, marketType }).catch(() => {});
+    };
+  }
+
+  /** Change tick size, depth or frame rate; the next frame is sent right away. */
+  async setAggregation(symbol: string, marketType: 'spot' | 'futures', options: Partial<DepthOptions>): Promise<void> {
+    const plugin = this.getPlugin();
+    if (!plugin) return;
+    try {
+      await plugin.setAggregation({ symbol, marketType, ...options });
+    } catch (e) {
+      console.error('[OrderBookDepth] ❌ setAggregation failed:', e);
+    }
+  }
+
+  async getStats(symbol: string, marketType: 'spot' | 'futures'): Promise<Record<string, number | boolean> | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    try {
+      return await plugin.getStats({ symbol, marketType });
+    } catch {
+      return null;
+    }
+  }
+
+  private listen(plugin: any) {
+    if (this.listening) return;
+    this.listening = true;
+    plugin.addListener('depth', (event: any) => {
+      const handlers = this.handlers.get(this.key(event.symbol, event.marketType));
+      if (!handlers) return;
+      handlers.onFrame({
+        symbol: event.symbol,
+        marketType: event.marketType,
+        tickSize: event.tickSize,
+        lastUpdateId: event.lastUpdateId,
+        bids: this.levels(event.bidPrice, event.bidQty),
+        asks: this.levels(event.askPrice, event.askQty),
+      });
+    });
+    plugin.addListener('depthStatus', (event: any) => {
+      this.handlers.get(this.key(event.symbol, event.marketType))?.onStatus?.(event.synced);
+    });
+  }
+
+  private levels(prices: number[] = [], quantities: number[] = []): DepthLevel[] {
+    const levels: DepthLevel[] = new Array(prices.length);
+    let total = 0;
+    for (let i = 0; i < prices.length; i++) {
+      total += quantities[i];
+      levels[i] = { price: prices[i], quantity: quantities[i], total };
+    }
+    return levels;
+  }
+
+  private key(symbol: string, marketType: string): string {
+    return `${marketType}:${symbol.toLowerCase()}`;
+  }
+}
+
+const orderBookDepthService = new OrderBookDepthService();
+export default orderBookDepthService;
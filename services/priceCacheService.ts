@@ -0,0 +1,78 @@
+/**
+ * Price Cache Service
+ * Mirrors the watchlist and its latest prices into the native Android price cache
+ * (PriceCache plugin), which feeds the home-screen widget and native screens.
+ * No-op on web and iOS.
+ */
+
+// Widget only needs a glance-level price: push at most every 15s
+const PUSH_INTERVAL_MS = 15000;
+
+interface CachedPrice {
+  symbol: string;
+  price: number;
+  change24h: number;
+  volume24h: number;
+}
+
+class PriceCacheService {
+  private lastPushAt = 0;
+  private pending: Map<string, CachedPrice> = new Map();
+  private pushTimer: ReturnType<typeof setTimeout> | null = null;
+  private lastWatchlistKey = '';
+
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.PriceCache ?? null;
+  }
+
+  setWatchlist(marketType: 'spot' | 'futures', symbols: string[]): void {
+    const plugin = this.getPlugin();
+    if (!plugin) return;
+
+    const key = `${marketType}:${symbols.join(',')}`;
+    if (key === this.lastWatchlistKey) return;
+    this.lastWatchlistKey = key;
+    this.pending.clear();
+
+    plugin.setWatchlist({ marketType, symbols }).catch((e: any) => {
+      console.warn('[PriceCache] ⚠️ setWatchlist failed:', e);
+    });
+  }
+
+  /**
+   * Queue live prices; they are sent to native in one call per PUSH_INTERVAL_MS.
+   */
+  reportPrices(prices: Map<string, { symbol: string; price: number; change24h: number; volume24h: number }>): void {
+    if (!this.getPlugin()) return;
+
+    prices.forEach((ticker, symbol) => {
+      this.pending.set(symbol, {
+        symbol,
+        price: ticker.price,
+        change24h: ticker.change24h,
+        volume24h: ticker.volume24h,
+      });
+    });
+
+    if (this.pushTimer) return;
+    const delay = Math.max(0, this.lastPushAt + PUSH_INTERVAL_MS - Date.now());
+    this.pushTimer = setTimeout(() => this.flush(), delay);
+  }
+
+  private flush(): void {
+    this.pushTimer = null;
+    const plugin = this.getPlugin();
+    if (!plugin || this.pending.size === 0) return;
+
+    const prices = Array.from(this.pending.values());
+    this.pending.clear();
+    this.lastPushAt = Date.now();
+    plugin.putPrices({ prices }).catch((e: any) => {
+      console.warn('[PriceCache] ⚠️ putPrices failed:', e);
+    });
+  }
+}
+
+const priceCacheService = new PriceCacheService();
+export default priceCacheService;
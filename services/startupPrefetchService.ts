@@ -0,0 +1,41 @@
+/**
+ * Startup Prefetch Service
+ * Claims bootstrap responses that the Android app fetched natively at process start
+ * (see plugins.StartupPrefetch.endpoints in capacitor.config.ts).
+ * Falls back to a normal fetch on web, iOS, or when the prefetched response is missing.
+ */
+
+interface PrefetchClaim {
+  hit: boolean;
+  status?: number;
+  body?: string;
+  contentType?: string;
+  ageMs?: number;
+}
+
+/**
+ * Fetch JSON for a bootstrap endpoint, preferring the natively prefetched response.
+ * The endpoint must match the configured string exactly (e.g. '/api/user/plan').
+ */
+export async function fetchBootstrapJson<T = any>(endpoint: string, init?: RequestInit): Promise<T | null> {
+  if (typeof window !== 'undefined') {
+    const Capacitor = (window as any).Capacitor;
+    if (Capacitor?.Plugins?.StartupPrefetch) {
+      try {
+        const claim: PrefetchClaim = await Capacitor.Plugins.StartupPrefetch.claim({ endpoint });
+        if (claim.hit && claim.status && claim.status >= 200 && claim.status < 300 && claim.body) {
+          console.log(`[StartupPrefetch] ✅ Using prefetched ${endpoint} (age ${claim.ageMs}ms)`);
+          return JSON.parse(claim.body) as T;
+        }
+      } catch (e) {
+        console.warn('[StartupPrefetch] ⚠️ Claim failed, falling back to fetch:', e);
+      }
+    }
+  }
+
+  const response = await fetch(endpoint, { credentials: 'include', ...init });
+  if (!response.ok) {
+    return null;
+  }
+  return (await response.json()) as T;
+}
@@ -0,0 +1,50 @@
+/**
+ * Startup Trace Service
+ * Puts web milestones on the Android StartupTrace timeline (same clock as the native
+ * MainActivity / plugin-load sections), so one Perfetto trace shows native and web startup
+ * together. No-op on web and iOS.
+ */
+
+export interface StartupTraceExport {
+  path: string;
+  events: number;
+  trace?: { traceEvents: any[] };
+}
+
+class StartupTraceService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.StartupTrace ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /**
+   * Record a web milestone. `atMs` is a performance.now() value (defaults to now); it is sent as
+   * wall-clock time, which the native side maps onto its own clock.
+   */
+  markTimeline(name: string, args?: Record<string, unknown>, atMs?: number): void {
+    const plugin = this.getPlugin();
+    if (!plugin || typeof performance === 'undefined') return;
+    const epochMs = performance.timeOrigin + (atMs ?? performance.now());
+    plugin.markTimeline({ name, epochMs, args }).catch((e: unknown) => {
+      console.error('[StartupTrace] ❌ markTimeline failed:', e);
+    });
+  }
+
+  /**
+   * Write the combined trace to the app cache (open the file in ui.perfetto.dev).
+   */
+  async exportTrace(includeJson = false): Promise<StartupTraceExport | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    const result: StartupTraceExport = await plugin.exportTrace({ includeJson });
+    console.log('[StartupTrace] Exported', result.events, 'events to', result.path);
+    return result;
+  }
+}
+
+const startupTraceService = new StartupTraceService();
+export default startupTraceService;
@@ -0,0 +1,151 @@
+/**
+ * Watchlist Ranking Service
+ * Sorted watchlist views backed by the Android WatchlistRanking plugin: tickers are streamed in
+ * as they change, and each view reads back only its visible window of the sorted list as a diff
+ * (new order only when it moved). Sorting stays incremental on the native side, so a tick does not
+ * re-sort the whole list, and the update / group / window calls of one pass share a bridge message.
+ * The page already holds the ticker values, so the native row diffs are not requested. Falls back
+ * to a plain JS sort on web and iOS.
+ */
+
+import bridgeBatchService from '@/services/bridgeBatchService';
+
+export type RankingSortKey = 'price' | 'change' | 'volume' | 'quoteVolume';
+
+export interface RankingTicker {
+  price: number;
+  change24h: number;
+  volume24h: number;
+}
+
+export interface RankingWindow {
+  /** Ranked symbols in the group (symbols without a ticker yet are not counted) */
+  total: number;
+  offset: number;
+  symbols: string[];
+}
+
+interface ViewCache {
+  order: string[];
+  /** Query and input version the cached window answers */
+  query: string;
+  servedVersion: number;
+  window: RankingWindow;
+}
+
+class WatchlistRankingService {
+  private sent = new Map<string, RankingTicker>();
+  private groups = new Map<string, string[]>();
+  private views = new Map<string, ViewCache>();
+  // Bumped whenever tickers or group members are sent: a cached window is stale after that
+  private version = 0;
+
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.WatchlistRanking ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /**
+   * Report the latest tickers of a market. Only tickers that changed since the last report are sent.
+   */
+  async report(market: string, tickers: Map<string, RankingTicker>): Promise<void> {
+    const changed: Array<RankingTicker & { symbol: string }> = [];
+    tickers.forEach((ticker, symbol) => {
+      const key = `${market}:${symbol}`;
+      const last = this.sent.get(key);
+      if (last && last.price === ticker.price && last.change24h === ticker.change24h && last.volume24h === ticker.volume24h) {
+        return;
+      }
+      this.sent.set(key, { price: ticker.price, change24h: ticker.change24h, volume24h: ticker.volume24h });
+      changed.push({ symbol, price: ticker.price, change24h: ticker.change24h, volume24h: ticker.volume24h });
+    });
+    if (changed.length === 0) return;
+    this.version++;
+    if (!this.getPlugin()) return;
+    try {
+      await bridgeBatchService.call('WatchlistRanking', 'update', { market, tickers: changed });
+    } catch (e) {
+      console.error('[WatchlistRanking] ❌ update failed:', e);
+    }
+  }
+
+  /** Replace the symbols of a group (e.g. the watchlist under the current filter). */
+  async setGroup(group: string, market: string, symbols: string[]): Promise<void> {
+    const previous = this.groups.get(group);
+    if (previous && previous.length === symbols.length && previous.every((s, i) => s === symbols[i])) return;
+    this.groups.set(group, [...symbols]);
+    this.version++;
+    if (!this.getPlugin()) return;
+    try {
+      await bridgeBatchService.call('WatchlistRanking', 'setGroup', { group, market, symbols });
+    } catch (e) {
+      console.error('[WatchlistRanking] ❌ setGroup failed:', e);
+    }
+  }
+
+  /**
+   * Rows [offset, offset + limit) of a group sorted by `sortKey` (limit of at most 200: page by
+   * the viewport). Call report() / setGroup() first in the same tick to share the bridge message;
+   * with nothing reported since the last identical query, the cached window is returned.
+   */
+  async getWindow(view: string, group: string, market: string, sortKey: RankingSortKey, descending = true, offset = 0, limit = 50): Promise<RankingWindow> {
+    const plugin = this.getPlugin();
+    if (!plugin) return this.sortInJs(group, market, sortKey, descending, offset, limit);
+
+    const query = `${group}|${sortKey}|${descending}|${offset}|${limit}`;
+    const version = this.version;
+    try {
+      let cache = this.views.get(view);
+      if (cache && cache.query === query && cache.servedVersion === version) return cache.window;
+      if (!cache) {
+        // The native side may still remember this view from before a page reload
+        await plugin.resetView({ view });
+        cache = { order: [], query: '', servedVersion: -1, window: { total: 0, offset: 0, symbols: [] } };
+        this.views.set(view, cache);
+      }
+      const result = await bridgeBatchService.call('WatchlistRanking', 'getWindow', {
+        view, group, sortKey, descending, offset, limit, rows: false,
+      });
+      if (result.order) cache.order = result.order;
+      cache.query = query;
+      cache.servedVersion = version;
+      cache.window = { total: result.total, offset: result.offset, symbols: cache.order };
+      return cache.window;
+    } catch (e) {
+      console.error('[WatchlistRanking] ❌ getWindow failed, sorting in JS:', e);
+      this.views.delete(view);
+      return this.sortInJs(group, market, sortKey, descending, offset, limit);
+    }
+  }
+
+  private sortInJs(group: string, market: string, sortKey: RankingSortKey, descending: boolean, offset: number, limit: number): RankingWindow {
+    const value = (ticker: RankingTicker): number => {
+      const v = sortKey === 'price' ? ticker.price
+        : sortKey === 'change' ? ticker.change24h
+        : sortKey === 'volume' ? ticker.volume24h
+        : ticker.price * ticker.volume24h;
+      return Number.isFinite(v) ? v : -Infinity;
+    };
+    const ranked = (this.groups.get(group) ?? [])
+      .map((symbol) => ({ symbol, ticker: this.sent.get(`${market}:${symbol}`) }))
+      .filter((entry): entry is { symbol: string; ticker: RankingTicker } => entry.ticker !== undefined)
+      .sort((a, b) => {
+        const x = value(a.ticker);
+        const y = value(b.ticker);
+        const order = x === y ? 0 : x < y ? -1 : 1;
+        return descending ? -order : order;
+      });
+    return {
+      total: ranked.length,
+      offset,
+      symbols: ranked.slice(offset, offset + limit).map((entry) => entry.symbol),
+    };
+  }
+}
+
+const watchlistRankingService = new WatchlistRankingService();
+export default watchlistRankingService;
@@ -0,0 +1,132 @@
+/**
+ * WebView Pool Service
+ * Switches to content routes (help, blog, news) through the Android WebViewPool plugin: the
+ * page is pre-rendered in a hidden WebView during idle time and brought to the front on tap,
+ * instead of a full navigation of the main WebView. Pooled pages share cookies and storage with
+ * the app but have no Capacitor bridge, so only bridge-free routes belong here. Falls back to a
+ * normal navigation on web, iOS, a cold pool or a device without pool budget.
+ *
+ * A pre-rendered page is not a visit: pooled pages carry POOLED_UA_MARKER in the user agent and
+ * hold back analytics and data fetches (whenShown) until the pool brings them on screen.
+ */
+
+export const POOLABLE_ROUTES = ['/help', '/blog', '/news'];
+// Must match WebViewPool.POOLED_UA_MARKER / SHOWN_EVENT
+export const POOLED_UA_MARKER = 'AlertaPool';
+export const POOL_SHOWN_EVENT = 'webviewpoolshow';
+
+export interface WebViewPoolLatency {
+  counts: number[];
+  count: number;
+  sumMs: number;
+  maxMs: number;
+  p50Ms: number;
+  p95Ms: number;
+}
+
+export interface WebViewPoolStats {
+  enabled: boolean;
+  capacity: number;
+  deviceCapacity: number;
+  pooled: number;
+  showing?: string;
+  warms: number;
+  hits: number;
+  misses: number;
+  evictions: number;
+  staleReloads: number;
+  /** Tap -> first frame of the pooled page */
+  hitLatency: WebViewPoolLatency;
+  /** Tap -> first frame of the same route loaded in the main WebView */
+  missLatency: WebViewPoolLatency;
+}
+
+class WebViewPoolService {
+  private getPlugin(): any | null {
+    if (typeof window === 'undefined') return null;
+    return (window as any).Capacitor?.Plugins?.WebViewPool ?? null;
+  }
+
+  isAvailable(): boolean {
+    return this.getPlugin() !== null;
+  }
+
+  /**
+   * Pre-render routes once the page is idle. Skipped when the user asked to save data.
+   */
+  warmWhenIdle(paths: string[] = POOLABLE_ROUTES): void {
+    const plugin = this.getPlugin();
+    if (!plugin || (navigator as any).connection?.saveData) return;
+    const urls = paths.filter((path) => this.isPoolable(path)).map((path) => this.toUrl(path));
+    const run = () => {
+      plugin.warm({ urls })
+        .then((result: { queued: number; capacity: number }) => {
+          console.log('[WebViewPool] Warming', result.queued, 'route(s), capacity', result.capacity);
+        })
+        .catch((e: unknown) => console.error('[WebViewPool] ❌ warm failed:', e));
+    };
+    if (typeof (window as any).requestIdleCallback === 'function') {
+      (window as any).requestIdleCallback(run, { timeout: 5000 });
+    } else {
+      setTimeout(run, 2000);
+    }
+  }
+
+  /**
+   * Open a route: the pooled copy when it is ready, otherwise `fallback` (e.g. router.push)
+   * or a full navigation. Only from the home page: a pooled page has no history behind it, so
+   * its back button goes to '/', which the pool treats as returning to the main WebView.
+   */
+  async open(path: string, fallback?: () => void): Promise<void> {
+    const plugin = this.getPlugin();
+    if (plugin && this.isPoolable(path) && window.location.pathname === '/') {
+      try {
+        const { shown } = await plugin.show({ url: this.toUrl(path), requestedAt: Date.now() });
+        if (shown) return;
+      } catch (e) {
+        console.error('[WebViewPool] ❌ show failed:', e);
+      }
+    }
+    if (fallback) {
+      fallback();
+    } else {
+      window.location.href = path;
+    }
+  }
+
+  /** True inside a pooled WebView (pre-rendered, possibly not on screen yet). */
+  isPooledPage(): boolean {
+    return typeof navigator !== 'undefined' && navigator.userAgent.includes(POOLED_UA_MARKER);
+  }
+
+  /** Resolves once a pooled page is on screen; right away for any other page. */
+  whenShown(): Promise<void> {
+    if (!this.isPooledPage() || (window as any).__webViewPoolShown) return Promise.resolve();
+    return new Promise((resolve) => {
+      window.addEventListener(POOL_SHOWN_EVENT, () => resolve(), { once: true });
+    });
+  }
+
+  /** Disable to measure the baseline (every switch is a full navigation). */
+  async setEnabled(enabled: boolean): Promise<void> {
+    await this.getPlugin()?.setEnabled({ enabled });
+  }
+
+  async getStats(): Promise<WebViewPoolStats | null> {
+    const plugin = this.getPlugin();
+    if (!plugin) return null;
+    return plugin.getStats();
+  }
+
+  private isPoolable(path: string): boolean {
+    const route = path.split(/[?#]/)[0];
+    return POOLABLE_ROUTES.some((prefix) => route === prefix || route.startsWith(prefix + '/'));
+  }
+
+  private toUrl(path: string): string {
+    return new URL(path, window.location.origin).toString();
+  }
+}
+
+const webViewPoolService = new WebViewPoolService();
+export default webViewPoolService;
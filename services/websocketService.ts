@@ -7,6 +7,7 @@
  */
 
 import { io, Socket } from 'socket.io-client';
+import lifecycleBusService, { ThrottleLevel } from './lifecycleBusService';
 
 interface TickerData {
   symbol: string;
@@ -19,6 +20,22 @@ interface TickerData {
 
 type TickerCallback = (data: Map<string, TickerData>) => void;
 
+// Event pushed by the native NetworkMonitor plugin (Android)
+interface NetworkChangeEvent {
+  type: 'available' | 'lost' | 'changed' | 'status';
+  connected: boolean;
+  networkId: string;
+  transport: 'wifi' | 'cellular' | 'ethernet' | 'vpn' | 'other' | 'none';
+  metered: boolean;
+  bandwidthClass: 'slow' | 'moderate' | 'fast' | 'unknown';
+  timestamp: number;
+}
+
+// Callback rate on metered or slow links (ms); 0 = every message
+const CONSTRAINED_NOTIFY_INTERVAL_MS = 1000;
+// Callback rate while the app is paused but possibly visible (LifecycleBus 'reduced')
+const REDUCED_NOTIFY_INTERVAL_MS = 1000;
+
 // Relay server URL (your Railway backend)
 const RELAY_SERVER_URL = process.env.NEXT_PUBLIC_RELAY_URL || 'https://alertachart-backend-production.up.railway.app';
 
@@ -38,6 +55,126 @@ class WebSocketService {
   private connectionGeneration = 0; // Track connection lifecycle to prevent stale messages
   private useRelay = false; // Whether to use relay server instead of direct Binance
   private directConnectionFailed = false; // Track if direct connection has failed
+  private lastNetworkId: string | null = null; // Native network identity (changes on Wi-Fi <-> cellular handover)
+  private notifyIntervalMs = 0; // Throttle callbacks on metered/slow links
+  private lastNotifyAt = 0;
+  private notifyTimeout: ReturnType<typeof setTimeout> | null = null;
+  private throttleLevel: ThrottleLevel = 'full'; // From LifecycleBus (background/foreground)
+  private hasPendingNotify = false; // Updates received while suspended
+  private networkLost = false; // Sockets closed on purpose until the network returns
+
+  constructor() {
+    if (typeof window !== 'undefined') {
+      const Capacitor = (window as any).Capacitor;
+      if (Capacitor?.Plugins?.NetworkMonitor) {
+        Capacitor.Plugins.NetworkMonitor.addListener('networkChange', this.handleNetworkChange);
+      }
+
+      this.throttleLevel = lifecycleBusService.getLevel();
+      lifecycleBusService.onLevelChange(({ level }) => {
+        this.throttleLevel = level;
+        // Catch up once with the latest prices when we come back to the foreground
+        if (level !== 'suspended' && this.hasPendingNotify) {
+          this.hasPendingNotify = false;
+          this.notifyCallbacks();
+        }
+      });
+    }
+  }
+
+  /**
+   * Native network change (Android): reconnect immediately on a handover instead of
+   * waiting for the close/backoff cycle, and slow the stream down on metered/slow links
+   */
+  private handleNetworkChange = (event: NetworkChangeEvent) => {
+    this.notifyIntervalMs = event.metered || event.bandwidthClass === 'slow' ? CONSTRAINED_NOTIFY_INTERVAL_MS : 0;
+
+    if (event.type === 'lost' || !event.connected) {
+      console.log('[WebSocket] 📴 Network lost, pausing reconnect attempts');
+      // Close the dead sockets quietly so their close handlers don't re-arm the backoff;
+      // subscribers and symbols stay for the reconnect when the network returns
+      this.networkLost = true;
+      this.closeTransports();
+      this.reconnectAttempts = 0;
+      this.lastNetworkId = null;
+      return;
+    }
+    const wasLost = this.networkLost;
+    this.networkLost = false;
+
+    const networkSwitched = this.lastNetworkId !== null && this.lastNetworkId !== event.networkId;
+    const cameBack = this.lastNetworkId === null && (event.type === 'available' || wasLost);
+    this.lastNetworkId = event.networkId;
+
+    if ((networkSwitched || cameBack) && this.symbols.length > 0 && this.callbacks.size > 0) {
+      console.log(`[WebSocket] 📶 Network ${networkSwitched ? 'switched' : 'restored'} (${event.transport}), reconnecting now...`);
+      this.reconnectNow();
+    }
+  };
+
+  /**
+   * Drop the current (possibly dead) socket and reconnect right away, keeping subscribers
+   */
+  private reconnectNow() {
+    if (this.reconnectTimeout) {
+      clearTimeout(this.reconnectTimeout);
+      this.reconnectTimeout = null;
+    }
+
+    const savedSymbols = [...this.symbols];
+    const savedCallbacks = new Set(this.callbacks);
+    const savedMarketType = this.marketType;
+
+    this.forceCloseConnections();
+
+    this.symbols = savedSymbols;
+    this.callbacks = savedCallbacks;
+    this.marketType = savedMarketType;
+    this.reconnectAttempts = 0;
+    this.reconnectDelay = 1000;
+
+    if (this.useRelay) {
+      this.connectToRelay();
+    } else {
+      this.tryDirectConnection();
+    }
+  }
+
+  /**
+   * Notify subscribers, at most once per interval on constrained networks or while paused,
+   * and not at all while suspended
+   */
+  private notifyCallbacks() {
+    // App in background: keep priceData current, deliver once on return
+    if (this.throttleLevel === 'suspended') {
+      this.hasPendingNotify = true;
+      return;
+    }
+
+    const interval = this.throttleLevel === 'reduced'
+      ? Math.max(this.notifyIntervalMs, REDUCED_NOTIFY_INTERVAL_MS)
+      : this.notifyIntervalMs;
+
+    if (interval === 0) {
+      this.callbacks.forEach(callback => {
+        callback(new Map(this.priceData));
+      });
+      return;
+    }
+
+    if (this.notifyTimeout) {
+      return; // Trailing notify already scheduled
+    }
+
+    const wait = Math.max(0, this.lastNotifyAt + interval - Date.now());
+    this.notifyTimeout = setTimeout(() => {
+      this.notifyTimeout = null;
+      this.lastNotifyAt = Date.now();
+      this.callbacks.forEach(callback => {
+        callback(new Map(this.priceData));
+      });
+    }, wait);
+  }
 
   /**
    * Check if user is likely in the US (or has Binance blocked)
@@ -108,6 +245,24 @@ class WebSocketService {
    * Force close all connections
    */
   private forceCloseConnections() {
+    this.closeTransports();
+    this.priceData.clear();
+    this.callbacks.clear();
+  }
+
+  /**
+   * Close both sockets without triggering their reconnect logic, and drop pending timers
+   */
+  private closeTransports() {
+    if (this.reconnectTimeout) {
+      clearTimeout(this.reconnectTimeout);
+      this.reconnectTimeout = null;
+    }
+    if (this.notifyTimeout) {
+      clearTimeout(this.notifyTimeout);
+      this.notifyTimeout = null;
+    }
+
     // Close direct WebSocket
     if (this.ws) {
       this.ws.onclose = null;
@@ -124,10 +279,8 @@ class WebSocketService {
       this.socket = null;
     }
 
-    this.priceData.clear();
     this.isConnected = false;
     this.isConnecting = false;
-    this.callbacks.clear();
   }
 
   /**
@@ -224,9 +377,7 @@ class WebSocketService {
               low24h,
             });
 
-            this.callbacks.forEach(callback => {
-              callback(new Map(this.priceData));
-            });
+            this.notifyCallbacks();
           }
         } catch (error) {
           console.error('[WebSocket] Error parsing message:', error);
@@ -257,6 +408,10 @@ class WebSocketService {
         this.isConnecting = false;
         this.ws = null;
 
+        if (this.networkLost) {
+          return; // Reconnects when the network comes back
+        }
+
         // If direct connection was working, try to reconnect to it
         if (!this.directConnectionFailed && this.symbols.length > 0 && this.callbacks.size > 0 &&
           this.reconnectAttempts < this.maxReconnectAttempts) {
@@ -337,9 +492,7 @@ class WebSocketService {
           });
 
           // Notify callbacks
-          this.callbacks.forEach(callback => {
-            callback(new Map(this.priceData));
-          });
+          this.notifyCallbacks();
         } catch (error) {
           console.error('[WebSocket Relay] Error processing ticker update:', error);
         }
@@ -436,25 +589,7 @@ class WebSocketService {
 
     // Only disconnect if no callbacks left
     if (this.callbacks.size === 0) {
-      if (this.reconnectTimeout) {
-        clearTimeout(this.reconnectTimeout);
-        this.reconnectTimeout = null;
-      }
-
-      // Close direct WebSocket
-      if (this.ws) {
-        this.ws.close();
-        this.ws = null;
-      }
-
-      // Close Socket.io connection
-      if (this.socket) {
-        this.socket.disconnect();
-        this.socket = null;
-      }
-
-      this.isConnected = false;
-      this.isConnecting = false;
+      this.closeTransports();
       this.symbols = [];
       this.priceData.clear();
       console.log('[WebSocket] Disconnected');
@@ -24,6 +24,10 @@ class Aggregator {
   private tickInterval: number | null = null; // Interval for periodic ticks
   private isInitialized: boolean = false; // CRITICAL: Don't process trades until initialized
   private pendingTrades: Trade[] = []; // Buffer trades until initialized
+  // Live 1m candle for on-device resampling; the minute in progress at init is skipped
+  // because its trades before init are unknown ('minuteGap' asks for it to be re-downloaded)
+  private minuteBar: Bar | null = null;
+  private skipMinute: number = 0;
 
   constructor() {
     this.initializeExchanges();
@@ -87,6 +91,12 @@ class Aggregator {
 
       // Emit tick with current bar state (even if no new trades)
       this.emit('tick', cloneBar(this.activeBar));
+
+      // Roll the live minute over on quiet pairs too, so local 1m coverage has no holes
+      this.updateMinute(now, this.activeBar.close, 0, 'buy');
+      if (this.minuteBar) {
+        this.emit('minute', cloneBar(this.minuteBar));
+      }
     }, 1000) as unknown as number; // Update every second
   }
 
@@ -129,11 +139,36 @@ class Aggregator {
         trade.liquidation
       );
 
+      this.updateMinute(trade.timestamp, trade.price, trade.size, trade.side, trade.liquidation);
+
       // Emit partial bar update
       this.emit('tick', cloneBar(this.activeBar));
     }
   }
 
+  /**
+   * Merge a trade (size 0 = just a clock tick) into the live 1m candle
+   */
+  private updateMinute(timestamp: number, price: number, size: number, side: 'buy' | 'sell', liquidation = false) {
+    const minute = floorTimestampToTimeframe(timestamp, 60);
+    if (minute === this.skipMinute) {
+      return;
+    }
+
+    if (!this.minuteBar || this.minuteBar.time !== minute) {
+      const previousClose = this.minuteBar?.close || price;
+      this.minuteBar = createBar(minute, 60);
+      this.minuteBar.open = previousClose;
+      this.minuteBar.high = previousClose;
+      this.minuteBar.low = previousClose;
+      this.minuteBar.close = previousClose;
+    }
+
+    if (size > 0) {
+      mergeTradeIntoBar(this.minuteBar, price, size, side, liquidation);
+    }
+  }
+
   async connect(data: { exchange: string; pair: string }) {
     const exchange = this.exchanges.get(data.exchange);
     if (!exchange) {
@@ -181,6 +216,10 @@ class Aggregator {
    * CRITICAL: This MUST be called before any trades are processed
    */
   initActiveBar(bar: Bar | null) {
+    this.minuteBar = null;
+    this.skipMinute = floorTimestampToTimeframe(Date.now(), 60);
+    this.emit('minuteGap', { time: this.skipMinute });
+
     if (bar) {
       // Use historical bar's OHLC - this is the authoritative source
       this.activeBar = { ...bar }; // Clone the bar